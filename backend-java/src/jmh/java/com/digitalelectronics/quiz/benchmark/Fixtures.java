@@ -0,0 +1,109 @@
+package com.digitalelectronics.quiz.benchmark;
+
+import com.digitalelectronics.quiz.model.Profile;
+import com.digitalelectronics.quiz.model.Question;
+import com.digitalelectronics.quiz.model.Quiz;
+import com.digitalelectronics.quiz.model.QuizAttempt;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Deterministic test data shared by the benchmarks. Everything is derived from a
+ * fixed seed so runs on different commits see identical inputs.
+ */
+public final class Fixtures {
+
+    public static final long SEED = 42L;
+
+    private Fixtures() {
+    }
+
+    public static List<Profile> profiles(int count) {
+        Random random = new Random(SEED);
+        LocalDateTime now = LocalDateTime.of(2026, 1, 15, 12, 0);
+        List<Profile> profiles = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Profile profile = new Profile();
+            profile.setId(new UUID(random.nextLong(), random.nextLong()));
+            profile.setEmail("user" + i + "@example.com");
+            profile.setFullName("User " + i);
+            profile.setTotalPoints(random.nextInt(10_000));
+            profile.setQuizzesCompleted(random.nextInt(200));
+            profile.setCurrentStreak(random.nextInt(30));
+            profile.setLongestStreak(30 + random.nextInt(30));
+            profile.setLastQuizDate(now.minusDays(random.nextInt(3)));
+            profile.setCreatedAt(now.minusDays(100));
+            profile.setUpdatedAt(now);
+            profiles.add(profile);
+        }
+        return profiles;
+    }
+
+    public static Quiz quiz() {
+        Quiz quiz = new Quiz();
+        quiz.setId(new UUID(SEED, 1));
+        quiz.setTitle("Karnaugh Maps and Boolean Simplification");
+        quiz.setDescription("Simplify sum-of-products expressions using 3- and 4-variable K-maps.");
+        quiz.setCategory("boolean-algebra");
+        quiz.setDifficulty("intermediate");
+        quiz.setTimeLimit(900);
+        quiz.setPassingScore(70);
+        quiz.setTotalQuestions(20);
+        quiz.setIsPublished(true);
+        quiz.setCreatedBy(new UUID(SEED, 2));
+        quiz.setCreatedAt(LocalDateTime.of(2026, 1, 1, 9, 0));
+        quiz.setUpdatedAt(LocalDateTime.of(2026, 1, 2, 9, 0));
+        return quiz;
+    }
+
+    public static List<Question> questions(Quiz quiz, int count) {
+        List<Question> questions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Question question = new Question();
+            question.setId(new UUID(SEED, 100 + i));
+            question.setQuizId(quiz.getId());
+            question.setQuestionText("Which expression is the minimal SOP form of F(A,B,C) = Σm(" + i + ", 3, 5, 7)?");
+            question.setQuestionType("multiple_choice");
+            question.setOptions(List.of("A + BC", "AB + C", "A'B + C", "C"));
+            question.setCorrectAnswer("AB + C");
+            question.setExplanation("Group the adjacent minterms in the K-map and drop the changing variable.");
+            question.setPoints(10);
+            question.setOrderNumber(i + 1);
+            question.setCreatedAt(LocalDateTime.of(2026, 1, 1, 9, 0));
+            questions.add(question);
+        }
+        return questions;
+    }
+
+    public static QuizAttempt attempt(List<Question> questions) {
+        Random random = new Random(SEED);
+        Map<String, String> answers = new LinkedHashMap<>();
+        int correct = 0;
+        for (Question question : questions) {
+            String answer = question.getOptions().get(random.nextInt(question.getOptions().size()));
+            answers.put(question.getId().toString(), answer);
+            if (answer.equals(question.getCorrectAnswer())) {
+                correct++;
+            }
+        }
+        QuizAttempt attempt = new QuizAttempt();
+        attempt.setId(new UUID(SEED, 3));
+        attempt.setUserId(new UUID(SEED, 4));
+        attempt.setQuizId(questions.isEmpty() ? new UUID(SEED, 1) : questions.get(0).getQuizId());
+        attempt.setScore(correct * 10);
+        attempt.setTotalQuestions(questions.size());
+        attempt.setCorrectAnswers(correct);
+        attempt.setTimeTaken(600);
+        attempt.setAnswers(answers);
+        attempt.setCompleted(true);
+        attempt.setCompletedAt(LocalDateTime.of(2026, 1, 15, 12, 10));
+        attempt.setCreatedAt(LocalDateTime.of(2026, 1, 15, 12, 0));
+        return attempt;
+    }
+}
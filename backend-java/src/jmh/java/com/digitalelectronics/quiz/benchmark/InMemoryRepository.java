@@ -0,0 +1,92 @@
+package com.digitalelectronics.quiz.benchmark;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Map-backed stand-in for a Spring Data repository interface, so services can be
+ * benchmarked without a database. The common CRUD methods are implemented here;
+ * derived finders are registered per benchmark with {@link #on}.
+ */
+public final class InMemoryRepository<T, ID> {
+
+    private final Map<ID, T> rows = new ConcurrentHashMap<>();
+    private final Map<String, Function<Object[], Object>> finders = new HashMap<>();
+    private final Function<T, ID> idOf;
+
+    private InMemoryRepository(Function<T, ID> idOf) {
+        this.idOf = idOf;
+    }
+
+    public static <T, ID> InMemoryRepository<T, ID> backedBy(Function<T, ID> idOf) {
+        return new InMemoryRepository<>(idOf);
+    }
+
+    public InMemoryRepository<T, ID> on(String methodName, Function<Object[], Object> finder) {
+        finders.put(methodName, finder);
+        return this;
+    }
+
+    public Map<ID, T> rows() {
+        return rows;
+    }
+
+    public void put(T row) {
+        rows.put(idOf.apply(row), row);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <R> R as(Class<R> repositoryInterface) {
+        return (R) Proxy.newProxyInstance(
+            repositoryInterface.getClassLoader(),
+            new Class<?>[] {repositoryInterface},
+            (proxy, method, args) -> invoke(method, args));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object invoke(Method method, Object[] args) {
+        Function<Object[], Object> finder = finders.get(method.getName());
+        if (finder != null) {
+            return finder.apply(args);
+        }
+        switch (method.getName()) {
+            case "save":
+                put((T) args[0]);
+                return args[0];
+            case "saveAll": {
+                List<T> saved = new ArrayList<>();
+                for (T row : (Iterable<T>) args[0]) {
+                    put(row);
+                    saved.add(row);
+                }
+                return saved;
+            }
+            case "findById":
+                return Optional.ofNullable(rows.get((ID) args[0]));
+            case "existsById":
+                return rows.containsKey((ID) args[0]);
+            case "findAll":
+                return new ArrayList<>(rows.values());
+            case "count":
+                return (long) rows.size();
+            case "deleteById":
+                rows.remove((ID) args[0]);
+                return null;
+            case "hashCode":
+                return System.identityHashCode(this);
+            case "equals":
+                return args[0] == this;
+            case "toString":
+                return "InMemoryRepository" + rows.keySet();
+            default:
+                throw new UnsupportedOperationException(method.getName() + " is not stubbed");
+        }
+    }
+}
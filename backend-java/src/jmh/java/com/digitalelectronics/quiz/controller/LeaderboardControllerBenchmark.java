@@ -0,0 +1,67 @@
+package com.digitalelectronics.quiz.controller;
+
+import com.digitalelectronics.quiz.benchmark.Fixtures;
+import com.digitalelectronics.quiz.benchmark.InMemoryRepository;
+import com.digitalelectronics.quiz.model.Profile;
+import com.digitalelectronics.quiz.repository.ProfileRepository;
+import com.digitalelectronics.quiz.service.ProfileService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LeaderboardController list handling for different table sizes. The stand-in repository
+ * returns a fresh copy of the requested page per call, like a real query would.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class LeaderboardControllerBenchmark {
+
+    @Param({"100", "10000"})
+    public int profiles;
+
+    @Param({"10"})
+    public int limit;
+
+    private LeaderboardController controller;
+
+    @Setup
+    public void setup() {
+        List<Profile> byPoints = new ArrayList<>(Fixtures.profiles(profiles));
+        byPoints.sort(Comparator.comparing(Profile::getTotalPoints).reversed());
+        List<Profile> byStreak = new ArrayList<>(byPoints);
+        byStreak.sort(Comparator.comparing(Profile::getCurrentStreak).reversed());
+
+        InMemoryRepository<Profile, UUID> repository = InMemoryRepository.<Profile, UUID>backedBy(Profile::getId)
+            .on("findTopByOrderByTotalPointsDesc", args -> page(byPoints, (Pageable) args[0]))
+            .on("findTopByOrderByCurrentStreakDesc", args -> page(byStreak, (Pageable) args[0]));
+        controller = new LeaderboardController(new ProfileService(repository.as(ProfileRepository.class), event -> { }));
+    }
+
+    private static List<Profile> page(List<Profile> sorted, Pageable page) {
+        int from = (int) Math.min(page.getOffset(), sorted.size());
+        int to = Math.min(from + page.getPageSize(), sorted.size());
+        return new ArrayList<>(sorted.subList(from, to));
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, Object>> topByPoints() {
+        return controller.getTopLeaderboard(limit);
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, Object>> topByStreak() {
+        return controller.getStreakLeaderboard(limit);
+    }
+}
@@ -0,0 +1,61 @@
+package com.digitalelectronics.quiz.model;
+
+import com.digitalelectronics.quiz.benchmark.Fixtures;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson (de)serialization of the entities returned by the API, using an ObjectMapper
+ * configured the way Spring Boot configures the one behind the controllers.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class JsonSerializationBenchmark {
+
+    @Param({"20"})
+    public int questionCount;
+
+    private ObjectMapper objectMapper;
+    private Quiz quiz;
+    private List<Question> questions;
+    private QuizAttempt attempt;
+    private String attemptJson;
+
+    @Setup
+    public void setup() throws JsonProcessingException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        quiz = Fixtures.quiz();
+        questions = Fixtures.questions(quiz, questionCount);
+        attempt = Fixtures.attempt(questions);
+        attemptJson = objectMapper.writeValueAsString(attempt);
+    }
+
+    @Benchmark
+    public String writeQuiz() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(quiz);
+    }
+
+    @Benchmark
+    public String writeQuestions() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(questions);
+    }
+
+    @Benchmark
+    public String writeAttempt() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(attempt);
+    }
+
+    @Benchmark
+    public QuizAttempt readAttempt() throws JsonProcessingException {
+        return objectMapper.readValue(attemptJson, QuizAttempt.class);
+    }
+}
@@ -0,0 +1,68 @@
+package com.digitalelectronics.quiz.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One adaptive step: pick the most informative unused item and re-estimate ability
+ * after the answer, over pools of different sizes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class AdaptiveSelectionBenchmark {
+
+    @Param({"20", "200"})
+    public int poolSize;
+
+    /** Responses already recorded when the next item is picked. */
+    @Param({"5", "19"})
+    public int answered;
+
+    private ItemPool pool;
+    private boolean[] used;
+    private int[] items;
+    private boolean[] correct;
+    private double theta;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        List<UUID> ids = new ArrayList<>(poolSize);
+        double[] a = new double[poolSize];
+        double[] b = new double[poolSize];
+        for (int i = 0; i < poolSize; i++) {
+            ids.add(new UUID(random.nextLong(), random.nextLong()));
+            a[i] = 0.5 + random.nextDouble() * 1.5;
+            b[i] = random.nextGaussian();
+        }
+        pool = new ItemPool(UUID.randomUUID(), ids, a, b, new boolean[poolSize]);
+        used = new boolean[poolSize];
+        items = new int[poolSize];
+        correct = new boolean[poolSize];
+        int count = Math.min(answered, poolSize - 1);
+        for (int i = 0; i < count; i++) {
+            used[i] = true;
+            items[i] = i;
+            correct[i] = random.nextBoolean();
+        }
+        theta = ItemResponseModel.estimateAbility(a, b, items, correct, count);
+    }
+
+    @Benchmark
+    public double selectAndEstimate() {
+        int next = pool.selectNext(theta, used);
+        int count = Math.min(answered, poolSize - 1);
+        items[count] = next;
+        correct[count] = true;
+        return ItemResponseModel.estimateAbility(pool.discrimination(), pool.difficulty(), items, correct, count + 1);
+    }
+}
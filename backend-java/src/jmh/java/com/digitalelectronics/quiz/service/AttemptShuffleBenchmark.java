@@ -0,0 +1,73 @@
+package com.digitalelectronics.quiz.service;
+
+import com.digitalelectronics.quiz.model.Question;
+import com.digitalelectronics.quiz.model.Quiz;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost the per-attempt shuffle adds to quiz start: presenting the cached questions in
+ * their stored order versus in the attempt's order with shuffled options, and mapping
+ * a shown option index back when grading.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class AttemptShuffleBenchmark {
+
+    @Param({"10", "50"})
+    public int questions;
+
+    private AnswerKey answerKey;
+    private AnswerKey.Item item;
+    private long seed;
+
+    @Setup
+    public void setup() {
+        Quiz quiz = new Quiz();
+        quiz.setId(UUID.randomUUID());
+        List<Question> list = new ArrayList<>(questions);
+        for (int i = 0; i < questions; i++) {
+            Question question = new Question();
+            question.setId(UUID.randomUUID());
+            question.setQuizId(quiz.getId());
+            question.setQuestionText("Question " + i);
+            question.setQuestionType("multiple_choice");
+            question.setOptions(List.of("Option A" + i, "Option B" + i, "Option C" + i, "Option D" + i));
+            question.setCorrectAnswer("Option A" + i);
+            question.setPoints(10);
+            question.setOrderNumber(i);
+            list.add(question);
+        }
+        answerKey = new AnswerKey(quiz, list);
+        item = answerKey.items().get(questions / 2);
+        seed = AttemptShuffle.seed(UUID.randomUUID());
+    }
+
+    @Benchmark
+    public List<AttemptShuffle.Presented> presentInStoredOrder() {
+        List<AnswerKey.Item> items = answerKey.items();
+        List<AttemptShuffle.Presented> presented = new ArrayList<>(items.size());
+        for (AnswerKey.Item each : items) {
+            presented.add(new AttemptShuffle.Presented(each.questionId(), each.questionText(), each.questionType(), each.options(), each.points()));
+        }
+        return presented;
+    }
+
+    @Benchmark
+    public List<AttemptShuffle.Presented> presentShuffled() {
+        return AttemptShuffle.questions(answerKey, seed);
+    }
+
+    @Benchmark
+    public String invertOption() {
+        return AttemptShuffle.originalOption(item, seed, 2);
+    }
+}
@@ -0,0 +1,58 @@
+package com.digitalelectronics.quiz.service;
+
+import com.digitalelectronics.quiz.benchmark.Fixtures;
+import com.digitalelectronics.quiz.benchmark.InMemoryRepository;
+import com.digitalelectronics.quiz.model.Profile;
+import com.digitalelectronics.quiz.model.User;
+import com.digitalelectronics.quiz.repository.ProfileRepository;
+import com.digitalelectronics.quiz.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue and validation in AuthService. BCrypt is deliberately left out: it is
+ * tuned to be slow and would drown out changes to the token code.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class AuthServiceBenchmark {
+
+    private AuthService authService;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setup() {
+        user = new User();
+        user.setId(new UUID(Fixtures.SEED, 10));
+        user.setEmail("student@example.com");
+        user.setPasswordHash("$2a$10$abcdefghijklmnopqrstuv");
+        user.setFullName("Student");
+        user.setCreatedAt(LocalDateTime.of(2026, 1, 1, 0, 0));
+
+        InMemoryRepository<User, UUID> users = InMemoryRepository.backedBy(User::getId);
+        users.put(user);
+        InMemoryRepository<Profile, UUID> profiles = InMemoryRepository.backedBy(Profile::getId);
+        authService = new AuthService(users.as(UserRepository.class), profiles.as(ProfileRepository.class),
+            new SimpleMeterRegistry());
+        token = authService.generateToken(user);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return authService.generateToken(user);
+    }
+
+    @Benchmark
+    public User validateToken() {
+        return authService.validateToken(token);
+    }
+}
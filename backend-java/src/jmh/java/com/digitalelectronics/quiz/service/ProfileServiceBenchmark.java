@@ -0,0 +1,55 @@
+package com.digitalelectronics.quiz.service;
+
+import com.digitalelectronics.quiz.benchmark.Fixtures;
+import com.digitalelectronics.quiz.benchmark.InMemoryRepository;
+import com.digitalelectronics.quiz.model.Profile;
+import com.digitalelectronics.quiz.repository.ProfileRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ProfileService.updateStats, including the streak calculation, against an in-memory repository.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ProfileServiceBenchmark {
+
+    /** How the last quiz date relates to today, which selects the streak branch taken. */
+    @Param({"consecutive-day", "same-day", "lapsed"})
+    public String streakCase;
+
+    private ProfileService profileService;
+    private Profile profile;
+    private UUID userId;
+    private LocalDateTime lastQuizDate;
+
+    @Setup
+    public void setup() {
+        InMemoryRepository<Profile, UUID> repository = InMemoryRepository.backedBy(Profile::getId);
+        profile = Fixtures.profiles(1).get(0);
+        repository.put(profile);
+        userId = profile.getId();
+        profileService = new ProfileService(repository.as(ProfileRepository.class), event -> { });
+
+        LocalDateTime now = LocalDateTime.now();
+        lastQuizDate = switch (streakCase) {
+            case "consecutive-day" -> now.minusDays(1);
+            case "same-day" -> now;
+            default -> now.minusDays(5);
+        };
+    }
+
+    @Benchmark
+    public Profile updateStats() {
+        profile.setLastQuizDate(lastQuizDate);
+        profileService.updateStats(userId, 80, true, LocalDateTime.now());
+        return profile;
+    }
+}
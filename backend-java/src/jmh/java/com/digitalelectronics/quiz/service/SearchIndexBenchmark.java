@@ -0,0 +1,76 @@
+package com.digitalelectronics.quiz.service;
+
+import com.digitalelectronics.quiz.dto.SearchHit;
+import com.digitalelectronics.quiz.model.Question;
+import com.digitalelectronics.quiz.model.Quiz;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One ranked search over a synthetic catalog: an exact two-word query, a prefix typed
+ * so far and a misspelling that only matches through the typo path.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SearchIndexBenchmark {
+
+    private static final String[] WORDS = {
+        "flip-flop", "latch", "counter", "register", "multiplexer", "demultiplexer", "decoder", "encoder",
+        "karnaugh", "map", "boolean", "algebra", "de", "morgan", "theorem", "nand", "nor", "xor", "gate",
+        "adder", "subtractor", "comparator", "clock", "edge", "triggered", "synchronous", "asynchronous",
+        "state", "machine", "moore", "mealy", "truth", "table", "minterm", "maxterm", "simplify", "logic",
+        "circuit", "binary", "hexadecimal", "octal", "complement", "parity", "shift", "ripple", "carry"};
+
+    @Param({"200", "1000"})
+    public int quizzes;
+
+    @Param({"flip-flop counter", "multipl", "karnagh map"})
+    public String query;
+
+    private SearchIndex index;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        List<SearchIndex.Document> documents = new ArrayList<>(quizzes);
+        for (int q = 0; q < quizzes; q++) {
+            Quiz quiz = new Quiz();
+            quiz.setId(new UUID(random.nextLong(), random.nextLong()));
+            quiz.setTitle(sentence(random, 3));
+            quiz.setCategory(WORDS[random.nextInt(WORDS.length)]);
+            quiz.setDifficulty("medium");
+            quiz.setDescription(sentence(random, 12));
+            List<Question> questions = new ArrayList<>(20);
+            for (int i = 0; i < 20; i++) {
+                Question question = new Question();
+                question.setId(new UUID(random.nextLong(), random.nextLong()));
+                question.setQuestionText(sentence(random, 10) + " " + random.nextInt(1000));
+                questions.add(question);
+            }
+            documents.add(SearchIndex.Document.of(quiz, questions));
+        }
+        index = SearchIndex.build(documents, 50);
+    }
+
+    @Benchmark
+    public List<SearchHit> search() {
+        return index.search(query, 20);
+    }
+
+    private static String sentence(Random random, int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            text.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        return text.toString().trim();
+    }
+}
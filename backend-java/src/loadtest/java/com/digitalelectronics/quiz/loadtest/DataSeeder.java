@@ -0,0 +1,168 @@
+package com.digitalelectronics.quiz.loadtest;
+
+import com.digitalelectronics.quiz.model.Profile;
+import com.digitalelectronics.quiz.model.Question;
+import com.digitalelectronics.quiz.model.Quiz;
+import com.digitalelectronics.quiz.model.QuizAttempt;
+import com.digitalelectronics.quiz.model.User;
+import com.digitalelectronics.quiz.repository.ProfileRepository;
+import com.digitalelectronics.quiz.repository.QuestionRepository;
+import com.digitalelectronics.quiz.repository.QuizAttemptRepository;
+import com.digitalelectronics.quiz.repository.QuizRepository;
+import com.digitalelectronics.quiz.repository.UserRepository;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Seeds users, profiles, quizzes, questions and completed attempts straight through the
+ * repositories. All users share one password so only a single BCrypt hash is computed.
+ */
+class DataSeeder {
+
+    static final String PASSWORD = "loadtest-password";
+
+    private static final String[] CATEGORIES = {"number-systems", "boolean-algebra", "logic-gates", "k-maps", "flip-flops"};
+    private static final String[] DIFFICULTIES = {"beginner", "intermediate", "advanced"};
+
+    private final ApplicationContext context;
+    private final LoadTestConfig config;
+    private final Random random;
+
+    DataSeeder(ApplicationContext context, LoadTestConfig config) {
+        this.context = context;
+        this.config = config;
+        this.random = new Random(config.seed());
+    }
+
+    SeedData seed() {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        ProfileRepository profileRepository = context.getBean(ProfileRepository.class);
+        QuizRepository quizRepository = context.getBean(QuizRepository.class);
+        QuestionRepository questionRepository = context.getBean(QuestionRepository.class);
+        QuizAttemptRepository attemptRepository = context.getBean(QuizAttemptRepository.class);
+
+        String passwordHash = new BCryptPasswordEncoder().encode(PASSWORD);
+        LocalDateTime now = LocalDateTime.now();
+
+        List<User> users = new ArrayList<>(config.users());
+        for (int i = 0; i < config.users(); i++) {
+            User user = new User();
+            user.setEmail("loadtest-" + i + "@example.com");
+            user.setPasswordHash(passwordHash);
+            user.setFullName("Load Test " + i);
+            user.setIsActive(true);
+            user.setEmailVerified(true);
+            user.setCreatedAt(now);
+            user.setUpdatedAt(now);
+            users.add(user);
+        }
+        users = userRepository.saveAll(users);
+
+        List<Profile> profiles = new ArrayList<>(users.size());
+        for (User user : users) {
+            Profile profile = new Profile();
+            profile.setId(user.getId());
+            profile.setEmail(user.getEmail());
+            profile.setFullName(user.getFullName());
+            profile.setTotalPoints(random.nextInt(5_000));
+            profile.setQuizzesCompleted(random.nextInt(50));
+            profile.setCurrentStreak(random.nextInt(10));
+            profile.setLongestStreak(10 + random.nextInt(10));
+            profile.setLastQuizDate(now.minusDays(random.nextInt(3)));
+            profile.setCreatedAt(now);
+            profile.setUpdatedAt(now);
+            profiles.add(profile);
+        }
+        profileRepository.saveAll(profiles);
+
+        UUID author = users.get(0).getId();
+        List<Quiz> quizzes = new ArrayList<>(config.quizzes());
+        for (int i = 0; i < config.quizzes(); i++) {
+            Quiz quiz = new Quiz();
+            quiz.setTitle("Load Test Quiz " + i);
+            quiz.setDescription("Synthetic quiz " + i + " for capacity planning");
+            quiz.setCategory(CATEGORIES[i % CATEGORIES.length]);
+            quiz.setDifficulty(DIFFICULTIES[i % DIFFICULTIES.length]);
+            quiz.setTimeLimit(600);
+            quiz.setPassingScore(70);
+            quiz.setTotalQuestions(config.questionsPerQuiz());
+            quiz.setIsPublished(true);
+            quiz.setCreatedBy(author);
+            quiz.setCreatedAt(now);
+            quiz.setUpdatedAt(now);
+            quizzes.add(quiz);
+        }
+        quizzes = quizRepository.saveAll(quizzes);
+
+        Map<UUID, List<Question>> questionsByQuiz = new HashMap<>();
+        for (Quiz quiz : quizzes) {
+            List<Question> questions = new ArrayList<>(config.questionsPerQuiz());
+            for (int i = 0; i < config.questionsPerQuiz(); i++) {
+                Question question = new Question();
+                question.setQuizId(quiz.getId());
+                question.setQuestionText("Question " + i + " of " + quiz.getTitle());
+                question.setQuestionType("multiple_choice");
+                question.setOptions(List.of("A", "B", "C", "D"));
+                question.setCorrectAnswer("B");
+                question.setExplanation("B is correct");
+                question.setPoints(10);
+                question.setOrderNumber(i + 1);
+                question.setCreatedAt(now);
+                questions.add(question);
+            }
+            questionsByQuiz.put(quiz.getId(), questionRepository.saveAll(questions));
+        }
+
+        List<QuizAttempt> attempts = new ArrayList<>();
+        for (int i = 0; i < config.seedAttempts(); i++) {
+            Quiz quiz = quizzes.get(random.nextInt(quizzes.size()));
+            attempts.add(completedAttempt(users.get(random.nextInt(users.size())).getId(), quiz.getId(),
+                questionsByQuiz.get(quiz.getId()), now.minusDays(random.nextInt(90))));
+            if (attempts.size() == 1000) {
+                attemptRepository.saveAll(attempts);
+                attempts.clear();
+            }
+        }
+        attemptRepository.saveAll(attempts);
+
+        return new SeedData(
+            users.stream().map(User::getId).toList(),
+            users.stream().map(User::getEmail).toList(),
+            quizzes.stream().map(Quiz::getId).toList(),
+            questionsByQuiz);
+    }
+
+    private QuizAttempt completedAttempt(UUID userId, UUID quizId, List<Question> questions, LocalDateTime when) {
+        Map<String, String> answers = new HashMap<>();
+        int correct = 0;
+        for (Question question : questions) {
+            String answer = question.getOptions().get(random.nextInt(question.getOptions().size()));
+            answers.put(question.getId().toString(), answer);
+            if (answer.equals(question.getCorrectAnswer())) {
+                correct++;
+            }
+        }
+        QuizAttempt attempt = new QuizAttempt();
+        attempt.setUserId(userId);
+        attempt.setQuizId(quizId);
+        attempt.setScore(correct * 10);
+        attempt.setTotalQuestions(questions.size());
+        attempt.setCorrectAnswers(correct);
+        attempt.setTimeTaken(60 + random.nextInt(500));
+        attempt.setAnswers(answers);
+        attempt.setCompleted(true);
+        attempt.setCompletedAt(when);
+        attempt.setCreatedAt(when);
+        return attempt;
+    }
+
+    record SeedData(List<UUID> userIds, List<String> emails, List<UUID> quizIds, Map<UUID, List<Question>> questions) {}
+}
@@ -0,0 +1,64 @@
+package com.digitalelectronics.quiz.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint latency histograms and error counts. Recording is lock-free; measurements
+ * taken before {@link #reset()} (the warm-up phase) are discarded.
+ */
+class LatencyRecorder {
+
+    private static final long MAX_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    void record(String endpoint, long latencyNanos, boolean success) {
+        Endpoint stats = endpoints.computeIfAbsent(endpoint, key -> new Endpoint());
+        stats.recorder.recordValue(Math.min(latencyNanos, MAX_TRACKABLE_NANOS));
+        if (!success) {
+            stats.errors.increment();
+        }
+    }
+
+    void reset() {
+        endpoints.values().forEach(stats -> {
+            stats.recorder.reset();
+            stats.errors.reset();
+        });
+    }
+
+    Map<String, Result> results(double elapsedSeconds) {
+        Map<String, Result> results = new TreeMap<>();
+        endpoints.forEach((endpoint, stats) -> {
+            Histogram histogram = stats.recorder.getIntervalHistogram();
+            long count = histogram.getTotalCount();
+            results.put(endpoint, new Result(
+                count,
+                stats.errors.sum(),
+                count / elapsedSeconds,
+                millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue())));
+        });
+        return results;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    record Result(long requests, long errors, double throughput, double p50Ms, double p99Ms, double p999Ms, double maxMs) {}
+
+    private static class Endpoint {
+        final Recorder recorder = new Recorder(MAX_TRACKABLE_NANOS, 3);
+        final LongAdder errors = new LongAdder();
+    }
+}
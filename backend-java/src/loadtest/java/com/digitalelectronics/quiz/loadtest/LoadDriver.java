@@ -0,0 +1,179 @@
+package com.digitalelectronics.quiz.loadtest;
+
+import com.digitalelectronics.quiz.loadtest.LoadTestConfig.Scenario;
+import com.digitalelectronics.quiz.model.Question;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closed-loop driver: each worker thread repeatedly picks a scenario from the weighted
+ * mix and runs it to completion, recording the latency of every HTTP call by route.
+ */
+class LoadDriver {
+
+    private final String baseUrl;
+    private final DataSeeder.SeedData data;
+    private final LoadTestConfig config;
+    private final LatencyRecorder recorder;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Scenario[] scenarios;
+    private final int[] cumulativeWeights;
+
+    LoadDriver(String baseUrl, DataSeeder.SeedData data, LoadTestConfig config, LatencyRecorder recorder) {
+        this.baseUrl = baseUrl;
+        this.data = data;
+        this.config = config;
+        this.recorder = recorder;
+        this.client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+        this.scenarios = config.mix().keySet().toArray(new Scenario[0]);
+        this.cumulativeWeights = new int[scenarios.length];
+        int total = 0;
+        for (int i = 0; i < scenarios.length; i++) {
+            total += config.mix().get(scenarios[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    void run(Duration duration) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService workers = Executors.newFixedThreadPool(config.threads());
+        for (int i = 0; i < config.threads(); i++) {
+            workers.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    try {
+                        runScenario(pickScenario());
+                        if (config.thinkTimeMillis() > 0) {
+                            Thread.sleep(config.thinkTimeMillis());
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    } catch (Exception e) {
+                        recorder.record("client-error " + e.getClass().getSimpleName(), 0, false);
+                    }
+                }
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS);
+    }
+
+    private Scenario pickScenario() {
+        int roll = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return scenarios[i];
+            }
+        }
+        return scenarios[scenarios.length - 1];
+    }
+
+    private void runScenario(Scenario scenario) throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        switch (scenario) {
+            case LOGIN -> {
+                String email = data.emails().get(random.nextInt(data.emails().size()));
+                send("POST /auth/login", post("/auth/login", Map.of("email", email, "password", DataSeeder.PASSWORD)));
+            }
+            case BROWSE -> {
+                UUID quizId = randomQuiz();
+                send("GET /quiz/published", get("/quiz/published"));
+                send("GET /quiz/{id}", get("/quiz/" + quizId));
+                send("GET /quiz/{quizId}/questions", get("/quiz/" + quizId + "/questions"));
+            }
+            case ATTEMPT -> runAttempt();
+            case LEADERBOARD -> {
+                if (random.nextInt(4) == 0) {
+                    send("GET /leaderboard/streaks", get("/leaderboard/streaks?limit=10"));
+                } else {
+                    send("GET /leaderboard/top", get("/leaderboard/top?limit=10"));
+                }
+            }
+        }
+    }
+
+    private void runAttempt() throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        UUID userId = data.userIds().get(random.nextInt(data.userIds().size()));
+        UUID quizId = randomQuiz();
+        List<Question> questions = data.questions().get(quizId);
+
+        HttpResponse<String> started = send("POST /attempts/start", post("/attempts/start",
+            Map.of("userId", userId, "quizId", quizId, "totalQuestions", questions.size())));
+        if (started == null || started.statusCode() / 100 != 2) {
+            return;
+        }
+        JsonNode attempt = objectMapper.readTree(started.body());
+        String attemptId = attempt.get("id").asText();
+
+        Map<String, String> answers = new HashMap<>();
+        int correct = 0;
+        for (Question question : questions) {
+            String answer = question.getOptions().get(random.nextInt(question.getOptions().size()));
+            answers.put(question.getId().toString(), answer);
+            if (answer.equals(question.getCorrectAnswer())) {
+                correct++;
+            }
+        }
+        Map<String, Object> body = Map.of(
+            "answers", answers,
+            "score", correct * 10,
+            "correctAnswers", correct,
+            "timeTaken", 30 + random.nextInt(300));
+        send("PUT /attempts/{attemptId}/submit", request("/attempts/" + attemptId + "/submit")
+            .header("Content-Type", "application/json")
+            .header("Idempotency-Key", UUID.randomUUID().toString())
+            .PUT(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+            .build());
+    }
+
+    private UUID randomQuiz() {
+        return data.quizIds().get(ThreadLocalRandom.current().nextInt(data.quizIds().size()));
+    }
+
+    private HttpResponse<String> send(String endpoint, HttpRequest request) throws InterruptedException {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            recorder.record(endpoint, System.nanoTime() - start, response.statusCode() / 100 == 2);
+            return response;
+        } catch (java.io.IOException e) {
+            recorder.record(endpoint, System.nanoTime() - start, false);
+            return null;
+        }
+    }
+
+    private HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+
+    private HttpRequest post(String path, Object body) throws Exception {
+        return request(path)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+            .build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30));
+    }
+}
@@ -0,0 +1,57 @@
+package com.digitalelectronics.quiz.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Load-test settings, read from -Dloadtest.* system properties.
+ */
+record LoadTestConfig(
+        int users,
+        int quizzes,
+        int questionsPerQuiz,
+        int seedAttempts,
+        int threads,
+        int warmupSeconds,
+        int durationSeconds,
+        long thinkTimeMillis,
+        long seed,
+        Map<Scenario, Integer> mix,
+        String reportFile) {
+
+    /** Weighted request mix entries; each one is a short user journey against one or more endpoints. */
+    enum Scenario {
+        LOGIN, BROWSE, ATTEMPT, LEADERBOARD
+    }
+
+    static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+            intProperty("loadtest.users", 200),
+            intProperty("loadtest.quizzes", 20),
+            intProperty("loadtest.questions-per-quiz", 10),
+            intProperty("loadtest.seed-attempts", 5000),
+            intProperty("loadtest.threads", 32),
+            intProperty("loadtest.warmup-seconds", 15),
+            intProperty("loadtest.duration-seconds", 60),
+            Long.getLong("loadtest.think-time-ms", 0L),
+            Long.getLong("loadtest.seed", 42L),
+            parseMix(System.getProperty("loadtest.mix", "login=10,browse=50,attempt=20,leaderboard=20")),
+            System.getProperty("loadtest.report", "target/loadtest-report.json"));
+    }
+
+    private static int intProperty(String name, int defaultValue) {
+        return Integer.getInteger(name, defaultValue);
+    }
+
+    private static Map<Scenario, Integer> parseMix(String mix) {
+        Map<Scenario, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Bad loadtest.mix entry: " + entry);
+            }
+            weights.put(Scenario.valueOf(parts[0].trim().toUpperCase()), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,110 @@
+package com.digitalelectronics.quiz.loadtest;
+
+import com.digitalelectronics.quiz.QuizApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Boots QuizApplication against an embedded PostgreSQL on a random local port, seeds
+ * data, runs a warm-up phase followed by the measured phase, and reports p50/p99/p99.9
+ * latency and throughput per endpoint. Needs no network access once the Maven
+ * dependencies (including the PostgreSQL binaries) are in the local repository.
+ * PostgreSQL refuses to start as root, so run it as a regular user.
+ */
+public final class LoadTestHarness {
+
+    private LoadTestHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start()) {
+            Map<String, Object> properties = new HashMap<>();
+            properties.put("spring.datasource.url", postgres.getJdbcUrl("postgres", "postgres"));
+            properties.put("spring.datasource.username", "postgres");
+            properties.put("spring.datasource.password", "postgres");
+            properties.put("spring.datasource.driver-class-name", "org.postgresql.Driver");
+            properties.put("spring.datasource.hikari.maximum-pool-size", Integer.getInteger("loadtest.pool-size", 20));
+            properties.put("spring.jpa.show-sql", "false");
+            properties.put("server.port", "0");
+            properties.put("jobs.enabled", "false");
+            properties.put("logging.level.root", "WARN");
+            properties.put("logging.level.com.digitalelectronics", "WARN");
+            properties.put("logging.level.org.springframework.web", "WARN");
+            properties.put("logging.level.org.hibernate.SQL", "WARN");
+
+            // Devtools would restart the app in a fresh class loader (and re-run this main)
+            System.setProperty("spring.devtools.restart.enabled", "false");
+            // Passed as command-line arguments so they override application.properties
+            String[] arguments = properties.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(QuizApplication.class)
+                .run(arguments);
+            try {
+                int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+                String baseUrl = "http://localhost:" + port + "/api";
+
+                System.out.printf("Seeding %d users, %d quizzes x %d questions, %d attempts...%n",
+                    config.users(), config.quizzes(), config.questionsPerQuiz(), config.seedAttempts());
+                DataSeeder.SeedData data = new DataSeeder(context, config).seed();
+
+                LatencyRecorder recorder = new LatencyRecorder();
+                LoadDriver driver = new LoadDriver(baseUrl, data, config, recorder);
+
+                System.out.printf("Warming up for %ds with %d threads...%n", config.warmupSeconds(), config.threads());
+                driver.run(Duration.ofSeconds(config.warmupSeconds()));
+                recorder.reset();
+
+                System.out.printf("Measuring for %ds, mix %s...%n", config.durationSeconds(), config.mix());
+                long start = System.nanoTime();
+                driver.run(Duration.ofSeconds(config.durationSeconds()));
+                double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+                Map<String, LatencyRecorder.Result> results = recorder.results(elapsedSeconds);
+                // Spring only switches to virtual threads on Java 21+, whatever the property says
+                boolean virtualThreads = Runtime.version().feature() >= 21
+                    && context.getEnvironment().getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+                System.out.printf("%nRequest threads: %s%n", virtualThreads ? "virtual" : "platform");
+                printReport(results);
+                writeReport(config, virtualThreads, elapsedSeconds, results);
+            } finally {
+                context.close();
+            }
+        }
+    }
+
+    private static void printReport(Map<String, LatencyRecorder.Result> results) {
+        System.out.printf("%n%-34s %9s %7s %9s %9s %9s %9s %9s%n",
+            "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        results.forEach((endpoint, r) -> System.out.printf("%-34s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+            endpoint, r.requests(), r.errors(), r.throughput(), r.p50Ms(), r.p99Ms(), r.p999Ms(), r.maxMs()));
+    }
+
+    private static void writeReport(LoadTestConfig config, boolean virtualThreads, double elapsedSeconds,
+                                    Map<String, LatencyRecorder.Result> results) throws Exception {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("config", config);
+        report.put("virtualThreads", virtualThreads);
+        report.put("elapsedSeconds", elapsedSeconds);
+        report.put("endpoints", results);
+
+        File file = new File(config.reportFile());
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, report);
+        System.out.println("\nReport written to " + file.getAbsolutePath());
+    }
+}
@@ -0,0 +1,214 @@
+package com.digitalelectronics.quiz.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts each packaged variant of the application as its own process against an
+ * embedded PostgreSQL and measures time to first request (process start until
+ * GET /api/quiz/published, which goes through JPA, answers 200) and resident memory at
+ * that point. Variants whose artifacts are missing are skipped:
+ * <ul>
+ *   <li>jar: the executable jar (mvn package, or target/*-exec.jar after -Pfast-startup)</li>
+ *   <li>aot-cds: target/fast-startup (mvn -Pfast-startup package)</li>
+ *   <li>native: target/quiz-backend (mvn -Pnative native:compile)</li>
+ * </ul>
+ * The jar variant also runs once unmeasured first so the schema exists, since the
+ * fast-startup profile does not create it. All variants run with the default bean set,
+ * the one the AOT variants were built with. Linux only (RSS is read from /proc).
+ * Run: mvn -Ploadtest test-compile exec:java@startup [-Dstartup.runs=5]
+ */
+public final class StartupBenchmark {
+
+    private static final String FIRST_REQUEST = "/api/quiz/published";
+
+    private StartupBenchmark() {
+    }
+
+    record Variant(String name, File workingDirectory, List<String> command) {}
+
+    record Run(double firstRequestMs, long rssKb) {}
+
+    record Result(String variant, int runs, double medianFirstRequestMs, double minFirstRequestMs, long medianRssKb) {}
+
+    public static void main(String[] args) throws Exception {
+        int runs = Integer.getInteger("startup.runs", 5);
+        Duration timeout = Duration.ofSeconds(Integer.getInteger("startup.timeout-seconds", 120));
+        File target = new File(System.getProperty("startup.target-dir", "target")).getAbsoluteFile();
+        File logs = new File(target, "startup-logs");
+        logs.mkdirs();
+
+        List<Variant> variants = variants(target);
+        if (variants.isEmpty()) {
+            System.out.println("Nothing to start: build with mvn package and/or mvn -Pfast-startup package first");
+            return;
+        }
+
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start()) {
+            List<String> properties = List.of(
+                "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=postgres",
+                "--spring.datasource.driver-class-name=org.postgresql.Driver",
+                // Nothing that decides a @ConditionalOnProperty bean (jobs.enabled, replicas.enabled, ...):
+                // AOT fixes those at build time, so the jar would start a different set of beans
+                "--logging.level.root=WARN",
+                "--logging.level.com.digitalelectronics=WARN",
+                "--logging.level.org.springframework.web=WARN",
+                "--logging.level.org.hibernate.SQL=WARN");
+
+            Variant jar = variants.stream().filter(v -> v.name().equals("jar")).findFirst().orElse(null);
+            if (jar != null) {
+                System.out.println("Creating the schema with an unmeasured jar start...");
+                start(jar, properties, timeout, new File(logs, "schema.log"));
+            } else {
+                System.out.println("No executable jar: assuming nothing needs the schema for " + FIRST_REQUEST);
+            }
+
+            List<Result> results = new ArrayList<>();
+            for (Variant variant : variants) {
+                System.out.printf("Starting %s %d times...%n", variant.name(), runs);
+                double[] firstRequest = new double[runs];
+                long[] rss = new long[runs];
+                for (int i = 0; i < runs; i++) {
+                    Run run = start(variant, properties, timeout, new File(logs, variant.name() + "-" + i + ".log"));
+                    firstRequest[i] = run.firstRequestMs();
+                    rss[i] = run.rssKb();
+                }
+                Arrays.sort(firstRequest);
+                Arrays.sort(rss);
+                results.add(new Result(variant.name(), runs, firstRequest[runs / 2], firstRequest[0], rss[runs / 2]));
+            }
+            printReport(results);
+            writeReport(new File(target, "startup-report.json"), runs, results);
+        }
+    }
+
+    private static List<Variant> variants(File target) {
+        List<Variant> variants = new ArrayList<>();
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        String devtoolsOff = "-Dspring.devtools.restart.enabled=false";
+
+        File[] execJars = target.listFiles((dir, name) -> name.endsWith("-exec.jar"));
+        File[] jars = target.listFiles((dir, name) -> name.endsWith(".jar") && !name.endsWith("-exec.jar"));
+        File jar = execJars != null && execJars.length > 0 ? execJars[0]
+            : jars != null && jars.length > 0 && !new File(target, "fast-startup").isDirectory() ? jars[0] : null;
+        if (jar != null) {
+            variants.add(new Variant("jar", target, List.of(java, devtoolsOff, "-jar", jar.getPath())));
+        }
+
+        File fastStartup = new File(target, "fast-startup");
+        File[] thinJars = fastStartup.listFiles((dir, name) -> name.endsWith(".jar"));
+        if (new File(fastStartup, "app.jsa").isFile() && thinJars != null && thinJars.length == 1) {
+            variants.add(new Variant("aot-cds", fastStartup, List.of(java,
+                // Fail rather than silently measure without the archive (e.g. written by another JDK)
+                "-XX:SharedArchiveFile=app.jsa", "-Xshare:on", "-Dspring.aot.enabled=true",
+                "-cp", thinJars[0].getName() + ":lib/*", "com.digitalelectronics.quiz.QuizApplication",
+                "--spring.profiles.active=fast-startup")));
+        }
+
+        File nativeImage = new File(target, "quiz-backend");
+        if (nativeImage.isFile() && nativeImage.canExecute()) {
+            variants.add(new Variant("native", target, List.of(nativeImage.getPath(),
+                "--spring.profiles.active=fast-startup")));
+        }
+        return variants;
+    }
+
+    private static Run start(Variant variant, List<String> properties, Duration timeout, File log) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>(variant.command());
+        command.addAll(properties);
+        command.add("--server.port=" + port);
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + FIRST_REQUEST))
+            .timeout(Duration.ofSeconds(10))
+            .GET()
+            .build();
+
+        long startedAt = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+            .directory(variant.workingDirectory())
+            .redirectErrorStream(true)
+            .redirectOutput(log)
+            .start();
+        try {
+            long deadline = startedAt + timeout.toNanos();
+            while (true) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException(variant.name() + " exited with " + process.exitValue() + ", see " + log);
+                }
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException(variant.name() + " did not answer within " + timeout + ", see " + log);
+                }
+                try {
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() == 200) {
+                        double firstRequestMs = (System.nanoTime() - startedAt) / 1e6;
+                        return new Run(firstRequestMs, rssKb(process.pid()));
+                    }
+                } catch (ConnectException e) {
+                    // Not listening yet
+                }
+                Thread.sleep(5);
+            }
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static long rssKb(long pid) throws IOException {
+        for (String line : Files.readAllLines(Path.of("/proc", Long.toString(pid), "status"))) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.replaceAll("\\D", ""));
+            }
+        }
+        return -1;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static void printReport(List<Result> results) {
+        System.out.printf("%n%-10s %5s %18s %15s %12s%n", "variant", "runs", "first request ms", "min ms", "RSS MiB");
+        for (Result r : results) {
+            System.out.printf("%-10s %5d %18.0f %15.0f %12.1f%n",
+                r.variant(), r.runs(), r.medianFirstRequestMs(), r.minFirstRequestMs(), r.medianRssKb() / 1024.0);
+        }
+    }
+
+    private static void writeReport(File file, int runs, List<Result> results) throws Exception {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("runs", runs);
+        report.put("javaVersion", Runtime.version().toString());
+        report.put("variants", results);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, report);
+        System.out.println("\nReport written to " + file.getAbsolutePath());
+    }
+}
@@ -0,0 +1,146 @@
+package com.digitalelectronics.quiz.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control in front of everything else, including Spring Security, so a
+ * shed request costs almost nothing. Each {@link RouteClass} has its own
+ * {@link GradientLimiter}; a request that cannot get a slot within the class's
+ * queue timeout is answered with 503 and Retry-After.
+ * Limits are configured per class under admission.&lt;class&gt;.*.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+@Slf4j
+public class AdmissionControlFilter extends OncePerRequestFilter {
+    
+    private static final String BUSY_BODY = "{\"success\":false,\"message\":\"Server is busy, please retry\"}";
+    
+    private final boolean enabled;
+    private final String retryAfterSeconds;
+    private final Map<RouteClass, Lane> lanes = new EnumMap<>(RouteClass.class);
+    
+    public AdmissionControlFilter(Environment environment, MeterRegistry meterRegistry) {
+        this.enabled = environment.getProperty("admission.enabled", Boolean.class, true);
+        this.retryAfterSeconds = environment.getProperty("admission.retry-after-seconds", "1");
+        for (RouteClass routeClass : RouteClass.values()) {
+            String prefix = "admission." + routeClass.tag() + ".";
+            GradientLimiter limiter = new GradientLimiter(
+                environment.getProperty(prefix + "initial-limit", Integer.class, routeClass.defaultInitialLimit),
+                environment.getProperty(prefix + "min-limit", Integer.class, routeClass.defaultMinLimit),
+                environment.getProperty(prefix + "max-limit", Integer.class, routeClass.defaultMaxLimit),
+                environment.getProperty(prefix + "max-queue-ms", Long.class, routeClass.defaultMaxQueueMillis),
+                environment.getProperty(prefix + "max-queued", Integer.class, 100));
+            lanes.put(routeClass, new Lane(limiter, routeClass.tag(), meterRegistry));
+        }
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RouteClass routeClass = enabled
+            ? RouteClass.of(request.getMethod(), request.getRequestURI().substring(request.getContextPath().length()))
+            : null;
+        if (routeClass == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        
+        Lane lane = lanes.get(routeClass);
+        long queuedNanos;
+        try {
+            queuedNanos = lane.limiter.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queuedNanos = -1;
+        }
+        if (queuedNanos < 0) {
+            lane.rejected.increment();
+            log.debug("Shed {} {} ({} limit {})", request.getMethod(), request.getRequestURI(),
+                routeClass.tag(), lane.limiter.getLimit());
+            reject(response);
+            return;
+        }
+        lane.queueTime.record(queuedNanos, TimeUnit.NANOSECONDS);
+        
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            lane.limiter.release(System.nanoTime() - start);
+        }
+    }
+    
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        lanes.forEach((routeClass, lane) -> {
+            Map<String, Object> laneStats = new LinkedHashMap<>();
+            laneStats.put("limit", lane.limiter.getLimit());
+            laneStats.put("inFlight", lane.limiter.getInFlight());
+            laneStats.put("queued", lane.limiter.getQueued());
+            laneStats.put("rejected", (long) lane.rejected.count());
+            stats.put(routeClass.tag(), laneStats);
+        });
+        return stats;
+    }
+    
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write(BUSY_BODY);
+    }
+    
+    private static class Lane {
+        final GradientLimiter limiter;
+        final Counter rejected;
+        final Timer queueTime;
+        
+        Lane(GradientLimiter limiter, String tag, MeterRegistry meterRegistry) {
+            this.limiter = limiter;
+            this.rejected = Counter.builder("admission.rejected")
+                .description("Requests shed with 503 by admission control")
+                .tag("class", tag)
+                .register(meterRegistry);
+            this.queueTime = Timer.builder("admission.queue.time")
+                .description("Time requests waited for an admission slot")
+                .tag("class", tag)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+            Gauge.builder("admission.inflight", limiter, GradientLimiter::getInFlight)
+                .description("Requests currently admitted")
+                .tag("class", tag)
+                .register(meterRegistry);
+            Gauge.builder("admission.limit", limiter, GradientLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .tag("class", tag)
+                .register(meterRegistry);
+            Gauge.builder("admission.queued", limiter, GradientLimiter::getQueued)
+                .description("Requests waiting for an admission slot")
+                .tag("class", tag)
+                .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.digitalelectronics.quiz.admission;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Adaptive concurrency limit driven by the latency gradient: the ratio of a long-term
+ * baseline RTT to the recent RTT. While latency stays near the baseline the limit grows
+ * by about sqrt(limit) per sample; when queueing inside the server pushes recent latency
+ * up, the gradient drops below 1 and the limit shrinks with it.
+ * <p>
+ * Requests over the limit wait up to maxQueueNanos, with at most maxQueued waiting,
+ * and are rejected after that. Uses a ReentrantLock rather than synchronized so waiting
+ * virtual threads do not pin their carriers.
+ */
+public class GradientLimiter {
+    
+    private static final double SHORT_ALPHA = 0.1;
+    private static final double LONG_ALPHA = 2.0 / 601;
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    
+    private final int minLimit;
+    private final int maxLimit;
+    private final long maxQueueNanos;
+    private final int maxQueued;
+    
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    
+    private double limit;
+    private int inFlight;
+    private int queued;
+    private double shortRtt;
+    private double longRtt;
+    
+    public GradientLimiter(int initialLimit, int minLimit, int maxLimit, long maxQueueMillis, int maxQueued) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.maxQueueNanos = TimeUnit.MILLISECONDS.toNanos(maxQueueMillis);
+        this.maxQueued = maxQueued;
+    }
+    
+    /**
+     * @return nanoseconds spent waiting for a slot, or -1 if the request was rejected
+     */
+    public long acquire() throws InterruptedException {
+        long start = System.nanoTime();
+        lock.lock();
+        try {
+            if (inFlight < (int) limit) {
+                inFlight++;
+                return 0;
+            }
+            if (queued >= maxQueued || maxQueueNanos <= 0) {
+                return -1;
+            }
+            queued++;
+            try {
+                long remaining = maxQueueNanos;
+                while (inFlight >= (int) limit) {
+                    if (remaining <= 0) {
+                        return -1;
+                    }
+                    remaining = released.awaitNanos(remaining);
+                }
+                inFlight++;
+                return System.nanoTime() - start;
+            } finally {
+                queued--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Frees the slot and feeds the request's service time (excluding queueing) into the limit.
+     */
+    public void release(long rttNanos) {
+        lock.lock();
+        try {
+            int before = (int) limit;
+            update(rttNanos, inFlight);
+            inFlight--;
+            if ((int) limit > before) {
+                released.signalAll();
+            } else {
+                released.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void update(long rttNanos, int inFlightAtRelease) {
+        if (shortRtt == 0) {
+            shortRtt = rttNanos;
+            longRtt = rttNanos;
+            return;
+        }
+        shortRtt += (rttNanos - shortRtt) * SHORT_ALPHA;
+        longRtt += (rttNanos - longRtt) * LONG_ALPHA;
+        
+        // After a slow stretch, let the baseline come back down quickly
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+        // A mostly idle class says nothing about where the limit should be
+        if (inFlightAtRelease < limit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRtt / shortRtt));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + newLimit * SMOOTHING));
+    }
+    
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public int getQueued() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
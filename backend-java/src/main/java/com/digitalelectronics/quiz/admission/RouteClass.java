@@ -0,0 +1,49 @@
+package com.digitalelectronics.quiz.admission;
+
+/**
+ * Admission classes, each with its own concurrency limit, so a burst in one class
+ * (typically BCrypt-bound logins) cannot starve the others.
+ */
+public enum RouteClass {
+    // A BCrypt check takes a large part of a core, so logins may wait longer than cheap requests
+    AUTH(Runtime.getRuntime().availableProcessors(), 1, 4 * Runtime.getRuntime().availableProcessors(), 500),
+    WRITE(20, 2, 200, 100),
+    READ(50, 4, 500, 50),
+    ADMIN(4, 1, 16, 100);
+    
+    final int defaultInitialLimit;
+    final int defaultMinLimit;
+    final int defaultMaxLimit;
+    final long defaultMaxQueueMillis;
+    
+    RouteClass(int defaultInitialLimit, int defaultMinLimit, int defaultMaxLimit, long defaultMaxQueueMillis) {
+        this.defaultInitialLimit = defaultInitialLimit;
+        this.defaultMinLimit = defaultMinLimit;
+        this.defaultMaxLimit = defaultMaxLimit;
+        this.defaultMaxQueueMillis = defaultMaxQueueMillis;
+    }
+    
+    public String tag() {
+        return name().toLowerCase();
+    }
+    
+    /**
+     * @param path request path below the context path
+     * @return null for requests that are never limited (orchestrator probes, CORS preflight)
+     */
+    public static RouteClass of(String method, String path) {
+        if ("OPTIONS".equals(method) || path.equals("/health") || path.equals("/health/live") || path.equals("/health/ready")) {
+            return null;
+        }
+        if (path.startsWith("/auth/")) {
+            return AUTH;
+        }
+        if (path.startsWith("/actuator") || path.startsWith("/health/")) {
+            return ADMIN;
+        }
+        if ("GET".equals(method) || "HEAD".equals(method)) {
+            return READ;
+        }
+        return WRITE;
+    }
+}
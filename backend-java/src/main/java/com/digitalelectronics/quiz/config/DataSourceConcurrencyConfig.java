@@ -0,0 +1,54 @@
+package com.digitalelectronics.quiz.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application DataSource in a {@link BoundedDataSource} when
+ * db.concurrency.limit-enabled is set (on by default in the virtual-threads profile).
+ */
+@Configuration
+@Slf4j
+@ConditionalOnProperty(name = "db.concurrency.limit-enabled", havingValue = "true")
+public class DataSourceConcurrencyConfig {
+    
+    @Bean
+    public static BeanPostProcessor boundedDataSourcePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof BoundedDataSource) {
+                    return bean;
+                }
+                // Defaults to the Hikari pool size so callers queue here rather than time out in the pool
+                int maxConcurrent = environment.getProperty("db.concurrency.max-connections", Integer.class,
+                    environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+                long acquireTimeoutMillis = environment.getProperty("db.concurrency.acquire-timeout-ms", Long.class, 30000L);
+                log.info("Bounding database concurrency of '{}' to {} connections", beanName, maxConcurrent);
+                return new BoundedDataSource(dataSource, maxConcurrent, acquireTimeoutMillis);
+            }
+        };
+    }
+    
+    @Bean
+    public MeterBinder boundedDataSourceMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof BoundedDataSource bounded) {
+                Gauge.builder("db.concurrency.available", bounded, BoundedDataSource::getAvailablePermits)
+                    .description("Database permits not currently held")
+                    .register(registry);
+                Gauge.builder("db.concurrency.waiting", bounded, BoundedDataSource::getQueueLength)
+                    .description("Threads waiting for a database permit")
+                    .register(registry);
+            }
+        };
+    }
+}
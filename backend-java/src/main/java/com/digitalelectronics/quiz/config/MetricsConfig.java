@@ -0,0 +1,70 @@
+package com.digitalelectronics.quiz.config;
+
+import com.digitalelectronics.quiz.metrics.HandlerTagObservationConvention;
+import com.digitalelectronics.quiz.metrics.QueryCountingSessionListener;
+import com.digitalelectronics.quiz.service.AnswerKeyCache;
+import com.digitalelectronics.quiz.service.IdempotencyService;
+import com.digitalelectronics.quiz.service.ItemParameterService;
+import com.digitalelectronics.quiz.service.QuizPackService;
+import com.digitalelectronics.quiz.service.RecommendationService;
+import com.digitalelectronics.quiz.service.UserProgressService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+
+import java.util.function.ToDoubleFunction;
+
+@Configuration
+public class MetricsConfig {
+    
+    @Bean
+    public ServerRequestObservationConvention handlerTagObservationConvention() {
+        return new HandlerTagObservationConvention();
+    }
+    
+    @Bean
+    public HibernatePropertiesCustomizer queryCountingHibernateCustomizer() {
+        return properties -> properties.put("hibernate.session.events.auto", QueryCountingSessionListener.class.getName());
+    }
+    
+    @Bean
+    public MeterBinder cacheMetrics(IdempotencyService idempotencyService, UserProgressService userProgressService,
+                                   AnswerKeyCache answerKeyCache, QuizPackService quizPackService,
+                                   ItemParameterService itemParameterService,
+                                   RecommendationService recommendationService) {
+        return registry -> {
+            bindCache(registry, "idempotency", idempotencyService,
+                IdempotencyService::getHitCount, IdempotencyService::getMissCount, IdempotencyService::size);
+            bindCache(registry, "user-progress", userProgressService,
+                UserProgressService::getHitCount, UserProgressService::getMissCount, UserProgressService::size);
+            bindCache(registry, "answer-key", answerKeyCache,
+                AnswerKeyCache::getHitCount, AnswerKeyCache::getMissCount, AnswerKeyCache::size);
+            bindCache(registry, "quiz-packs", quizPackService,
+                QuizPackService::getHitCount, QuizPackService::getMissCount, QuizPackService::size);
+            bindCache(registry, "item-pools", itemParameterService,
+                ItemParameterService::getHitCount, ItemParameterService::getMissCount, ItemParameterService::size);
+            bindCache(registry, "recommendations", recommendationService,
+                RecommendationService::getHitCount, RecommendationService::getMissCount, RecommendationService::size);
+        };
+    }
+    
+    private static <T> void bindCache(MeterRegistry registry, String name, T cache,
+                                      ToDoubleFunction<T> hits, ToDoubleFunction<T> misses, ToDoubleFunction<T> size) {
+        FunctionCounter.builder("cache.gets", cache, hits)
+            .tag("cache", name).tag("result", "hit")
+            .description("Cache lookups that found an entry")
+            .register(registry);
+        FunctionCounter.builder("cache.gets", cache, misses)
+            .tag("cache", name).tag("result", "miss")
+            .description("Cache lookups that found no entry")
+            .register(registry);
+        Gauge.builder("cache.size", cache, size)
+            .tag("cache", name)
+            .register(registry);
+    }
+}
@@ -0,0 +1,62 @@
+package com.digitalelectronics.quiz.config;
+
+import com.digitalelectronics.quiz.dto.AttemptCompleted;
+import com.digitalelectronics.quiz.dto.AuthResponse;
+import com.digitalelectronics.quiz.dto.CatalogVersion;
+import com.digitalelectronics.quiz.dto.CreateProfileRequest;
+import com.digitalelectronics.quiz.dto.LoginRequest;
+import com.digitalelectronics.quiz.dto.QuestionAnalytics;
+import com.digitalelectronics.quiz.dto.Recommendation;
+import com.digitalelectronics.quiz.dto.RegisterRequest;
+import com.digitalelectronics.quiz.dto.SearchHit;
+import com.digitalelectronics.quiz.dto.UserProgressSummary;
+import com.digitalelectronics.quiz.model.ItemParameters;
+import com.digitalelectronics.quiz.model.Profile;
+import com.digitalelectronics.quiz.model.ProgressCounters;
+import com.digitalelectronics.quiz.model.Question;
+import com.digitalelectronics.quiz.model.QuestionStats;
+import com.digitalelectronics.quiz.model.Quiz;
+import com.digitalelectronics.quiz.model.QuizAttempt;
+import com.digitalelectronics.quiz.model.User;
+import com.digitalelectronics.quiz.model.UserProgress;
+import com.digitalelectronics.quiz.service.AttemptShuffle;
+import com.digitalelectronics.quiz.warmup.WarmupRunner;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Reflection hints for the native image (mvn -Pnative native:compile).
+ * Spring's AOT pass already covers the JPA mappings and the declared return types of
+ * controller methods; these are the types Jackson reaches some other way: jsonb columns
+ * read by Hibernate's format mapper, outbox payloads, and entities and DTOs put into the
+ * Map bodies the controllers return. Lombok only generates plain accessors, so binding
+ * hints for the classes themselves are enough.
+ */
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.QuizRuntimeHints.class)
+public class NativeHintsConfig {
+
+    static class QuizRuntimeHints implements RuntimeHintsRegistrar {
+
+        private static final Class<?>[] JSON_TYPES = {
+            // jsonb columns and outbox payloads
+            ProgressCounters.class, AttemptCompleted.class,
+            // entities serialized inside Map response bodies
+            Quiz.class, Question.class, QuizAttempt.class, Profile.class, User.class,
+            UserProgress.class, QuestionStats.class, ItemParameters.class,
+            // DTOs
+            AuthResponse.class, LoginRequest.class, RegisterRequest.class, CreateProfileRequest.class,
+            CatalogVersion.class, QuestionAnalytics.class, Recommendation.class, SearchHit.class,
+            UserProgressSummary.class, UserProgressSummary.Stats.class, AttemptShuffle.Presented.class,
+            WarmupRunner.EndpointStats.class
+        };
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), JSON_TYPES);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.digitalelectronics.quiz.config;
+
+import com.digitalelectronics.quiz.metrics.QueryBudgetGuard;
+import com.digitalelectronics.quiz.metrics.QueryBudgetInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class QueryBudgetConfig implements WebMvcConfigurer {
+    
+    @Value("${query-budget.default-max-statements:20}")
+    private int defaultMaxStatements;
+    
+    @Value("${query-budget.default-max-rows:1000}")
+    private long defaultMaxRows;
+    
+    @Bean
+    public QueryBudgetGuard queryBudgetGuard(
+            @Value("${query-budget.mode:warn}") String mode,
+            @Value("${query-budget.stack-trace-sample-rate:0.01}") double stackTraceSampleRate) {
+        return new QueryBudgetGuard(QueryBudgetGuard.Mode.valueOf(mode.trim().toUpperCase()), stackTraceSampleRate);
+    }
+    
+    @Bean
+    public HibernatePropertiesCustomizer queryBudgetHibernateCustomizer(QueryBudgetGuard queryBudgetGuard) {
+        return properties -> {
+            properties.put("hibernate.session_factory.statement_inspector", queryBudgetGuard);
+            properties.put("hibernate.session_factory.interceptor", queryBudgetGuard);
+        };
+    }
+    
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new QueryBudgetInterceptor(defaultMaxStatements, defaultMaxRows));
+    }
+}
@@ -0,0 +1,95 @@
+package com.digitalelectronics.quiz.config;
+
+import com.digitalelectronics.quiz.datasource.ReadYourWrites;
+import com.digitalelectronics.quiz.datasource.ReadYourWritesInterceptor;
+import com.digitalelectronics.quiz.datasource.ReplicaRoutingDataSource;
+import com.digitalelectronics.quiz.datasource.ReplicaSet;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the single spring.datasource pool with a primary pool plus one pool
+ * per URL in replicas.urls, routed by {@link ReplicaRoutingDataSource}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "replicas.enabled", havingValue = "true")
+public class ReplicaRoutingConfig implements WebMvcConfigurer {
+    
+    private final ReadYourWrites readYourWrites;
+    
+    public ReplicaRoutingConfig(ReadYourWrites readYourWrites) {
+        this.readYourWrites = readYourWrites;
+    }
+    
+    @Bean
+    public ReplicaSet replicaSet(
+            DataSourceProperties properties,
+            Environment environment,
+            MeterRegistry meterRegistry,
+            @Value("${replicas.urls}") List<String> urls,
+            @Value("${replicas.username:${spring.datasource.username:}}") String username,
+            @Value("${replicas.password:${spring.datasource.password:}}") String password,
+            @Value("${replicas.pool-size:0}") int poolSize,
+            @Value("${replicas.max-lag-ms:5000}") long maxLagMillis) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        configurePool(primary, environment, meterRegistry, "primary");
+        
+        List<ReplicaSet.Replica> replicas = new ArrayList<>();
+        for (String url : urls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            String name = "replica-" + (replicas.size() + 1);
+            HikariDataSource pool = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url.trim())
+                .username(username)
+                .password(password)
+                .build();
+            configurePool(pool, environment, meterRegistry, name);
+            pool.setReadOnly(true);
+            if (poolSize > 0) {
+                pool.setMaximumPoolSize(poolSize);
+            }
+            replicas.add(new ReplicaSet.Replica(name, pool));
+        }
+        
+        ReplicaSet replicaSet = new ReplicaSet(primary, replicas, maxLagMillis, meterRegistry);
+        replicaSet.checkLag();
+        return replicaSet;
+    }
+    
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaSet replicaSet) {
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(replicaSet, readYourWrites));
+    }
+    
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ReadYourWritesInterceptor(readYourWrites));
+    }
+    
+    private static void configurePool(HikariDataSource pool, Environment environment, MeterRegistry meterRegistry, String name) {
+        // Same pool settings as the single-pool setup
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(name);
+        pool.setMetricRegistry(meterRegistry);
+    }
+}
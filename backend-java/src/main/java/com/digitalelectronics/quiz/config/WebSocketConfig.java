@@ -0,0 +1,26 @@
+package com.digitalelectronics.quiz.config;
+
+import com.digitalelectronics.quiz.live.LiveQuizWebSocketHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+@Configuration
+@EnableWebSocket
+@RequiredArgsConstructor
+public class WebSocketConfig implements WebSocketConfigurer {
+    
+    private final LiveQuizWebSocketHandler liveQuizWebSocketHandler;
+    
+    @Value("${cors.allowed.origins}")
+    private String[] allowedOrigins;
+    
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(liveQuizWebSocketHandler, "/live")
+            .setAllowedOrigins(allowedOrigins);
+    }
+}
@@ -1,5 +1,13 @@
 package com.digitalelectronics.quiz.controller;
 
+import com.digitalelectronics.quiz.admission.AdmissionControlFilter;
+import com.digitalelectronics.quiz.health.DependencyHealthChecker;
+import com.digitalelectronics.quiz.outbox.OutboxDispatcher;
+import com.digitalelectronics.quiz.service.BatchJobRunner;
+import com.digitalelectronics.quiz.service.IdempotencyService;
+import com.digitalelectronics.quiz.warmup.WarmupRunner;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -8,9 +16,17 @@ import java.util.HashMap;
 import java.util.Map;
 
 @RestController
+@RequiredArgsConstructor
 @CrossOrigin(origins = {"http://localhost:8000", "http://localhost:3000", "http://localhost:5500", "http://127.0.0.1:8000", "http://127.0.0.1:5500", "http://127.0.0.1:5501"})
 public class HealthController {
     
+    private final IdempotencyService idempotencyService;
+    private final BatchJobRunner batchJobRunner;
+    private final OutboxDispatcher outboxDispatcher;
+    private final AdmissionControlFilter admissionControlFilter;
+    private final WarmupRunner warmupRunner;
+    private final DependencyHealthChecker healthChecker;
+    
     @GetMapping("/health")
     public ResponseEntity<Map<String, Object>> health() {
         Map<String, Object> response = new HashMap<>();
@@ -22,6 +38,75 @@ public class HealthController {
         return ResponseEntity.ok(response);
     }
     
+    @GetMapping("/health/live")
+    public ResponseEntity<Map<String, Object>> liveness() {
+        return probe(healthChecker.liveness());
+    }
+    
+    @GetMapping("/health/ready")
+    public ResponseEntity<Map<String, Object>> readiness() {
+        return probe(healthChecker.readiness());
+    }
+    
+    @GetMapping("/health/idempotency")
+    public ResponseEntity<Map<String, Object>> idempotencyStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("stats", idempotencyService.getStats());
+        
+        return ResponseEntity.ok(response);
+    }
+    
+    @GetMapping("/health/jobs")
+    public ResponseEntity<Map<String, Object>> jobStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("jobs", batchJobRunner.getStats());
+        
+        return ResponseEntity.ok(response);
+    }
+    
+    @GetMapping("/health/outbox")
+    public ResponseEntity<Map<String, Object>> outboxStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("outbox", outboxDispatcher.getStats());
+        
+        return ResponseEntity.ok(response);
+    }
+    
+    @GetMapping("/health/admission")
+    public ResponseEntity<Map<String, Object>> admissionStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("admission", admissionControlFilter.getStats());
+        
+        return ResponseEntity.ok(response);
+    }
+    
+    @GetMapping("/health/warmup")
+    public ResponseEntity<Map<String, Object>> warmupStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("warmup", warmupRunner.getStats());
+        
+        return ResponseEntity.ok(response);
+    }
+    
+    private static ResponseEntity<Map<String, Object>> probe(DependencyHealthChecker.Probe probe) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", probe.up());
+        response.put("status", probe.up() ? "UP" : "DOWN");
+        response.put("reasons", probe.reasons());
+        response.put("checkedAt", probe.checkedAt() != null ? probe.checkedAt().toString() : null);
+        response.put("ageMs", probe.ageMs());
+        if (!probe.checks().isEmpty()) {
+            response.put("checks", probe.checks());
+        }
+        
+        return ResponseEntity.status(probe.up() ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE).body(response);
+    }
+    
     @GetMapping("/")
     public ResponseEntity<Map<String, Object>> root() {
         Map<String, Object> response = new HashMap<>();
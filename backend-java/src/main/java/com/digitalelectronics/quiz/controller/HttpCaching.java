@@ -0,0 +1,95 @@
+package com.digitalelectronics.quiz.controller;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ETag / Last-Modified helpers for the read endpoints. ETags are derived from
+ * updated_at timestamps, so a conditional request can be answered from a
+ * timestamp lookup without loading the entity.
+ */
+@Component
+public class HttpCaching {
+    
+    private final CacheControl catalogCacheControl;
+    private final CacheControl privateCacheControl = CacheControl.noCache().cachePrivate();
+    
+    public HttpCaching(
+            @Value("${http-cache.catalog-max-age-seconds:60}") long maxAgeSeconds,
+            @Value("${http-cache.catalog-stale-while-revalidate-seconds:300}") long staleWhileRevalidateSeconds) {
+        // Shared caches may serve catalog reads for max-age, then revalidate with the ETag
+        this.catalogCacheControl = CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS)
+            .cachePublic()
+            .staleWhileRevalidate(staleWhileRevalidateSeconds, TimeUnit.SECONDS);
+    }
+    
+    /** Quiz catalog reads: the same for every user, so CDNs may store them. */
+    public CacheControl catalog() {
+        return catalogCacheControl;
+    }
+    
+    /** Per-user reads: browsers may keep them but must revalidate; CDNs must not store them. */
+    public CacheControl personal() {
+        return privateCacheControl;
+    }
+    
+    /** True when the client sent a validator that is worth checking before loading anything. */
+    public boolean isConditional(WebRequest request) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+            || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+    }
+    
+    public String etag(String prefix, LocalDateTime updatedAt) {
+        return "\"" + prefix + "-" + Long.toHexString(epochMicros(updatedAt)) + "\"";
+    }
+    
+    public String etag(String prefix, long count, LocalDateTime updatedAt) {
+        return "\"" + prefix + "-" + Long.toHexString(count) + "-" + Long.toHexString(epochMicros(updatedAt)) + "\"";
+    }
+    
+    public long lastModified(LocalDateTime updatedAt) {
+        return updatedAt == null ? -1 : updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+    
+    /**
+     * Checks the request's validators and, when they still match, returns the
+     * 304 response to send; otherwise null.
+     */
+    public <T> ResponseEntity<T> notModified(WebRequest request, String etag, LocalDateTime updatedAt, CacheControl cacheControl) {
+        if (!request.checkNotModified(etag, lastModified(updatedAt))) {
+            return null;
+        }
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+            .eTag(etag)
+            .cacheControl(cacheControl)
+            .build();
+    }
+    
+    /** A 200 response carrying the validators for the representation in the body. */
+    public ResponseEntity.BodyBuilder ok(String etag, LocalDateTime updatedAt, CacheControl cacheControl) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().eTag(etag).cacheControl(cacheControl);
+        long lastModified = lastModified(updatedAt);
+        if (lastModified >= 0) {
+            builder.lastModified(lastModified);
+        }
+        return builder;
+    }
+    
+    private static long epochMicros(LocalDateTime time) {
+        if (time == null) {
+            return 0;
+        }
+        Instant instant = time.atZone(ZoneId.systemDefault()).toInstant();
+        return TimeUnit.SECONDS.toMicros(instant.getEpochSecond()) + instant.getNano() / 1000;
+    }
+}
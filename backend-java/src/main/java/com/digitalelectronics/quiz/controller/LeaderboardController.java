@@ -1,5 +1,6 @@
 package com.digitalelectronics.quiz.controller;
 
+import com.digitalelectronics.quiz.metrics.QueryBudget;
 import com.digitalelectronics.quiz.model.Profile;
 import com.digitalelectronics.quiz.service.ProfileService;
 import lombok.RequiredArgsConstructor;
@@ -16,15 +17,14 @@ import java.util.Map;
 @CrossOrigin(origins = {"http://localhost:8000", "http://localhost:3000", "http://localhost:5500", "http://127.0.0.1:8000", "http://127.0.0.1:5500", "http://127.0.0.1:5501"})
 public class LeaderboardController {
     
+    static final int MAX_LIMIT = 100;
+    
     private final ProfileService profileService;
     
     @GetMapping("/top")
+    @QueryBudget(maxStatements = 1, maxRows = MAX_LIMIT)
     public ResponseEntity<Map<String, Object>> getTopLeaderboard(@RequestParam(defaultValue = "10") int limit) {
-        List<Profile> topProfiles = profileService.getLeaderboard();
-        
-        if (limit > 0 && limit < topProfiles.size()) {
-            topProfiles = topProfiles.subList(0, limit);
-        }
+        List<Profile> topProfiles = profileService.getLeaderboard(clamp(limit));
         
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
@@ -35,12 +35,9 @@ public class LeaderboardController {
     }
     
     @GetMapping("/streaks")
+    @QueryBudget(maxStatements = 1, maxRows = MAX_LIMIT)
     public ResponseEntity<Map<String, Object>> getStreakLeaderboard(@RequestParam(defaultValue = "10") int limit) {
-        List<Profile> topStreaks = profileService.getStreakLeaderboard();
-        
-        if (limit > 0 && limit < topStreaks.size()) {
-            topStreaks = topStreaks.subList(0, limit);
-        }
+        List<Profile> topStreaks = profileService.getStreakLeaderboard(clamp(limit));
         
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
@@ -49,4 +46,9 @@ public class LeaderboardController {
         
         return ResponseEntity.ok(response);
     }
+    
+    // The page is fetched by the database, so "all" (limit <= 0) is capped as well
+    private static int clamp(int limit) {
+        return limit <= 0 || limit > MAX_LIMIT ? MAX_LIMIT : limit;
+    }
 }
@@ -0,0 +1,98 @@
+package com.digitalelectronics.quiz.controller;
+
+import com.digitalelectronics.quiz.live.LiveRoom;
+import com.digitalelectronics.quiz.live.LiveRoomService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/live/rooms")
+@RequiredArgsConstructor
+@CrossOrigin(origins = {"http://localhost:8000", "http://localhost:3000", "http://localhost:5500", "http://127.0.0.1:8000", "http://127.0.0.1:5500", "http://127.0.0.1:5501"})
+public class LiveRoomController {
+    
+    private static final int MAX_SECONDS = 300;
+    
+    private final LiveRoomService liveRoomService;
+    
+    /**
+     * Creates a room for a quiz. The hostKey is returned only here; connecting with it
+     * lets the socket start, skip and end the game.
+     */
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> createRoom(@RequestBody Map<String, Object> request) {
+        UUID quizId;
+        try {
+            quizId = UUID.fromString(String.valueOf(request.get("quizId")));
+        } catch (IllegalArgumentException e) {
+            return failure(HttpStatus.BAD_REQUEST, "quizId is required");
+        }
+        Integer questionSeconds = seconds(request.get("questionSeconds"));
+        Integer revealSeconds = seconds(request.get("revealSeconds"));
+        
+        Optional<LiveRoom> room;
+        try {
+            room = liveRoomService.createRoom(quizId, questionSeconds, revealSeconds);
+        } catch (IllegalStateException e) {
+            return failure(HttpStatus.SERVICE_UNAVAILABLE, "Too many live rooms on this node, try again later");
+        }
+        if (room.isEmpty()) {
+            return failure(HttpStatus.NOT_FOUND, "Quiz not found or has no questions");
+        }
+        Map<String, Object> data = status(room.get());
+        data.put("hostKey", liveRoomService.hostKeyFor(room.get()));
+        data.put("websocket", "/api/live?room=" + room.get().getCode());
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", data);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+    
+    @GetMapping("/{code}")
+    public ResponseEntity<Map<String, Object>> getRoom(@PathVariable String code) {
+        Optional<LiveRoom> room = liveRoomService.getRoom(code);
+        if (room.isEmpty()) {
+            return failure(HttpStatus.NOT_FOUND, "Room not found");
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", status(room.get()));
+        return ResponseEntity.ok(response);
+    }
+    
+    private static Map<String, Object> status(LiveRoom room) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("code", room.getCode());
+        data.put("quizId", room.getQuizId());
+        data.put("title", room.getTitle());
+        data.put("phase", room.getPhase());
+        data.put("questionIndex", room.getQuestionIndex());
+        data.put("totalQuestions", room.getQuestions().size());
+        data.put("questionSeconds", room.getQuestionSeconds());
+        data.put("revealSeconds", room.getRevealSeconds());
+        data.put("participants", room.getParticipants().size());
+        return data;
+    }
+    
+    private static Integer seconds(Object value) {
+        if (!(value instanceof Number number)) {
+            return null;
+        }
+        return Math.max(1, Math.min(MAX_SECONDS, number.intValue()));
+    }
+    
+    private static ResponseEntity<Map<String, Object>> failure(HttpStatus status, String message) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("message", message);
+        return ResponseEntity.status(status).body(response);
+    }
+}
@@ -1,13 +1,26 @@
 package com.digitalelectronics.quiz.controller;
 
+import com.digitalelectronics.quiz.metrics.QueryBudget;
 import com.digitalelectronics.quiz.model.QuizAttempt;
+import com.digitalelectronics.quiz.service.AnswerGrader;
+import com.digitalelectronics.quiz.service.AnswerKey;
+import com.digitalelectronics.quiz.service.AnswerKeyCache;
+import com.digitalelectronics.quiz.service.AttemptShuffle;
+import com.digitalelectronics.quiz.service.AuthService;
+import com.digitalelectronics.quiz.service.IdempotencyService;
 import com.digitalelectronics.quiz.service.QuizAttemptService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 @RestController
@@ -17,6 +30,9 @@ import java.util.UUID;
 public class QuizAttemptController {
     
     private final QuizAttemptService quizAttemptService;
+    private final IdempotencyService idempotencyService;
+    private final AnswerKeyCache answerKeyCache;
+    private final AuthService authService;
     
     @GetMapping("/all")
     public ResponseEntity<List<QuizAttempt>> getAllAttempts() {
@@ -30,13 +46,78 @@ public class QuizAttemptController {
             .orElse(ResponseEntity.notFound().build());
     }
     
+    /**
+     * A submitted attempt's questions in the order that attempt saw them, with options
+     * in its shuffled order, the given answer and the correct one. Only the questions an
+     * adaptive attempt was shown are listed. The order comes from the ids stored at
+     * submit, so questions added to the quiz since are left out; attempts stored without
+     * them fall back to the order rebuilt from the current quiz.
+     */
+    @GetMapping("/{id}/review")
+    @QueryBudget(maxStatements = 3)
+    public ResponseEntity<Map<String, Object>> reviewAttempt(@PathVariable UUID id) {
+        Optional<QuizAttempt> attempt = quizAttemptService.getAttemptById(id);
+        if (attempt.isEmpty() || !Boolean.TRUE.equals(attempt.get().getCompleted())) {
+            return ResponseEntity.notFound().build();
+        }
+        Optional<AnswerKey> answerKey = answerKeyCache.get(attempt.get().getQuizId());
+        if (answerKey.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Map<String, String> answers = attempt.get().getAnswers() != null ? attempt.get().getAnswers() : Map.of();
+        long seed = AttemptShuffle.seed(id);
+        List<AttemptShuffle.Presented> presented;
+        if (attempt.get().getQuestionIds() != null) {
+            presented = new ArrayList<>();
+            for (UUID questionId : attempt.get().getQuestionIds()) {
+                AnswerKey.Item item = answerKey.get().item(questionId);
+                if (item != null) { // Removed from the quiz since
+                    presented.add(AttemptShuffle.question(item, seed));
+                }
+            }
+        } else {
+            boolean partial = attempt.get().getTotalQuestions() != null && attempt.get().getTotalQuestions() < answerKey.get().size();
+            presented = AttemptShuffle.questions(answerKey.get(), seed).stream()
+                .filter(question -> !partial || answers.containsKey(question.id().toString()))
+                .toList();
+        }
+        
+        List<Map<String, Object>> questions = new ArrayList<>();
+        for (AttemptShuffle.Presented question : presented) {
+            String answer = answers.get(question.id().toString());
+            AnswerKey.Item item = answerKey.get().item(question.id());
+            Map<String, Object> reviewed = new HashMap<>();
+            reviewed.put("question", question);
+            reviewed.put("answer", answer);
+            reviewed.put("correctAnswer", item.correctAnswer());
+            reviewed.put("correct", AnswerGrader.isCorrect(item.correctAnswer(), answer));
+            reviewed.put("explanation", item.explanation());
+            questions.add(reviewed);
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("attempt", attempt.get());
+        response.put("questions", questions);
+        return ResponseEntity.ok(response);
+    }
+    
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<QuizAttempt>> getUserAttempts(@PathVariable UUID userId) {
+    public ResponseEntity<List<QuizAttempt>> getUserAttempts(
+            @PathVariable UUID userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since) {
+        if (since != null) {
+            return ResponseEntity.ok(quizAttemptService.getAttemptsByUserIdSince(userId, since));
+        }
         return ResponseEntity.ok(quizAttemptService.getAttemptsByUserId(userId));
     }
     
     @GetMapping("/user/{userId}/completed")
-    public ResponseEntity<List<QuizAttempt>> getUserCompletedAttempts(@PathVariable UUID userId) {
+    public ResponseEntity<List<QuizAttempt>> getUserCompletedAttempts(
+            @PathVariable UUID userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since) {
+        if (since != null) {
+            return ResponseEntity.ok(quizAttemptService.getCompletedAttemptsByUserIdSince(userId, since));
+        }
         return ResponseEntity.ok(quizAttemptService.getCompletedAttemptsByUserId(userId));
     }
     
@@ -50,26 +131,41 @@ public class QuizAttemptController {
         return ResponseEntity.ok(quizAttemptService.getTopScoresByQuizId(quizId));
     }
     
+    /**
+     * The Idempotency-Key is scoped to the user in the bearer token, not the body's userId,
+     * so one caller cannot collide with or replay another's key. Without a token the key
+     * is ignored.
+     */
     @PostMapping("/start")
-    public ResponseEntity<QuizAttempt> startAttempt(@RequestBody QuizAttempt attempt) {
-        try {
-            QuizAttempt created = quizAttemptService.startAttempt(attempt);
-            return ResponseEntity.status(HttpStatus.CREATED).body(created);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+    public ResponseEntity<QuizAttempt> startAttempt(
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @RequestBody QuizAttempt attempt) {
+        Optional<UUID> caller = authHeader != null ? authService.userIdFromToken(bearerToken(authHeader)) : Optional.empty();
+        String key = caller.isPresent() ? idempotencyKey : null;
+        return idempotencyService.execute("start:" + caller.orElse(null), key, attempt, () -> {
+            try {
+                QuizAttempt created = quizAttemptService.startAttempt(attempt);
+                return ResponseEntity.status(HttpStatus.CREATED).body(created);
+            } catch (Exception e) {
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            }
+        });
     }
     
     @PutMapping("/{attemptId}/submit")
     public ResponseEntity<QuizAttempt> submitAttempt(
             @PathVariable UUID attemptId,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @RequestBody QuizAttempt attemptDetails) {
-        try {
-            QuizAttempt submitted = quizAttemptService.submitAttempt(attemptId, attemptDetails);
-            return ResponseEntity.ok(submitted);
-        } catch (RuntimeException e) {
-            return ResponseEntity.notFound().build();
-        }
+        return idempotencyService.execute("submit:" + attemptId, idempotencyKey, attemptDetails, () -> {
+            try {
+                QuizAttempt submitted = quizAttemptService.submitAttempt(attemptId, attemptDetails);
+                return ResponseEntity.ok(submitted);
+            } catch (RuntimeException e) {
+                return ResponseEntity.notFound().build();
+            }
+        });
     }
     
     @DeleteMapping("/{id}")
@@ -81,4 +177,8 @@ public class QuizAttemptController {
             return ResponseEntity.notFound().build();
         }
     }
+    
+    private static String bearerToken(String authHeader) {
+        return authHeader.replace("Bearer ", "");
+    }
 }
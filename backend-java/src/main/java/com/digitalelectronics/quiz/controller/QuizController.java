@@ -1,15 +1,37 @@
 package com.digitalelectronics.quiz.controller;
 
+import com.digitalelectronics.quiz.dto.CatalogVersion;
+import com.digitalelectronics.quiz.dto.QuestionAnalytics;
+import com.digitalelectronics.quiz.metrics.QueryBudget;
 import com.digitalelectronics.quiz.model.Question;
 import com.digitalelectronics.quiz.model.Quiz;
+import com.digitalelectronics.quiz.model.QuizAttempt;
+import com.digitalelectronics.quiz.model.User;
+import com.digitalelectronics.quiz.service.AdaptiveState;
+import com.digitalelectronics.quiz.service.AttemptSession;
+import com.digitalelectronics.quiz.service.AttemptSessionService;
+import com.digitalelectronics.quiz.service.AuthService;
+import com.digitalelectronics.quiz.service.ItemAnalyticsService;
+import com.digitalelectronics.quiz.service.QuizPack;
+import com.digitalelectronics.quiz.service.QuizPackService;
+import com.digitalelectronics.quiz.service.QuizSearchService;
 import com.digitalelectronics.quiz.service.QuizService;
+import com.digitalelectronics.quiz.service.RecommendationService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/quiz")
@@ -18,32 +40,94 @@ import java.util.UUID;
 public class QuizController {
     
     private final QuizService quizService;
+    private final ItemAnalyticsService itemAnalyticsService;
+    private final HttpCaching httpCaching;
+    private final AttemptSessionService attemptSessionService;
+    private final AuthService authService;
+    private final QuizPackService quizPackService;
+    private final RecommendationService recommendationService;
+    private final QuizSearchService quizSearchService;
     
     @GetMapping("/all")
-    public ResponseEntity<List<Quiz>> getAllQuizzes() {
-        return ResponseEntity.ok(quizService.getAllQuizzes());
+    public ResponseEntity<List<Quiz>> getAllQuizzes(WebRequest request) {
+        return catalogResponse(request, "all", quizService::getAllQuizzes);
     }
     
     @GetMapping("/published")
-    public ResponseEntity<List<Quiz>> getPublishedQuizzes() {
-        return ResponseEntity.ok(quizService.getPublishedQuizzes());
+    @QueryBudget(maxStatements = 2)
+    public ResponseEntity<List<Quiz>> getPublishedQuizzes(WebRequest request) {
+        return catalogResponse(request, "published", quizService::getPublishedQuizzes);
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<Quiz> getQuizById(@PathVariable UUID id) {
+    @QueryBudget(maxStatements = 2)
+    public ResponseEntity<Quiz> getQuizById(@PathVariable UUID id, WebRequest request) {
+        // Revalidation only needs the timestamp, not the quiz
+        if (httpCaching.isConditional(request)) {
+            Optional<LocalDateTime> version = quizService.getQuizVersion(id);
+            if (version.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            ResponseEntity<Quiz> notModified = httpCaching.notModified(
+                request, httpCaching.etag("quiz", version.get()), version.get(), httpCaching.catalog());
+            if (notModified != null) {
+                return notModified;
+            }
+        }
         return quizService.getQuizById(id)
-            .map(ResponseEntity::ok)
+            .map(quiz -> {
+                LocalDateTime version = quiz.getUpdatedAt() != null ? quiz.getUpdatedAt() : quiz.getCreatedAt();
+                return httpCaching.ok(httpCaching.etag("quiz", version), version, httpCaching.catalog()).body(quiz);
+            })
             .orElse(ResponseEntity.notFound().build());
     }
     
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<Quiz>> getQuizzesByCategory(@PathVariable String category) {
-        return ResponseEntity.ok(quizService.getQuizzesByCategory(category));
+    public ResponseEntity<List<Quiz>> getQuizzesByCategory(@PathVariable String category, WebRequest request) {
+        return catalogResponse(request, "category", () -> quizService.getQuizzesByCategory(category));
     }
     
     @GetMapping("/difficulty/{difficulty}")
-    public ResponseEntity<List<Quiz>> getQuizzesByDifficulty(@PathVariable String difficulty) {
-        return ResponseEntity.ok(quizService.getQuizzesByDifficulty(difficulty));
+    public ResponseEntity<List<Quiz>> getQuizzesByDifficulty(@PathVariable String difficulty, WebRequest request) {
+        return catalogResponse(request, "difficulty", () -> quizService.getQuizzesByDifficulty(difficulty));
+    }
+    
+    /**
+     * Offline pack of a category's published quizzes, answer keys stripped. With
+     * {@code since} (a previous pack's version) only quizzes changed after it are included;
+     * quizIds always lists the whole pack so clients can drop removed quizzes.
+     */
+    @GetMapping("/packs/{category}")
+    @QueryBudget(maxStatements = 2)
+    public ResponseEntity<byte[]> getQuizPack(
+            @PathVariable String category,
+            @RequestParam(defaultValue = "0") long since,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest request) {
+        Optional<QuizPack> pack = quizPackService.getPack(category);
+        if (pack.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        QuizPack.Encoded body = pack.get().since(since);
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        // Each encoding is a different representation, so it needs its own ETag
+        String etag = gzip ? body.etag() + "-gzip" : body.etag();
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(httpCaching.catalog())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .eTag(etag)
+            .cacheControl(httpCaching.catalog())
+            .varyBy(HttpHeaders.ACCEPT_ENCODING)
+            .contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(gzip ? body.gzip() : body.identity());
     }
     
     @PostMapping("/create")
@@ -69,6 +153,7 @@ public class QuizController {
     }
     
     @DeleteMapping("/{id}")
+    @QueryBudget(maxStatements = 3)
     public ResponseEntity<Void> deleteQuiz(@PathVariable UUID id) {
         try {
             quizService.deleteQuiz(id);
@@ -79,11 +164,67 @@ public class QuizController {
     }
     
     @GetMapping("/{quizId}/questions")
-    public ResponseEntity<List<Question>> getQuizQuestions(@PathVariable UUID quizId) {
-        return ResponseEntity.ok(quizService.getQuestionsByQuizId(quizId));
+    @QueryBudget(maxStatements = 2)
+    public ResponseEntity<List<Question>> getQuizQuestions(@PathVariable UUID quizId, WebRequest request) {
+        // Adding or deleting a question bumps the quiz's updated_at
+        Optional<LocalDateTime> version = quizService.getQuizVersion(quizId);
+        if (version.isEmpty()) {
+            return ResponseEntity.ok(quizService.getQuestionsByQuizId(quizId));
+        }
+        String etag = httpCaching.etag("questions", version.get());
+        ResponseEntity<List<Question>> notModified = httpCaching.notModified(request, etag, version.get(), httpCaching.catalog());
+        if (notModified != null) {
+            return notModified;
+        }
+        return httpCaching.ok(etag, version.get(), httpCaching.catalog()).body(quizService.getQuestionsByQuizId(quizId));
+    }
+    
+    /**
+     * Ranked full-text search over published quiz titles, categories, descriptions and
+     * question text, with prefix and typo matching, served from memory.
+     */
+    @GetMapping("/search/text")
+    @QueryBudget(maxStatements = 2)
+    public ResponseEntity<Map<String, Object>> searchText(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("query", q);
+        data.put("results", quizSearchService.search(q, Math.max(1, Math.min(limit, 100))));
+        return success(HttpStatus.OK, data);
+    }
+    
+    /**
+     * Next quizzes for the user, best first, from the precomputed recommendation index.
+     */
+    @GetMapping("/recommended/{userId}")
+    @QueryBudget(maxStatements = 5)
+    public ResponseEntity<Map<String, Object>> getRecommended(
+            @PathVariable UUID userId,
+            @RequestParam(defaultValue = "0") int limit) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("userId", userId);
+        data.put("recommendations", recommendationService.getRecommended(userId, limit));
+        return success(HttpStatus.OK, data);
+    }
+    
+    @GetMapping("/{quizId}/analytics")
+    public ResponseEntity<Map<String, Object>> getQuizAnalytics(@PathVariable UUID quizId) {
+        Optional<List<QuestionAnalytics>> questions = itemAnalyticsService.getAnalytics(quizId);
+        if (questions.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("quizId", quizId);
+        response.put("questions", questions.get());
+        
+        return ResponseEntity.ok(response);
     }
     
     @PostMapping("/{quizId}/questions")
+    @QueryBudget(maxStatements = 3)
     public ResponseEntity<Question> addQuestion(
             @PathVariable UUID quizId,
             @RequestBody Question question) {
@@ -97,6 +238,7 @@ public class QuizController {
     }
     
     @DeleteMapping("/questions/{questionId}")
+    @QueryBudget(maxStatements = 3)
     public ResponseEntity<Void> deleteQuestion(@PathVariable UUID questionId) {
         try {
             quizService.deleteQuestion(questionId);
@@ -105,4 +247,216 @@ public class QuizController {
             return ResponseEntity.notFound().build();
         }
     }
+    
+    /**
+     * Starts an attempt. With mode=adaptive, questions are served one at a time by
+     * GET /{quizId}/next, up to {@code length} of them.
+     */
+    @PostMapping("/{quizId}/start")
+    @QueryBudget(maxStatements = 6)
+    public ResponseEntity<Map<String, Object>> startQuiz(
+            @PathVariable UUID quizId,
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @RequestParam(required = false) String mode,
+            @RequestParam(required = false) Integer length) {
+        User user;
+        try {
+            user = authService.validateToken(bearerToken(authHeader));
+        } catch (RuntimeException e) {
+            return failure(HttpStatus.UNAUTHORIZED, "Invalid token");
+        }
+        boolean adaptive = "adaptive".equalsIgnoreCase(mode);
+        Optional<AttemptSession> session = adaptive
+            ? attemptSessionService.startAdaptive(user.getId(), quizId, length)
+            : attemptSessionService.start(user.getId(), quizId);
+        if (session.isEmpty()) {
+            return failure(HttpStatus.NOT_FOUND, "Quiz not found");
+        }
+        
+        Map<String, Object> attempt = new HashMap<>();
+        attempt.put("id", session.get().getAttemptId());
+        attempt.put("quizId", quizId);
+        attempt.put("totalQuestions", session.get().getTotalQuestions());
+        attempt.put("mode", adaptive ? "adaptive" : "linear");
+        Map<String, Object> data = new HashMap<>();
+        data.put("attempt", attempt);
+        data.put("timeLimit", session.get().getAnswerKey().getTimeLimit());
+        if (!adaptive) {
+            data.put("questions", attemptSessionService.questions(session.get()));
+        }
+        return success(HttpStatus.CREATED, data);
+    }
+    
+    /**
+     * Next question of an adaptive attempt, picked in memory for the learner's current
+     * ability estimate. done is true once the attempt has enough answers to submit.
+     */
+    @GetMapping("/{quizId}/next")
+    @QueryBudget(maxStatements = 0)
+    public ResponseEntity<Map<String, Object>> nextQuestion(
+            @PathVariable UUID quizId,
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @RequestParam(required = false) String attemptId) {
+        Optional<AttemptSession> session = findSession(quizId, authHeader, attemptId);
+        if (session.isEmpty()) {
+            return failure(HttpStatus.NOT_FOUND, "No active attempt for this quiz");
+        }
+        Optional<UUID> next;
+        try {
+            next = attemptSessionService.next(session.get());
+        } catch (IllegalArgumentException e) {
+            return failure(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        Map<String, Object> data = ability(session.get());
+        data.put("questionId", next.orElse(null));
+        data.put("question", next.map(id -> attemptSessionService.question(session.get(), id)).orElse(null));
+        data.put("done", next.isEmpty());
+        return success(HttpStatus.OK, data);
+    }
+    
+    /**
+     * Grades one answer from memory and returns immediate feedback; nothing is written
+     * until the quiz is submitted. The body carries questionId, answer (or optionIndex into
+     * the attempt's shuffled options), timeSpent and optionally attemptId (otherwise the
+     * caller's latest attempt at this quiz is used).
+     */
+    @PutMapping("/{quizId}/answer")
+    @QueryBudget(maxStatements = 0)
+    public ResponseEntity<Map<String, Object>> submitAnswer(
+            @PathVariable UUID quizId,
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @RequestBody Map<String, Object> body) {
+        UUID questionId;
+        try {
+            questionId = UUID.fromString(String.valueOf(body.get("questionId")));
+        } catch (IllegalArgumentException e) {
+            return failure(HttpStatus.BAD_REQUEST, "questionId is required");
+        }
+        Optional<AttemptSession> session = findSession(quizId, authHeader, body.get("attemptId"));
+        if (session.isEmpty()) {
+            return failure(HttpStatus.NOT_FOUND, "No active attempt for this quiz");
+        }
+        
+        AttemptSession.Answer graded;
+        try {
+            Object answer = body.get("answer");
+            Object optionIndex = body.get("optionIndex");
+            Object timeSpent = body.get("timeSpent");
+            graded = attemptSessionService.answer(session.get(), questionId,
+                answer != null ? answer.toString() : null,
+                optionIndex instanceof Number number ? Integer.valueOf(number.intValue()) : null,
+                timeSpent instanceof Number number ? number.intValue() : 0);
+        } catch (IllegalArgumentException e) {
+            return failure(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        
+        Map<String, Object> data = new HashMap<>();
+        data.put("correct", graded.correct());
+        data.put("points", graded.points());
+        data.put("explanation", session.get().getAnswerKey().item(questionId).explanation());
+        data.put("score", session.get().getScore());
+        data.put("answered", session.get().getAnswered());
+        data.put("totalQuestions", session.get().getTotalQuestions());
+        if (session.get().getAdaptive() != null) {
+            data.putAll(ability(session.get()));
+        }
+        return success(HttpStatus.OK, data);
+    }
+    
+    @PostMapping("/{quizId}/submit")
+    @QueryBudget(maxStatements = 4)
+    public ResponseEntity<Map<String, Object>> submitQuiz(
+            @PathVariable UUID quizId,
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @RequestBody(required = false) Map<String, Object> body) {
+        Optional<AttemptSession> session = findSession(quizId, authHeader, body != null ? body.get("attemptId") : null);
+        if (session.isEmpty()) {
+            return failure(HttpStatus.NOT_FOUND, "No active attempt for this quiz");
+        }
+        int passingScore = session.get().getAnswerKey().getPassingScore();
+        
+        Optional<QuizAttempt> submitted;
+        try {
+            submitted = attemptSessionService.submit(session.get().getAttemptId());
+        } catch (RuntimeException e) {
+            return failure(HttpStatus.NOT_FOUND, "Attempt not found");
+        }
+        if (submitted.isEmpty()) {
+            // A concurrent duplicate submit got there first
+            return failure(HttpStatus.CONFLICT, "Attempt already submitted");
+        }
+        
+        QuizAttempt attempt = submitted.get();
+        int total = attempt.getTotalQuestions() != null ? attempt.getTotalQuestions() : 0;
+        int percentage = total > 0 ? Math.round(100f * attempt.getCorrectAnswers() / total) : 0;
+        Map<String, Object> data = new HashMap<>();
+        data.put("attempt", attempt);
+        data.put("score", attempt.getScore());
+        data.put("correctAnswers", attempt.getCorrectAnswers());
+        data.put("totalQuestions", total);
+        data.put("percentage", percentage);
+        data.put("passed", percentage >= passingScore);
+        return success(HttpStatus.OK, data);
+    }
+    
+    /**
+     * Looks the session up by attempt id when given, else by the token's user. A token,
+     * when sent, must belong to the session's user.
+     */
+    private Optional<AttemptSession> findSession(UUID quizId, String authHeader, Object attemptId) {
+        Optional<UUID> userId = authHeader != null ? authService.userIdFromToken(bearerToken(authHeader)) : Optional.empty();
+        Optional<AttemptSession> session;
+        if (attemptId != null) {
+            try {
+                session = attemptSessionService.find(UUID.fromString(attemptId.toString()));
+            } catch (IllegalArgumentException e) {
+                return Optional.empty();
+            }
+        } else if (userId.isPresent()) {
+            session = attemptSessionService.findLatest(userId.get(), quizId);
+        } else {
+            return Optional.empty();
+        }
+        return session.filter(s -> s.getAnswerKey().getQuizId().equals(quizId))
+            .filter(s -> userId.isEmpty() || userId.get().equals(s.getUserId()));
+    }
+    
+    private static String bearerToken(String authHeader) {
+        return authHeader != null ? authHeader.replace("Bearer ", "") : "";
+    }
+    
+    private static Map<String, Object> ability(AttemptSession session) {
+        AdaptiveState adaptive = session.getAdaptive();
+        Map<String, Object> data = new HashMap<>();
+        data.put("ability", adaptive.getTheta());
+        data.put("standardError", adaptive.getStandardError());
+        data.put("answered", adaptive.getAnswered());
+        data.put("totalQuestions", adaptive.getLength());
+        data.put("done", adaptive.isComplete());
+        return data;
+    }
+    
+    private static ResponseEntity<Map<String, Object>> success(HttpStatus status, Map<String, Object> data) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", data);
+        return ResponseEntity.status(status).body(response);
+    }
+    
+    private static ResponseEntity<Map<String, Object>> failure(HttpStatus status, String message) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("message", message);
+        return ResponseEntity.status(status).body(response);
+    }
+    
+    private ResponseEntity<List<Quiz>> catalogResponse(WebRequest request, String list, Supplier<List<Quiz>> quizzes) {
+        CatalogVersion version = quizService.getCatalogVersion();
+        String etag = httpCaching.etag(list, version.getQuizCount(), version.getLastUpdated());
+        ResponseEntity<List<Quiz>> notModified = httpCaching.notModified(request, etag, version.getLastUpdated(), httpCaching.catalog());
+        if (notModified != null) {
+            return notModified;
+        }
+        return httpCaching.ok(etag, version.getLastUpdated(), httpCaching.catalog()).body(quizzes.get());
+    }
 }
@@ -1,15 +1,20 @@
 package com.digitalelectronics.quiz.controller;
 
 import com.digitalelectronics.quiz.dto.CreateProfileRequest;
+import com.digitalelectronics.quiz.dto.UserProgressSummary;
 import com.digitalelectronics.quiz.model.Profile;
 import com.digitalelectronics.quiz.service.ProfileService;
+import com.digitalelectronics.quiz.service.UserProgressService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @RestController
@@ -20,17 +25,17 @@ import java.util.UUID;
 public class UserController {
     
     private final ProfileService profileService;
+    private final UserProgressService userProgressService;
+    private final HttpCaching httpCaching;
     
     @GetMapping("/profiles")
     public ResponseEntity<List<Profile>> getAllProfiles() {
         return ResponseEntity.ok(profileService.getAllProfiles());
     }
     
-    @GetMapping("/profile/{id}")
-    public ResponseEntity<Profile> getProfileById(@PathVariable UUID id) {
-        return profileService.getProfileById(id)
-            .map(ResponseEntity::ok)
-            .orElse(ResponseEntity.notFound().build());
+    @GetMapping("/profile/{userId}")
+    public ResponseEntity<Profile> getProfileById(@PathVariable UUID userId, WebRequest request) {
+        return profileResponse(userId, request);
     }
     
     @GetMapping("/profile/email/{email}")
@@ -111,9 +116,33 @@ public class UserController {
     }
     
     @GetMapping("/stats/{userId}")
-    public ResponseEntity<Profile> getUserStats(@PathVariable UUID userId) {
+    public ResponseEntity<Profile> getUserStats(@PathVariable UUID userId, WebRequest request) {
+        return profileResponse(userId, request);
+    }
+    
+    @GetMapping("/stats/{userId}/summary")
+    public ResponseEntity<UserProgressSummary> getUserStatsSummary(@PathVariable UUID userId) {
+        return ResponseEntity.ok(userProgressService.getSummary(userId));
+    }
+    
+    private ResponseEntity<Profile> profileResponse(UUID userId, WebRequest request) {
+        // Revalidation only needs the timestamp, not the profile
+        if (httpCaching.isConditional(request)) {
+            Optional<LocalDateTime> version = profileService.getProfileVersion(userId);
+            if (version.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            ResponseEntity<Profile> notModified = httpCaching.notModified(
+                request, httpCaching.etag("profile", version.get()), version.get(), httpCaching.personal());
+            if (notModified != null) {
+                return notModified;
+            }
+        }
         return profileService.getProfileById(userId)
-            .map(ResponseEntity::ok)
+            .map(profile -> {
+                LocalDateTime version = profile.getUpdatedAt() != null ? profile.getUpdatedAt() : profile.getCreatedAt();
+                return httpCaching.ok(httpCaching.etag("profile", version), version, httpCaching.personal()).body(profile);
+            })
             .orElse(ResponseEntity.notFound().build());
     }
 }
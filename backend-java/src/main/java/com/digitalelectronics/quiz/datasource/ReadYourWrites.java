@@ -0,0 +1,79 @@
+package com.digitalelectronics.quiz.datasource;
+
+import com.digitalelectronics.quiz.invalidation.InvalidationEvent;
+import com.digitalelectronics.quiz.invalidation.InvalidationSubscriber;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps reads of a just-written entity on the primary for a short window, so a
+ * lagging replica never shows a user an older score, profile or attempt than the one
+ * they just saved. Writes are learned from invalidation events, which also arrive from
+ * other nodes, keyed by user id (profile, progress, attempt lists) or attempt id. The
+ * ids a request reads for are set by {@link ReadYourWritesInterceptor}.
+ */
+@Component
+public class ReadYourWrites implements InvalidationSubscriber {
+    
+    private static final Set<String> STICKY_TYPES = Set.of(InvalidationEvent.PROFILE, InvalidationEvent.PROGRESS,
+        InvalidationEvent.ATTEMPT, InvalidationEvent.USER_ATTEMPTS);
+    
+    private final long windowNanos;
+    private final Map<UUID, Long> primaryUntil = new ConcurrentHashMap<>();
+    private final ThreadLocal<List<UUID>> subjects = new ThreadLocal<>();
+    
+    public ReadYourWrites(@Value("${replicas.sticky-ms:5000}") long stickyMillis) {
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(stickyMillis);
+    }
+    
+    /** Events are delivered after commit, which is when replicas begin to catch up. */
+    @Override
+    public void onInvalidate(InvalidationEvent event) {
+        if (STICKY_TYPES.contains(event.type())) {
+            primaryUntil.put(UUID.fromString(event.key()), System.nanoTime() + windowNanos);
+        }
+    }
+    
+    @Override
+    public void onInvalidateAll() {
+        // Nothing cached; missed writes only shorten stickiness
+    }
+    
+    /** True when the current request reads for an id that was written within the window. */
+    public boolean requiresPrimary() {
+        List<UUID> ids = subjects.get();
+        if (ids == null) {
+            return false;
+        }
+        long now = System.nanoTime();
+        for (UUID id : ids) {
+            Long until = primaryUntil.get(id);
+            if (until != null && until - now > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    void setSubjects(List<UUID> ids) {
+        subjects.set(ids);
+    }
+    
+    void clearSubjects() {
+        subjects.remove();
+    }
+    
+    @Scheduled(fixedDelay = 60000)
+    public void purgeExpired() {
+        long now = System.nanoTime();
+        primaryUntil.values().removeIf(until -> until - now <= 0);
+    }
+}
@@ -0,0 +1,47 @@
+package com.digitalelectronics.quiz.datasource;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Takes the ids a request reads for from its UUID path variables ({userId}, {id},
+ * {attemptId}, ...). Ids are unique across tables, so an unrelated id never matches a
+ * recent write.
+ */
+@RequiredArgsConstructor
+public class ReadYourWritesInterceptor implements HandlerInterceptor {
+    
+    private final ReadYourWrites readYourWrites;
+    
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Object variables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (variables instanceof Map<?, ?> map && !map.isEmpty()) {
+            List<UUID> ids = new ArrayList<>(map.size());
+            for (Object value : map.values()) {
+                try {
+                    ids.add(UUID.fromString(String.valueOf(value)));
+                } catch (IllegalArgumentException e) {
+                    // Not a UUID; not an entity id
+                }
+            }
+            if (!ids.isEmpty()) {
+                readYourWrites.setSubjects(ids);
+            }
+        }
+        return true;
+    }
+    
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        readYourWrites.clearSubjects();
+    }
+}
@@ -0,0 +1,77 @@
+package com.digitalelectronics.quiz.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Sends read-only transactions to a replica and everything else to the primary.
+ * Must sit behind a LazyConnectionDataSourceProxy so the connection is fetched
+ * once the transaction's read-only flag is known, not when it begins.
+ * <p>
+ * Work wrapped in {@link #onPrimary} reads from the primary even when read-only.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    
+    static final String PRIMARY = "primary";
+    
+    private static final ThreadLocal<Boolean> FORCED_PRIMARY = new ThreadLocal<>();
+    
+    private final ReplicaSet replicaSet;
+    private final ReadYourWrites readYourWrites;
+    
+    public ReplicaRoutingDataSource(ReplicaSet replicaSet, ReadYourWrites readYourWrites) {
+        this.replicaSet = replicaSet;
+        this.readYourWrites = readYourWrites;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, replicaSet.getPrimary());
+        for (ReplicaSet.Replica replica : replicaSet.getReplicas()) {
+            targets.put(replica.getName(), replica.dataSource);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(replicaSet.getPrimary());
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+    
+    /**
+     * Runs {@code work} with every connection it fetches taken from the primary. Used
+     * for cache loads: they run right after an invalidation event, before a replica may
+     * have replayed the write behind it, and what they load is kept until the next one.
+     * Must wrap the transaction rather than run inside one that already has a connection.
+     * A no-op when replicas are disabled.
+     */
+    public static <T> T onPrimary(Supplier<T> work) {
+        boolean outermost = FORCED_PRIMARY.get() == null;
+        FORCED_PRIMARY.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (outermost) {
+                FORCED_PRIMARY.remove();
+            }
+        }
+    }
+    
+    public static void runOnPrimary(Runnable work) {
+        onPrimary(() -> {
+            work.run();
+            return null;
+        });
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || FORCED_PRIMARY.get() != null
+                || readYourWrites.requiresPrimary()) {
+            return PRIMARY;
+        }
+        ReplicaSet.Replica replica = replicaSet.pick();
+        return replica != null ? replica.getName() : PRIMARY;
+    }
+}
+
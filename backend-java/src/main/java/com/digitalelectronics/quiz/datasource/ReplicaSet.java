@@ -0,0 +1,144 @@
+package com.digitalelectronics.quiz.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The primary pool plus the replica pools, with each replica's replay lag checked
+ * in the background. Replicas that are too far behind, or whose check failed, are
+ * left out of rotation until a later check finds them caught up.
+ */
+@Slf4j
+public class ReplicaSet implements DisposableBean {
+    
+    // 0 on a server that is not a replica at all, and on a streaming replica that has replayed everything it
+    // received. -1 when the WAL receiver is not streaming: the replica then stops receiving but, having
+    // replayed what it has, would otherwise look caught up forever.
+    private static final String LAG_QUERY =
+        "SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0 " +
+        "WHEN NOT EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status = 'streaming') THEN -1 " +
+        "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+        "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+    
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final long maxLagMillis;
+    private final AtomicInteger next = new AtomicInteger();
+    
+    public ReplicaSet(DataSource primary, List<Replica> replicas, long maxLagMillis, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.maxLagMillis = maxLagMillis;
+        for (Replica replica : replicas) {
+            Gauge.builder("db.replica.lag", replica, r -> r.lagMillis)
+                .description("Replay lag of the replica in milliseconds, -1 when unreachable")
+                .baseUnit("milliseconds")
+                .tag("replica", replica.name)
+                .register(meterRegistry);
+        }
+    }
+    
+    public DataSource getPrimary() {
+        return primary;
+    }
+    
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+    
+    /** Round-robin over the replicas that are in rotation, or null when none is. */
+    public Replica pick() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+    
+    @Scheduled(fixedDelayString = "${replicas.lag-check-interval-ms:2000}")
+    public void checkLag() {
+        for (Replica replica : replicas) {
+            boolean wasHealthy = replica.healthy;
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout(2);
+                try (ResultSet rs = statement.executeQuery(LAG_QUERY)) {
+                    rs.next();
+                    replica.lagMillis = rs.getLong(1);
+                }
+                replica.healthy = replica.lagMillis >= 0 && replica.lagMillis <= maxLagMillis;
+                if (replica.lagMillis < 0 && wasHealthy) {
+                    log.warn("Replica {} is not streaming from the primary", replica.name);
+                }
+            } catch (Exception e) {
+                replica.lagMillis = -1;
+                replica.healthy = false;
+                if (wasHealthy) {
+                    log.warn("Replica {} lag check failed: {}", replica.name, e.getMessage());
+                }
+            }
+            if (wasHealthy != replica.healthy) {
+                log.info("Replica {} {} rotation (lag {} ms)", replica.name, replica.healthy ? "back in" : "out of", replica.lagMillis);
+            }
+        }
+    }
+    
+    @Override
+    public void destroy() throws Exception {
+        for (Replica replica : replicas) {
+            close(replica.dataSource);
+        }
+        close(primary);
+    }
+    
+    private static void close(DataSource dataSource) throws Exception {
+        if (dataSource instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+    
+    public static final class Replica {
+        
+        final String name;
+        final DataSource dataSource;
+        // Out of rotation until the first lag check has passed
+        volatile boolean healthy;
+        volatile long lagMillis = -1;
+        
+        public Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+        
+        public String getName() {
+            return name;
+        }
+        
+        public DataSource getDataSource() {
+            return dataSource;
+        }
+        
+        public boolean isHealthy() {
+            return healthy;
+        }
+        
+        public long getLagMillis() {
+            return lagMillis;
+        }
+    }
+}
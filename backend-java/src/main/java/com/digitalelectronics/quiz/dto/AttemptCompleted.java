@@ -0,0 +1,23 @@
+package com.digitalelectronics.quiz.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Outbox event written when an attempt is submitted. Consumers update profile
+ * stats, progress aggregates and item analytics from it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttemptCompleted {
+    private UUID attemptId;
+    private UUID userId;
+    private UUID quizId;
+    private Integer score;
+    private LocalDateTime completedAt;
+}
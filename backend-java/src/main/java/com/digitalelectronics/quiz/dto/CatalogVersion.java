@@ -0,0 +1,19 @@
+package com.digitalelectronics.quiz.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fingerprint of the quiz catalog: any create, update or delete of a quiz, or
+ * of one of its questions, changes the count or the latest updated_at.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogVersion {
+    private Long quizCount;
+    private LocalDateTime lastUpdated;
+}
@@ -0,0 +1,20 @@
+package com.digitalelectronics.quiz.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuestionAnalytics {
+    private UUID questionId;
+    private long responses;
+    private long omitted;
+    private double correctRate; // classical difficulty (p-value)
+    private double discrimination; // point-biserial correlation with total score
+    private Map<String, Long> optionCounts;
+}
@@ -0,0 +1,23 @@
+package com.digitalelectronics.quiz.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * A suggested next quiz for GET /quiz/recommended/{userId}. Higher scores rank first;
+ * the reason is a short learner-facing explanation.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Recommendation {
+    private UUID quizId;
+    private String title;
+    private String category;
+    private String difficulty;
+    private double score;
+    private String reason;
+}
@@ -0,0 +1,23 @@
+package com.digitalelectronics.quiz.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * One quiz matching a GET /quiz/search/text query. matchedQuestion is the text of the
+ * question that matched best, or null when only the quiz itself matched.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchHit {
+    private UUID quizId;
+    private String title;
+    private String category;
+    private String difficulty;
+    private double score;
+    private String matchedQuestion;
+}
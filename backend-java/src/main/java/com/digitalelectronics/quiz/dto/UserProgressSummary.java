@@ -0,0 +1,63 @@
+package com.digitalelectronics.quiz.dto;
+
+import com.digitalelectronics.quiz.model.ProgressCounters;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Compact dashboard payload for GET /user/stats/{userId}/summary.
+ * Percentages are 0-100 and rounded to one decimal place.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserProgressSummary {
+    private UUID userId;
+    private long totalPoints;
+    private Stats overall;
+    private Map<String, Stats> quizzes;
+    private Map<String, Stats> categories;
+    private Map<String, Stats> difficulties;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Stats {
+        private int attempts;
+        private double bestScore;
+        private double averageScore;
+        private double passRate;
+        private double mastery; // share of questions answered correctly
+        
+        public static Stats of(ProgressCounters counters) {
+            int attempts = counters.getAttempts();
+            if (attempts == 0) {
+                return new Stats(0, 0, 0, 0, 0);
+            }
+            double mastery = counters.getQuestions() == 0 ? 0 : 100.0 * counters.getCorrectAnswers() / counters.getQuestions();
+            return new Stats(
+                attempts,
+                round(counters.getBestPercent()),
+                round(counters.getSumPercent() / attempts),
+                round(100.0 * counters.getPassed() / attempts),
+                round(mastery));
+        }
+        
+        private static double round(double value) {
+            return Math.round(value * 10) / 10.0;
+        }
+    }
+    
+    public static Map<String, Stats> of(Map<String, ProgressCounters> counters) {
+        Map<String, Stats> stats = new HashMap<>();
+        if (counters != null) {
+            counters.forEach((key, value) -> stats.put(key, Stats.of(value)));
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,418 @@
+package com.digitalelectronics.quiz.health;
+
+import com.digitalelectronics.quiz.config.BoundedDataSource;
+import com.digitalelectronics.quiz.datasource.ReplicaSet;
+import com.digitalelectronics.quiz.invalidation.InvalidationBus;
+import com.digitalelectronics.quiz.outbox.OutboxDispatcher;
+import com.digitalelectronics.quiz.service.AnswerKeyCache;
+import com.digitalelectronics.quiz.service.BatchJobRunner;
+import com.digitalelectronics.quiz.service.QuizSearchService;
+import com.digitalelectronics.quiz.service.RecommendationService;
+import com.digitalelectronics.quiz.warmup.WarmupRunner;
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.LivenessState;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Checks the database, the connection pools, the in-memory caches and the background
+ * workers on its own thread every health.check-interval-ms and keeps the result as an
+ * immutable snapshot. The liveness and readiness probes only read that snapshot, so a
+ * probe never blocks and probe traffic from the orchestrator, however frequent, never
+ * reaches the database: each node pings it once per interval.
+ * <ul>
+ *   <li>Live: Spring reports the context as correct and the checker itself is still
+ *       making progress.</li>
+ *   <li>Ready: additionally the node accepts traffic (not still warming up or shutting
+ *       down), the snapshot is fresh and the database answered recently.</li>
+ * </ul>
+ * Cache and background job state is reported but never fails a probe: a failing job or
+ * a disconnected listener affects every node alike, and taking all of them out of
+ * rotation would turn it into an outage. Pool saturation (counting callers queued on the
+ * db.concurrency limit, who never reach Hikari's waiters) is the same during an exam
+ * spike, when every node saturates at once, so it only fails readiness with
+ * health.fail-ready-on-saturation. While the pool is saturated the ping is skipped,
+ * since it would only queue behind requests.
+ */
+@Component
+@Slf4j
+public class DependencyHealthChecker implements SmartLifecycle {
+
+    public record Probe(boolean up, List<String> reasons, Instant checkedAt, long ageMs, Map<String, Object> checks) {}
+
+    private record Snapshot(Instant checkedAt, long checkedAtNanos, boolean databaseUp, boolean poolSaturated,
+                            Map<String, Object> checks) {}
+
+    private final DataSource dataSource;
+    private final ObjectProvider<ReplicaSet> replicaSet;
+    private final ApplicationAvailability availability;
+    private final BatchJobRunner batchJobRunner;
+    private final OutboxDispatcher outboxDispatcher;
+    private final InvalidationBus invalidationBus;
+    private final WarmupRunner warmupRunner;
+    private final QuizSearchService quizSearchService;
+    private final AnswerKeyCache answerKeyCache;
+    private final RecommendationService recommendationService;
+    private final long intervalMillis;
+    private final long pingTimeoutMillis;
+    private final int databaseFailureThreshold;
+    private final int poolSaturatedThreshold;
+    private final boolean failReadyOnSaturation;
+    private final long staleAfterNanos;
+    private final long livenessStaleAfterNanos;
+
+    // Only touched by the checker thread
+    private int consecutiveDatabaseFailures;
+    private int consecutiveSaturatedChecks;
+    private Map<String, Object> lastDatabase;
+    private Future<Map<String, Object>> pendingPing;
+    private final ExecutorService pinger = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "health-ping");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final long startedAtNanos = System.nanoTime();
+    private volatile Snapshot snapshot;
+    private volatile long lastPingMillis = -1;
+    private volatile boolean running;
+    private volatile Thread worker;
+
+    public DependencyHealthChecker(
+            DataSource dataSource,
+            ObjectProvider<ReplicaSet> replicaSet,
+            ApplicationAvailability availability,
+            BatchJobRunner batchJobRunner,
+            OutboxDispatcher outboxDispatcher,
+            InvalidationBus invalidationBus,
+            WarmupRunner warmupRunner,
+            QuizSearchService quizSearchService,
+            AnswerKeyCache answerKeyCache,
+            RecommendationService recommendationService,
+            MeterRegistry meterRegistry,
+            @Value("${health.check-interval-ms:5000}") long intervalMillis,
+            @Value("${health.db-timeout-ms:2000}") long pingTimeoutMillis,
+            @Value("${health.db-failure-threshold:2}") int databaseFailureThreshold,
+            @Value("${health.pool-saturated-threshold:3}") int poolSaturatedThreshold,
+            @Value("${health.fail-ready-on-saturation:false}") boolean failReadyOnSaturation,
+            @Value("${health.stale-after-ms:15000}") long staleAfterMillis,
+            @Value("${health.liveness-stale-after-ms:60000}") long livenessStaleAfterMillis) {
+        this.dataSource = dataSource;
+        this.replicaSet = replicaSet;
+        this.availability = availability;
+        this.batchJobRunner = batchJobRunner;
+        this.outboxDispatcher = outboxDispatcher;
+        this.invalidationBus = invalidationBus;
+        this.warmupRunner = warmupRunner;
+        this.quizSearchService = quizSearchService;
+        this.answerKeyCache = answerKeyCache;
+        this.recommendationService = recommendationService;
+        this.intervalMillis = intervalMillis;
+        this.pingTimeoutMillis = pingTimeoutMillis;
+        this.databaseFailureThreshold = Math.max(1, databaseFailureThreshold);
+        this.poolSaturatedThreshold = Math.max(1, poolSaturatedThreshold);
+        this.failReadyOnSaturation = failReadyOnSaturation;
+        this.staleAfterNanos = staleAfterMillis * 1_000_000;
+        this.livenessStaleAfterNanos = livenessStaleAfterMillis * 1_000_000;
+        Gauge.builder("health.ready", this, checker -> checker.readiness().up() ? 1 : 0)
+            .description("1 while the readiness probe reports UP")
+            .register(meterRegistry);
+        Gauge.builder("health.db.ping", this, checker -> checker.lastPingMillis)
+            .description("Latency of the last background database ping, -1 when it failed")
+            .baseUnit("milliseconds")
+            .register(meterRegistry);
+    }
+
+    /** Whether the process should be restarted; never looks at dependencies. */
+    public Probe liveness() {
+        Snapshot current = snapshot;
+        long sinceProgress = System.nanoTime() - (current != null ? current.checkedAtNanos() : startedAtNanos);
+        List<String> reasons = new ArrayList<>();
+        if (availability.getLivenessState() != LivenessState.CORRECT) {
+            reasons.add("application state is " + availability.getLivenessState());
+        }
+        if (sinceProgress > livenessStaleAfterNanos) {
+            reasons.add("health checker has not completed a check for " + sinceProgress / 1_000_000 + " ms");
+        }
+        return probe(current, reasons, false);
+    }
+
+    /** Whether the load balancer should send this node traffic. */
+    public Probe readiness() {
+        Snapshot current = snapshot;
+        List<String> reasons = new ArrayList<>();
+        if (availability.getReadinessState() != ReadinessState.ACCEPTING_TRAFFIC) {
+            reasons.add("application state is " + availability.getReadinessState());
+        }
+        if (current == null) {
+            reasons.add("no dependency check has completed yet");
+        } else {
+            if (System.nanoTime() - current.checkedAtNanos() > staleAfterNanos) {
+                reasons.add("last dependency check is stale");
+            }
+            if (!current.databaseUp()) {
+                reasons.add("database unreachable");
+            }
+            if (failReadyOnSaturation && current.poolSaturated()) {
+                reasons.add("connection pool saturated");
+            }
+        }
+        return probe(current, reasons, true);
+    }
+
+    @Override
+    public void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::run, "health-checker");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = worker;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pinger.shutdownNow();
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                snapshot = check();
+            } catch (RuntimeException e) {
+                // Leaves the previous snapshot in place; readiness goes down once it is stale
+                log.warn("Dependency health check failed", e);
+            }
+            try {
+                Thread.sleep(intervalMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private Snapshot check() {
+        Map<String, Object> checks = new LinkedHashMap<>();
+
+        Map<String, HikariDataSource> pools = pools();
+        Map<String, Object> poolChecks = new LinkedHashMap<>();
+        boolean primarySaturated = false;
+        for (Map.Entry<String, HikariDataSource> entry : pools.entrySet()) {
+            Map<String, Object> pool = pool(entry.getValue());
+            poolChecks.put(entry.getKey(), pool);
+            if (entry.getKey().equals("primary")) {
+                primarySaturated = Boolean.TRUE.equals(pool.get("saturated"));
+            }
+        }
+        if (dataSource instanceof BoundedDataSource bounded) {
+            // With the limit on, callers queue for a permit before they reach Hikari
+            Map<String, Object> limit = limit(bounded);
+            poolChecks.put("concurrencyLimit", limit);
+            primarySaturated |= Boolean.TRUE.equals(limit.get("saturated"));
+        }
+        consecutiveSaturatedChecks = primarySaturated ? consecutiveSaturatedChecks + 1 : 0;
+        poolChecks.put("consecutiveSaturatedChecks", consecutiveSaturatedChecks);
+        poolChecks.put("saturated", consecutiveSaturatedChecks >= poolSaturatedThreshold);
+
+        Map<String, Object> database;
+        if (primarySaturated && lastDatabase != null) {
+            // The ping would only queue behind requests for a connection; keep the last result
+            database = new LinkedHashMap<>(lastDatabase);
+            database.put("skipped", "pool saturated");
+        } else {
+            database = ping(pools.get("primary"));
+            consecutiveDatabaseFailures = Boolean.TRUE.equals(database.get("up")) ? 0 : consecutiveDatabaseFailures + 1;
+            database.put("consecutiveFailures", consecutiveDatabaseFailures);
+            lastDatabase = database;
+        }
+        checks.put("database", database);
+        checks.put("pools", poolChecks);
+
+        ReplicaSet replicas = replicaSet.getIfAvailable();
+        if (replicas != null) {
+            Map<String, Object> replicaChecks = new LinkedHashMap<>();
+            for (ReplicaSet.Replica replica : replicas.getReplicas()) {
+                replicaChecks.put(replica.getName(), Map.of("inRotation", replica.isHealthy(), "lagMs", replica.getLagMillis()));
+            }
+            checks.put("replicas", replicaChecks);
+        }
+
+        Map<String, Object> caches = new LinkedHashMap<>();
+        caches.put("warmup", warmupRunner.getStats().get("state"));
+        caches.put("searchIndexBuilt", quizSearchService.isIndexBuilt());
+        caches.put("searchDocuments", quizSearchService.documentCount());
+        caches.put("answerKeys", answerKeyCache.size());
+        caches.put("recommendationUsers", recommendationService.size());
+        checks.put("caches", caches);
+
+        Map<String, Object> background = new LinkedHashMap<>();
+        Map<String, Object> jobs = new LinkedHashMap<>();
+        batchJobRunner.getStats().forEach((name, stats) -> jobs.put(name, Map.of(
+            "status", stats.getLastError() != null ? "failing" : stats.getRuns() > 0 ? "ok" : "idle",
+            "runs", stats.getRuns(),
+            "failures", stats.getFailures())));
+        background.put("jobs", jobs);
+        Map<String, Object> outbox = new LinkedHashMap<>(outboxDispatcher.getStats());
+        outbox.put("running", outboxDispatcher.isRunning());
+        background.put("outbox", outbox);
+        background.put("invalidation", Map.of(
+            "running", invalidationBus.isRunning(), "connected", invalidationBus.isConnected()));
+        checks.put("background", background);
+
+        return new Snapshot(Instant.now(), System.nanoTime(),
+            consecutiveDatabaseFailures < databaseFailureThreshold,
+            consecutiveSaturatedChecks >= poolSaturatedThreshold,
+            checks);
+    }
+
+    /**
+     * Borrows one connection from the primary pool, bypassing any concurrency limit in
+     * front of it, on the ping thread. Waits at most health.db-timeout-ms, so an
+     * unreachable database cannot hold up the other checks for Hikari's connection timeout.
+     */
+    private Map<String, Object> ping(HikariDataSource primary) {
+        if (pendingPing == null) {
+            DataSource target = primary != null ? primary : dataSource;
+            long startedAt = System.nanoTime();
+            pendingPing = pinger.submit(() -> validate(target, startedAt));
+        }
+        Map<String, Object> result;
+        try {
+            result = pendingPing.get(pingTimeoutMillis, TimeUnit.MILLISECONDS);
+            pendingPing = null;
+        } catch (TimeoutException e) {
+            // Still running: the next check waits on the same ping instead of starting another
+            result = failure("no answer within " + pingTimeoutMillis + " ms", pingTimeoutMillis);
+        } catch (ExecutionException e) {
+            pendingPing = null;
+            result = failure(e.getCause().getMessage(), -1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result = failure("interrupted", -1);
+        }
+        lastPingMillis = Boolean.TRUE.equals(result.get("up")) ? (long) result.get("latencyMs") : -1;
+        return result;
+    }
+
+    private Map<String, Object> validate(DataSource target, long startedAt) {
+        try (Connection connection = target.getConnection()) {
+            int timeoutSeconds = (int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(pingTimeoutMillis));
+            if (!connection.isValid(timeoutSeconds)) {
+                return failure("connection failed validation", (System.nanoTime() - startedAt) / 1_000_000);
+            }
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("up", true);
+            result.put("latencyMs", (System.nanoTime() - startedAt) / 1_000_000);
+            return result;
+        } catch (SQLException e) {
+            return failure(e.getMessage(), (System.nanoTime() - startedAt) / 1_000_000);
+        }
+    }
+
+    private static Map<String, Object> failure(String error, long latencyMs) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("up", false);
+        result.put("latencyMs", latencyMs);
+        result.put("error", error);
+        return result;
+    }
+
+    private Map<String, HikariDataSource> pools() {
+        Map<String, HikariDataSource> pools = new LinkedHashMap<>();
+        ReplicaSet replicas = replicaSet.getIfAvailable();
+        if (replicas != null) {
+            addPool(pools, "primary", replicas.getPrimary());
+            for (ReplicaSet.Replica replica : replicas.getReplicas()) {
+                addPool(pools, replica.getName(), replica.getDataSource());
+            }
+        } else {
+            addPool(pools, "primary", dataSource);
+        }
+        return pools;
+    }
+
+    private static void addPool(Map<String, HikariDataSource> pools, String name, DataSource candidate) {
+        HikariDataSource pool = DataSourceUnwrapper.unwrap(candidate, HikariConfigMXBean.class, HikariDataSource.class);
+        if (pool != null) {
+            pools.put(name, pool);
+        }
+    }
+
+    private static Map<String, Object> pool(HikariDataSource dataSource) {
+        Map<String, Object> pool = new LinkedHashMap<>();
+        HikariPoolMXBean bean = dataSource.getHikariPoolMXBean();
+        int max = dataSource.getMaximumPoolSize();
+        pool.put("max", max);
+        if (bean == null) {
+            pool.put("started", false); // Hikari starts the pool on the first getConnection
+            return pool;
+        }
+        int active = bean.getActiveConnections();
+        int waiting = bean.getThreadsAwaitingConnection();
+        pool.put("active", active);
+        pool.put("idle", bean.getIdleConnections());
+        pool.put("waiting", waiting);
+        pool.put("utilization", max > 0 ? (double) active / max : 0);
+        pool.put("saturated", active >= max && waiting > 0);
+        return pool;
+    }
+
+    private static Map<String, Object> limit(BoundedDataSource bounded) {
+        Map<String, Object> limit = new LinkedHashMap<>();
+        int available = bounded.getAvailablePermits();
+        int waiting = bounded.getQueueLength();
+        limit.put("available", available);
+        limit.put("waiting", waiting);
+        limit.put("saturated", available == 0 && waiting > 0);
+        return limit;
+    }
+
+    private Probe probe(Snapshot current, List<String> reasons, boolean withChecks) {
+        if (current == null) {
+            return new Probe(reasons.isEmpty(), reasons, null, -1, Map.of());
+        }
+        long ageMs = (System.nanoTime() - current.checkedAtNanos()) / 1_000_000;
+        return new Probe(reasons.isEmpty(), reasons, current.checkedAt(), ageMs, withChecks ? current.checks() : Map.of());
+    }
+}
@@ -0,0 +1,262 @@
+package com.digitalelectronics.quiz.invalidation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cross-node cache invalidation over Postgres LISTEN/NOTIFY, so several instances
+ * can share one database without a message broker.
+ * <ul>
+ *   <li>Events are sent with pg_notify inside the writing transaction, so Postgres
+ *       delivers them only if and when it commits.</li>
+ *   <li>Local subscribers get the event after commit; remote nodes get it from a
+ *       dedicated listener connection and skip their own events.</li>
+ *   <li>NOTIFY has no replay, so when the listener connection drops, every
+ *       subscriber is told to drop everything once it is back.</li>
+ *   <li>Subscribers reload from the primary, not a replica, so a reload never
+ *       caches rows from before the write that triggered it.</li>
+ * </ul>
+ * Payload: {@code type|key|origin|sentAtMillis}.
+ */
+@Component
+@Slf4j
+public class InvalidationBus implements SmartLifecycle {
+    
+    static final String CHANNEL = "quiz_invalidation";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final ObjectProvider<InvalidationSubscriber> subscribers;
+    private final boolean enabled;
+    private final long maxBackoffMillis;
+    private final String nodeId = UUID.randomUUID().toString().substring(0, 8);
+    
+    private final Timer propagation;
+    private final Counter published;
+    private final Counter received;
+    private final Counter reconnects;
+    
+    private volatile boolean running;
+    private volatile boolean connected;
+    private volatile Thread listener;
+    private volatile Connection connection;
+    
+    public InvalidationBus(
+            JdbcTemplate jdbcTemplate,
+            DataSourceProperties dataSourceProperties,
+            ObjectProvider<InvalidationSubscriber> subscribers,
+            MeterRegistry meterRegistry,
+            @Value("${invalidation.enabled:true}") boolean enabled,
+            @Value("${invalidation.max-reconnect-backoff-ms:30000}") long maxBackoffMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.subscribers = subscribers;
+        this.enabled = enabled;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.propagation = Timer.builder("invalidation.propagation")
+            .description("Time from NOTIFY on one node to dispatch on another (includes clock skew)")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.published = meterRegistry.counter("invalidation.published");
+        this.received = meterRegistry.counter("invalidation.received");
+        this.reconnects = meterRegistry.counter("invalidation.reconnects");
+        meterRegistry.gauge("invalidation.connected", this, bus -> bus.connected ? 1 : 0);
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void notifyOtherNodes(InvalidationEvent event) {
+        if (!enabled) {
+            return;
+        }
+        String payload = String.join("|", event.type(), event.key(), nodeId, Long.toString(System.currentTimeMillis()));
+        jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", CHANNEL, payload);
+        published.increment();
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void dispatchLocally(InvalidationEvent event) {
+        dispatch(event);
+    }
+    
+    public boolean isConnected() {
+        return connected;
+    }
+    
+    public String getNodeId() {
+        return nodeId;
+    }
+    
+    @Override
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        listener = new Thread(this::listen, "invalidation-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+    
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = listener;
+        if (thread != null) {
+            thread.interrupt();
+        }
+        closeQuietly();
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+    
+    private void listen() {
+        long backoff = 500;
+        boolean missedEvents = false;
+        while (running) {
+            try {
+                connect();
+                if (missedEvents) {
+                    log.warn("Invalidation listener reconnected; flushing all caches");
+                    reconnects.increment();
+                    dispatchAll();
+                }
+                missedEvents = true;
+                backoff = 500;
+                receive();
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("Invalidation listener connection failed: {}; retrying in {} ms", e.getMessage(), backoff);
+                }
+            } catch (RuntimeException e) {
+                // Anything else would end the thread and leave every cache on this node unflushed
+                if (running) {
+                    log.error("Invalidation listener failed; retrying in {} ms", backoff, e);
+                }
+            } finally {
+                connected = false;
+                closeQuietly();
+            }
+            if (!running) {
+                return;
+            }
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                return;
+            }
+            backoff = Math.min(backoff * 2, maxBackoffMillis);
+        }
+    }
+    
+    private void connect() throws SQLException {
+        Properties properties = new Properties();
+        // Properties rejects nulls; leave unset credentials to the URL or the driver's defaults
+        setIfPresent(properties, "user", dataSourceProperties.determineUsername());
+        setIfPresent(properties, "password", dataSourceProperties.determinePassword());
+        properties.setProperty("tcpKeepAlive", "true");
+        properties.setProperty("ApplicationName", "quiz-invalidation-" + nodeId);
+        // Not from the pool: it is held for the lifetime of the node
+        connection = DriverManager.getConnection(dataSourceProperties.determineUrl(), properties);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("LISTEN " + CHANNEL);
+        }
+        connected = true;
+        log.info("Listening for cache invalidations on {} as node {}", CHANNEL, nodeId);
+    }
+    
+    private static void setIfPresent(Properties properties, String key, String value) {
+        if (value != null) {
+            properties.setProperty(key, value);
+        }
+    }
+    
+    private void receive() throws SQLException {
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        while (running) {
+            PGNotification[] notifications = pgConnection.getNotifications(10_000);
+            if (notifications == null || notifications.length == 0) {
+                // Round trip so a dead connection surfaces as an exception
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("SELECT 1");
+                }
+                continue;
+            }
+            for (PGNotification notification : notifications) {
+                handle(notification.getParameter());
+            }
+        }
+    }
+    
+    private void handle(String payload) {
+        String[] parts = payload.split("\\|", 4);
+        if (parts.length != 4) {
+            log.warn("Ignoring malformed invalidation payload: {}", payload);
+            return;
+        }
+        if (parts[2].equals(nodeId)) {
+            return; // already dispatched locally after commit
+        }
+        received.increment();
+        try {
+            propagation.record(Math.max(0, System.currentTimeMillis() - Long.parseLong(parts[3])), TimeUnit.MILLISECONDS);
+        } catch (NumberFormatException e) {
+            // Still dispatch; only the latency sample is lost
+        }
+        dispatch(new InvalidationEvent(parts[0], parts[1]));
+    }
+    
+    private void dispatch(InvalidationEvent event) {
+        subscribers.orderedStream().forEach(subscriber -> {
+            try {
+                subscriber.onInvalidate(event);
+            } catch (RuntimeException e) {
+                log.warn("Invalidation subscriber {} failed for {}", subscriber.getClass().getSimpleName(), event, e);
+            }
+        });
+    }
+    
+    private void dispatchAll() {
+        subscribers.orderedStream().forEach(subscriber -> {
+            try {
+                subscriber.onInvalidateAll();
+            } catch (RuntimeException e) {
+                log.warn("Invalidation subscriber {} failed to flush", subscriber.getClass().getSimpleName(), e);
+            }
+        });
+    }
+    
+    private void closeQuietly() {
+        Connection current = connection;
+        connection = null;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (SQLException e) {
+                log.debug("Error closing invalidation listener connection", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.digitalelectronics.quiz.invalidation;
+
+import java.util.UUID;
+
+/**
+ * "Entity of this type and key changed." Published through Spring's
+ * ApplicationEventPublisher inside the writing transaction; {@link InvalidationBus}
+ * hands it to local subscribers after commit and to other nodes over NOTIFY.
+ */
+public record InvalidationEvent(String type, String key) {
+    
+    public static final String QUIZ = "quiz";
+    public static final String PROFILE = "profile";
+    public static final String PROGRESS = "progress";
+    // Nothing caches attempts; these only keep the writer's next reads on the primary
+    public static final String ATTEMPT = "attempt";
+    public static final String USER_ATTEMPTS = "user-attempts";
+    
+    public static InvalidationEvent quiz(UUID quizId) {
+        return new InvalidationEvent(QUIZ, quizId.toString());
+    }
+    
+    public static InvalidationEvent profile(UUID userId) {
+        return new InvalidationEvent(PROFILE, userId.toString());
+    }
+    
+    public static InvalidationEvent progress(UUID userId) {
+        return new InvalidationEvent(PROGRESS, userId.toString());
+    }
+    
+    public static InvalidationEvent attempt(UUID attemptId) {
+        return new InvalidationEvent(ATTEMPT, attemptId.toString());
+    }
+    
+    public static InvalidationEvent userAttempts(UUID userId) {
+        return new InvalidationEvent(USER_ATTEMPTS, userId.toString());
+    }
+}
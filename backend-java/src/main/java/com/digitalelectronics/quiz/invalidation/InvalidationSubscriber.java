@@ -0,0 +1,21 @@
+package com.digitalelectronics.quiz.invalidation;
+
+/**
+ * Implemented by beans that keep in-process copies of database state.
+ * <p>
+ * Reloads must read from the primary, e.g. inside
+ * {@link com.digitalelectronics.quiz.datasource.ReplicaRoutingDataSource#onPrimary}: an
+ * event arrives as soon as the write commits, when a replica may still return the old
+ * rows, and a stale reload would be served until the next event.
+ */
+public interface InvalidationSubscriber {
+    
+    /** Called for every event, local or remote; ignore the types you do not cache. */
+    void onInvalidate(InvalidationEvent event);
+    
+    /**
+     * Called when events may have been missed, e.g. after the listener connection
+     * dropped, so everything cached must be considered stale.
+     */
+    void onInvalidateAll();
+}
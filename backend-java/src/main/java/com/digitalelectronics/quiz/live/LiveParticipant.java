@@ -0,0 +1,58 @@
+package com.digitalelectronics.quiz.live;
+
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One WebSocket connection in a room. The session is a
+ * ConcurrentWebSocketSessionDecorator, so fan-out threads and replies to the
+ * participant's own messages can send to it at the same time.
+ */
+public class LiveParticipant {
+    
+    private final WebSocketSession session;
+    private final String name;
+    private final boolean host;
+    private final AtomicInteger score = new AtomicInteger();
+    // Index of the last question answered; -1 before the first
+    private final AtomicInteger answeredIndex = new AtomicInteger(-1);
+    
+    LiveParticipant(WebSocketSession session, String name, boolean host) {
+        this.session = session;
+        this.name = name;
+        this.host = host;
+    }
+    
+    /**
+     * Claims the right to answer the given question; false if already answered.
+     */
+    boolean claimAnswer(int questionIndex) {
+        int previous = answeredIndex.get();
+        return previous < questionIndex && answeredIndex.compareAndSet(previous, questionIndex);
+    }
+    
+    void addScore(int points) {
+        score.addAndGet(points);
+    }
+    
+    public WebSocketSession getSession() {
+        return session;
+    }
+    
+    public String getId() {
+        return session.getId();
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public boolean isHost() {
+        return host;
+    }
+    
+    public int getScore() {
+        return score.get();
+    }
+}
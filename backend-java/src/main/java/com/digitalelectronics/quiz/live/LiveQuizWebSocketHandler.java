@@ -0,0 +1,124 @@
+package com.digitalelectronics.quiz.live;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.Optional;
+
+/**
+ * WebSocket endpoint for live rooms: /api/live?room=CODE&amp;name=...[&amp;host=KEY].
+ * Clients send {"type":"answer","questionIndex":n,"answer":"..."}; the host may
+ * also send {"type":"start"}, {"type":"next"} and {"type":"end"}.
+ */
+@Component
+@Slf4j
+public class LiveQuizWebSocketHandler extends TextWebSocketHandler {
+    
+    private static final String ROOM = "liveRoom";
+    private static final String PARTICIPANT = "liveParticipant";
+    private static final int MAX_NAME_LENGTH = 40;
+    
+    private final LiveRoomService liveRoomService;
+    private final ObjectMapper objectMapper;
+    private final int sendTimeLimitMillis;
+    private final int sendBufferLimitBytes;
+    
+    public LiveQuizWebSocketHandler(
+            LiveRoomService liveRoomService,
+            ObjectMapper objectMapper,
+            @Value("${live.send-time-limit-ms:2000}") int sendTimeLimitMillis,
+            @Value("${live.send-buffer-limit-bytes:65536}") int sendBufferLimitBytes) {
+        this.liveRoomService = liveRoomService;
+        this.objectMapper = objectMapper;
+        this.sendTimeLimitMillis = sendTimeLimitMillis;
+        this.sendBufferLimitBytes = sendBufferLimitBytes;
+    }
+    
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        MultiValueMap<String, String> params = session.getUri() != null
+            ? UriComponentsBuilder.fromUri(session.getUri()).build().getQueryParams()
+            : null;
+        Optional<LiveRoom> room = liveRoomService.getRoom(params != null ? params.getFirst("room") : null);
+        if (room.isEmpty()) {
+            session.close(CloseStatus.POLICY_VIOLATION.withReason("Unknown room"));
+            return;
+        }
+        boolean host = liveRoomService.isHostKey(room.get(), params.getFirst("host"));
+        String name = host ? "host" : displayName(params.getFirst("name"));
+        
+        // A slow client overflows its own buffer and is dropped instead of stalling the fan-out
+        WebSocketSession concurrent = new ConcurrentWebSocketSessionDecorator(session, sendTimeLimitMillis,
+            sendBufferLimitBytes, ConcurrentWebSocketSessionDecorator.OverflowStrategy.TERMINATE);
+        LiveParticipant participant = new LiveParticipant(concurrent, name, host);
+        if (!liveRoomService.join(room.get(), participant)) {
+            session.close(CloseStatus.SERVICE_OVERLOAD.withReason("Room is full or finished"));
+            return;
+        }
+        session.getAttributes().put(ROOM, room.get());
+        session.getAttributes().put(PARTICIPANT, participant);
+    }
+    
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
+        LiveRoom room = (LiveRoom) session.getAttributes().get(ROOM);
+        LiveParticipant participant = (LiveParticipant) session.getAttributes().get(PARTICIPANT);
+        if (room == null || participant == null) {
+            return;
+        }
+        JsonNode frame;
+        try {
+            frame = objectMapper.readTree(message.getPayload());
+        } catch (Exception e) {
+            return;
+        }
+        String type = frame.path("type").asText();
+        switch (type) {
+            case "answer" -> liveRoomService.answer(room, participant,
+                frame.path("questionIndex").asInt(-1), frame.path("answer").asText(null));
+            case "start" -> {
+                if (participant.isHost()) {
+                    liveRoomService.start(room);
+                }
+            }
+            case "next" -> {
+                if (participant.isHost()) {
+                    liveRoomService.advance(room);
+                }
+            }
+            case "end" -> {
+                if (participant.isHost()) {
+                    liveRoomService.end(room);
+                }
+            }
+            default -> log.debug("Ignoring live frame of type {}", type);
+        }
+    }
+    
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        LiveRoom room = (LiveRoom) session.getAttributes().get(ROOM);
+        LiveParticipant participant = (LiveParticipant) session.getAttributes().get(PARTICIPANT);
+        if (room != null && participant != null) {
+            liveRoomService.leave(room, participant);
+        }
+    }
+    
+    private static String displayName(String name) {
+        if (name == null || name.isBlank()) {
+            return "player";
+        }
+        String trimmed = name.trim();
+        return trimmed.length() > MAX_NAME_LENGTH ? trimmed.substring(0, MAX_NAME_LENGTH) : trimmed;
+    }
+}
@@ -0,0 +1,192 @@
+package com.digitalelectronics.quiz.live;
+
+import com.digitalelectronics.quiz.model.Question;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory state of one live room. Phase changes run under the room's monitor on
+ * the timer thread or a host message; answers only read the volatile tally, which
+ * carries its own question index and deadline, and bump striped counters, so hundreds of
+ * simultaneous answers never contend on a lock.
+ */
+public class LiveRoom {
+    
+    public enum Phase { LOBBY, QUESTION, REVEAL, FINISHED }
+    
+    private final String code;
+    private final UUID quizId;
+    private final String title;
+    private final String hostKey;
+    private final List<Question> questions;
+    private final int questionSeconds;
+    private final int revealSeconds;
+    private final Map<String, LiveParticipant> participants = new ConcurrentHashMap<>();
+    // Set when participants or answers change; the status tick sends at most one frame per interval
+    private final AtomicBoolean statusDirty = new AtomicBoolean();
+    private final long createdAtMillis = System.currentTimeMillis();
+    
+    private volatile Phase phase = Phase.LOBBY;
+    private volatile int questionIndex = -1;
+    private volatile Tally tally;
+    
+    // Guarded by this
+    ScheduledFuture<?> pendingTransition;
+    ScheduledFuture<?> statusTick;
+    // Written only by the expiry sweep; 0 while someone is connected
+    long emptySinceMillis = createdAtMillis;
+    
+    LiveRoom(String code, UUID quizId, String title, String hostKey, List<Question> questions,
+             int questionSeconds, int revealSeconds) {
+        this.code = code;
+        this.quizId = quizId;
+        this.title = title;
+        this.hostKey = hostKey;
+        this.questions = List.copyOf(questions);
+        this.questionSeconds = questionSeconds;
+        this.revealSeconds = revealSeconds;
+    }
+    
+    void openQuestion(int index, long now) {
+        Question question = questions.get(index);
+        tally = new Tally(index, question.getOptions() != null ? question.getOptions().size() : 0,
+            now, now + questionSeconds * 1000L);
+        questionIndex = index;
+        phase = Phase.QUESTION;
+    }
+    
+    void setPhase(Phase phase) {
+        Tally current = tally;
+        if (phase != Phase.QUESTION && current != null) {
+            current.closed = true;
+        }
+        this.phase = phase;
+    }
+    
+    /**
+     * The tally to record an answer to question index in, or null once that question is
+     * closed. Reads the tally once, so an answer racing the advance to the next question
+     * can never land in the next question's tally.
+     */
+    Tally openTally(int index, long now) {
+        Tally current = tally;
+        if (current == null || current.questionIndex != index || current.closed || now > current.deadlineMillis) {
+            return null;
+        }
+        return current;
+    }
+    
+    void markStatusDirty() {
+        statusDirty.set(true);
+    }
+    
+    boolean takeStatusDirty() {
+        return statusDirty.getAndSet(false);
+    }
+    
+    public String getCode() {
+        return code;
+    }
+    
+    public UUID getQuizId() {
+        return quizId;
+    }
+    
+    public String getTitle() {
+        return title;
+    }
+    
+    String getHostKey() {
+        return hostKey;
+    }
+    
+    public List<Question> getQuestions() {
+        return questions;
+    }
+    
+    public int getQuestionSeconds() {
+        return questionSeconds;
+    }
+    
+    public int getRevealSeconds() {
+        return revealSeconds;
+    }
+    
+    public Map<String, LiveParticipant> getParticipants() {
+        return participants;
+    }
+    
+    public Phase getPhase() {
+        return phase;
+    }
+    
+    public int getQuestionIndex() {
+        return questionIndex;
+    }
+    
+    long getCreatedAtMillis() {
+        return createdAtMillis;
+    }
+    
+    public long getDeadlineMillis() {
+        Tally current = tally;
+        return current != null ? current.deadlineMillis : 0;
+    }
+    
+    Tally getTally() {
+        return tally;
+    }
+    
+    /**
+     * Answer counts for one question: one LongAdder per option, plus answers that
+     * matched no option (free-text questions).
+     */
+    static final class Tally {
+        final int questionIndex;
+        final long openedAtMillis;
+        final long deadlineMillis;
+        final LongAdder[] options;
+        final LongAdder other = new LongAdder();
+        final LongAdder correct = new LongAdder();
+        final LongAdder answered = new LongAdder();
+        
+        // Set when the question leaves the QUESTION phase
+        volatile boolean closed;
+        
+        Tally(int questionIndex, int optionCount, long openedAtMillis, long deadlineMillis) {
+            this.questionIndex = questionIndex;
+            this.openedAtMillis = openedAtMillis;
+            this.deadlineMillis = deadlineMillis;
+            options = new LongAdder[optionCount];
+            for (int i = 0; i < optionCount; i++) {
+                options[i] = new LongAdder();
+            }
+        }
+        
+        void record(int option, boolean isCorrect) {
+            if (option >= 0 && option < options.length) {
+                options[option].increment();
+            } else {
+                other.increment();
+            }
+            if (isCorrect) {
+                correct.increment();
+            }
+            answered.increment();
+        }
+        
+        long[] optionCounts() {
+            long[] counts = new long[options.length];
+            for (int i = 0; i < options.length; i++) {
+                counts[i] = options[i].sum();
+            }
+            return counts;
+        }
+    }
+}
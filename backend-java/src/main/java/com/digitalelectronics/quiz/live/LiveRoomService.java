@@ -0,0 +1,583 @@
+package com.digitalelectronics.quiz.live;
+
+import com.digitalelectronics.quiz.model.Question;
+import com.digitalelectronics.quiz.model.Quiz;
+import com.digitalelectronics.quiz.service.AnswerGrader;
+import com.digitalelectronics.quiz.service.QuizService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Live quiz rooms: a host runs a quiz and every participant answers the same
+ * question at the same time. The server drives the clock. Each question is open
+ * for questionSeconds, then the answer and the tallies are revealed for
+ * revealSeconds, then the next question opens.
+ * <p>
+ * A broadcast frame is serialized once and the same TextMessage is written to every
+ * session. Sends always run on the fan-out pool, so a slow client never holds up the
+ * timer thread that drives every room's clock; large rooms are split into stripes sent
+ * in parallel.
+ * A participant whose send buffer overflows is dropped rather than slowing the room.
+ * <p>
+ * Rooms are capped per node, and a sweep closes rooms nobody has been connected to for
+ * live.idle-timeout-minutes and rooms still in the lobby after live.lobby-timeout-minutes,
+ * so abandoned rooms do not keep their status tick running forever.
+ */
+@Service
+@Slf4j
+public class LiveRoomService {
+    
+    private static final int STRIPE_SIZE = 128;
+    private static final long SWEEP_INTERVAL_SECONDS = 30;
+    private static final int LEADERBOARD_SIZE = 10;
+    private static final String CODE_ALPHABET = "ABCDEFGHJKLMNPQRSTUVWXYZ23456789";
+    
+    private final QuizService quizService;
+    private final ObjectMapper objectMapper;
+    private final int defaultQuestionSeconds;
+    private final int defaultRevealSeconds;
+    private final int maxParticipants;
+    private final long statusIntervalMillis;
+    private final long finishedRetentionMillis;
+    private final int maxRooms;
+    private final long lobbyTimeoutMillis;
+    private final long idleTimeoutMillis;
+    
+    private final Map<String, LiveRoom> rooms = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService timer;
+    private final ExecutorService fanOut;
+    private final int fanOutThreads;
+    
+    private final Timer broadcastTime;
+    private final Counter answers;
+    private final Counter dropped;
+    private final Counter expired;
+    
+    public LiveRoomService(
+            QuizService quizService,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${live.question-seconds:20}") int defaultQuestionSeconds,
+            @Value("${live.reveal-seconds:5}") int defaultRevealSeconds,
+            @Value("${live.max-participants:5000}") int maxParticipants,
+            @Value("${live.status-interval-ms:500}") long statusIntervalMillis,
+            @Value("${live.finished-retention-minutes:10}") long finishedRetentionMinutes,
+            @Value("${live.max-rooms:1000}") int maxRooms,
+            @Value("${live.lobby-timeout-minutes:30}") long lobbyTimeoutMinutes,
+            @Value("${live.idle-timeout-minutes:5}") long idleTimeoutMinutes,
+            @Value("${live.fan-out-threads:0}") int fanOutThreads) {
+        this.quizService = quizService;
+        this.objectMapper = objectMapper;
+        this.defaultQuestionSeconds = defaultQuestionSeconds;
+        this.defaultRevealSeconds = defaultRevealSeconds;
+        this.maxParticipants = maxParticipants;
+        this.statusIntervalMillis = statusIntervalMillis;
+        this.finishedRetentionMillis = TimeUnit.MINUTES.toMillis(finishedRetentionMinutes);
+        this.maxRooms = maxRooms;
+        this.lobbyTimeoutMillis = TimeUnit.MINUTES.toMillis(lobbyTimeoutMinutes);
+        this.idleTimeoutMillis = TimeUnit.MINUTES.toMillis(idleTimeoutMinutes);
+        this.fanOutThreads = fanOutThreads > 0 ? fanOutThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadIds = new AtomicInteger();
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> daemon(runnable, "live-timer"));
+        this.fanOut = Executors.newFixedThreadPool(this.fanOutThreads,
+            runnable -> daemon(runnable, "live-fanout-" + threadIds.incrementAndGet()));
+        this.broadcastTime = Timer.builder("live.broadcast")
+            .description("Time to write one frame to every session in a room")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.answers = meterRegistry.counter("live.answers");
+        this.dropped = meterRegistry.counter("live.dropped");
+        this.expired = meterRegistry.counter("live.expired");
+        Gauge.builder("live.rooms", rooms, Map::size)
+            .description("Live rooms on this node")
+            .register(meterRegistry);
+        Gauge.builder("live.participants", this, LiveRoomService::participantCount)
+            .description("WebSocket sessions in live rooms on this node")
+            .register(meterRegistry);
+        timer.scheduleWithFixedDelay(this::expireAbandonedRooms,
+            SWEEP_INTERVAL_SECONDS, SWEEP_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+    
+    /**
+     * @return empty if the quiz does not exist or has no questions
+     * @throws IllegalStateException if this node already holds live.max-rooms rooms
+     */
+    public Optional<LiveRoom> createRoom(UUID quizId, Integer questionSeconds, Integer revealSeconds) {
+        if (rooms.size() >= maxRooms) {
+            throw new IllegalStateException("This node already has " + maxRooms + " live rooms");
+        }
+        Optional<Quiz> quiz = quizService.getQuizById(quizId);
+        if (quiz.isEmpty()) {
+            return Optional.empty();
+        }
+        List<Question> questions = quizService.getQuestionsByQuizId(quizId);
+        if (questions.isEmpty()) {
+            return Optional.empty();
+        }
+        String hostKey = UUID.randomUUID().toString();
+        while (true) {
+            String code = newCode();
+            LiveRoom room = new LiveRoom(code, quizId, quiz.get().getTitle(), hostKey, questions,
+                questionSeconds != null ? questionSeconds : defaultQuestionSeconds,
+                revealSeconds != null ? revealSeconds : defaultRevealSeconds);
+            if (rooms.putIfAbsent(code, room) == null) {
+                synchronized (room) {
+                    room.statusTick = timer.scheduleAtFixedRate(() -> sendStatusIfChanged(room),
+                        statusIntervalMillis, statusIntervalMillis, TimeUnit.MILLISECONDS);
+                }
+                log.info("Created live room {} for quiz {}", code, quizId);
+                return Optional.of(room);
+            }
+        }
+    }
+    
+    public Optional<LiveRoom> getRoom(String code) {
+        return Optional.ofNullable(code != null ? rooms.get(code.toUpperCase()) : null);
+    }
+    
+    public String hostKeyFor(LiveRoom room) {
+        return room.getHostKey();
+    }
+    
+    public boolean isHostKey(LiveRoom room, String hostKey) {
+        return hostKey != null && room.getHostKey().equals(hostKey);
+    }
+    
+    /**
+     * @return false if the room is full or already finished
+     */
+    public boolean join(LiveRoom room, LiveParticipant participant) {
+        if (room.getPhase() == LiveRoom.Phase.FINISHED
+                || (!participant.isHost() && room.getParticipants().size() >= maxParticipants)) {
+            return false;
+        }
+        room.getParticipants().put(participant.getId(), participant);
+        room.markStatusDirty();
+        send(room, participant, new TextMessage(serialize(welcomeFrame(room))));
+        return true;
+    }
+    
+    public void leave(LiveRoom room, LiveParticipant participant) {
+        if (room.getParticipants().remove(participant.getId()) != null) {
+            room.markStatusDirty();
+        }
+    }
+    
+    public void start(LiveRoom room) {
+        synchronized (room) {
+            if (room.getPhase() == LiveRoom.Phase.LOBBY) {
+                openQuestion(room, 0);
+            }
+        }
+    }
+    
+    /**
+     * Host skip: closes the open question early, or ends the reveal early.
+     */
+    public void advance(LiveRoom room) {
+        synchronized (room) {
+            int index = room.getQuestionIndex();
+            if (room.getPhase() == LiveRoom.Phase.QUESTION) {
+                reveal(room, index);
+            } else if (room.getPhase() == LiveRoom.Phase.REVEAL) {
+                next(room, index);
+            }
+        }
+    }
+    
+    public void end(LiveRoom room) {
+        synchronized (room) {
+            if (room.getPhase() != LiveRoom.Phase.FINISHED) {
+                finish(room);
+            }
+        }
+    }
+    
+    /**
+     * Records one answer. Only the first answer per participant and question counts,
+     * and only while that question is open.
+     */
+    public void answer(LiveRoom room, LiveParticipant participant, int questionIndex, String answer) {
+        long now = System.currentTimeMillis();
+        LiveRoom.Tally tally = participant.isHost() ? null : room.openTally(questionIndex, now);
+        if (tally == null) {
+            send(room, participant, new TextMessage(rejectedFrame(questionIndex, "closed")));
+            return;
+        }
+        if (!participant.claimAnswer(questionIndex)) {
+            send(room, participant, new TextMessage(rejectedFrame(questionIndex, "already-answered")));
+            return;
+        }
+        Question question = room.getQuestions().get(questionIndex);
+        boolean correct = AnswerGrader.isCorrect(question, answer);
+        tally.record(optionIndex(question, answer), correct);
+        if (correct) {
+            participant.addScore(speedScore(tally, question, now));
+        }
+        answers.increment();
+        room.markStatusDirty();
+        send(room, participant, new TextMessage("{\"type\":\"answered\",\"questionIndex\":" + questionIndex + "}"));
+    }
+    
+    private void openQuestion(LiveRoom room, int index) {
+        room.openQuestion(index, System.currentTimeMillis());
+        broadcast(room, questionFrame(room, index));
+        schedule(room, () -> reveal(room, index), room.getQuestionSeconds() * 1000L);
+    }
+    
+    // Called with the room's monitor held, or from the timer
+    private void reveal(LiveRoom room, int index) {
+        synchronized (room) {
+            if (room.getPhase() != LiveRoom.Phase.QUESTION || room.getQuestionIndex() != index) {
+                return;
+            }
+            room.setPhase(LiveRoom.Phase.REVEAL);
+            broadcast(room, revealFrame(room, index));
+            schedule(room, () -> next(room, index), room.getRevealSeconds() * 1000L);
+        }
+    }
+    
+    private void next(LiveRoom room, int index) {
+        synchronized (room) {
+            if (room.getPhase() != LiveRoom.Phase.REVEAL || room.getQuestionIndex() != index) {
+                return;
+            }
+            if (index + 1 < room.getQuestions().size()) {
+                openQuestion(room, index + 1);
+            } else {
+                finish(room);
+            }
+        }
+    }
+    
+    private void finish(LiveRoom room) {
+        room.setPhase(LiveRoom.Phase.FINISHED);
+        if (room.pendingTransition != null) {
+            room.pendingTransition.cancel(false);
+        }
+        Map<String, Object> frame = new LinkedHashMap<>();
+        frame.put("type", "finished");
+        frame.put("participants", playerCount(room));
+        frame.put("leaderboard", leaderboard(room));
+        broadcast(room, frame);
+        // The only per-participant frame: each player's own final score
+        for (LiveParticipant participant : room.getParticipants().values()) {
+            if (!participant.isHost()) {
+                send(room, participant, new TextMessage("{\"type\":\"score\",\"score\":" + participant.getScore() + "}"));
+            }
+        }
+        room.pendingTransition = timer.schedule(() -> close(room), finishedRetentionMillis, TimeUnit.MILLISECONDS);
+        log.info("Live room {} finished with {} participants", room.getCode(), playerCount(room));
+    }
+    
+    /**
+     * Closes rooms nobody has been connected to for the idle timeout, and rooms never
+     * started within the lobby timeout. Finished rooms are closed by their own timer.
+     */
+    void expireAbandonedRooms() {
+        long now = System.currentTimeMillis();
+        for (LiveRoom room : rooms.values()) {
+            try {
+                if (room.getPhase() == LiveRoom.Phase.FINISHED) {
+                    continue;
+                }
+                String reason = null;
+                if (!room.getParticipants().isEmpty()) {
+                    room.emptySinceMillis = 0;
+                } else if (room.emptySinceMillis == 0) {
+                    room.emptySinceMillis = now;
+                } else if (now - room.emptySinceMillis >= idleTimeoutMillis) {
+                    reason = "idle";
+                }
+                if (reason == null && room.getPhase() == LiveRoom.Phase.LOBBY
+                        && now - room.getCreatedAtMillis() >= lobbyTimeoutMillis) {
+                    reason = "not-started";
+                }
+                if (reason != null) {
+                    expire(room, reason);
+                }
+            } catch (RuntimeException e) {
+                log.error("Expiring live room {} failed", room.getCode(), e);
+            }
+        }
+    }
+    
+    private void expire(LiveRoom room, String reason) {
+        synchronized (room) {
+            if (room.getPhase() == LiveRoom.Phase.FINISHED) {
+                return;
+            }
+            room.setPhase(LiveRoom.Phase.FINISHED);
+            if (room.pendingTransition != null) {
+                room.pendingTransition.cancel(false);
+            }
+        }
+        Map<String, Object> frame = new LinkedHashMap<>();
+        frame.put("type", "closed");
+        frame.put("reason", reason);
+        broadcast(room, frame);
+        expired.increment();
+        log.info("Closed live room {} ({})", room.getCode(), reason);
+        close(room);
+    }
+    
+    private void close(LiveRoom room) {
+        rooms.remove(room.getCode(), room);
+        synchronized (room) {
+            if (room.statusTick != null) {
+                room.statusTick.cancel(false);
+            }
+        }
+        for (LiveParticipant participant : room.getParticipants().values()) {
+            try {
+                participant.getSession().close(CloseStatus.NORMAL);
+            } catch (IOException e) {
+                log.debug("Error closing live session {}", participant.getId(), e);
+            }
+        }
+        room.getParticipants().clear();
+    }
+    
+    private void schedule(LiveRoom room, Runnable transition, long delayMillis) {
+        if (room.pendingTransition != null) {
+            room.pendingTransition.cancel(false);
+        }
+        room.pendingTransition = timer.schedule(() -> {
+            try {
+                transition.run();
+            } catch (RuntimeException e) {
+                log.error("Live room {} transition failed", room.getCode(), e);
+            }
+        }, delayMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    private void sendStatusIfChanged(LiveRoom room) {
+        if (!room.takeStatusDirty()) {
+            return;
+        }
+        Map<String, Object> frame = new LinkedHashMap<>();
+        frame.put("type", "status");
+        frame.put("phase", room.getPhase());
+        frame.put("participants", playerCount(room));
+        LiveRoom.Tally tally = room.getTally();
+        if (room.getPhase() == LiveRoom.Phase.QUESTION && tally != null) {
+            frame.put("questionIndex", tally.questionIndex);
+            frame.put("answered", tally.answered.sum());
+        }
+        broadcast(room, frame);
+    }
+    
+    /**
+     * Serializes the frame once and writes it to every session on the fan-out pool, in
+     * parallel stripes when the room is large. Returns without waiting for the stripes.
+     */
+    void broadcast(LiveRoom room, Map<String, Object> frame) {
+        TextMessage message = new TextMessage(serialize(frame));
+        List<LiveParticipant> targets = new ArrayList<>(room.getParticipants().values());
+        long start = System.nanoTime();
+        if (targets.isEmpty()) {
+            return;
+        }
+        int stripes = Math.max(1, Math.min(fanOutThreads, (targets.size() + STRIPE_SIZE - 1) / STRIPE_SIZE));
+        CompletableFuture<?>[] parts = new CompletableFuture<?>[stripes];
+        int perStripe = (targets.size() + stripes - 1) / stripes;
+        for (int i = 0; i < stripes; i++) {
+            int from = i * perStripe;
+            int to = Math.min(targets.size(), from + perStripe);
+            parts[i] = CompletableFuture.runAsync(() -> sendAll(room, targets, from, to, message), fanOut);
+        }
+        CompletableFuture.allOf(parts)
+            .whenComplete((ignored, error) -> broadcastTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+    }
+    
+    private void sendAll(LiveRoom room, List<LiveParticipant> targets, int from, int to, TextMessage message) {
+        for (int i = from; i < to; i++) {
+            send(room, targets.get(i), message);
+        }
+    }
+    
+    private void send(LiveRoom room, LiveParticipant participant, TextMessage message) {
+        try {
+            participant.getSession().sendMessage(message);
+        } catch (IOException | RuntimeException e) {
+            // Includes SessionLimitExceededException when a slow client's buffer overflows
+            if (room.getParticipants().remove(participant.getId()) != null) {
+                dropped.increment();
+                room.markStatusDirty();
+                log.debug("Dropped live participant {} from room {}: {}", participant.getId(), room.getCode(), e.toString());
+            }
+        }
+    }
+    
+    private Map<String, Object> welcomeFrame(LiveRoom room) {
+        Map<String, Object> frame = new LinkedHashMap<>();
+        frame.put("type", "welcome");
+        frame.put("room", room.getCode());
+        frame.put("title", room.getTitle());
+        frame.put("phase", room.getPhase());
+        frame.put("totalQuestions", room.getQuestions().size());
+        frame.put("questionIndex", room.getQuestionIndex());
+        if (room.getPhase() == LiveRoom.Phase.QUESTION) {
+            frame.put("question", questionFrame(room, room.getQuestionIndex()));
+        }
+        return frame;
+    }
+    
+    private static Map<String, Object> questionFrame(LiveRoom room, int index) {
+        Question question = room.getQuestions().get(index);
+        Map<String, Object> frame = new LinkedHashMap<>();
+        frame.put("type", "question");
+        frame.put("questionIndex", index);
+        frame.put("totalQuestions", room.getQuestions().size());
+        frame.put("questionType", question.getQuestionType());
+        frame.put("text", question.getQuestionText());
+        frame.put("options", question.getOptions());
+        frame.put("points", question.getPoints());
+        frame.put("seconds", room.getQuestionSeconds());
+        frame.put("deadline", room.getDeadlineMillis());
+        return frame;
+    }
+    
+    private Map<String, Object> revealFrame(LiveRoom room, int index) {
+        Question question = room.getQuestions().get(index);
+        LiveRoom.Tally tally = room.getTally();
+        Map<String, Object> frame = new LinkedHashMap<>();
+        frame.put("type", "reveal");
+        frame.put("questionIndex", index);
+        frame.put("correctAnswer", question.getCorrectAnswer());
+        frame.put("explanation", question.getExplanation());
+        frame.put("optionCounts", tally.optionCounts());
+        frame.put("otherCount", tally.other.sum());
+        frame.put("correct", tally.correct.sum());
+        frame.put("answered", tally.answered.sum());
+        frame.put("participants", playerCount(room));
+        frame.put("leaderboard", leaderboard(room));
+        return frame;
+    }
+    
+    private static String rejectedFrame(int questionIndex, String reason) {
+        return "{\"type\":\"rejected\",\"questionIndex\":" + questionIndex + ",\"reason\":\"" + reason + "\"}";
+    }
+    
+    private static List<Map<String, Object>> leaderboard(LiveRoom room) {
+        // Bounded heap: O(n log k) over the room instead of sorting everyone
+        PriorityQueue<LiveParticipant> top = new PriorityQueue<>(Comparator.comparingInt(LiveParticipant::getScore));
+        for (LiveParticipant participant : room.getParticipants().values()) {
+            if (participant.isHost()) {
+                continue;
+            }
+            top.offer(participant);
+            if (top.size() > LEADERBOARD_SIZE) {
+                top.poll();
+            }
+        }
+        List<LiveParticipant> ordered = new ArrayList<>(top);
+        ordered.sort(Comparator.comparingInt(LiveParticipant::getScore).reversed());
+        List<Map<String, Object>> result = new ArrayList<>(ordered.size());
+        for (LiveParticipant participant : ordered) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("name", participant.getName());
+            entry.put("score", participant.getScore());
+            result.add(entry);
+        }
+        return result;
+    }
+    
+    /**
+     * Full points for an instant answer, half for one at the deadline.
+     */
+    private static int speedScore(LiveRoom.Tally tally, Question question, long now) {
+        int points = question.getPoints() != null ? question.getPoints() : 0;
+        double window = Math.max(1, tally.deadlineMillis - tally.openedAtMillis);
+        double remaining = Math.max(0, tally.deadlineMillis - now) / window;
+        return (int) Math.round(points * (0.5 + 0.5 * remaining));
+    }
+    
+    private static int optionIndex(Question question, String answer) {
+        List<String> options = question.getOptions();
+        if (options == null || answer == null) {
+            return -1;
+        }
+        for (int i = 0; i < options.size(); i++) {
+            if (options.get(i) != null && options.get(i).trim().equalsIgnoreCase(answer.trim())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    private static int playerCount(LiveRoom room) {
+        int count = 0;
+        for (LiveParticipant participant : room.getParticipants().values()) {
+            if (!participant.isHost()) {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    private int participantCount() {
+        int count = 0;
+        for (LiveRoom room : rooms.values()) {
+            count += room.getParticipants().size();
+        }
+        return count;
+    }
+    
+    private String serialize(Map<String, Object> frame) {
+        try {
+            return objectMapper.writeValueAsString(frame);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Cannot serialize live frame " + frame.get("type"), e);
+        }
+    }
+    
+    private static String newCode() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        StringBuilder code = new StringBuilder(6);
+        for (int i = 0; i < 6; i++) {
+            code.append(CODE_ALPHABET.charAt(random.nextInt(CODE_ALPHABET.length())));
+        }
+        return code.toString();
+    }
+    
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+        fanOut.shutdownNow();
+    }
+}
@@ -0,0 +1,24 @@
+package com.digitalelectronics.quiz.metrics;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Adds the controller method that served the request as a "handler" tag on
+ * http.server.requests, next to the default method/uri/status tags.
+ */
+public class HandlerTagObservationConvention extends DefaultServerRequestObservationConvention {
+    
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+        Object handler = context.getCarrier().getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        String name = handler instanceof HandlerMethod method
+            ? method.getBeanType().getSimpleName() + "." + method.getMethod().getName()
+            : "none";
+        return super.getLowCardinalityKeyValues(context).and(KeyValue.of("handler", name));
+    }
+}
@@ -0,0 +1,23 @@
+package com.digitalelectronics.quiz.metrics;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Caps the SQL statements and entity rows a single request may use. Put it on a
+ * controller method, or on the controller class to cover all its handlers. Routes
+ * without it get query-budget.default-max-statements / default-max-rows.
+ * A negative value means "use the default".
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface QueryBudget {
+    
+    int maxStatements() default -1;
+    
+    int maxRows() default -1;
+}
@@ -0,0 +1,12 @@
+package com.digitalelectronics.quiz.metrics;
+
+/**
+ * Thrown from inside Hibernate when a request goes over its {@link QueryBudget}
+ * and query-budget.mode is "fail".
+ */
+public class QueryBudgetExceededException extends RuntimeException {
+    
+    public QueryBudgetExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,64 @@
+package com.digitalelectronics.quiz.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Interceptor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.type.Type;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Hibernate statement inspector and interceptor that counts the statements prepared
+ * and entity rows loaded for the current request and checks them against its
+ * {@link QueryBudget}. In "warn" mode an overrun is logged (with a stack trace for
+ * a sampled fraction, to find the call site); in "fail" mode it throws
+ * {@link QueryBudgetExceededException}, which is what tests should run with.
+ */
+@Slf4j
+public class QueryBudgetGuard implements StatementInspector, Interceptor {
+    
+    public enum Mode { OFF, WARN, FAIL }
+    
+    private final Mode mode;
+    private final double stackTraceSampleRate;
+    
+    public QueryBudgetGuard(Mode mode, double stackTraceSampleRate) {
+        this.mode = mode;
+        this.stackTraceSampleRate = stackTraceSampleRate;
+    }
+    
+    @Override
+    public String inspect(String sql) {
+        RequestQueryStats stats = RequestQueryStats.current();
+        if (stats != null && stats.statementPrepared()) {
+            exceeded(stats, String.format("%d statements, budget %d; statement: %s",
+                stats.getStatements(), stats.getMaxStatements(), sql));
+        }
+        return sql;
+    }
+    
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        RequestQueryStats stats = RequestQueryStats.current();
+        if (stats != null && stats.rowLoaded()) {
+            exceeded(stats, String.format("%d rows, budget %d; loading %s",
+                stats.getRows(), stats.getMaxRows(), entity.getClass().getSimpleName()));
+        }
+        return false;
+    }
+    
+    private void exceeded(RequestQueryStats stats, String detail) {
+        String message = "Query budget exceeded on " + stats.getRoute() + ": " + detail;
+        switch (mode) {
+            case FAIL -> throw new QueryBudgetExceededException(message);
+            case WARN -> {
+                if (ThreadLocalRandom.current().nextDouble() < stackTraceSampleRate) {
+                    log.warn(message, new Throwable("query budget call site"));
+                } else {
+                    log.warn(message);
+                }
+            }
+            case OFF -> { }
+        }
+    }
+}
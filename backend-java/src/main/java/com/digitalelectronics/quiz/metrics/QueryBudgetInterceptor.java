@@ -0,0 +1,44 @@
+package com.digitalelectronics.quiz.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Applies the handler's {@link QueryBudget} (or the configured defaults) to the
+ * request's {@link RequestQueryStats} once the route is known.
+ */
+public class QueryBudgetInterceptor implements HandlerInterceptor {
+    
+    private final int defaultMaxStatements;
+    private final long defaultMaxRows;
+    
+    public QueryBudgetInterceptor(int defaultMaxStatements, long defaultMaxRows) {
+        this.defaultMaxStatements = defaultMaxStatements;
+        this.defaultMaxRows = defaultMaxRows;
+    }
+    
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestQueryStats stats = RequestQueryStats.current();
+        if (stats == null) {
+            return true;
+        }
+        int maxStatements = defaultMaxStatements;
+        long maxRows = defaultMaxRows;
+        if (handler instanceof HandlerMethod method) {
+            QueryBudget budget = AnnotatedElementUtils.findMergedAnnotation(method.getMethod(), QueryBudget.class);
+            if (budget == null) {
+                budget = AnnotatedElementUtils.findMergedAnnotation(method.getBeanType(), QueryBudget.class);
+            }
+            if (budget != null) {
+                maxStatements = budget.maxStatements() >= 0 ? budget.maxStatements() : maxStatements;
+                maxRows = budget.maxRows() >= 0 ? budget.maxRows() : maxRows;
+            }
+        }
+        stats.setBudget(request.getMethod() + " " + QueryMetricsFilter.routeOf(request), maxStatements, maxRows);
+        return true;
+    }
+}
@@ -0,0 +1,37 @@
+package com.digitalelectronics.quiz.metrics;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Registered through hibernate.session.events.auto, so Hibernate creates one per
+ * session. Times statement execution into the current request's stats; the
+ * statements themselves are counted by {@link QueryBudgetGuard}.
+ */
+public class QueryCountingSessionListener extends BaseSessionEventListener {
+    
+    @Override
+    public void jdbcExecuteStatementStart() {
+        RequestQueryStats stats = RequestQueryStats.current();
+        if (stats != null) {
+            stats.statementStarted();
+        }
+    }
+    
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        RequestQueryStats stats = RequestQueryStats.current();
+        if (stats != null) {
+            stats.statementFinished();
+        }
+    }
+    
+    @Override
+    public void jdbcExecuteBatchStart() {
+        jdbcExecuteStatementStart();
+    }
+    
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        jdbcExecuteStatementEnd();
+    }
+}
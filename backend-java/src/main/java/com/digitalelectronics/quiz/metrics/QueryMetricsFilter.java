@@ -0,0 +1,85 @@
+package com.digitalelectronics.quiz.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how many Hibernate statements and entity rows each request used and how
+ * long the statements took, tagged by route, so N+1 patterns show up as a shift in
+ * the per-route distribution. Requests that went over their {@link QueryBudget}
+ * are counted separately.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@RequiredArgsConstructor
+public class QueryMetricsFilter extends OncePerRequestFilter {
+    
+    private final MeterRegistry meterRegistry;
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestQueryStats stats = RequestQueryStats.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestQueryStats.end();
+            record(request, stats);
+        }
+    }
+    
+    private void record(HttpServletRequest request, RequestQueryStats stats) {
+        String uri = routeOf(request);
+        DistributionSummary.builder("hibernate.request.statements")
+            .description("Hibernate statements executed per request")
+            .tag("method", request.getMethod())
+            .tag("uri", uri)
+            .publishPercentileHistogram()
+            .register(meterRegistry)
+            .record(stats.getStatements());
+        Timer.builder("hibernate.request.statement.time")
+            .description("Time spent executing Hibernate statements per request")
+            .tag("method", request.getMethod())
+            .tag("uri", uri)
+            .publishPercentileHistogram()
+            .register(meterRegistry)
+            .record(stats.getStatementNanos(), TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("hibernate.request.rows")
+            .description("Entity rows loaded by Hibernate per request")
+            .tag("method", request.getMethod())
+            .tag("uri", uri)
+            .publishPercentileHistogram()
+            .register(meterRegistry)
+            .record(stats.getRows());
+        if (stats.isStatementsExceeded()) {
+            budgetExceeded(request, uri, "statements");
+        }
+        if (stats.isRowsExceeded()) {
+            budgetExceeded(request, uri, "rows");
+        }
+    }
+    
+    private void budgetExceeded(HttpServletRequest request, String uri, String kind) {
+        meterRegistry.counter("hibernate.request.budget.exceeded",
+            "method", request.getMethod(), "uri", uri, "kind", kind).increment();
+    }
+    
+    static String routeOf(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+}
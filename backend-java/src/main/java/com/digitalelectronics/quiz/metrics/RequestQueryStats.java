@@ -0,0 +1,110 @@
+package com.digitalelectronics.quiz.metrics;
+
+/**
+ * Per-thread tally of the JDBC statements and entity rows Hibernate handled while
+ * serving the current request, plus the budget they are checked against. Started
+ * and read by {@link QueryMetricsFilter}, fed by {@link QueryBudgetGuard} and
+ * {@link QueryCountingSessionListener}.
+ */
+public final class RequestQueryStats {
+    
+    private static final ThreadLocal<RequestQueryStats> CURRENT = new ThreadLocal<>();
+    
+    private int statements;
+    private long rows;
+    private long statementNanos;
+    private long statementStart;
+    
+    private String route = "UNKNOWN";
+    private int maxStatements = -1;
+    private long maxRows = -1;
+    private boolean statementsExceeded;
+    private boolean rowsExceeded;
+    
+    private RequestQueryStats() {
+    }
+    
+    public static RequestQueryStats begin() {
+        RequestQueryStats stats = new RequestQueryStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+    
+    /** The stats of the request being served on this thread, or null outside a request. */
+    public static RequestQueryStats current() {
+        return CURRENT.get();
+    }
+    
+    public static void end() {
+        CURRENT.remove();
+    }
+    
+    void setBudget(String route, int maxStatements, long maxRows) {
+        this.route = route;
+        this.maxStatements = maxStatements;
+        this.maxRows = maxRows;
+    }
+    
+    /** @return true exactly once, for the statement that first goes over the budget */
+    boolean statementPrepared() {
+        statements++;
+        if (!statementsExceeded && maxStatements >= 0 && statements > maxStatements) {
+            statementsExceeded = true;
+            return true;
+        }
+        return false;
+    }
+    
+    /** @return true exactly once, for the row that first goes over the budget */
+    boolean rowLoaded() {
+        rows++;
+        if (!rowsExceeded && maxRows >= 0 && rows > maxRows) {
+            rowsExceeded = true;
+            return true;
+        }
+        return false;
+    }
+    
+    void statementStarted() {
+        statementStart = System.nanoTime();
+    }
+    
+    void statementFinished() {
+        if (statementStart != 0) {
+            statementNanos += System.nanoTime() - statementStart;
+            statementStart = 0;
+        }
+    }
+    
+    public int getStatements() {
+        return statements;
+    }
+    
+    public long getRows() {
+        return rows;
+    }
+    
+    public long getStatementNanos() {
+        return statementNanos;
+    }
+    
+    public String getRoute() {
+        return route;
+    }
+    
+    public int getMaxStatements() {
+        return maxStatements;
+    }
+    
+    public long getMaxRows() {
+        return maxRows;
+    }
+    
+    public boolean isStatementsExceeded() {
+        return statementsExceeded;
+    }
+    
+    public boolean isRowsExceeded() {
+        return rowsExceeded;
+    }
+}
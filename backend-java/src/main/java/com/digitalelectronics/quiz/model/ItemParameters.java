@@ -0,0 +1,42 @@
+package com.digitalelectronics.quiz.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Two-parameter logistic (2PL) item parameters fitted from completed attempts by the
+ * item-calibration job. Questions without a row use the default parameters.
+ */
+@Entity
+@Table(name = "item_parameters", indexes = @Index(name = "idx_item_parameters_quiz_id", columnList = "quiz_id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemParameters {
+    
+    @Id
+    @Column(name = "question_id")
+    private UUID questionId;
+    
+    @Column(name = "quiz_id", nullable = false)
+    private UUID quizId;
+    
+    // a: slope of the item characteristic curve
+    @Column(nullable = false)
+    private Double discrimination;
+    
+    // b: ability at which a correct answer has probability 0.5
+    @Column(nullable = false)
+    private Double difficulty;
+    
+    @Column(nullable = false)
+    private Long responses;
+    
+    @Column(name = "fitted_at", nullable = false)
+    private LocalDateTime fittedAt;
+}
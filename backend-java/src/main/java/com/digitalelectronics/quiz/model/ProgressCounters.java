@@ -0,0 +1,32 @@
+package com.digitalelectronics.quiz.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Additive attempt counters stored as jsonb inside {@link UserProgress},
+ * one instance per quiz, category and difficulty.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProgressCounters {
+    private int attempts;
+    private int passed;
+    private double bestPercent;
+    private double sumPercent;
+    private long correctAnswers;
+    private long questions;
+    
+    public void record(double percent, boolean pass, int correct, int total) {
+        attempts++;
+        if (pass) {
+            passed++;
+        }
+        bestPercent = Math.max(bestPercent, percent);
+        sumPercent += percent;
+        correctAnswers += correct;
+        questions += total;
+    }
+}
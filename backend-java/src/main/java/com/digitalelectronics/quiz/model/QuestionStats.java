@@ -0,0 +1,58 @@
+package com.digitalelectronics.quiz.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Persisted running sums for per-question item analytics.
+ * Every column is additive, so deltas from several nodes can be merged in any order.
+ */
+@Entity
+@Table(name = "question_stats", indexes = @Index(name = "idx_question_stats_quiz_id", columnList = "quiz_id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuestionStats {
+    
+    @Id
+    @Column(name = "question_id")
+    private UUID questionId;
+    
+    @Column(name = "quiz_id", nullable = false)
+    private UUID quizId;
+    
+    @Column(nullable = false)
+    private Long responses = 0L;
+    
+    @Column(name = "correct_count", nullable = false)
+    private Long correctCount = 0L;
+    
+    @Column(name = "omitted_count", nullable = false)
+    private Long omittedCount = 0L;
+    
+    // Sums of the respondent's total score (fraction correct) for point-biserial discrimination
+    @Column(name = "sum_total", nullable = false)
+    private Double sumTotal = 0.0;
+    
+    @Column(name = "sum_total_sq", nullable = false)
+    private Double sumTotalSq = 0.0;
+    
+    @Column(name = "sum_total_correct", nullable = false)
+    private Double sumTotalCorrect = 0.0;
+    
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "option_counts", columnDefinition = "jsonb")
+    private Map<String, Long> optionCounts = new HashMap<>();
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
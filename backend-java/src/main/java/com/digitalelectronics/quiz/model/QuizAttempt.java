@@ -10,11 +10,15 @@ import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
 @Entity
-@Table(name = "quiz_attempts")
+@Table(name = "quiz_attempts", indexes = {
+    @Index(name = "idx_quiz_attempts_user_created", columnList = "user_id, created_at"),
+    @Index(name = "idx_quiz_attempts_quiz_created", columnList = "quiz_id, created_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -47,12 +51,22 @@ public class QuizAttempt {
     @Column(name = "answers", columnDefinition = "jsonb")
     private Map<String, String> answers;
     
+    // Question ids in the order the attempt presented them, so review shows that order
+    // even after questions are added to or removed from the quiz
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "question_ids", columnDefinition = "jsonb")
+    private List<UUID> questionIds;
+    
     @Column(nullable = false)
     private Boolean completed = false;
     
     @Column(name = "completed_at")
     private LocalDateTime completedAt;
     
+    // Set on attempts left unsubmitted too long; they stay for history but cannot be submitted
+    @Column(name = "expired_at")
+    private LocalDateTime expiredAt;
+    
     @Column(name = "created_at", nullable = false, updatable = false)
     @CreatedDate
     private LocalDateTime createdAt;
@@ -0,0 +1,50 @@
+package com.digitalelectronics.quiz.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Precomputed dashboard aggregates for a user, updated incrementally on every submitted attempt.
+ */
+@Entity
+@Table(name = "user_progress")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserProgress {
+    
+    @Id
+    @Column(name = "user_id")
+    private UUID userId;
+    
+    @Column(name = "total_points", nullable = false)
+    private Long totalPoints = 0L;
+    
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "overall", columnDefinition = "jsonb")
+    private ProgressCounters overall = new ProgressCounters();
+    
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "by_quiz", columnDefinition = "jsonb")
+    private Map<String, ProgressCounters> byQuiz = new HashMap<>();
+    
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "by_category", columnDefinition = "jsonb")
+    private Map<String, ProgressCounters> byCategory = new HashMap<>();
+    
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "by_difficulty", columnDefinition = "jsonb")
+    private Map<String, ProgressCounters> byDifficulty = new HashMap<>();
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,59 @@
+package com.digitalelectronics.quiz.outbox;
+
+import com.digitalelectronics.quiz.model.OutboxEvent;
+import com.digitalelectronics.quiz.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Writes domain events to outbox_events as part of the caller's transaction.
+ */
+@Component
+@RequiredArgsConstructor
+public class Outbox {
+    
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxDispatcher dispatcher;
+    private final ObjectMapper objectMapper;
+    
+    /**
+     * @param aggregateId events sharing it are delivered in the order they were appended
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(UUID aggregateId, Object event) {
+        LocalDateTime now = LocalDateTime.now();
+        OutboxEvent row = new OutboxEvent();
+        row.setAggregateId(aggregateId);
+        row.setEventType(event.getClass().getSimpleName());
+        row.setPayload(toJson(event));
+        row.setAttempts(0);
+        row.setAvailableAt(now);
+        row.setCreatedAt(now);
+        outboxEventRepository.save(row);
+        
+        // Deliver right away instead of waiting for the next poll
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dispatcher.wakeUp();
+            }
+        });
+    }
+    
+    private String toJson(Object event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Cannot serialize outbox event " + event.getClass().getSimpleName(), e);
+        }
+    }
+}
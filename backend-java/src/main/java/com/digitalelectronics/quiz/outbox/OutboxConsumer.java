@@ -0,0 +1,14 @@
+package com.digitalelectronics.quiz.outbox;
+
+/**
+ * In-process consumer of outbox events. {@link #handle} runs in the delivery
+ * transaction, which also deletes the outbox row, so its database writes commit
+ * exactly when the event is marked delivered. Side effects outside the database
+ * may still see an event twice and must tolerate it.
+ */
+public interface OutboxConsumer<E> {
+    
+    Class<E> eventType();
+    
+    void handle(E event);
+}
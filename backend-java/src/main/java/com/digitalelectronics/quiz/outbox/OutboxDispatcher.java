@@ -0,0 +1,253 @@
+package com.digitalelectronics.quiz.outbox;
+
+import com.digitalelectronics.quiz.model.OutboxEvent;
+import com.digitalelectronics.quiz.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers outbox events to the registered {@link OutboxConsumer}s, at least once.
+ * <ul>
+ *   <li>A claim transaction locks a batch of due events with SKIP LOCKED and leases
+ *       them for outbox.lease-ms. Only the oldest live event of each aggregate is
+ *       claimable, so events of one user are delivered one at a time, in order.</li>
+ *   <li>Each event is then delivered in its own transaction, which deletes the row
+ *       first; if another node already delivered it, the delete finds nothing and the
+ *       consumers are skipped.</li>
+ *   <li>A failed event is retried with exponential backoff and blocks the later events
+ *       of its aggregate. After outbox.max-attempts it is left in the table as a dead
+ *       letter and the aggregate moves on.</li>
+ * </ul>
+ * Commits that append events wake the dispatcher; otherwise it polls every
+ * outbox.poll-interval-ms, which also picks up events appended on other nodes.
+ */
+@Component
+@Slf4j
+public class OutboxDispatcher implements SmartLifecycle {
+    
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectProvider<OutboxConsumer<?>> consumers;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long pollIntervalMillis;
+    private final Duration lease;
+    private final long baseBackoffMillis;
+    private final long maxBackoffMillis;
+    private final int maxAttempts;
+    
+    private final Semaphore wakeUps = new Semaphore(0);
+    private final Timer lag;
+    private final Counter delivered;
+    private final Counter failures;
+    private final Counter deadLettered;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong dead = new AtomicLong();
+    
+    private volatile boolean running;
+    private volatile Thread worker;
+    
+    public OutboxDispatcher(
+            OutboxEventRepository outboxEventRepository,
+            ObjectProvider<OutboxConsumer<?>> consumers,
+            TransactionTemplate transactionTemplate,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${outbox.enabled:true}") boolean enabled,
+            @Value("${outbox.batch-size:100}") int batchSize,
+            @Value("${outbox.poll-interval-ms:1000}") long pollIntervalMillis,
+            @Value("${outbox.lease-ms:30000}") long leaseMillis,
+            @Value("${outbox.base-backoff-ms:1000}") long baseBackoffMillis,
+            @Value("${outbox.max-backoff-ms:300000}") long maxBackoffMillis,
+            @Value("${outbox.max-attempts:10}") int maxAttempts) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.consumers = consumers;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.lease = Duration.ofMillis(leaseMillis);
+        this.baseBackoffMillis = baseBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.maxAttempts = maxAttempts;
+        this.lag = Timer.builder("outbox.lag")
+            .description("Time from appending an outbox event to its delivery")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.delivered = meterRegistry.counter("outbox.delivered");
+        this.failures = meterRegistry.counter("outbox.failures");
+        this.deadLettered = meterRegistry.counter("outbox.dead.lettered");
+        meterRegistry.gauge("outbox.pending", pending);
+        meterRegistry.gauge("outbox.dead", dead);
+    }
+    
+    public void wakeUp() {
+        wakeUps.release();
+    }
+    
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("deliveryEnabled", enabled);
+        stats.put("pending", pending.get());
+        stats.put("dead", dead.get());
+        stats.put("delivered", (long) delivered.count());
+        stats.put("failures", (long) failures.count());
+        stats.put("lagMeanMs", lag.mean(TimeUnit.MILLISECONDS));
+        stats.put("lagMaxMs", lag.max(TimeUnit.MILLISECONDS));
+        return stats;
+    }
+    
+    @Override
+    public void start() {
+        if (!enabled) {
+            log.warn("Outbox delivery is DISABLED on this node (outbox.enabled=false). Events appended here are "
+                + "delivered only by nodes with it enabled; if there are none, profile stats, progress and item "
+                + "analytics stop updating while outbox_events grows.");
+            return;
+        }
+        if (running) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::run, "outbox-dispatcher");
+        worker.setDaemon(true);
+        worker.start();
+    }
+    
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = worker;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+    
+    private void run() {
+        while (running) {
+            try {
+                if (dispatchBatch() == 0) {
+                    refreshCounts();
+                    wakeUps.tryAcquire(pollIntervalMillis, TimeUnit.MILLISECONDS);
+                    wakeUps.drainPermits();
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Outbox dispatch failed; retrying in {} ms", pollIntervalMillis, e);
+                try {
+                    Thread.sleep(pollIntervalMillis);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Claims and delivers one batch.
+     *
+     * @return the number of events claimed
+     */
+    int dispatchBatch() {
+        List<OutboxEvent> batch = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxEvent> claimed = outboxEventRepository.claimDue(now, maxAttempts, batchSize);
+            if (!claimed.isEmpty()) {
+                outboxEventRepository.lease(claimed.stream().map(OutboxEvent::getId).toList(), now.plus(lease));
+            }
+            return claimed;
+        });
+        if (batch == null) {
+            return 0;
+        }
+        for (OutboxEvent event : batch) {
+            deliver(event);
+        }
+        return batch.size();
+    }
+    
+    private void deliver(OutboxEvent event) {
+        try {
+            Boolean deliveredHere = transactionTemplate.execute(status -> {
+                if (outboxEventRepository.deleteDelivered(event.getId()) == 0) {
+                    return false;
+                }
+                dispatch(event);
+                return true;
+            });
+            if (Boolean.TRUE.equals(deliveredHere)) {
+                delivered.increment();
+                lag.record(Duration.between(event.getCreatedAt(), LocalDateTime.now()));
+            }
+        } catch (RuntimeException e) {
+            failures.increment();
+            int attempts = event.getAttempts() + 1;
+            long backoff = Math.min(baseBackoffMillis << Math.min(attempts - 1, 20), maxBackoffMillis);
+            if (attempts >= maxAttempts) {
+                deadLettered.increment();
+                log.error("Outbox event {} ({}) failed {} times; leaving it as a dead letter",
+                    event.getId(), event.getEventType(), attempts, e);
+            } else {
+                log.warn("Outbox event {} ({}) failed, attempt {}; retrying in {} ms",
+                    event.getId(), event.getEventType(), attempts, backoff, e);
+            }
+            transactionTemplate.executeWithoutResult(status -> outboxEventRepository.markFailed(
+                event.getId(), attempts, LocalDateTime.now().plus(Duration.ofMillis(backoff)), truncate(e.toString())));
+        }
+    }
+    
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void dispatch(OutboxEvent event) {
+        Map<Class<?>, Object> decoded = new HashMap<>();
+        consumers.orderedStream()
+            .filter(consumer -> consumer.eventType().getSimpleName().equals(event.getEventType()))
+            .forEach(consumer -> {
+                Object payload = decoded.computeIfAbsent(consumer.eventType(), type -> fromJson(event, type));
+                ((OutboxConsumer) consumer).handle(payload);
+            });
+    }
+    
+    private Object fromJson(OutboxEvent event, Class<?> type) {
+        try {
+            return objectMapper.readValue(event.getPayload(), type);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Cannot read outbox event " + event.getId() + " as " + type.getSimpleName(), e);
+        }
+    }
+    
+    private void refreshCounts() {
+        pending.set(outboxEventRepository.countPending(maxAttempts));
+        dead.set(outboxEventRepository.countDead(maxAttempts));
+    }
+    
+    private static String truncate(String message) {
+        return message.length() <= 1000 ? message : message.substring(0, 1000);
+    }
+}
@@ -0,0 +1,14 @@
+package com.digitalelectronics.quiz.repository;
+
+import com.digitalelectronics.quiz.model.ItemParameters;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ItemParametersRepository extends JpaRepository<ItemParameters, UUID> {
+    
+    List<ItemParameters> findByQuizId(UUID quizId);
+}
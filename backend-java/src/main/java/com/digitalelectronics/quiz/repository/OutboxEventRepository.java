@@ -0,0 +1,50 @@
+package com.digitalelectronics.quiz.repository;
+
+import com.digitalelectronics.quiz.model.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    
+    /**
+     * Locks up to {@code limit} due events that are each the oldest live event of their
+     * aggregate, so one aggregate never has two events in flight. Rows already locked by
+     * another node's claim are skipped instead of waited for.
+     */
+    @Query(value = """
+        SELECT o.* FROM outbox_events o
+        WHERE o.available_at <= ?1 AND o.attempts < ?2
+          AND NOT EXISTS (SELECT 1 FROM outbox_events p
+                          WHERE p.aggregate_id = o.aggregate_id AND p.id < o.id AND p.attempts < ?2)
+        ORDER BY o.id
+        LIMIT ?3
+        FOR UPDATE SKIP LOCKED
+        """, nativeQuery = true)
+    List<OutboxEvent> claimDue(LocalDateTime now, int maxAttempts, int limit);
+    
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.availableAt = ?2 WHERE e.id IN ?1")
+    int lease(Collection<Long> ids, LocalDateTime until);
+    
+    // Zero means another node delivered the event after our lease ran out
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.id = ?1")
+    int deleteDelivered(Long id);
+    
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.attempts = ?2, e.availableAt = ?3, e.lastError = ?4 WHERE e.id = ?1")
+    int markFailed(Long id, int attempts, LocalDateTime retryAt, String error);
+    
+    @Query("SELECT COUNT(e) FROM OutboxEvent e WHERE e.attempts < ?1")
+    long countPending(int maxAttempts);
+    
+    @Query("SELECT COUNT(e) FROM OutboxEvent e WHERE e.attempts >= ?1")
+    long countDead(int maxAttempts);
+}
@@ -1,10 +1,14 @@
 package com.digitalelectronics.quiz.repository;
 
 import com.digitalelectronics.quiz.model.Profile;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -14,9 +18,19 @@ public interface ProfileRepository extends JpaRepository<Profile, UUID> {
     
     Optional<Profile> findByEmail(String email);
     
+    @Query("SELECT COALESCE(p.updatedAt, p.createdAt) FROM Profile p WHERE p.id = ?1")
+    Optional<LocalDateTime> findUpdatedAtById(UUID id);
+    
     @Query("SELECT p FROM Profile p ORDER BY p.totalPoints DESC")
-    List<Profile> findTopByOrderByTotalPointsDesc();
+    List<Profile> findTopByOrderByTotalPointsDesc(Pageable page);
     
     @Query("SELECT p FROM Profile p ORDER BY p.currentStreak DESC")
-    List<Profile> findTopByOrderByCurrentStreakDesc();
+    List<Profile> findTopByOrderByCurrentStreakDesc(Pageable page);
+    
+    @Query("SELECT p.id FROM Profile p WHERE p.currentStreak > 0 AND (p.lastQuizDate IS NULL OR p.lastQuizDate < ?1) AND p.id > ?2 ORDER BY p.id")
+    List<UUID> findLapsedStreakIdsAfter(LocalDateTime cutoff, UUID afterId, Pageable page);
+    
+    @Modifying
+    @Query("UPDATE Profile p SET p.currentStreak = 0, p.updatedAt = ?3 WHERE p.id IN ?1 AND p.currentStreak > 0 AND (p.lastQuizDate IS NULL OR p.lastQuizDate < ?2)")
+    int resetLapsedStreaks(Collection<UUID> ids, LocalDateTime cutoff, LocalDateTime now);
 }
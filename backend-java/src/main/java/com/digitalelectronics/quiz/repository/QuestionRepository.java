@@ -2,8 +2,11 @@ package com.digitalelectronics.quiz.repository;
 
 import com.digitalelectronics.quiz.model.Question;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -12,5 +15,9 @@ public interface QuestionRepository extends JpaRepository<Question, UUID> {
     
     List<Question> findByQuizIdOrderByOrderNumberAsc(UUID quizId);
     
-    void deleteByQuizId(UUID quizId);
+    List<Question> findByQuizIdInOrderByOrderNumberAsc(Collection<UUID> quizIds);
+    
+    @Modifying
+    @Query("DELETE FROM Question q WHERE q.quizId = ?1")
+    int deleteByQuizId(UUID quizId);
 }
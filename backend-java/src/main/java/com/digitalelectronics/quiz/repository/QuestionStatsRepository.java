@@ -0,0 +1,23 @@
+package com.digitalelectronics.quiz.repository;
+
+import com.digitalelectronics.quiz.model.QuestionStats;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface QuestionStatsRepository extends JpaRepository<QuestionStats, UUID> {
+    
+    List<QuestionStats> findByQuizId(UUID quizId);
+    
+    // Locked in id order, so deliveries touching the same questions cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT qs FROM QuestionStats qs WHERE qs.questionId IN ?1 ORDER BY qs.questionId")
+    List<QuestionStats> findAllByIdForUpdate(Collection<UUID> questionIds);
+}
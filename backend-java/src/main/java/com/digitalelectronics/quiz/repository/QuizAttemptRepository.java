@@ -1,18 +1,33 @@
 package com.digitalelectronics.quiz.repository;
 
 import com.digitalelectronics.quiz.model.QuizAttempt;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface QuizAttemptRepository extends JpaRepository<QuizAttempt, UUID> {
     
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT qa FROM QuizAttempt qa WHERE qa.id = ?1")
+    Optional<QuizAttempt> findByIdForUpdate(UUID id);
+    
     List<QuizAttempt> findByUserId(UUID userId);
     
+    // Bounded by created_at so a partitioned quiz_attempts only scans the matching months
+    List<QuizAttempt> findByUserIdAndCreatedAtGreaterThanEqual(UUID userId, LocalDateTime since);
+    
     List<QuizAttempt> findByQuizId(UUID quizId);
     
     List<QuizAttempt> findByUserIdAndQuizId(UUID userId, UUID quizId);
@@ -20,6 +35,24 @@ public interface QuizAttemptRepository extends JpaRepository<QuizAttempt, UUID>
     @Query("SELECT qa FROM QuizAttempt qa WHERE qa.userId = ?1 AND qa.completed = true ORDER BY qa.completedAt DESC")
     List<QuizAttempt> findCompletedAttemptsByUserId(UUID userId);
     
+    @Query("SELECT qa FROM QuizAttempt qa WHERE qa.userId = ?1 AND qa.completed = true AND qa.createdAt >= ?2 ORDER BY qa.completedAt DESC")
+    List<QuizAttempt> findCompletedAttemptsByUserIdSince(UUID userId, LocalDateTime since);
+    
+    @Query("SELECT DISTINCT qa.quizId FROM QuizAttempt qa WHERE qa.completed = true")
+    List<UUID> findQuizIdsWithCompletedAttempts();
+    
+    @Query("SELECT qa.answers FROM QuizAttempt qa WHERE qa.quizId = ?1 AND qa.completed = true ORDER BY qa.completedAt DESC")
+    List<Map<String, String>> findRecentCompletedAnswers(UUID quizId, Pageable page);
+    
     @Query("SELECT qa FROM QuizAttempt qa WHERE qa.quizId = ?1 AND qa.completed = true ORDER BY qa.score DESC")
     List<QuizAttempt> findTopScoresByQuizId(UUID quizId);
+    
+    @Query("SELECT qa.id FROM QuizAttempt qa WHERE qa.completed = false AND qa.expiredAt IS NULL AND qa.createdAt < ?1 " +
+           "AND qa.id > ?2 ORDER BY qa.id")
+    List<UUID> findAbandonedIdsAfter(LocalDateTime cutoff, UUID afterId, Pageable page);
+    
+    @Modifying
+    @Query("UPDATE QuizAttempt qa SET qa.expiredAt = ?3 " +
+           "WHERE qa.id IN ?1 AND qa.completed = false AND qa.expiredAt IS NULL AND qa.createdAt < ?2")
+    int expireAbandoned(Collection<UUID> ids, LocalDateTime cutoff, LocalDateTime now);
 }
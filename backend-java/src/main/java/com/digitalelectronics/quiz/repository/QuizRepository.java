@@ -1,10 +1,15 @@
 package com.digitalelectronics.quiz.repository;
 
+import com.digitalelectronics.quiz.dto.CatalogVersion;
 import com.digitalelectronics.quiz.model.Quiz;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
@@ -14,7 +19,23 @@ public interface QuizRepository extends JpaRepository<Quiz, UUID> {
     
     List<Quiz> findByCategory(String category);
     
+    List<Quiz> findByCategoryAndIsPublished(String category, Boolean isPublished);
+    
+    @Query("SELECT DISTINCT q.category FROM Quiz q WHERE q.isPublished = true")
+    List<String> findPublishedCategories();
+    
     List<Quiz> findByDifficulty(String difficulty);
     
     List<Quiz> findByCreatedBy(UUID createdBy);
+    
+    @Query("SELECT new com.digitalelectronics.quiz.dto.CatalogVersion(COUNT(q), MAX(q.updatedAt)) FROM Quiz q")
+    CatalogVersion findCatalogVersion();
+    
+    @Query("SELECT COALESCE(q.updatedAt, q.createdAt) FROM Quiz q WHERE q.id = ?1")
+    Optional<LocalDateTime> findUpdatedAtById(UUID id);
+    
+    @Modifying
+    @Query("UPDATE Quiz q SET q.totalQuestions = CASE WHEN q.totalQuestions + ?2 < 0 THEN 0 ELSE q.totalQuestions + ?2 END, " +
+           "q.updatedAt = ?3 WHERE q.id = ?1")
+    int adjustTotalQuestions(UUID quizId, int delta, LocalDateTime updatedAt);
 }
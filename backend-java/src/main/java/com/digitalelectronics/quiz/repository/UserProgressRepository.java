@@ -0,0 +1,35 @@
+package com.digitalelectronics.quiz.repository;
+
+import com.digitalelectronics.quiz.model.UserProgress;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface UserProgressRepository extends JpaRepository<UserProgress, UUID> {
+    
+    // Gives findByIdForUpdate a row to lock on a user's first attempt; 0 when it already exists
+    @Modifying
+    @Query(value = "INSERT INTO user_progress (user_id, total_points, overall, by_quiz, by_category, by_difficulty, updated_at) " +
+                   "VALUES (?1, 0, CAST('{}' AS jsonb), CAST('{}' AS jsonb), CAST('{}' AS jsonb), CAST('{}' AS jsonb), ?2) " +
+                   "ON CONFLICT (user_id) DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(UUID userId, LocalDateTime updatedAt);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT up FROM UserProgress up WHERE up.userId = ?1")
+    Optional<UserProgress> findByIdForUpdate(UUID userId);
+    
+    // Keyset page of recently active users, for warming the recommendation index
+    @Query("SELECT up FROM UserProgress up WHERE up.updatedAt >= ?1 AND up.userId > ?2 ORDER BY up.userId")
+    List<UserProgress> findUpdatedSinceAfter(LocalDateTime since, UUID afterId, Pageable page);
+}
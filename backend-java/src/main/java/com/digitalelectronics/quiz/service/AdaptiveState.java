@@ -0,0 +1,119 @@
+package com.digitalelectronics.quiz.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Running ability estimate of an adaptive attempt. The item pool is the snapshot
+ * taken at start, so a refit mid-attempt does not change the scale. Guarded by this.
+ */
+public class AdaptiveState {
+    
+    private final ItemPool pool;
+    private final int length;
+    private final double targetStandardError;
+    private final boolean[] used;
+    private final int[] items;
+    private final boolean[] correct;
+    private int count;
+    private int pending = -1;
+    private double theta;
+    private double standardError = 1.0;
+    
+    AdaptiveState(ItemPool pool, int length, double targetStandardError) {
+        this.pool = pool;
+        this.length = Math.min(length, pool.size());
+        this.targetStandardError = targetStandardError;
+        this.used = new boolean[pool.size()];
+        this.items = new int[pool.size()];
+        this.correct = new boolean[pool.size()];
+    }
+    
+    /**
+     * The question to present next: the one already handed out and not yet answered,
+     * else the most informative unused item; null when the attempt is complete.
+     */
+    synchronized UUID next() {
+        if (pending >= 0) {
+            return pool.questionId(pending);
+        }
+        if (isComplete()) {
+            return null;
+        }
+        int item = pool.selectNext(theta, used);
+        if (item < 0) {
+            return null;
+        }
+        used[item] = true;
+        pending = item;
+        return pool.questionId(item);
+    }
+    
+    /**
+     * Folds a response into the estimate. A revised answer replaces the earlier one.
+     *
+     * @return false if the question was never presented in this attempt
+     */
+    synchronized boolean record(UUID questionId, boolean isCorrect) {
+        int item = pool.indexOf(questionId);
+        if (item < 0 || !used[item]) {
+            return false;
+        }
+        int position = -1;
+        for (int i = 0; i < count; i++) {
+            if (items[i] == item) {
+                position = i;
+                break;
+            }
+        }
+        if (position < 0) {
+            position = count++;
+            items[position] = item;
+        }
+        correct[position] = isCorrect;
+        if (pending == item) {
+            pending = -1;
+        }
+        theta = ItemResponseModel.estimateAbility(pool.discrimination(), pool.difficulty(), items, correct, count);
+        standardError = ItemResponseModel.standardError(pool.discrimination(), pool.difficulty(), items, count, theta);
+        return true;
+    }
+    
+    /** Questions handed out so far, in order; each is answered before the next is chosen. */
+    synchronized List<UUID> presented() {
+        List<UUID> ids = new ArrayList<>(count + 1);
+        for (int i = 0; i < count; i++) {
+            ids.add(pool.questionId(items[i]));
+        }
+        if (pending >= 0) {
+            ids.add(pool.questionId(pending));
+        }
+        return ids;
+    }
+    
+    synchronized boolean isPresented(UUID questionId) {
+        int item = pool.indexOf(questionId);
+        return item >= 0 && used[item];
+    }
+    
+    public synchronized boolean isComplete() {
+        return count >= length || (count > 0 && standardError <= targetStandardError);
+    }
+    
+    public synchronized double getTheta() {
+        return theta;
+    }
+    
+    public synchronized double getStandardError() {
+        return standardError;
+    }
+    
+    public synchronized int getAnswered() {
+        return count;
+    }
+    
+    public int getLength() {
+        return length;
+    }
+}
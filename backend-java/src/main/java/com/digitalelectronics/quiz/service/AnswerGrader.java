@@ -0,0 +1,23 @@
+package com.digitalelectronics.quiz.service;
+
+import com.digitalelectronics.quiz.model.Question;
+
+/**
+ * Single place that decides whether a submitted answer matches a question's key.
+ */
+public final class AnswerGrader {
+
+    private AnswerGrader() {
+    }
+
+    public static boolean isCorrect(Question question, String answer) {
+        return isCorrect(question.getCorrectAnswer(), answer);
+    }
+
+    public static boolean isCorrect(String correctAnswer, String answer) {
+        if (answer == null || correctAnswer == null) {
+            return false;
+        }
+        return correctAnswer.trim().equalsIgnoreCase(answer.trim());
+    }
+}
@@ -0,0 +1,74 @@
+package com.digitalelectronics.quiz.service;
+
+import com.digitalelectronics.quiz.model.Question;
+import com.digitalelectronics.quiz.model.Quiz;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Immutable snapshot of a quiz's questions, correct answers and points, used to
+ * present and grade attempts without going to the database.
+ */
+public final class AnswerKey {
+    
+    private final UUID quizId;
+    private final int passingScore;
+    private final Integer timeLimit;
+    private final Map<UUID, Item> items;
+    // In order_number order
+    private final List<Item> ordered;
+    
+    AnswerKey(Quiz quiz, List<Question> questions) {
+        this.quizId = quiz.getId();
+        this.passingScore = quiz.getPassingScore() != null ? quiz.getPassingScore() : 70;
+        this.timeLimit = quiz.getTimeLimit();
+        Map<UUID, Item> byId = new HashMap<>();
+        List<Item> inOrder = new ArrayList<>(questions.size());
+        for (Question question : questions) {
+            Item item = new Item(
+                question.getId(),
+                question.getQuestionText(),
+                question.getQuestionType(),
+                question.getOptions() != null ? Collections.unmodifiableList(new ArrayList<>(question.getOptions())) : List.of(),
+                question.getCorrectAnswer(),
+                question.getPoints() != null ? question.getPoints() : 0,
+                question.getExplanation());
+            byId.put(question.getId(), item);
+            inOrder.add(item);
+        }
+        this.items = Map.copyOf(byId);
+        this.ordered = Collections.unmodifiableList(inOrder);
+    }
+    
+    public UUID getQuizId() {
+        return quizId;
+    }
+    
+    public int getPassingScore() {
+        return passingScore;
+    }
+    
+    public Integer getTimeLimit() {
+        return timeLimit;
+    }
+    
+    public int size() {
+        return items.size();
+    }
+    
+    public Item item(UUID questionId) {
+        return items.get(questionId);
+    }
+    
+    public List<Item> items() {
+        return ordered;
+    }
+    
+    public record Item(UUID questionId, String questionText, String questionType, List<String> options,
+                       String correctAnswer, int points, String explanation) {}
+}
@@ -0,0 +1,83 @@
+package com.digitalelectronics.quiz.service;
+
+import com.digitalelectronics.quiz.datasource.ReplicaRoutingDataSource;
+import com.digitalelectronics.quiz.invalidation.InvalidationEvent;
+import com.digitalelectronics.quiz.invalidation.InvalidationSubscriber;
+import com.digitalelectronics.quiz.model.Quiz;
+import com.digitalelectronics.quiz.repository.QuestionRepository;
+import com.digitalelectronics.quiz.repository.QuizRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Answer keys per quiz, loaded from the primary on first use and dropped on quiz
+ * invalidation events (a question change bumps its quiz), from this node or another.
+ */
+@Service
+@RequiredArgsConstructor
+public class AnswerKeyCache implements InvalidationSubscriber {
+    
+    private final QuizRepository quizRepository;
+    private final QuestionRepository questionRepository;
+    
+    private final Map<UUID, AnswerKey> keys = new ConcurrentHashMap<>();
+    // Bumped on every invalidation so a load that raced with one is not cached
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    
+    public Optional<AnswerKey> get(UUID quizId) {
+        AnswerKey key = keys.get(quizId);
+        if (key != null) {
+            hits.increment();
+            return Optional.of(key);
+        }
+        misses.increment();
+        
+        long loadedAt = generation.get();
+        // A replica that has not replayed a new question would have its answers rejected
+        Optional<Quiz> quiz = ReplicaRoutingDataSource.onPrimary(() -> quizRepository.findById(quizId));
+        if (quiz.isEmpty()) {
+            return Optional.empty();
+        }
+        AnswerKey loaded = new AnswerKey(quiz.get(),
+            ReplicaRoutingDataSource.onPrimary(() -> questionRepository.findByQuizIdOrderByOrderNumberAsc(quizId)));
+        if (generation.get() == loadedAt) {
+            keys.putIfAbsent(quizId, loaded);
+        }
+        return Optional.of(loaded);
+    }
+    
+    @Override
+    public void onInvalidate(InvalidationEvent event) {
+        if (InvalidationEvent.QUIZ.equals(event.type())) {
+            generation.incrementAndGet();
+            keys.remove(UUID.fromString(event.key()));
+        }
+    }
+    
+    @Override
+    public void onInvalidateAll() {
+        generation.incrementAndGet();
+        keys.clear();
+    }
+    
+    public long getHitCount() {
+        return hits.sum();
+    }
+    
+    public long getMissCount() {
+        return misses.sum();
+    }
+    
+    public int size() {
+        return keys.size();
+    }
+}
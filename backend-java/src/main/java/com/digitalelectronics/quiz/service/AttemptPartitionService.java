@@ -0,0 +1,165 @@
+package com.digitalelectronics.quiz.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Maintains the monthly range partitions of quiz_attempts (see
+ * db/quiz_attempts_partitioning.sql). Partitions are created ahead of time, and
+ * partitions older than the retention window are detached, exported to a gzipped
+ * CSV file in the archive directory and dropped. Every step can be re-run, so
+ * whatever a failed run left behind is picked up by the next one.
+ */
+@Service
+@ConditionalOnProperty(name = "attempts.partitioning.enabled", havingValue = "true")
+@Slf4j
+public class AttemptPartitionService {
+
+    private static final String PARENT_TABLE = "quiz_attempts";
+    private static final Pattern PARTITION_NAME = Pattern.compile("quiz_attempts_p(\\d{4})_(\\d{2})");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final int monthsAhead;
+    private final int retentionMonths;
+    private final Path archiveDir;
+
+    public AttemptPartitionService(
+            JdbcTemplate jdbcTemplate,
+            DataSource dataSource,
+            @Value("${attempts.partitioning.months-ahead:3}") int monthsAhead,
+            @Value("${attempts.partitioning.retention-months:12}") int retentionMonths,
+            @Value("${attempts.partitioning.archive-dir:archive/quiz_attempts}") String archiveDir) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = dataSource;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+        this.archiveDir = Paths.get(archiveDir);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintainPartitions();
+    }
+
+    @Scheduled(cron = "${attempts.partitioning.cron:0 15 3 * * *}")
+    public void maintainPartitions() {
+        if (!isPartitioned()) {
+            log.warn("{} is not a partitioned table; run db/quiz_attempts_partitioning.sql first", PARENT_TABLE);
+            return;
+        }
+
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            createPartition(current.plusMonths(i));
+        }
+
+        YearMonth oldestKept = current.minusMonths(retentionMonths);
+        for (String partition : listPartitions()) {
+            Matcher matcher = PARTITION_NAME.matcher(partition);
+            if (!matcher.matches()) {
+                continue; // default partition
+            }
+            YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+            if (month.isBefore(oldestKept)) {
+                log.info("Detaching expired partition {}", partition);
+                try {
+                    jdbcTemplate.execute("ALTER TABLE " + PARENT_TABLE + " DETACH PARTITION " + partition);
+                } catch (Exception e) {
+                    log.error("Failed to detach partition {}", partition, e);
+                }
+            }
+        }
+
+        // Also picks up partitions detached by an earlier run whose export failed
+        for (String partition : listDetachedPartitions()) {
+            try {
+                archivePartition(partition);
+            } catch (Exception e) {
+                log.error("Failed to archive partition {}; will retry on next run", partition, e);
+            }
+        }
+    }
+
+    private boolean isPartitioned() {
+        List<String> kinds = jdbcTemplate.queryForList(
+            "SELECT c.relkind::text FROM pg_class c WHERE c.relname = ? AND pg_table_is_visible(c.oid)",
+            String.class, PARENT_TABLE);
+        return kinds.contains("p");
+    }
+
+    private List<String> listPartitions() {
+        return jdbcTemplate.queryForList(
+            "SELECT c.relname FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid " +
+            "JOIN pg_class p ON p.oid = i.inhparent " +
+            "WHERE p.relname = ? ORDER BY c.relname",
+            String.class, PARENT_TABLE);
+    }
+
+    private List<String> listDetachedPartitions() {
+        return jdbcTemplate.queryForList(
+            "SELECT c.relname FROM pg_class c " +
+            "WHERE c.relname ~ '^quiz_attempts_p[0-9]{4}_[0-9]{2}$' AND c.relkind = 'r' AND NOT c.relispartition " +
+            "AND pg_table_is_visible(c.oid) ORDER BY c.relname",
+            String.class);
+    }
+
+    private void createPartition(YearMonth month) {
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+        String name = partitionName(month);
+        // Identifiers and bounds are generated from YearMonth, never from user input
+        jdbcTemplate.execute(String.format(
+            "CREATE TABLE IF NOT EXISTS %s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')",
+            name, PARENT_TABLE, from, to));
+        log.debug("Ensured partition {} [{}, {})", name, from, to);
+    }
+
+    private void archivePartition(String partition) throws SQLException, IOException {
+        log.info("Archiving detached partition {}", partition);
+        Files.createDirectories(archiveDir);
+        Path target = archiveDir.resolve(partition + ".csv.gz");
+        Path temp = archiveDir.resolve(partition + ".csv.gz.tmp");
+
+        long rows;
+        try (Connection connection = dataSource.getConnection();
+             OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp))) {
+            PGConnection pgConnection = connection.unwrap(PGConnection.class);
+            rows = pgConnection.getCopyAPI()
+                .copyOut("COPY " + partition + " TO STDOUT WITH (FORMAT csv, HEADER)", out);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        // Only drop once the archive file is safely on disk
+        jdbcTemplate.execute("DROP TABLE " + partition);
+        log.info("Archived {} rows from {} to {}", rows, partition, target);
+    }
+
+    static String partitionName(YearMonth month) {
+        return String.format("%s_p%04d_%02d", PARENT_TABLE, month.getYear(), month.getMonthValue());
+    }
+}
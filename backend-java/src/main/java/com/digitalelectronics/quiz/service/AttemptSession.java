@@ -0,0 +1,108 @@
+package com.digitalelectronics.quiz.service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-progress attempt held in memory between start and submit. Answers can be
+ * revised; each one replaces the previous answer atomically and adjusts the running
+ * totals by the difference, so concurrent clicks never need a lock.
+ */
+public class AttemptSession {
+    
+    private final UUID attemptId;
+    private final UUID userId;
+    private final AnswerKey answerKey;
+    // Null for a linear attempt
+    private final AdaptiveState adaptive;
+    // Question and option order, see AttemptShuffle
+    private final long seed;
+    private final long startedAtNanos = System.nanoTime();
+    private final Map<UUID, Answer> answers = new ConcurrentHashMap<>();
+    private final AtomicInteger score = new AtomicInteger();
+    private final AtomicInteger correctAnswers = new AtomicInteger();
+    private volatile long lastTouchedNanos = startedAtNanos;
+    
+    AttemptSession(UUID attemptId, UUID userId, AnswerKey answerKey, AdaptiveState adaptive) {
+        this.attemptId = attemptId;
+        this.userId = userId;
+        this.answerKey = answerKey;
+        this.adaptive = adaptive;
+        this.seed = AttemptShuffle.seed(attemptId);
+    }
+    
+    Answer record(UUID questionId, String answer, AnswerKey.Item item, int timeSpent) {
+        boolean correct = AnswerGrader.isCorrect(item.correctAnswer(), answer);
+        Answer next = new Answer(answer, correct, correct ? item.points() : 0, timeSpent);
+        Answer previous = answers.put(questionId, next);
+        score.addAndGet(next.points() - (previous != null ? previous.points() : 0));
+        correctAnswers.addAndGet((correct ? 1 : 0) - (previous != null && previous.correct() ? 1 : 0));
+        lastTouchedNanos = System.nanoTime();
+        return next;
+    }
+    
+    Map<String, String> answersByQuestionId() {
+        Map<String, String> result = new HashMap<>();
+        answers.forEach((questionId, answer) -> result.put(questionId.toString(), answer.answer()));
+        return result;
+    }
+    
+    /** Question ids in the order this attempt presented them. */
+    List<UUID> presentedQuestionIds() {
+        if (adaptive != null) {
+            return adaptive.presented();
+        }
+        return AttemptShuffle.questions(answerKey, seed).stream().map(AttemptShuffle.Presented::id).toList();
+    }
+    
+    int elapsedSeconds() {
+        return (int) ((System.nanoTime() - startedAtNanos) / 1_000_000_000L);
+    }
+    
+    public UUID getAttemptId() {
+        return attemptId;
+    }
+    
+    public UUID getUserId() {
+        return userId;
+    }
+    
+    public AnswerKey getAnswerKey() {
+        return answerKey;
+    }
+    
+    public long getSeed() {
+        return seed;
+    }
+    
+    public AdaptiveState getAdaptive() {
+        return adaptive;
+    }
+    
+    /** Questions in this attempt: the adaptive test length, or the whole quiz. */
+    public int getTotalQuestions() {
+        return adaptive != null ? adaptive.getLength() : answerKey.size();
+    }
+    
+    public int getScore() {
+        return score.get();
+    }
+    
+    public int getCorrectAnswers() {
+        return correctAnswers.get();
+    }
+    
+    public int getAnswered() {
+        return answers.size();
+    }
+    
+    long getLastTouchedNanos() {
+        return lastTouchedNanos;
+    }
+    
+    public record Answer(String answer, boolean correct, int points, int timeSpent) {}
+}
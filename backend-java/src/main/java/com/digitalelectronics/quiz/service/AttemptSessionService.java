@@ -0,0 +1,246 @@
+package com.digitalelectronics.quiz.service;
+
+import com.digitalelectronics.quiz.model.QuizAttempt;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-answer grading against in-memory attempt sessions. Starting an attempt inserts
+ * its row; answers touch only memory; submit writes the result through
+ * {@link QuizAttemptService#submitAttempt}. Sessions are sharded by attempt id, so
+ * start, submit and the idle sweep only contend within one shard.
+ * <p>
+ * Each attempt sees the questions and options in its own order, derived from the
+ * attempt id by {@link AttemptShuffle}, so grading and review can rebuild it.
+ * <p>
+ * An adaptive session also carries the learner's ability estimate and picks each next
+ * question from the quiz's in-memory {@link ItemPool}.
+ * <p>
+ * Sessions are node-local: a load balancer has to keep an attempt's requests on the
+ * node that started it. A session idle for attempt-sessions.idle-timeout-minutes is
+ * dropped; its unsubmitted row is left for the abandoned-attempt expiry job.
+ */
+@Service
+@Slf4j
+public class AttemptSessionService {
+    
+    private final QuizAttemptService quizAttemptService;
+    private final AnswerKeyCache answerKeyCache;
+    private final ItemParameterService itemParameterService;
+    private final int defaultAdaptiveLength;
+    private final double targetStandardError;
+    private final long idleTimeoutNanos;
+    private final Map<UUID, AttemptSession>[] shards;
+    private final int shardMask;
+    // Latest attempt per (user, quiz), for clients that do not send the attempt id
+    private final Map<UserQuiz, UUID> latestAttempt = new ConcurrentHashMap<>();
+    
+    @SuppressWarnings("unchecked")
+    public AttemptSessionService(
+            QuizAttemptService quizAttemptService,
+            AnswerKeyCache answerKeyCache,
+            ItemParameterService itemParameterService,
+            MeterRegistry meterRegistry,
+            @Value("${attempt-sessions.shards:64}") int shardCount,
+            @Value("${attempt-sessions.idle-timeout-minutes:120}") long idleTimeoutMinutes,
+            @Value("${irt.default-length:10}") int defaultAdaptiveLength,
+            @Value("${irt.target-standard-error:0.3}") double targetStandardError) {
+        this.quizAttemptService = quizAttemptService;
+        this.answerKeyCache = answerKeyCache;
+        this.itemParameterService = itemParameterService;
+        this.defaultAdaptiveLength = defaultAdaptiveLength;
+        this.targetStandardError = targetStandardError;
+        this.idleTimeoutNanos = TimeUnit.MINUTES.toNanos(idleTimeoutMinutes);
+        int size = Integer.highestOneBit(Math.max(1, shardCount - 1) << 1);
+        this.shards = new Map[size];
+        for (int i = 0; i < size; i++) {
+            shards[i] = new ConcurrentHashMap<>();
+        }
+        this.shardMask = size - 1;
+        Gauge.builder("attempt.sessions.active", this, AttemptSessionService::size)
+            .description("Attempts started but not yet submitted on this node")
+            .register(meterRegistry);
+    }
+    
+    /**
+     * @return empty if the quiz does not exist
+     */
+    public Optional<AttemptSession> start(UUID userId, UUID quizId) {
+        Optional<AnswerKey> answerKey = answerKeyCache.get(quizId);
+        if (answerKey.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(start(userId, answerKey.get(), null));
+    }
+    
+    /**
+     * Starts an adaptive attempt: questions are chosen one at a time by {@link #next}
+     * from the learner's running ability estimate. The attempt ends after
+     * {@code length} questions (irt.default-length when null) or once the estimate's
+     * standard error reaches irt.target-standard-error.
+     *
+     * @return empty if the quiz does not exist or has no questions
+     */
+    public Optional<AttemptSession> startAdaptive(UUID userId, UUID quizId, Integer length) {
+        Optional<AnswerKey> answerKey = answerKeyCache.get(quizId);
+        if (answerKey.isEmpty() || answerKey.get().size() == 0) {
+            return Optional.empty();
+        }
+        // Only offer items the key can grade, whichever of the two caches is newer
+        Optional<ItemPool> pool = itemParameterService.getPool(quizId).map(loaded -> loaded.matching(answerKey.get()));
+        if (pool.isEmpty()) {
+            return Optional.empty();
+        }
+        int questions = length != null && length > 0 ? length : defaultAdaptiveLength;
+        return Optional.of(start(userId, answerKey.get(), new AdaptiveState(pool.get(), questions, targetStandardError)));
+    }
+    
+    private AttemptSession start(UUID userId, AnswerKey answerKey, AdaptiveState adaptive) {
+        QuizAttempt attempt = new QuizAttempt();
+        attempt.setUserId(userId);
+        attempt.setQuizId(answerKey.getQuizId());
+        attempt.setTotalQuestions(adaptive != null ? adaptive.getLength() : answerKey.size());
+        QuizAttempt started = quizAttemptService.startAttempt(attempt);
+        
+        AttemptSession session = new AttemptSession(started.getId(), userId, answerKey, adaptive);
+        shard(started.getId()).put(started.getId(), session);
+        UUID replaced = latestAttempt.put(new UserQuiz(userId, answerKey.getQuizId()), started.getId());
+        if (replaced != null) {
+            shard(replaced).remove(replaced);
+        }
+        return session;
+    }
+    
+    /**
+     * The next question of an adaptive attempt, chosen from memory; the same question
+     * until it is answered. Empty when the attempt is complete.
+     *
+     * @throws IllegalArgumentException if the attempt is not adaptive
+     */
+    public Optional<UUID> next(AttemptSession session) {
+        AdaptiveState adaptive = session.getAdaptive();
+        if (adaptive == null) {
+            throw new IllegalArgumentException("Attempt " + session.getAttemptId() + " is not adaptive");
+        }
+        return Optional.ofNullable(adaptive.next());
+    }
+    
+    /** The questions of a linear attempt in the attempt's own order, options shuffled too. */
+    public List<AttemptShuffle.Presented> questions(AttemptSession session) {
+        return AttemptShuffle.questions(session.getAnswerKey(), session.getSeed());
+    }
+    
+    /** One question as shown in this attempt, or null if it is not part of the quiz. */
+    public AttemptShuffle.Presented question(AttemptSession session, UUID questionId) {
+        AnswerKey.Item item = session.getAnswerKey().item(questionId);
+        return item != null ? AttemptShuffle.question(item, session.getSeed()) : null;
+    }
+    
+    public Optional<AttemptSession> find(UUID attemptId) {
+        return Optional.ofNullable(shard(attemptId).get(attemptId));
+    }
+    
+    public Optional<AttemptSession> findLatest(UUID userId, UUID quizId) {
+        UUID attemptId = latestAttempt.get(new UserQuiz(userId, quizId));
+        return attemptId != null ? find(attemptId) : Optional.empty();
+    }
+    
+    /**
+     * Grades one answer and folds it into the session's running score. The answer is
+     * either the option text or {@code optionIndex}, a position in the attempt's shuffled
+     * options, which is mapped back to the original option first.
+     *
+     * @throws IllegalArgumentException if the question is not part of the session's quiz
+     */
+    public AttemptSession.Answer answer(AttemptSession session, UUID questionId, String answer, Integer optionIndex, int timeSpent) {
+        AnswerKey.Item item = session.getAnswerKey().item(questionId);
+        if (item == null) {
+            throw new IllegalArgumentException("Question " + questionId + " is not part of this quiz");
+        }
+        if (optionIndex != null) {
+            answer = AttemptShuffle.originalOption(item, session.getSeed(), optionIndex);
+            if (answer == null) {
+                throw new IllegalArgumentException("Option " + optionIndex + " is out of range");
+            }
+        }
+        AdaptiveState adaptive = session.getAdaptive();
+        if (adaptive != null && !adaptive.isPresented(questionId)) {
+            throw new IllegalArgumentException("Question " + questionId + " has not been presented in this attempt");
+        }
+        AttemptSession.Answer graded = session.record(questionId, answer, item, timeSpent);
+        if (adaptive != null) {
+            adaptive.record(questionId, graded.correct());
+        }
+        return graded;
+    }
+    
+    /**
+     * Persists the session's answers and score. The session is removed first so a
+     * concurrent duplicate submit finds nothing; it is put back if the write fails.
+     *
+     * @return empty if there was no session for the attempt
+     */
+    public Optional<QuizAttempt> submit(UUID attemptId) {
+        AttemptSession session = shard(attemptId).remove(attemptId);
+        if (session == null) {
+            return Optional.empty();
+        }
+        QuizAttempt details = new QuizAttempt();
+        details.setAnswers(session.answersByQuestionId());
+        details.setQuestionIds(session.presentedQuestionIds());
+        details.setScore(session.getScore());
+        details.setCorrectAnswers(session.getCorrectAnswers());
+        details.setTimeTaken(session.elapsedSeconds());
+        try {
+            QuizAttempt submitted = quizAttemptService.submitAttempt(attemptId, details);
+            latestAttempt.remove(new UserQuiz(session.getUserId(), session.getAnswerKey().getQuizId()), attemptId);
+            return Optional.of(submitted);
+        } catch (RuntimeException e) {
+            shard(attemptId).putIfAbsent(attemptId, session);
+            throw e;
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${attempt-sessions.sweep-interval-ms:60000}")
+    public void expireIdleSessions() {
+        long now = System.nanoTime();
+        int expired = 0;
+        for (Map<UUID, AttemptSession> shard : shards) {
+            for (AttemptSession session : shard.values()) {
+                if (now - session.getLastTouchedNanos() > idleTimeoutNanos && shard.remove(session.getAttemptId(), session)) {
+                    latestAttempt.remove(new UserQuiz(session.getUserId(), session.getAnswerKey().getQuizId()), session.getAttemptId());
+                    expired++;
+                }
+            }
+        }
+        if (expired > 0) {
+            log.info("Expired {} idle attempt sessions", expired);
+        }
+    }
+    
+    public int size() {
+        int size = 0;
+        for (Map<UUID, AttemptSession> shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+    
+    private Map<UUID, AttemptSession> shard(UUID attemptId) {
+        int h = attemptId.hashCode();
+        return shards[(h ^ (h >>> 16)) & shardMask];
+    }
+    
+    private record UserQuiz(UUID userId, UUID quizId) {}
+}
@@ -0,0 +1,121 @@
+package com.digitalelectronics.quiz.service;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.UUID;
+
+/**
+ * Per-attempt question and option order, derived from the attempt id so nothing is
+ * stored: the same id always yields the same order. A permutation maps a shown
+ * position to the original index, so a shown option index is inverted by one lookup.
+ * Shuffled views share the cached {@link AnswerKey} lists and only add an int[] each.
+ */
+public final class AttemptShuffle {
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private AttemptShuffle() {
+    }
+
+    public static long seed(UUID attemptId) {
+        return mix(attemptId.getMostSignificantBits() ^ mix(attemptId.getLeastSignificantBits()));
+    }
+
+    /**
+     * Seed for a question's options. Depends on the question, not its position, so the
+     * option order does not change with the question order.
+     */
+    public static long optionSeed(long seed, UUID questionId) {
+        return mix(seed ^ questionId.getMostSignificantBits() ^ mix(questionId.getLeastSignificantBits() + GOLDEN_GAMMA));
+    }
+
+    /**
+     * Fills {@code order} with a Fisher-Yates permutation of its indexes driven by
+     * SplitMix64; {@code order[shown]} is the original index.
+     */
+    public static int[] permute(long seed, int[] order) {
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        long state = seed;
+        for (int i = order.length - 1; i > 0; i--) {
+            state += GOLDEN_GAMMA;
+            // Multiply-shift maps the top 32 bits onto [0, i]
+            int j = (int) (((mix(state) >>> 32) * (i + 1)) >>> 32);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        return order;
+    }
+
+    /** The attempt's questions in its shuffled order, each with its options shuffled. */
+    public static List<Presented> questions(AnswerKey answerKey, long seed) {
+        List<AnswerKey.Item> items = answerKey.items();
+        int[] order = permute(seed, new int[items.size()]);
+        Presented[] presented = new Presented[order.length];
+        for (int i = 0; i < order.length; i++) {
+            presented[i] = question(items.get(order[i]), seed);
+        }
+        return Collections.unmodifiableList(Arrays.asList(presented));
+    }
+
+    public static Presented question(AnswerKey.Item item, long seed) {
+        List<String> options = item.options();
+        if (options.size() > 1) {
+            options = new PermutedList(options, permute(optionSeed(seed, item.questionId()), new int[options.size()]));
+        }
+        return new Presented(item.questionId(), item.questionText(), item.questionType(), options, item.points());
+    }
+
+    /**
+     * Inverts a shown option index back to the option text the answer key grades.
+     *
+     * @return null if the index is out of range
+     */
+    public static String originalOption(AnswerKey.Item item, long seed, int shown) {
+        List<String> options = item.options();
+        if (shown < 0 || shown >= options.size()) {
+            return null;
+        }
+        if (options.size() == 1) {
+            return options.get(0);
+        }
+        int[] order = permute(optionSeed(seed, item.questionId()), new int[options.size()]);
+        return options.get(order[shown]);
+    }
+
+    // SplitMix64 finalizer
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /** A question as shown to one attempt, without its answer. */
+    public record Presented(UUID id, String questionText, String questionType, List<String> options, int points) {}
+
+    private static final class PermutedList extends AbstractList<String> implements RandomAccess {
+
+        private final List<String> original;
+        private final int[] order;
+
+        PermutedList(List<String> original, int[] order) {
+            this.original = original;
+            this.order = order;
+        }
+
+        @Override
+        public String get(int index) {
+            return original.get(order[index]);
+        }
+
+        @Override
+        public int size() {
+            return order.length;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.digitalelectronics.quiz.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Runs background jobs under a Postgres session-level advisory lock so that only one
+ * node executes a given job at a time, and keeps per-job run statistics.
+ * The lock connection is held for the whole run; the job itself does its work in
+ * separate, short transactions.
+ */
+@Component
+@Slf4j
+public class BatchJobRunner {
+    
+    // Namespace for pg_try_advisory_lock(int, int) so job locks never collide with other users
+    private static final int LOCK_NAMESPACE = 0x5155495A; // "QUIZ"
+    
+    private final DataSource dataSource;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, JobStats> stats = new ConcurrentHashMap<>();
+    
+    public BatchJobRunner(DataSource dataSource, MeterRegistry meterRegistry) {
+        this.dataSource = dataSource;
+        this.meterRegistry = meterRegistry;
+    }
+    
+    /**
+     * @param job returns the number of rows it processed
+     * @return false if another node holds the job's lock and the run was skipped
+     */
+    public boolean run(String jobName, LongSupplier job) {
+        JobStats jobStats = stats.computeIfAbsent(jobName, name -> new JobStats());
+        
+        try (Connection connection = dataSource.getConnection()) {
+            if (!tryLock(connection, jobName)) {
+                log.debug("Skipping job {}: lock held by another node", jobName);
+                meterRegistry.counter("jobs.skipped", "job", jobName).increment();
+                synchronized (jobStats) {
+                    jobStats.skipped++;
+                }
+                return false;
+            }
+            
+            long start = System.nanoTime();
+            LocalDateTime startedAt = LocalDateTime.now();
+            try {
+                long rows = job.getAsLong();
+                long durationNanos = System.nanoTime() - start;
+                long durationMs = durationNanos / 1_000_000;
+                recordMetrics(jobName, "success", durationNanos, rows);
+                synchronized (jobStats) {
+                    jobStats.runs++;
+                    jobStats.lastStartedAt = startedAt;
+                    jobStats.lastFinishedAt = LocalDateTime.now();
+                    jobStats.lastDurationMs = durationMs;
+                    jobStats.lastRowsProcessed = rows;
+                    jobStats.totalRowsProcessed += rows;
+                    jobStats.lastError = null;
+                }
+                log.info("Job {} processed {} rows in {} ms", jobName, rows, durationMs);
+            } catch (RuntimeException e) {
+                recordMetrics(jobName, "failure", System.nanoTime() - start, 0);
+                synchronized (jobStats) {
+                    jobStats.failures++;
+                    jobStats.lastStartedAt = startedAt;
+                    jobStats.lastFinishedAt = LocalDateTime.now();
+                    jobStats.lastDurationMs = (System.nanoTime() - start) / 1_000_000;
+                    jobStats.lastError = e.getMessage();
+                }
+                log.error("Job {} failed", jobName, e);
+            } finally {
+                unlock(connection, jobName);
+            }
+            return true;
+        } catch (SQLException e) {
+            synchronized (jobStats) {
+                jobStats.failures++;
+                jobStats.lastError = e.getMessage();
+            }
+            log.error("Job {} could not acquire its lock connection", jobName, e);
+            return false;
+        }
+    }
+    
+    public Map<String, JobStats> getStats() {
+        Map<String, JobStats> snapshot = new TreeMap<>();
+        stats.forEach((name, jobStats) -> {
+            synchronized (jobStats) {
+                snapshot.put(name, jobStats.copy());
+            }
+        });
+        return snapshot;
+    }
+    
+    private void recordMetrics(String jobName, String outcome, long durationNanos, long rows) {
+        Timer.builder("jobs.duration")
+            .description("Background job run time")
+            .tag("job", jobName)
+            .tag("outcome", outcome)
+            .register(meterRegistry)
+            .record(durationNanos, TimeUnit.NANOSECONDS);
+        Counter.builder("jobs.rows.processed")
+            .description("Rows updated or deleted by background jobs")
+            .tag("job", jobName)
+            .register(meterRegistry)
+            .increment(rows);
+    }
+    
+    private static boolean tryLock(Connection connection, String jobName) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_try_advisory_lock(?, ?)")) {
+            statement.setInt(1, LOCK_NAMESPACE);
+            statement.setInt(2, jobName.hashCode());
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+    
+    private static void unlock(Connection connection, String jobName) {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_advisory_unlock(?, ?)")) {
+            statement.setInt(1, LOCK_NAMESPACE);
+            statement.setInt(2, jobName.hashCode());
+            statement.execute();
+        } catch (SQLException e) {
+            // A failure here almost always means a broken session, and Postgres drops the locks of a closed session
+            log.warn("Failed to release advisory lock for job {}", jobName, e);
+        }
+    }
+    
+    @Data
+    public static class JobStats {
+        private long runs;
+        private long skipped;
+        private long failures;
+        private long lastDurationMs;
+        private long lastRowsProcessed;
+        private long totalRowsProcessed;
+        private LocalDateTime lastStartedAt;
+        private LocalDateTime lastFinishedAt;
+        private String lastError;
+        
+        JobStats copy() {
+            JobStats copy = new JobStats();
+            copy.runs = runs;
+            copy.skipped = skipped;
+            copy.failures = failures;
+            copy.lastDurationMs = lastDurationMs;
+            copy.lastRowsProcessed = lastRowsProcessed;
+            copy.totalRowsProcessed = totalRowsProcessed;
+            copy.lastStartedAt = lastStartedAt;
+            copy.lastFinishedAt = lastFinishedAt;
+            copy.lastError = lastError;
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.digitalelectronics.quiz.service;
+
+import com.digitalelectronics.quiz.datasource.ReplicaRoutingDataSource;
+import com.digitalelectronics.quiz.dto.CatalogVersion;
+import com.digitalelectronics.quiz.invalidation.InvalidationEvent;
+import com.digitalelectronics.quiz.invalidation.InvalidationSubscriber;
+import com.digitalelectronics.quiz.repository.QuizRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches the catalog fingerprint for a short TTL so conditional GETs on the quiz
+ * lists cost at most one aggregate query per TTL. Quiz invalidation events, local
+ * or from other nodes, drop the cached value at once.
+ */
+@Service
+public class CatalogVersionService implements InvalidationSubscriber {
+    
+    private final QuizRepository quizRepository;
+    private final long ttlNanos;
+    
+    private volatile Cached cached;
+    
+    public CatalogVersionService(
+            QuizRepository quizRepository,
+            @Value("${http-cache.catalog-version-ttl-ms:1000}") long ttlMillis) {
+        this.quizRepository = quizRepository;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    }
+    
+    public CatalogVersion getCatalogVersion() {
+        Cached current = cached;
+        long now = System.nanoTime();
+        if (current != null && current.expiresAt - now > 0) {
+            return current.version;
+        }
+        CatalogVersion version = ReplicaRoutingDataSource.onPrimary(quizRepository::findCatalogVersion);
+        cached = new Cached(version, now + ttlNanos);
+        return version;
+    }
+    
+    @Override
+    public void onInvalidate(InvalidationEvent event) {
+        if (InvalidationEvent.QUIZ.equals(event.type())) {
+            cached = null;
+        }
+    }
+    
+    @Override
+    public void onInvalidateAll() {
+        cached = null;
+    }
+    
+    private record Cached(CatalogVersion version, long expiresAt) {}
+}
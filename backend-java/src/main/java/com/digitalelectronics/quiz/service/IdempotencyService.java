@@ -0,0 +1,220 @@
+package com.digitalelectronics.quiz.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived store of responses keyed by the client's Idempotency-Key header.
+ * A retried request with the same key gets the original response back without
+ * re-running the action. Entries expire after a fixed TTL and the store is capped
+ * at a maximum size, evicting the oldest entries first.
+ * Each entry remembers a hash of the request body: reusing a key with a different
+ * body is a client bug and gets 422 instead of the unrelated stored response.
+ * Only 2xx responses are stored or replayed; a failed call frees its key.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private final ObjectMapper objectMapper;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final long waitMillis;
+
+    // Insertion order == expiry order because every entry gets the same TTL
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public IdempotencyService(
+            ObjectMapper objectMapper,
+            @Value("${idempotency.max-entries:10000}") int maxEntries,
+            @Value("${idempotency.ttl-seconds:600}") long ttlSeconds,
+            @Value("${idempotency.wait-timeout-ms:30000}") long waitMillis) {
+        this.objectMapper = objectMapper;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.waitMillis = waitMillis;
+    }
+
+    /**
+     * Runs the action once per (scope, key). Concurrent duplicates wait up to
+     * idempotency.wait-timeout-ms for the first call to finish, then get 409; later
+     * duplicates get the stored response. Only successful responses are kept, so a
+     * failed call can be retried with the same key, and duplicates that were waiting
+     * on it run the action themselves instead of replaying the failure.
+     *
+     * @param scope   includes whoever owns the key, so two clients never share one; must
+     *                come from the authenticated caller, never from the request body
+     * @param request the request body; a duplicate with a different body gets 422
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ResponseEntity<T> execute(String scope, String key, Object request, Supplier<ResponseEntity<T>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+
+        String cacheKey = scope + ':' + key;
+        byte[] fingerprint = fingerprint(request);
+        while (true) {
+            Entry entry = new Entry(new CompletableFuture<>(), fingerprint, System.nanoTime() + ttlNanos);
+            Entry existing = reserve(cacheKey, entry);
+            if (existing == null) {
+                return run(cacheKey, entry, action);
+            }
+            if (!Arrays.equals(existing.fingerprint, fingerprint)) {
+                log.debug("Idempotency key {} reused with a different request body", cacheKey);
+                return ResponseEntity.unprocessableEntity().build();
+            }
+            ResponseEntity<T> original;
+            try {
+                original = (ResponseEntity<T>) await(existing.response);
+            } catch (TimeoutException e) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).build();
+            }
+            if (original != null) {
+                hits.increment();
+                log.debug("Idempotent replay for {}", cacheKey);
+                return replay(original);
+            }
+            // The first call failed and freed the key; take it over
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", size());
+        stats.put("maxEntries", maxEntries);
+        stats.put("hits", getHitCount());
+        stats.put("misses", getMissCount());
+        stats.put("evictions", evictions.sum());
+        return stats;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /** Stores entry under cacheKey unless another entry holds it, which is returned instead. */
+    private Entry reserve(String cacheKey, Entry entry) {
+        synchronized (entries) {
+            purgeExpired(System.nanoTime());
+            Entry existing = entries.get(cacheKey);
+            if (existing != null) {
+                return existing;
+            }
+            entries.put(cacheKey, entry);
+            while (entries.size() > maxEntries) {
+                Iterator<String> eldest = entries.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+                evictions.increment();
+            }
+            return null;
+        }
+    }
+
+    private <T> ResponseEntity<T> run(String cacheKey, Entry entry, Supplier<ResponseEntity<T>> action) {
+        misses.increment();
+        ResponseEntity<T> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            remove(cacheKey, entry);
+            entry.response.complete(null);
+            throw e;
+        }
+        if (response.getStatusCode().is2xxSuccessful()) {
+            entry.response.complete(response);
+        } else {
+            // Removed before waiters wake, so they reserve the key afresh
+            remove(cacheKey, entry);
+            entry.response.complete(null);
+        }
+        return response;
+    }
+
+    private void purgeExpired(long now) {
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            if (entry.expiresAt - now > 0) {
+                break;
+            }
+            it.remove();
+        }
+    }
+
+    private void remove(String cacheKey, Entry entry) {
+        synchronized (entries) {
+            entries.remove(cacheKey, entry);
+        }
+    }
+
+    /**
+     * The first call's successful response, or null if it failed.
+     *
+     * @throws TimeoutException if it is still running after the wait timeout
+     */
+    private ResponseEntity<?> await(CompletableFuture<ResponseEntity<?>> future) throws TimeoutException {
+        try {
+            return future.get(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TimeoutException("Interrupted while waiting for the first call");
+        } catch (ExecutionException e) {
+            // Never completed exceptionally
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private byte[] fingerprint(Object request) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot fingerprint idempotent request", e);
+        }
+    }
+
+    private static <T> ResponseEntity<T> replay(ResponseEntity<T> original) {
+        return ResponseEntity.status(original.getStatusCode())
+            .headers(original.getHeaders())
+            .header(REPLAYED_HEADER, "true")
+            .body(original.getBody());
+    }
+
+    private record Entry(CompletableFuture<ResponseEntity<?>> response, byte[] fingerprint, long expiresAt) {}
+}
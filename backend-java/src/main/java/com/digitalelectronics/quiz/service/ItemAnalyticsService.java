@@ -0,0 +1,219 @@
+package com.digitalelectronics.quiz.service;
+
+import com.digitalelectronics.quiz.dto.AttemptCompleted;
+import com.digitalelectronics.quiz.dto.QuestionAnalytics;
+import com.digitalelectronics.quiz.model.Question;
+import com.digitalelectronics.quiz.model.QuestionStats;
+import com.digitalelectronics.quiz.model.QuizAttempt;
+import com.digitalelectronics.quiz.outbox.OutboxConsumer;
+import com.digitalelectronics.quiz.repository.QuestionRepository;
+import com.digitalelectronics.quiz.repository.QuestionStatsRepository;
+import com.digitalelectronics.quiz.repository.QuizAttemptRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-question item analytics. Each completed attempt adds its deltas to the
+ * question_stats running sums in the outbox delivery transaction, so they commit
+ * together with the event's removal and a redelivery never counts it twice. Reads are
+ * served from a per-quiz copy of those rows, reloaded after a local write or once it
+ * is analytics.refresh-interval-ms old, which picks up other nodes' writes. Quizzes
+ * nobody has read for analytics.idle-evict-ms are dropped, and at most
+ * analytics.max-quizzes are kept.
+ */
+@Service
+public class ItemAnalyticsService implements OutboxConsumer<AttemptCompleted> {
+    
+    private final QuestionStatsRepository questionStatsRepository;
+    private final QuestionRepository questionRepository;
+    private final QuizAttemptRepository quizAttemptRepository;
+    private final AnswerKeyCache answerKeyCache;
+    private final long refreshMillis;
+    private final long idleEvictMillis;
+    private final int maxQuizzes;
+    
+    private final Map<UUID, QuizItems> quizzes = new ConcurrentHashMap<>();
+    
+    public ItemAnalyticsService(
+            QuestionStatsRepository questionStatsRepository,
+            QuestionRepository questionRepository,
+            QuizAttemptRepository quizAttemptRepository,
+            AnswerKeyCache answerKeyCache,
+            @Value("${analytics.refresh-interval-ms:30000}") long refreshMillis,
+            @Value("${analytics.idle-evict-ms:3600000}") long idleEvictMillis,
+            @Value("${analytics.max-quizzes:10000}") int maxQuizzes) {
+        this.questionStatsRepository = questionStatsRepository;
+        this.questionRepository = questionRepository;
+        this.quizAttemptRepository = quizAttemptRepository;
+        this.answerKeyCache = answerKeyCache;
+        this.refreshMillis = refreshMillis;
+        this.idleEvictMillis = idleEvictMillis;
+        this.maxQuizzes = maxQuizzes;
+    }
+    
+    @Override
+    public Class<AttemptCompleted> eventType() {
+        return AttemptCompleted.class;
+    }
+    
+    @Override
+    public void handle(AttemptCompleted event) {
+        quizAttemptRepository.findById(event.getAttemptId()).ifPresent(this::recordAttempt);
+    }
+    
+    /**
+     * Adds the attempt to question_stats in the caller's transaction. The cached copy
+     * of the quiz is dropped once it commits, so the next read sees the attempt.
+     */
+    public void recordAttempt(QuizAttempt attempt) {
+        Map<UUID, ItemStats> delta = deltas(attempt);
+        if (delta.isEmpty()) {
+            return;
+        }
+        persist(attempt.getQuizId(), delta);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    quizzes.remove(attempt.getQuizId());
+                }
+            });
+        } else {
+            quizzes.remove(attempt.getQuizId());
+        }
+    }
+    
+    private Map<UUID, ItemStats> deltas(QuizAttempt attempt) {
+        List<Question> questions = questionRepository.findByQuizIdOrderByOrderNumberAsc(attempt.getQuizId());
+        if (questions.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, String> answers = attempt.getAnswers() != null ? attempt.getAnswers() : Map.of();
+        // An adaptive attempt only presents some questions; the others were never seen, not omitted
+        if (attempt.getTotalQuestions() != null && attempt.getTotalQuestions() < questions.size()) {
+            questions = questions.stream().filter(question -> answers.containsKey(question.getId().toString())).toList();
+            if (questions.isEmpty()) {
+                return Map.of();
+            }
+        }
+        
+        int correctCount = 0;
+        boolean[] correct = new boolean[questions.size()];
+        for (int i = 0; i < questions.size(); i++) {
+            correct[i] = AnswerGrader.isCorrect(questions.get(i), answers.get(questions.get(i).getId().toString()));
+            if (correct[i]) {
+                correctCount++;
+            }
+        }
+        double total = (double) correctCount / questions.size();
+        
+        Map<UUID, ItemStats> delta = new HashMap<>();
+        for (int i = 0; i < questions.size(); i++) {
+            UUID questionId = questions.get(i).getId();
+            String option = answers.get(questionId.toString());
+            if (option != null && option.isBlank()) {
+                option = null;
+            }
+            delta.computeIfAbsent(questionId, id -> new ItemStats()).record(correct[i], option, total);
+        }
+        return delta;
+    }
+    
+    /**
+     * Analytics of the quiz's current questions in question order, or empty for an
+     * unknown quiz, which is never loaded into memory.
+     */
+    public Optional<List<QuestionAnalytics>> getAnalytics(UUID quizId) {
+        Optional<AnswerKey> answerKey = answerKeyCache.get(quizId);
+        if (answerKey.isEmpty()) {
+            return Optional.empty();
+        }
+        Map<UUID, ItemStats> totals = items(quizId).totals;
+        List<QuestionAnalytics> result = new ArrayList<>();
+        for (AnswerKey.Item item : answerKey.get().items()) {
+            ItemStats stats = totals.get(item.questionId());
+            if (stats != null) {
+                result.add(stats.toAnalytics(item.questionId()));
+            }
+        }
+        return Optional.of(result);
+    }
+    
+    @Scheduled(fixedDelayString = "${analytics.refresh-interval-ms:30000}")
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        List<Map.Entry<UUID, QuizItems>> byLastAccess = new ArrayList<>(quizzes.entrySet());
+        byLastAccess.sort(Comparator.comparingLong(entry -> entry.getValue().lastAccess));
+        int remaining = byLastAccess.size();
+        for (Map.Entry<UUID, QuizItems> entry : byLastAccess) {
+            if (remaining <= maxQuizzes && now - entry.getValue().lastAccess < idleEvictMillis) {
+                break;
+            }
+            quizzes.remove(entry.getKey(), entry.getValue());
+            remaining--;
+        }
+    }
+    
+    private void persist(UUID quizId, Map<UUID, ItemStats> delta) {
+        Map<UUID, QuestionStats> rows = new HashMap<>();
+        questionStatsRepository.findAllByIdForUpdate(delta.keySet()).forEach(row -> rows.put(row.getQuestionId(), row));
+        
+        LocalDateTime now = LocalDateTime.now();
+        List<QuestionStats> toSave = new ArrayList<>(delta.size());
+        delta.forEach((questionId, stats) -> {
+            QuestionStats row = rows.get(questionId);
+            if (row == null) {
+                row = new QuestionStats();
+                row.setQuestionId(questionId);
+                row.setQuizId(quizId);
+            }
+            stats.addTo(row);
+            row.setUpdatedAt(now);
+            toSave.add(row);
+        });
+        questionStatsRepository.saveAll(toSave);
+    }
+    
+    private QuizItems items(UUID quizId) {
+        long now = System.currentTimeMillis();
+        QuizItems items = quizzes.get(quizId);
+        if (items == null || now - items.loadedAt >= refreshMillis) {
+            items = new QuizItems(fromRows(questionStatsRepository.findByQuizId(quizId)), now);
+            quizzes.put(quizId, items);
+        }
+        items.lastAccess = now;
+        return items;
+    }
+    
+    private static Map<UUID, ItemStats> fromRows(List<QuestionStats> rows) {
+        Map<UUID, ItemStats> totals = new HashMap<>();
+        rows.forEach(row -> totals.put(row.getQuestionId(), ItemStats.from(row)));
+        return totals;
+    }
+    
+    // Not modified after loading; a refresh replaces the whole entry
+    private static class QuizItems {
+        final Map<UUID, ItemStats> totals;
+        final long loadedAt;
+        volatile long lastAccess;
+        
+        QuizItems(Map<UUID, ItemStats> totals, long loadedAt) {
+            this.totals = totals;
+            this.loadedAt = loadedAt;
+            this.lastAccess = loadedAt;
+        }
+    }
+}
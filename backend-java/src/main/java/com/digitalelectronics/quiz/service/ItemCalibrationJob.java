@@ -0,0 +1,133 @@
+package com.digitalelectronics.quiz.service;
+
+import com.digitalelectronics.quiz.model.ItemParameters;
+import com.digitalelectronics.quiz.model.Question;
+import com.digitalelectronics.quiz.repository.ItemParametersRepository;
+import com.digitalelectronics.quiz.repository.QuestionRepository;
+import com.digitalelectronics.quiz.repository.QuizAttemptRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Refits 2PL item parameters for every quiz with completed attempts from its most
+ * recent irt.max-attempts submissions. Runs under the job lock on one node; the
+ * others pick the new parameters up on their next pool refresh.
+ */
+@Component
+@ConditionalOnProperty(name = "jobs.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class ItemCalibrationJob {
+    
+    public static final String ITEM_CALIBRATION = "item-calibration";
+    
+    private final BatchJobRunner jobRunner;
+    private final QuizAttemptRepository quizAttemptRepository;
+    private final QuestionRepository questionRepository;
+    private final ItemParametersRepository itemParametersRepository;
+    private final ItemParameterService itemParameterService;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final int minResponses;
+    private final int iterations;
+    
+    public ItemCalibrationJob(
+            BatchJobRunner jobRunner,
+            QuizAttemptRepository quizAttemptRepository,
+            QuestionRepository questionRepository,
+            ItemParametersRepository itemParametersRepository,
+            ItemParameterService itemParameterService,
+            TransactionTemplate transactionTemplate,
+            @Value("${irt.max-attempts:5000}") int maxAttempts,
+            @Value("${irt.min-responses:30}") int minResponses,
+            @Value("${irt.iterations:25}") int iterations) {
+        this.jobRunner = jobRunner;
+        this.quizAttemptRepository = quizAttemptRepository;
+        this.questionRepository = questionRepository;
+        this.itemParametersRepository = itemParametersRepository;
+        this.itemParameterService = itemParameterService;
+        this.transactionTemplate = transactionTemplate;
+        this.maxAttempts = maxAttempts;
+        this.minResponses = minResponses;
+        this.iterations = iterations;
+    }
+    
+    @Scheduled(cron = "${jobs.item-calibration.cron:0 45 3 * * *}")
+    public void calibrate() {
+        boolean ran = jobRunner.run(ITEM_CALIBRATION, () -> {
+            long fitted = 0;
+            for (UUID quizId : quizAttemptRepository.findQuizIdsWithCompletedAttempts()) {
+                try {
+                    fitted += calibrate(quizId);
+                } catch (RuntimeException e) {
+                    log.warn("Item calibration failed for quiz {}", quizId, e);
+                }
+            }
+            return fitted;
+        });
+        if (ran) {
+            itemParameterService.refresh();
+        }
+    }
+    
+    /**
+     * @return the number of items whose parameters were written
+     */
+    int calibrate(UUID quizId) {
+        List<Question> questions = questionRepository.findByQuizIdOrderByOrderNumberAsc(quizId);
+        if (questions.isEmpty()) {
+            return 0;
+        }
+        List<Map<String, String>> attempts = quizAttemptRepository.findRecentCompletedAnswers(quizId, PageRequest.of(0, maxAttempts));
+        
+        // Unanswered questions are missing data, not wrong answers, so adaptive attempts fit too
+        List<byte[]> rows = new ArrayList<>(attempts.size());
+        long[] responses = new long[questions.size()];
+        for (Map<String, String> answers : attempts) {
+            if (answers == null || answers.isEmpty()) {
+                continue;
+            }
+            byte[] row = new byte[questions.size()];
+            boolean any = false;
+            for (int i = 0; i < questions.size(); i++) {
+                String answer = answers.get(questions.get(i).getId().toString());
+                if (answer == null || answer.isBlank()) {
+                    row[i] = -1;
+                } else {
+                    row[i] = (byte) (AnswerGrader.isCorrect(questions.get(i), answer) ? 1 : 0);
+                    responses[i]++;
+                    any = true;
+                }
+            }
+            if (any) {
+                rows.add(row);
+            }
+        }
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        
+        double[][] parameters = ItemResponseModel.fit(rows.toArray(new byte[0][]), questions.size(), iterations);
+        LocalDateTime now = LocalDateTime.now();
+        List<ItemParameters> toSave = new ArrayList<>();
+        for (int i = 0; i < questions.size(); i++) {
+            if (responses[i] >= minResponses) {
+                toSave.add(new ItemParameters(questions.get(i).getId(), quizId,
+                    parameters[0][i], parameters[1][i], responses[i], now));
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> itemParametersRepository.saveAll(toSave));
+        log.debug("Calibrated {} of {} items of quiz {} from {} attempts", toSave.size(), questions.size(), quizId, rows.size());
+        return toSave.size();
+    }
+}
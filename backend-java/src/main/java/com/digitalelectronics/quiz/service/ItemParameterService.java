@@ -0,0 +1,112 @@
+package com.digitalelectronics.quiz.service;
+
+import com.digitalelectronics.quiz.datasource.ReplicaRoutingDataSource;
+import com.digitalelectronics.quiz.invalidation.InvalidationEvent;
+import com.digitalelectronics.quiz.invalidation.InvalidationSubscriber;
+import com.digitalelectronics.quiz.model.ItemParameters;
+import com.digitalelectronics.quiz.model.Question;
+import com.digitalelectronics.quiz.repository.ItemParametersRepository;
+import com.digitalelectronics.quiz.repository.QuestionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory item pools for adaptive attempts. A pool is loaded on first use from the
+ * quiz's questions and their fitted parameters; uncalibrated questions get the default
+ * parameters. Pools are dropped on quiz invalidation and on every refresh interval, so
+ * a refit by the item-calibration job on any node is picked up.
+ */
+@Service
+@RequiredArgsConstructor
+public class ItemParameterService implements InvalidationSubscriber {
+    
+    private final QuestionRepository questionRepository;
+    private final ItemParametersRepository itemParametersRepository;
+    
+    private final Map<UUID, ItemPool> pools = new ConcurrentHashMap<>();
+    // Bumped on every invalidation so a load that raced with one is not cached
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    
+    /**
+     * @return empty if the quiz has no questions
+     */
+    public Optional<ItemPool> getPool(UUID quizId) {
+        ItemPool pool = pools.get(quizId);
+        if (pool != null) {
+            hits.increment();
+            return Optional.of(pool);
+        }
+        misses.increment();
+        
+        long loadedAt = generation.get();
+        List<Question> questions = ReplicaRoutingDataSource.onPrimary(() -> questionRepository.findByQuizIdOrderByOrderNumberAsc(quizId));
+        if (questions.isEmpty()) {
+            return Optional.empty();
+        }
+        Map<UUID, ItemParameters> fitted = new HashMap<>();
+        ReplicaRoutingDataSource.onPrimary(() -> itemParametersRepository.findByQuizId(quizId))
+            .forEach(row -> fitted.put(row.getQuestionId(), row));
+        
+        List<UUID> ids = new ArrayList<>(questions.size());
+        double[] discrimination = new double[questions.size()];
+        double[] difficulty = new double[questions.size()];
+        boolean[] calibrated = new boolean[questions.size()];
+        for (int i = 0; i < questions.size(); i++) {
+            UUID questionId = questions.get(i).getId();
+            ItemParameters row = fitted.get(questionId);
+            ids.add(questionId);
+            calibrated[i] = row != null;
+            discrimination[i] = row != null ? row.getDiscrimination() : ItemResponseModel.DEFAULT_DISCRIMINATION;
+            difficulty[i] = row != null ? row.getDifficulty() : ItemResponseModel.DEFAULT_DIFFICULTY;
+        }
+        ItemPool loaded = new ItemPool(quizId, ids, discrimination, difficulty, calibrated);
+        if (generation.get() == loadedAt) {
+            pools.putIfAbsent(quizId, loaded);
+        }
+        return Optional.of(loaded);
+    }
+    
+    @Scheduled(fixedDelayString = "${irt.refresh-interval-ms:300000}")
+    public void refresh() {
+        generation.incrementAndGet();
+        pools.clear();
+    }
+    
+    @Override
+    public void onInvalidate(InvalidationEvent event) {
+        if (InvalidationEvent.QUIZ.equals(event.type())) {
+            generation.incrementAndGet();
+            pools.remove(UUID.fromString(event.key()));
+        }
+    }
+    
+    @Override
+    public void onInvalidateAll() {
+        refresh();
+    }
+    
+    public long getHitCount() {
+        return hits.sum();
+    }
+    
+    public long getMissCount() {
+        return misses.sum();
+    }
+    
+    public int size() {
+        return pools.size();
+    }
+}
@@ -0,0 +1,118 @@
+package com.digitalelectronics.quiz.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Immutable item parameters of one quiz in parallel primitive arrays, indexed in
+ * question order. Choosing the next question is a linear scan over the arrays.
+ */
+public final class ItemPool {
+    
+    private final UUID quizId;
+    private final UUID[] questionIds;
+    private final double[] discrimination;
+    private final double[] difficulty;
+    private final boolean[] calibrated;
+    private final Map<UUID, Integer> indexById;
+    
+    ItemPool(UUID quizId, List<UUID> questionIds, double[] discrimination, double[] difficulty, boolean[] calibrated) {
+        this.quizId = quizId;
+        this.questionIds = questionIds.toArray(new UUID[0]);
+        this.discrimination = discrimination;
+        this.difficulty = difficulty;
+        this.calibrated = calibrated;
+        this.indexById = new HashMap<>(questionIds.size() * 2);
+        for (int i = 0; i < this.questionIds.length; i++) {
+            indexById.put(this.questionIds[i], i);
+        }
+    }
+    
+    /**
+     * This pool limited to the questions of answerKey, in the key's order. The pool and the
+     * key are cached separately, so after a question is added or removed one can be newer
+     * than the other; an item the key cannot grade would leave the attempt stuck. Questions
+     * the pool has no parameters for yet get the defaults.
+     */
+    ItemPool matching(AnswerKey answerKey) {
+        List<AnswerKey.Item> items = answerKey.items();
+        boolean same = items.size() == questionIds.length;
+        for (int i = 0; same && i < questionIds.length; i++) {
+            same = questionIds[i].equals(items.get(i).questionId());
+        }
+        if (same) {
+            return this;
+        }
+        List<UUID> ids = new ArrayList<>(items.size());
+        double[] a = new double[items.size()];
+        double[] b = new double[items.size()];
+        boolean[] fitted = new boolean[items.size()];
+        for (int i = 0; i < items.size(); i++) {
+            UUID questionId = items.get(i).questionId();
+            int index = indexOf(questionId);
+            ids.add(questionId);
+            fitted[i] = index >= 0 && calibrated[index];
+            a[i] = index >= 0 ? discrimination[index] : ItemResponseModel.DEFAULT_DISCRIMINATION;
+            b[i] = index >= 0 ? difficulty[index] : ItemResponseModel.DEFAULT_DIFFICULTY;
+        }
+        return new ItemPool(quizId, ids, a, b, fitted);
+    }
+    
+    /**
+     * The unused item with the most information at theta, or -1 when all are used.
+     */
+    public int selectNext(double theta, boolean[] used) {
+        int best = -1;
+        double bestInformation = -1;
+        for (int i = 0; i < questionIds.length; i++) {
+            if (used[i]) {
+                continue;
+            }
+            double information = ItemResponseModel.information(discrimination[i], difficulty[i], theta);
+            if (information > bestInformation) {
+                bestInformation = information;
+                best = i;
+            }
+        }
+        return best;
+    }
+    
+    public UUID getQuizId() {
+        return quizId;
+    }
+    
+    public int size() {
+        return questionIds.length;
+    }
+    
+    public UUID questionId(int index) {
+        return questionIds[index];
+    }
+    
+    /** @return -1 if the question is not in the pool */
+    public int indexOf(UUID questionId) {
+        Integer index = indexById.get(questionId);
+        return index != null ? index : -1;
+    }
+    
+    public int calibratedCount() {
+        int count = 0;
+        for (boolean c : calibrated) {
+            if (c) {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    double[] discrimination() {
+        return discrimination;
+    }
+    
+    double[] difficulty() {
+        return difficulty;
+    }
+}
@@ -0,0 +1,179 @@
+package com.digitalelectronics.quiz.service;
+
+import java.util.Arrays;
+
+/**
+ * Two-parameter logistic IRT model: P(correct | theta) = 1 / (1 + e^(-a(theta - b))).
+ * Abilities have a standard normal prior, which keeps estimates finite for learners
+ * who get everything right or wrong. All methods work on primitive arrays and allocate
+ * nothing except {@link #fit}.
+ */
+public final class ItemResponseModel {
+    
+    public static final double DEFAULT_DISCRIMINATION = 1.0;
+    public static final double DEFAULT_DIFFICULTY = 0.0;
+    
+    static final double MIN_THETA = -4.0;
+    static final double MAX_THETA = 4.0;
+    private static final double MIN_DISCRIMINATION = 0.2;
+    private static final double MAX_DISCRIMINATION = 4.0;
+    // Weak priors on item parameters: a ~ N(1, 0.5^2), b ~ N(0, 2^2)
+    private static final double DISCRIMINATION_PRIOR_VARIANCE = 0.25;
+    private static final double DIFFICULTY_PRIOR_VARIANCE = 4.0;
+    // Largest change to an item parameter in one pass, so early passes cannot overshoot
+    private static final double MAX_STEP = 1.0;
+    
+    private ItemResponseModel() {
+    }
+    
+    public static double probability(double a, double b, double theta) {
+        return 1.0 / (1.0 + Math.exp(-a * (theta - b)));
+    }
+    
+    /** Fisher information of the item at theta: a^2 P (1 - P). */
+    public static double information(double a, double b, double theta) {
+        double p = probability(a, b, theta);
+        return a * a * p * (1.0 - p);
+    }
+    
+    /**
+     * MAP ability estimate from the first {@code count} responses, by Newton's method
+     * from theta = 0. {@code items[i]} indexes into {@code a} and {@code b}.
+     */
+    public static double estimateAbility(double[] a, double[] b, int[] items, boolean[] correct, int count) {
+        double theta = 0.0;
+        for (int iteration = 0; iteration < 20; iteration++) {
+            double gradient = -theta;
+            double curvature = -1.0;
+            for (int i = 0; i < count; i++) {
+                int item = items[i];
+                double p = probability(a[item], b[item], theta);
+                gradient += a[item] * ((correct[i] ? 1.0 : 0.0) - p);
+                curvature -= a[item] * a[item] * p * (1.0 - p);
+            }
+            double step = gradient / curvature;
+            theta = clamp(theta - step, MIN_THETA, MAX_THETA);
+            if (Math.abs(step) < 1e-4) {
+                break;
+            }
+        }
+        return theta;
+    }
+    
+    /** Standard error of an ability estimate: 1 / sqrt(test information + prior information). */
+    public static double standardError(double[] a, double[] b, int[] items, int count, double theta) {
+        double information = 1.0;
+        for (int i = 0; i < count; i++) {
+            information += information(a[items[i]], b[items[i]], theta);
+        }
+        return 1.0 / Math.sqrt(information);
+    }
+    
+    /**
+     * Joint MAP fit of item and ability parameters by alternating Fisher scoring steps.
+     * {@code responses[person][item]} is 1 for correct, 0 for incorrect and -1 when the
+     * item was not answered. The ability scale is normalized to mean 0 and variance 1
+     * after each pass.
+     *
+     * @return {discrimination[], difficulty[]}; items without responses keep the defaults
+     */
+    public static double[][] fit(byte[][] responses, int itemCount, int iterations) {
+        int persons = responses.length;
+        double[] a = new double[itemCount];
+        double[] b = new double[itemCount];
+        double[] theta = new double[persons];
+        Arrays.fill(a, DEFAULT_DISCRIMINATION);
+        
+        // Start difficulties at the logit of the proportion incorrect
+        for (int item = 0; item < itemCount; item++) {
+            int answered = 0;
+            int right = 0;
+            for (byte[] person : responses) {
+                if (person[item] >= 0) {
+                    answered++;
+                    right += person[item];
+                }
+            }
+            double p = (right + 0.5) / (answered + 1.0);
+            b[item] = clamp(Math.log((1 - p) / p), MIN_THETA, MAX_THETA);
+        }
+        
+        for (int pass = 0; pass < iterations; pass++) {
+            for (int person = 0; person < persons; person++) {
+                double gradient = -theta[person];
+                double curvature = -1.0;
+                for (int item = 0; item < itemCount; item++) {
+                    byte u = responses[person][item];
+                    if (u < 0) {
+                        continue;
+                    }
+                    double p = probability(a[item], b[item], theta[person]);
+                    gradient += a[item] * (u - p);
+                    curvature -= a[item] * a[item] * p * (1 - p);
+                }
+                theta[person] = clamp(theta[person] - gradient / curvature, MIN_THETA, MAX_THETA);
+            }
+            normalize(theta, a, b);
+            for (int item = 0; item < itemCount; item++) {
+                double gradientA = -(a[item] - DEFAULT_DISCRIMINATION) / DISCRIMINATION_PRIOR_VARIANCE;
+                double gradientB = -b[item] / DIFFICULTY_PRIOR_VARIANCE;
+                // Expected information; a and b are strongly coupled for items far from the
+                // mean ability, so they take one joint step rather than two separate ones
+                double infoAA = 1.0 / DISCRIMINATION_PRIOR_VARIANCE;
+                double infoBB = 1.0 / DIFFICULTY_PRIOR_VARIANCE;
+                double infoAB = 0.0;
+                for (int person = 0; person < persons; person++) {
+                    byte u = responses[person][item];
+                    if (u < 0) {
+                        continue;
+                    }
+                    double p = probability(a[item], b[item], theta[person]);
+                    double pq = p * (1 - p);
+                    double distance = theta[person] - b[item];
+                    gradientA += distance * (u - p);
+                    gradientB -= a[item] * (u - p);
+                    infoAA += distance * distance * pq;
+                    infoBB += a[item] * a[item] * pq;
+                    infoAB -= a[item] * distance * pq;
+                }
+                double determinant = infoAA * infoBB - infoAB * infoAB;
+                double stepA = (infoBB * gradientA - infoAB * gradientB) / determinant;
+                double stepB = (infoAA * gradientB - infoAB * gradientA) / determinant;
+                a[item] = clamp(a[item] + clamp(stepA, -MAX_STEP, MAX_STEP), MIN_DISCRIMINATION, MAX_DISCRIMINATION);
+                b[item] = clamp(b[item] + clamp(stepB, -MAX_STEP, MAX_STEP), MIN_THETA, MAX_THETA);
+            }
+        }
+        return new double[][] {a, b};
+    }
+    
+    // Rescales abilities to mean 0, variance 1 and transforms the item parameters to match
+    private static void normalize(double[] theta, double[] a, double[] b) {
+        if (theta.length < 2) {
+            return;
+        }
+        double mean = 0;
+        for (double t : theta) {
+            mean += t;
+        }
+        mean /= theta.length;
+        double variance = 0;
+        for (double t : theta) {
+            variance += (t - mean) * (t - mean);
+        }
+        double sd = Math.sqrt(variance / theta.length);
+        if (sd < 1e-6) {
+            return;
+        }
+        for (int i = 0; i < theta.length; i++) {
+            theta[i] = (theta[i] - mean) / sd;
+        }
+        for (int i = 0; i < a.length; i++) {
+            a[i] = clamp(a[i] * sd, MIN_DISCRIMINATION, MAX_DISCRIMINATION);
+            b[i] = clamp((b[i] - mean) / sd, MIN_THETA, MAX_THETA);
+        }
+    }
+    
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
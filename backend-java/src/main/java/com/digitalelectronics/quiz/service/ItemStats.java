@@ -0,0 +1,104 @@
+package com.digitalelectronics.quiz.service;
+
+import com.digitalelectronics.quiz.dto.QuestionAnalytics;
+import com.digitalelectronics.quiz.model.QuestionStats;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Mergeable running sums for a single question. Not thread-safe.
+ */
+class ItemStats {
+
+    long responses;
+    long correct;
+    long omitted;
+    double sumTotal;
+    double sumTotalSq;
+    double sumTotalCorrect;
+    final Map<String, Long> optionCounts = new HashMap<>();
+
+    /**
+     * @param option the option picked, or null when the question was left blank
+     * @param total  the respondent's fraction of questions answered correctly
+     */
+    void record(boolean isCorrect, String option, double total) {
+        responses++;
+        sumTotal += total;
+        sumTotalSq += total * total;
+        if (isCorrect) {
+            correct++;
+            sumTotalCorrect += total;
+        }
+        if (option == null) {
+            omitted++;
+        } else {
+            optionCounts.merge(option, 1L, Long::sum);
+        }
+    }
+
+    void merge(ItemStats other) {
+        responses += other.responses;
+        correct += other.correct;
+        omitted += other.omitted;
+        sumTotal += other.sumTotal;
+        sumTotalSq += other.sumTotalSq;
+        sumTotalCorrect += other.sumTotalCorrect;
+        other.optionCounts.forEach((option, count) -> optionCounts.merge(option, count, Long::sum));
+    }
+
+    void addTo(QuestionStats row) {
+        row.setResponses(row.getResponses() + responses);
+        row.setCorrectCount(row.getCorrectCount() + correct);
+        row.setOmittedCount(row.getOmittedCount() + omitted);
+        row.setSumTotal(row.getSumTotal() + sumTotal);
+        row.setSumTotalSq(row.getSumTotalSq() + sumTotalSq);
+        row.setSumTotalCorrect(row.getSumTotalCorrect() + sumTotalCorrect);
+        Map<String, Long> counts = row.getOptionCounts() != null ? new HashMap<>(row.getOptionCounts()) : new HashMap<>();
+        optionCounts.forEach((option, count) -> counts.merge(option, count, Long::sum));
+        row.setOptionCounts(counts);
+    }
+
+    static ItemStats from(QuestionStats row) {
+        ItemStats stats = new ItemStats();
+        stats.responses = row.getResponses();
+        stats.correct = row.getCorrectCount();
+        stats.omitted = row.getOmittedCount();
+        stats.sumTotal = row.getSumTotal();
+        stats.sumTotalSq = row.getSumTotalSq();
+        stats.sumTotalCorrect = row.getSumTotalCorrect();
+        if (row.getOptionCounts() != null) {
+            stats.optionCounts.putAll(row.getOptionCounts());
+        }
+        return stats;
+    }
+
+    boolean isEmpty() {
+        return responses == 0;
+    }
+
+    /**
+     * Point-biserial correlation between answering this question correctly and the
+     * total score: (M1 - M) / s * sqrt(p / q).
+     */
+    double discrimination() {
+        if (responses == 0 || correct == 0 || correct == responses) {
+            return 0.0;
+        }
+        double mean = sumTotal / responses;
+        double variance = sumTotalSq / responses - mean * mean;
+        if (variance <= 0) {
+            return 0.0;
+        }
+        double p = (double) correct / responses;
+        double meanCorrect = sumTotalCorrect / correct;
+        return (meanCorrect - mean) / Math.sqrt(variance) * Math.sqrt(p / (1 - p));
+    }
+
+    QuestionAnalytics toAnalytics(UUID questionId) {
+        double correctRate = responses == 0 ? 0.0 : (double) correct / responses;
+        return new QuestionAnalytics(questionId, responses, omitted, correctRate, discrimination(), new HashMap<>(optionCounts));
+    }
+}
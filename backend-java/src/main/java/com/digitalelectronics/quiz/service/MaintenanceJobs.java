@@ -0,0 +1,108 @@
+package com.digitalelectronics.quiz.service;
+
+import com.digitalelectronics.quiz.repository.ProfileRepository;
+import com.digitalelectronics.quiz.repository.QuizAttemptRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Scheduled housekeeping: resets streaks of users who missed a day and marks
+ * attempts that were started but never submitted as expired, keeping the rows. Both jobs walk the candidate
+ * rows in id order (keyset pagination) and commit one chunk per transaction, so
+ * no run holds locks on more than jobs.chunk-size rows at a time.
+ */
+@Component
+@ConditionalOnProperty(name = "jobs.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class MaintenanceJobs {
+    
+    public static final String STREAK_ROLLOVER = "streak-rollover";
+    public static final String ABANDONED_ATTEMPTS = "abandoned-attempt-expiry";
+    
+    private static final UUID MIN_UUID = new UUID(0L, 0L);
+    
+    private final BatchJobRunner jobRunner;
+    private final ProfileRepository profileRepository;
+    private final QuizAttemptRepository quizAttemptRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final Duration abandonedAfter;
+    
+    public MaintenanceJobs(
+            BatchJobRunner jobRunner,
+            ProfileRepository profileRepository,
+            QuizAttemptRepository quizAttemptRepository,
+            TransactionTemplate transactionTemplate,
+            @Value("${jobs.chunk-size:500}") int chunkSize,
+            @Value("${jobs.abandoned-attempts.after-hours:24}") long abandonedAfterHours) {
+        this.jobRunner = jobRunner;
+        this.profileRepository = profileRepository;
+        this.quizAttemptRepository = quizAttemptRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+        this.abandonedAfter = Duration.ofHours(abandonedAfterHours);
+    }
+    
+    @Scheduled(cron = "${jobs.streak-rollover.cron:0 5 0 * * *}")
+    public void rolloverStreaks() {
+        jobRunner.run(STREAK_ROLLOVER, () -> {
+            // A streak survives as long as the last quiz was taken yesterday or today
+            LocalDateTime cutoff = LocalDate.now().minusDays(1).atStartOfDay();
+            return processInChunks(
+                afterId -> profileRepository.findLapsedStreakIdsAfter(cutoff, afterId, PageRequest.of(0, chunkSize)),
+                (ids, now) -> profileRepository.resetLapsedStreaks(ids, cutoff, now));
+        });
+    }
+    
+    @Scheduled(cron = "${jobs.abandoned-attempts.cron:0 35 * * * *}")
+    public void expireAbandonedAttempts() {
+        jobRunner.run(ABANDONED_ATTEMPTS, () -> {
+            LocalDateTime cutoff = LocalDateTime.now().minus(abandonedAfter);
+            return processInChunks(
+                afterId -> quizAttemptRepository.findAbandonedIdsAfter(cutoff, afterId, PageRequest.of(0, chunkSize)),
+                (ids, now) -> quizAttemptRepository.expireAbandoned(ids, cutoff, now));
+        });
+    }
+    
+    /**
+     * Repeatedly fetches the next chunk of ids after the last one seen and applies the
+     * update to it in its own transaction. The update re-checks the selection predicate,
+     * so rows changed between the two statements are left alone.
+     */
+    private long processInChunks(Function<UUID, List<UUID>> nextChunk,
+                                 BiFunction<List<UUID>, LocalDateTime, Integer> apply) {
+        long processed = 0;
+        UUID afterId = MIN_UUID;
+        while (true) {
+            UUID cursor = afterId;
+            ChunkResult result = transactionTemplate.execute(status -> {
+                List<UUID> ids = nextChunk.apply(cursor);
+                if (ids.isEmpty()) {
+                    return new ChunkResult(null, 0);
+                }
+                int updated = apply.apply(ids, LocalDateTime.now());
+                return new ChunkResult(ids.get(ids.size() - 1), updated);
+            });
+            if (result == null || result.lastId() == null) {
+                return processed;
+            }
+            processed += result.updated();
+            afterId = result.lastId();
+        }
+    }
+    
+    private record ChunkResult(UUID lastId, int updated) {}
+}
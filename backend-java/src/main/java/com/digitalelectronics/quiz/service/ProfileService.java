@@ -1,13 +1,19 @@
 package com.digitalelectronics.quiz.service;
 
+import com.digitalelectronics.quiz.dto.AttemptCompleted;
 import com.digitalelectronics.quiz.dto.CreateProfileRequest;
+import com.digitalelectronics.quiz.invalidation.InvalidationEvent;
 import com.digitalelectronics.quiz.model.Profile;
+import com.digitalelectronics.quiz.outbox.OutboxConsumer;
 import com.digitalelectronics.quiz.repository.ProfileRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -16,18 +22,28 @@ import java.util.UUID;
 @Service
 @RequiredArgsConstructor
 @Slf4j
-public class ProfileService {
+public class ProfileService implements OutboxConsumer<AttemptCompleted> {
     
     private final ProfileRepository profileRepository;
+    private final ApplicationEventPublisher eventPublisher;
     
+    @Transactional(readOnly = true)
     public List<Profile> getAllProfiles() {
         return profileRepository.findAll();
     }
     
+    @Transactional(readOnly = true)
     public Optional<Profile> getProfileById(UUID id) {
         return profileRepository.findById(id);
     }
     
+    /** updated_at of the profile without loading it; stats and streak updates change it too. */
+    @Transactional(readOnly = true)
+    public Optional<LocalDateTime> getProfileVersion(UUID id) {
+        return profileRepository.findUpdatedAtById(id);
+    }
+    
+    @Transactional(readOnly = true)
     public Optional<Profile> getProfileByEmail(String email) {
         return profileRepository.findByEmail(email);
     }
@@ -74,6 +90,7 @@ public class ProfileService {
             
             if (updated) {
                 profile.setUpdatedAt(LocalDateTime.now());
+                eventPublisher.publishEvent(InvalidationEvent.profile(profile.getId()));
                 return profileRepository.save(profile);
             }
             
@@ -116,11 +133,16 @@ public class ProfileService {
         }
         
         profile.setUpdatedAt(LocalDateTime.now());
+        eventPublisher.publishEvent(InvalidationEvent.profile(id));
         return profileRepository.save(profile);
     }
     
+    /**
+     * Adds an attempt's points and, when completed, advances the streak by the day the
+     * attempt finished at, so a delayed or redelivered event counts for the right day.
+     */
     @Transactional
-    public void updateStats(UUID userId, int points, boolean completed) {
+    public void updateStats(UUID userId, int points, boolean completed, LocalDateTime completedAt) {
         Profile profile = profileRepository.findById(userId)
             .orElseThrow(() -> new RuntimeException("Profile not found"));
         
@@ -129,37 +151,49 @@ public class ProfileService {
         if (completed) {
             profile.setQuizzesCompleted(profile.getQuizzesCompleted() + 1);
             
-            // Update streak
-            LocalDateTime now = LocalDateTime.now();
-            if (profile.getLastQuizDate() != null && 
-                profile.getLastQuizDate().toLocalDate().equals(now.minusDays(1).toLocalDate())) {
-                profile.setCurrentStreak(profile.getCurrentStreak() + 1);
-            } else if (profile.getLastQuizDate() == null || 
-                       !profile.getLastQuizDate().toLocalDate().equals(now.toLocalDate())) {
-                profile.setCurrentStreak(1);
+            // Update streak; an earlier attempt delivered after a later one leaves it alone
+            LocalDate day = completedAt.toLocalDate();
+            LocalDate lastDay = profile.getLastQuizDate() != null ? profile.getLastQuizDate().toLocalDate() : null;
+            if (lastDay == null || day.isAfter(lastDay)) {
+                profile.setCurrentStreak(day.minusDays(1).equals(lastDay) ? profile.getCurrentStreak() + 1 : 1);
+                profile.setLastQuizDate(completedAt);
+            } else if (day.equals(lastDay) && completedAt.isAfter(profile.getLastQuizDate())) {
+                profile.setLastQuizDate(completedAt);
             }
             
             if (profile.getCurrentStreak() > profile.getLongestStreak()) {
                 profile.setLongestStreak(profile.getCurrentStreak());
             }
-            
-            profile.setLastQuizDate(now);
         }
         
         profile.setUpdatedAt(LocalDateTime.now());
         profileRepository.save(profile);
+        eventPublisher.publishEvent(InvalidationEvent.profile(userId));
+    }
+    
+    @Override
+    public Class<AttemptCompleted> eventType() {
+        return AttemptCompleted.class;
+    }
+    
+    @Override
+    public void handle(AttemptCompleted event) {
+        updateStats(event.getUserId(), event.getScore() != null ? event.getScore() : 0, true, event.getCompletedAt());
     }
     
-    public List<Profile> getLeaderboard() {
-        return profileRepository.findTopByOrderByTotalPointsDesc();
+    @Transactional(readOnly = true)
+    public List<Profile> getLeaderboard(int limit) {
+        return profileRepository.findTopByOrderByTotalPointsDesc(PageRequest.of(0, limit));
     }
     
-    public List<Profile> getStreakLeaderboard() {
-        return profileRepository.findTopByOrderByCurrentStreakDesc();
+    @Transactional(readOnly = true)
+    public List<Profile> getStreakLeaderboard(int limit) {
+        return profileRepository.findTopByOrderByCurrentStreakDesc(PageRequest.of(0, limit));
     }
     
     @Transactional
     public void deleteProfile(UUID id) {
         profileRepository.deleteById(id);
+        eventPublisher.publishEvent(InvalidationEvent.profile(id));
     }
 }
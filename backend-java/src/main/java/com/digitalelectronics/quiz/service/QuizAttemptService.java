@@ -1,8 +1,12 @@
 package com.digitalelectronics.quiz.service;
 
+import com.digitalelectronics.quiz.dto.AttemptCompleted;
+import com.digitalelectronics.quiz.invalidation.InvalidationEvent;
 import com.digitalelectronics.quiz.model.QuizAttempt;
+import com.digitalelectronics.quiz.outbox.Outbox;
 import com.digitalelectronics.quiz.repository.QuizAttemptRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,28 +20,45 @@ import java.util.UUID;
 public class QuizAttemptService {
     
     private final QuizAttemptRepository quizAttemptRepository;
-    private final ProfileService profileService;
+    private final Outbox outbox;
+    private final ApplicationEventPublisher eventPublisher;
     
+    @Transactional(readOnly = true)
     public List<QuizAttempt> getAllAttempts() {
         return quizAttemptRepository.findAll();
     }
     
+    @Transactional(readOnly = true)
     public Optional<QuizAttempt> getAttemptById(UUID id) {
         return quizAttemptRepository.findById(id);
     }
     
+    @Transactional(readOnly = true)
     public List<QuizAttempt> getAttemptsByUserId(UUID userId) {
         return quizAttemptRepository.findByUserId(userId);
     }
     
+    @Transactional(readOnly = true)
+    public List<QuizAttempt> getAttemptsByUserIdSince(UUID userId, LocalDateTime since) {
+        return quizAttemptRepository.findByUserIdAndCreatedAtGreaterThanEqual(userId, since);
+    }
+    
+    @Transactional(readOnly = true)
     public List<QuizAttempt> getCompletedAttemptsByUserId(UUID userId) {
         return quizAttemptRepository.findCompletedAttemptsByUserId(userId);
     }
     
+    @Transactional(readOnly = true)
+    public List<QuizAttempt> getCompletedAttemptsByUserIdSince(UUID userId, LocalDateTime since) {
+        return quizAttemptRepository.findCompletedAttemptsByUserIdSince(userId, since);
+    }
+    
+    @Transactional(readOnly = true)
     public List<QuizAttempt> getAttemptsByQuizId(UUID quizId) {
         return quizAttemptRepository.findByQuizId(quizId);
     }
     
+    @Transactional(readOnly = true)
     public List<QuizAttempt> getTopScoresByQuizId(UUID quizId) {
         return quizAttemptRepository.findTopScoresByQuizId(quizId);
     }
@@ -46,15 +67,26 @@ public class QuizAttemptService {
     public QuizAttempt startAttempt(QuizAttempt attempt) {
         attempt.setCreatedAt(LocalDateTime.now());
         attempt.setCompleted(false);
-        return quizAttemptRepository.save(attempt);
+        QuizAttempt saved = quizAttemptRepository.save(attempt);
+        publishWrite(saved);
+        return saved;
     }
     
     @Transactional
     public QuizAttempt submitAttempt(UUID attemptId, QuizAttempt attemptDetails) {
-        QuizAttempt attempt = quizAttemptRepository.findById(attemptId)
+        QuizAttempt attempt = quizAttemptRepository.findByIdForUpdate(attemptId)
             .orElseThrow(() -> new RuntimeException("Attempt not found"));
         
+        // A retried submit must not count the attempt twice
+        if (Boolean.TRUE.equals(attempt.getCompleted())) {
+            return attempt;
+        }
+        if (attempt.getExpiredAt() != null) {
+            throw new RuntimeException("Attempt expired");
+        }
+        
         attempt.setAnswers(attemptDetails.getAnswers());
+        attempt.setQuestionIds(attemptDetails.getQuestionIds());
         attempt.setScore(attemptDetails.getScore());
         attempt.setCorrectAnswers(attemptDetails.getCorrectAnswers());
         attempt.setTimeTaken(attemptDetails.getTimeTaken());
@@ -62,9 +94,12 @@ public class QuizAttemptService {
         attempt.setCompletedAt(LocalDateTime.now());
         
         QuizAttempt savedAttempt = quizAttemptRepository.save(attempt);
+        publishWrite(savedAttempt);
         
-        // Update user profile stats
-        profileService.updateStats(attempt.getUserId(), attempt.getScore(), true);
+        // Profile stats, progress and item analytics are updated when the event is delivered
+        outbox.append(savedAttempt.getUserId(), new AttemptCompleted(
+            savedAttempt.getId(), savedAttempt.getUserId(), savedAttempt.getQuizId(),
+            savedAttempt.getScore(), savedAttempt.getCompletedAt()));
         
         return savedAttempt;
     }
@@ -73,4 +108,12 @@ public class QuizAttemptService {
     public void deleteAttempt(UUID id) {
         quizAttemptRepository.deleteById(id);
     }
+    
+    /** Read-your-writes for the attempt itself and for the user's attempt lists, on every node. */
+    private void publishWrite(QuizAttempt attempt) {
+        eventPublisher.publishEvent(InvalidationEvent.attempt(attempt.getId()));
+        if (attempt.getUserId() != null) {
+            eventPublisher.publishEvent(InvalidationEvent.userAttempts(attempt.getUserId()));
+        }
+    }
 }
@@ -0,0 +1,126 @@
+package com.digitalelectronics.quiz.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Immutable offline pack for one category: every published quiz with its questions,
+ * answer keys stripped. Each quiz is serialized once into a JSON fragment, so the full
+ * pack and any delta are assembled by concatenating bytes.
+ */
+public final class QuizPack {
+    
+    // Distinct `since` values clients hold are few; beyond this deltas are built per request
+    private static final int MAX_CACHED_DELTAS = 32;
+    
+    private final String category;
+    private final long version;
+    private final List<Entry> entries;
+    private final String categoryJson;
+    private final String quizIdsJson;
+    private final Encoded full;
+    private final Map<Long, Encoded> deltas = new ConcurrentHashMap<>();
+    
+    QuizPack(String category, long version, List<Entry> entries, String quizIdsJson, String categoryJson) {
+        this.category = category;
+        this.version = version;
+        this.entries = List.copyOf(entries);
+        this.quizIdsJson = quizIdsJson;
+        this.categoryJson = categoryJson;
+        this.full = encode(0);
+    }
+    
+    public String getCategory() {
+        return category;
+    }
+    
+    public long getVersion() {
+        return version;
+    }
+    
+    public int getQuizCount() {
+        return entries.size();
+    }
+    
+    public boolean contains(UUID quizId) {
+        for (Entry entry : entries) {
+            if (entry.quizId().equals(quizId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * The quizzes changed after {@code since}, plus the ids of every quiz in the pack so
+     * clients can drop deleted or unpublished ones. {@code since <= 0} is the full pack.
+     */
+    public Encoded since(long since) {
+        if (since <= 0) {
+            return full;
+        }
+        long key = Math.min(since, version);
+        Encoded delta = deltas.get(key);
+        if (delta == null) {
+            delta = encode(key);
+            if (deltas.size() < MAX_CACHED_DELTAS) {
+                deltas.putIfAbsent(key, delta);
+            }
+        }
+        return delta;
+    }
+    
+    private Encoded encode(long since) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        write(out, "{\"category\":" + categoryJson + ",\"version\":" + version + ",\"since\":" + since
+            + ",\"full\":" + (since <= 0) + ",\"quizIds\":" + quizIdsJson + ",\"quizzes\":[");
+        boolean first = true;
+        for (Entry entry : entries) {
+            if (entry.version() > since) {
+                if (!first) {
+                    out.write(',');
+                }
+                out.write(entry.json(), 0, entry.json().length);
+                first = false;
+            }
+        }
+        write(out, "]}");
+        return Encoded.of(out.toByteArray());
+    }
+    
+    private static void write(ByteArrayOutputStream out, String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        out.write(bytes, 0, bytes.length);
+    }
+    
+    /** One quiz: its id, version (updated_at in epoch millis) and serialized JSON. */
+    record Entry(UUID quizId, long version, byte[] json) {}
+    
+    /** A response body in both identity and gzip encodings, with an (unquoted) ETag over the content. */
+    public record Encoded(byte[] identity, byte[] gzip, String etag) {
+        
+        static Encoded of(byte[] identity) {
+            CRC32 crc = new CRC32();
+            crc.update(identity);
+            return new Encoded(identity, gzip(identity), "pack-" + Long.toHexString(crc.getValue()) + "-" + identity.length);
+        }
+        
+        private static byte[] gzip(byte[] bytes) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                gzip.write(bytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.digitalelectronics.quiz.service;
+
+import com.digitalelectronics.quiz.datasource.ReplicaRoutingDataSource;
+import com.digitalelectronics.quiz.invalidation.InvalidationEvent;
+import com.digitalelectronics.quiz.invalidation.InvalidationSubscriber;
+import com.digitalelectronics.quiz.model.Question;
+import com.digitalelectronics.quiz.model.Quiz;
+import com.digitalelectronics.quiz.repository.QuestionRepository;
+import com.digitalelectronics.quiz.repository.QuizRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Prebuilt offline packs per category. Packs are built at startup and rebuilt in the
+ * background whenever a quiz invalidation event (create, update, publish, delete or
+ * a question change) touches one of their quizzes, so requests only copy bytes.
+ */
+@Service
+@Slf4j
+public class QuizPackService implements InvalidationSubscriber {
+    
+    private final QuizRepository quizRepository;
+    private final QuestionRepository questionRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnly;
+    
+    private final Map<String, QuizPack> packs = new ConcurrentHashMap<>();
+    private final Set<UUID> changedQuizzes = ConcurrentHashMap.newKeySet();
+    // Bumped on every invalidation so a lazy build that raced with one is not cached
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final ExecutorService builder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "quiz-packs");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    public QuizPackService(
+            QuizRepository quizRepository,
+            QuestionRepository questionRepository,
+            ObjectMapper objectMapper,
+            TransactionTemplate transactionTemplate) {
+        this.quizRepository = quizRepository;
+        this.questionRepository = questionRepository;
+        this.objectMapper = objectMapper;
+        this.readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnly.setReadOnly(true);
+    }
+    
+    /**
+     * @return empty if the category has no published quizzes
+     */
+    public Optional<QuizPack> getPack(String category) {
+        QuizPack pack = packs.get(category);
+        if (pack != null) {
+            hits.increment();
+            return Optional.of(pack);
+        }
+        misses.increment();
+        long builtAt = generation.get();
+        QuizPack built = build(category);
+        if (built == null) {
+            return Optional.empty();
+        }
+        if (generation.get() == builtAt) {
+            packs.putIfAbsent(category, built);
+        }
+        return Optional.of(built);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void prebuild() {
+        builder.execute(() -> {
+            try {
+                List<String> categories = ReplicaRoutingDataSource.onPrimary(quizRepository::findPublishedCategories);
+                for (String category : categories) {
+                    rebuild(category);
+                }
+                log.info("Prebuilt {} quiz packs", categories.size());
+            } catch (RuntimeException e) {
+                log.warn("Prebuilding quiz packs failed; packs will be built on first request", e);
+            }
+        });
+    }
+    
+    @Override
+    public void onInvalidate(InvalidationEvent event) {
+        if (InvalidationEvent.QUIZ.equals(event.type())) {
+            generation.incrementAndGet();
+            changedQuizzes.add(UUID.fromString(event.key()));
+            builder.execute(this::rebuildChanged);
+        }
+    }
+    
+    @Override
+    public void onInvalidateAll() {
+        generation.incrementAndGet();
+        packs.clear();
+        prebuild();
+    }
+    
+    public long getHitCount() {
+        return hits.sum();
+    }
+    
+    public long getMissCount() {
+        return misses.sum();
+    }
+    
+    public int size() {
+        return packs.size();
+    }
+    
+    /**
+     * Rebuilds the packs that held a changed quiz and the packs of the categories the
+     * quizzes are in now. The old pack is served until its replacement is ready.
+     */
+    private void rebuildChanged() {
+        if (changedQuizzes.isEmpty()) {
+            return; // Drained by an earlier run
+        }
+        List<UUID> changed = new ArrayList<>(changedQuizzes);
+        changedQuizzes.removeAll(changed);
+        try {
+            Set<String> categories = packs.values().stream()
+                .filter(pack -> changed.stream().anyMatch(pack::contains))
+                .map(QuizPack::getCategory)
+                .collect(Collectors.toSet());
+            ReplicaRoutingDataSource.onPrimary(() -> quizRepository.findAllById(changed))
+                .forEach(quiz -> categories.add(quiz.getCategory()));
+            for (String category : categories) {
+                rebuild(category);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Rebuilding quiz packs failed; dropping affected packs", e);
+            changed.forEach(quizId -> packs.values().removeIf(pack -> pack.contains(quizId)));
+        }
+    }
+    
+    private void rebuild(String category) {
+        QuizPack pack = build(category);
+        if (pack == null) {
+            packs.remove(category);
+        } else {
+            packs.put(category, pack);
+            log.debug("Built quiz pack {} v{}: {} quizzes, {} bytes gzipped",
+                category, pack.getVersion(), pack.getQuizCount(), pack.since(0).gzip().length);
+        }
+    }
+    
+    private QuizPack build(String category) {
+        return ReplicaRoutingDataSource.onPrimary(() -> readOnly.execute(status -> {
+            List<Quiz> quizzes = quizRepository.findByCategoryAndIsPublished(category, true);
+            if (quizzes.isEmpty()) {
+                return null;
+            }
+            quizzes.sort(Comparator.comparing(Quiz::getTitle));
+            Map<UUID, List<Question>> questions = questionRepository
+                .findByQuizIdInOrderByOrderNumberAsc(quizzes.stream().map(Quiz::getId).toList())
+                .stream()
+                .collect(Collectors.groupingBy(Question::getQuizId));
+            
+            List<QuizPack.Entry> entries = new ArrayList<>(quizzes.size());
+            long version = 0;
+            for (Quiz quiz : quizzes) {
+                long quizVersion = epochMillis(quiz.getUpdatedAt() != null ? quiz.getUpdatedAt() : quiz.getCreatedAt());
+                version = Math.max(version, quizVersion);
+                entries.add(new QuizPack.Entry(quiz.getId(), quizVersion,
+                    toJson(packEntry(quiz, questions.getOrDefault(quiz.getId(), List.of())))));
+            }
+            return new QuizPack(category, version, entries,
+                new String(toJson(quizzes.stream().map(Quiz::getId).toList()), StandardCharsets.UTF_8),
+                new String(toJson(category), StandardCharsets.UTF_8));
+        }));
+    }
+    
+    /** The quiz and its questions without correctAnswer or explanation. */
+    private static Map<String, Object> packEntry(Quiz quiz, List<Question> questions) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("id", quiz.getId());
+        entry.put("title", quiz.getTitle());
+        entry.put("description", quiz.getDescription());
+        entry.put("category", quiz.getCategory());
+        entry.put("difficulty", quiz.getDifficulty());
+        entry.put("timeLimit", quiz.getTimeLimit());
+        entry.put("passingScore", quiz.getPassingScore());
+        entry.put("totalQuestions", quiz.getTotalQuestions());
+        entry.put("updatedAt", quiz.getUpdatedAt());
+        List<Map<String, Object>> stripped = new ArrayList<>(questions.size());
+        for (Question question : questions) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("id", question.getId());
+            item.put("questionText", question.getQuestionText());
+            item.put("questionType", question.getQuestionType());
+            item.put("options", question.getOptions());
+            item.put("points", question.getPoints());
+            item.put("orderNumber", question.getOrderNumber());
+            stripped.add(item);
+        }
+        entry.put("questions", stripped);
+        return entry;
+    }
+    
+    private byte[] toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Cannot serialize quiz pack", e);
+        }
+    }
+    
+    private static long epochMillis(LocalDateTime time) {
+        return time == null ? 0 : time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        builder.shutdownNow();
+    }
+}
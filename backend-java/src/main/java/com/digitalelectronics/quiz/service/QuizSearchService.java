@@ -0,0 +1,194 @@
+package com.digitalelectronics.quiz.service;
+
+import com.digitalelectronics.quiz.datasource.ReplicaRoutingDataSource;
+import com.digitalelectronics.quiz.dto.SearchHit;
+import com.digitalelectronics.quiz.invalidation.InvalidationEvent;
+import com.digitalelectronics.quiz.invalidation.InvalidationSubscriber;
+import com.digitalelectronics.quiz.model.Question;
+import com.digitalelectronics.quiz.model.Quiz;
+import com.digitalelectronics.quiz.repository.QuestionRepository;
+import com.digitalelectronics.quiz.repository.QuizRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Full-text search over published quizzes and their questions, served from an
+ * in-memory {@link SearchIndex}. The index is built at startup; a quiz invalidation
+ * event (any QuizService write, on this node or another) re-tokenizes only the
+ * changed quizzes in the background and swaps in a new index, so searches never
+ * wait on a write or touch the database.
+ */
+@Service
+@Slf4j
+public class QuizSearchService implements InvalidationSubscriber {
+
+    private final QuizRepository quizRepository;
+    private final QuestionRepository questionRepository;
+    private final TransactionTemplate readOnly;
+    private final int maxExpansions;
+    private final Timer queryTimer;
+
+    // Guarded by this; the index is rebuilt from these without reloading unchanged quizzes
+    private final Map<UUID, SearchIndex.Document> documents = new HashMap<>();
+    private volatile SearchIndex index;
+    private final Set<UUID> changedQuizzes = ConcurrentHashMap.newKeySet();
+    private final ExecutorService indexer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "quiz-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public QuizSearchService(
+            QuizRepository quizRepository,
+            QuestionRepository questionRepository,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${search.max-expansions:50}") int maxExpansions) {
+        this.quizRepository = quizRepository;
+        this.questionRepository = questionRepository;
+        this.readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnly.setReadOnly(true);
+        this.maxExpansions = maxExpansions;
+        this.queryTimer = Timer.builder("search.query")
+            .description("Time to rank one full-text search in memory")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        Gauge.builder("search.index.documents", this, QuizSearchService::documentCount)
+            .description("Published quizzes in the search index")
+            .register(meterRegistry);
+        Gauge.builder("search.index.terms", this, QuizSearchService::termCount)
+            .description("Distinct terms in the search index")
+            .register(meterRegistry);
+    }
+
+    public List<SearchHit> search(String query, int limit) {
+        SearchIndex current = index;
+        if (current == null) {
+            current = rebuildAll();
+        }
+        long startedAt = System.nanoTime();
+        List<SearchHit> hits = current.search(query, limit);
+        queryTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        return hits;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void prebuild() {
+        indexer.execute(() -> {
+            try {
+                rebuildAll();
+            } catch (RuntimeException e) {
+                log.warn("Building the search index failed; it will be built on first search", e);
+            }
+        });
+    }
+
+    @Override
+    public void onInvalidate(InvalidationEvent event) {
+        if (InvalidationEvent.QUIZ.equals(event.type())) {
+            changedQuizzes.add(UUID.fromString(event.key()));
+            indexer.execute(this::reindexChanged);
+        }
+    }
+
+    @Override
+    public void onInvalidateAll() {
+        changedQuizzes.clear();
+        prebuild();
+    }
+
+    private synchronized SearchIndex rebuildAll() {
+        long startedAt = System.currentTimeMillis();
+        Map<UUID, SearchIndex.Document> loaded = ReplicaRoutingDataSource.onPrimary(() -> readOnly.execute(status -> {
+            List<Quiz> quizzes = quizRepository.findByIsPublished(true);
+            Map<UUID, List<Question>> questions = questionRepository
+                .findByQuizIdInOrderByOrderNumberAsc(quizzes.stream().map(Quiz::getId).toList())
+                .stream()
+                .collect(Collectors.groupingBy(Question::getQuizId));
+            Map<UUID, SearchIndex.Document> byId = new HashMap<>();
+            for (Quiz quiz : quizzes) {
+                byId.put(quiz.getId(), SearchIndex.Document.of(quiz, questions.getOrDefault(quiz.getId(), List.of())));
+            }
+            return byId;
+        }));
+        documents.clear();
+        documents.putAll(loaded);
+        SearchIndex built = SearchIndex.build(documents.values(), maxExpansions);
+        index = built;
+        log.info("Built search index: {} quizzes, {} terms in {} ms",
+            built.documentCount(), built.termCount(), System.currentTimeMillis() - startedAt);
+        return built;
+    }
+
+    /** Reloads the changed quizzes only; the old index is served until the new one is ready. */
+    private synchronized void reindexChanged() {
+        if (changedQuizzes.isEmpty()) {
+            return; // Drained by an earlier run
+        }
+        List<UUID> changed = new ArrayList<>(changedQuizzes);
+        changedQuizzes.removeAll(changed);
+        try {
+            ReplicaRoutingDataSource.runOnPrimary(() -> readOnly.executeWithoutResult(status -> {
+                Map<UUID, Quiz> quizzes = quizRepository.findAllById(changed).stream()
+                    .filter(quiz -> Boolean.TRUE.equals(quiz.getIsPublished()))
+                    .collect(Collectors.toMap(Quiz::getId, quiz -> quiz));
+                Map<UUID, List<Question>> questions = quizzes.isEmpty() ? Map.of() : questionRepository
+                    .findByQuizIdInOrderByOrderNumberAsc(quizzes.keySet())
+                    .stream()
+                    .collect(Collectors.groupingBy(Question::getQuizId));
+                for (UUID quizId : changed) {
+                    Quiz quiz = quizzes.get(quizId);
+                    if (quiz == null) {
+                        documents.remove(quizId); // Deleted or unpublished
+                    } else {
+                        documents.put(quizId, SearchIndex.Document.of(quiz, questions.getOrDefault(quizId, List.of())));
+                    }
+                }
+            }));
+            index = SearchIndex.build(documents.values(), maxExpansions);
+        } catch (RuntimeException e) {
+            log.warn("Reindexing quizzes {} failed; rebuilding the whole index on next search", changed, e);
+            index = null;
+        }
+    }
+
+    /** False until the startup build finishes, and again after a failed reindex. */
+    public boolean isIndexBuilt() {
+        return index != null;
+    }
+
+    public int documentCount() {
+        SearchIndex current = index;
+        return current != null ? current.documentCount() : 0;
+    }
+
+    public int termCount() {
+        SearchIndex current = index;
+        return current != null ? current.termCount() : 0;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        indexer.shutdownNow();
+    }
+}
@@ -1,10 +1,13 @@
 package com.digitalelectronics.quiz.service;
 
+import com.digitalelectronics.quiz.dto.CatalogVersion;
+import com.digitalelectronics.quiz.invalidation.InvalidationEvent;
 import com.digitalelectronics.quiz.model.Question;
 import com.digitalelectronics.quiz.model.Quiz;
 import com.digitalelectronics.quiz.repository.QuestionRepository;
 import com.digitalelectronics.quiz.repository.QuizRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,23 +22,40 @@ public class QuizService {
     
     private final QuizRepository quizRepository;
     private final QuestionRepository questionRepository;
+    private final CatalogVersionService catalogVersionService;
+    private final ApplicationEventPublisher eventPublisher;
     
+    @Transactional(readOnly = true)
     public List<Quiz> getAllQuizzes() {
         return quizRepository.findAll();
     }
     
+    @Transactional(readOnly = true)
     public List<Quiz> getPublishedQuizzes() {
         return quizRepository.findByIsPublished(true);
     }
     
+    @Transactional(readOnly = true)
     public Optional<Quiz> getQuizById(UUID id) {
         return quizRepository.findById(id);
     }
     
+    /** updated_at of the quiz without loading it; also changes when its questions change. */
+    @Transactional(readOnly = true)
+    public Optional<LocalDateTime> getQuizVersion(UUID id) {
+        return quizRepository.findUpdatedAtById(id);
+    }
+    
+    public CatalogVersion getCatalogVersion() {
+        return catalogVersionService.getCatalogVersion();
+    }
+    
+    @Transactional(readOnly = true)
     public List<Quiz> getQuizzesByCategory(String category) {
         return quizRepository.findByCategory(category);
     }
     
+    @Transactional(readOnly = true)
     public List<Quiz> getQuizzesByDifficulty(String difficulty) {
         return quizRepository.findByDifficulty(difficulty);
     }
@@ -44,7 +64,9 @@ public class QuizService {
     public Quiz createQuiz(Quiz quiz) {
         quiz.setCreatedAt(LocalDateTime.now());
         quiz.setUpdatedAt(LocalDateTime.now());
-        return quizRepository.save(quiz);
+        Quiz saved = quizRepository.save(quiz);
+        eventPublisher.publishEvent(InvalidationEvent.quiz(saved.getId()));
+        return saved;
     }
     
     @Transactional
@@ -75,6 +97,7 @@ public class QuizService {
         }
         
         quiz.setUpdatedAt(LocalDateTime.now());
+        eventPublisher.publishEvent(InvalidationEvent.quiz(id));
         return quizRepository.save(quiz);
     }
     
@@ -82,8 +105,10 @@ public class QuizService {
     public void deleteQuiz(UUID id) {
         questionRepository.deleteByQuizId(id);
         quizRepository.deleteById(id);
+        eventPublisher.publishEvent(InvalidationEvent.quiz(id));
     }
     
+    @Transactional(readOnly = true)
     public List<Question> getQuestionsByQuizId(UUID quizId) {
         return questionRepository.findByQuizIdOrderByOrderNumberAsc(quizId);
     }
@@ -93,12 +118,11 @@ public class QuizService {
         question.setCreatedAt(LocalDateTime.now());
         Question savedQuestion = questionRepository.save(question);
         
-        // Update quiz total questions count
-        Quiz quiz = quizRepository.findById(question.getQuizId())
-            .orElseThrow(() -> new RuntimeException("Quiz not found"));
-        quiz.setTotalQuestions(quiz.getTotalQuestions() + 1);
-        quiz.setUpdatedAt(LocalDateTime.now());
-        quizRepository.save(quiz);
+        // Update quiz total questions count in place instead of loading the quiz
+        if (quizRepository.adjustTotalQuestions(question.getQuizId(), 1, LocalDateTime.now()) == 0) {
+            throw new RuntimeException("Quiz not found");
+        }
+        eventPublisher.publishEvent(InvalidationEvent.quiz(question.getQuizId()));
         
         return savedQuestion;
     }
@@ -108,13 +132,12 @@ public class QuizService {
         Question question = questionRepository.findById(questionId)
             .orElseThrow(() -> new RuntimeException("Question not found"));
         
-        questionRepository.deleteById(questionId);
+        questionRepository.delete(question);
         
-        // Update quiz total questions count
-        Quiz quiz = quizRepository.findById(question.getQuizId())
-            .orElseThrow(() -> new RuntimeException("Quiz not found"));
-        quiz.setTotalQuestions(Math.max(0, quiz.getTotalQuestions() - 1));
-        quiz.setUpdatedAt(LocalDateTime.now());
-        quizRepository.save(quiz);
+        // Update quiz total questions count in place instead of loading the quiz
+        if (quizRepository.adjustTotalQuestions(question.getQuizId(), -1, LocalDateTime.now()) == 0) {
+            throw new RuntimeException("Quiz not found");
+        }
+        eventPublisher.publishEvent(InvalidationEvent.quiz(question.getQuizId()));
     }
 }
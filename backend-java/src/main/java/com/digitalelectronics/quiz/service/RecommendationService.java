@@ -0,0 +1,331 @@
+package com.digitalelectronics.quiz.service;
+
+import com.digitalelectronics.quiz.datasource.ReplicaRoutingDataSource;
+import com.digitalelectronics.quiz.dto.Recommendation;
+import com.digitalelectronics.quiz.dto.UserProgressSummary;
+import com.digitalelectronics.quiz.invalidation.InvalidationEvent;
+import com.digitalelectronics.quiz.invalidation.InvalidationSubscriber;
+import com.digitalelectronics.quiz.model.Quiz;
+import com.digitalelectronics.quiz.model.UserProgress;
+import com.digitalelectronics.quiz.repository.QuizRepository;
+import com.digitalelectronics.quiz.repository.UserProgressRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Next-quiz recommendations. Each cached user holds a category-mastery vector, the
+ * quizzes they have passed and their precomputed top-K, so a hit is one map lookup.
+ * A user's entry is dropped when their progress changes (every submitted attempt
+ * publishes a PROGRESS invalidation) and rebuilt from the progress summary on the next
+ * request. Quiz changes only re-rank the cached vectors against the new catalog.
+ * <p>
+ * The nightly rebuild runs on every node, since the index is per node: it reloads the
+ * catalog and precomputes entries for users active in the last recommendations.warm-days.
+ */
+@Service
+@Slf4j
+public class RecommendationService implements InvalidationSubscriber {
+
+    private static final UUID MIN_UUID = new UUID(0L, 0L);
+    private static final List<String> DIFFICULTIES = List.of("easy", "medium", "hard");
+
+    private final QuizRepository quizRepository;
+    private final UserProgressRepository userProgressRepository;
+    private final UserProgressService userProgressService;
+    private final int topK;
+    private final int cacheSize;
+    private final int chunkSize;
+    private final int warmDays;
+
+    // Append-only, so vectors stay valid when the catalog is reloaded
+    private final Map<String, Integer> categoryIndex = new HashMap<>();
+    private volatile Catalog catalog;
+    private final AtomicLong catalogGeneration = new AtomicLong();
+    private final Map<UUID, Entry> entries;
+    // Bumped on every user invalidation so a computation that raced with one is not cached
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public RecommendationService(
+            QuizRepository quizRepository,
+            UserProgressRepository userProgressRepository,
+            UserProgressService userProgressService,
+            @Value("${recommendations.top-k:10}") int topK,
+            @Value("${recommendations.cache-size:20000}") int cacheSize,
+            @Value("${jobs.chunk-size:500}") int chunkSize,
+            @Value("${recommendations.warm-days:7}") int warmDays) {
+        this.quizRepository = quizRepository;
+        this.userProgressRepository = userProgressRepository;
+        this.userProgressService = userProgressService;
+        this.topK = topK;
+        this.cacheSize = cacheSize;
+        this.chunkSize = chunkSize;
+        this.warmDays = warmDays;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Entry> eldest) {
+                return size() > RecommendationService.this.cacheSize;
+            }
+        };
+    }
+
+    public List<Recommendation> getRecommended(UUID userId, int limit) {
+        Catalog current = catalog();
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(userId);
+        }
+        if (entry != null && entry.catalog == current) {
+            hits.increment();
+            return head(entry.top, limit);
+        }
+        misses.increment();
+
+        long computedAt = generation.get();
+        Vector vector;
+        if (entry != null) {
+            vector = entry.vector;
+        } else {
+            UserProgressSummary summary = userProgressService.getSummary(userId);
+            vector = vectorOf(summary.getCategories(), summary.getQuizzes());
+        }
+        Entry computed = new Entry(current, vector, rank(current, vector));
+        synchronized (entries) {
+            if (generation.get() == computedAt) {
+                entries.put(userId, computed);
+            }
+        }
+        return head(computed.top, limit);
+    }
+
+    @Scheduled(cron = "${recommendations.rebuild-cron:0 15 4 * * *}")
+    public void rebuild() {
+        long startedAt = System.currentTimeMillis();
+        dropCatalog();
+        Catalog current = catalog();
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.clear();
+        }
+
+        LocalDateTime since = LocalDateTime.now().minusDays(warmDays);
+        UUID afterId = MIN_UUID;
+        int warmed = 0;
+        while (warmed < cacheSize) {
+            UUID from = afterId;
+            int size = Math.min(chunkSize, cacheSize - warmed);
+            List<UserProgress> chunk = ReplicaRoutingDataSource.onPrimary(() ->
+                userProgressRepository.findUpdatedSinceAfter(since, from, PageRequest.of(0, size)));
+            if (chunk.isEmpty()) {
+                break;
+            }
+            long computedAt = generation.get();
+            Map<UUID, Entry> computed = new LinkedHashMap<>();
+            for (UserProgress progress : chunk) {
+                Vector vector = vectorOf(UserProgressSummary.of(progress.getByCategory()), UserProgressSummary.of(progress.getByQuiz()));
+                computed.put(progress.getUserId(), new Entry(current, vector, rank(current, vector)));
+            }
+            synchronized (entries) {
+                // Entries computed by requests since the chunk was read are at least as new
+                if (generation.get() == computedAt) {
+                    computed.forEach(entries::putIfAbsent);
+                }
+            }
+            warmed += chunk.size();
+            afterId = chunk.get(chunk.size() - 1).getUserId();
+        }
+        log.info("Rebuilt recommendation index: {} quizzes, {} users warmed in {} ms",
+            current.ids.length, warmed, System.currentTimeMillis() - startedAt);
+    }
+
+    @Override
+    public void onInvalidate(InvalidationEvent event) {
+        if (InvalidationEvent.PROGRESS.equals(event.type())) {
+            synchronized (entries) {
+                generation.incrementAndGet();
+                entries.remove(UUID.fromString(event.key()));
+            }
+        } else if (InvalidationEvent.QUIZ.equals(event.type())) {
+            // Cached entries see a different catalog and re-rank on their next request
+            dropCatalog();
+        }
+    }
+
+    @Override
+    public void onInvalidateAll() {
+        dropCatalog();
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.clear();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private Catalog catalog() {
+        Catalog current = catalog;
+        if (current == null) {
+            synchronized (this) {
+                current = catalog;
+                if (current == null) {
+                    long loadedAt = catalogGeneration.get();
+                    current = loadCatalog();
+                    // A quiz change committed during the load may be missing from it
+                    if (catalogGeneration.get() == loadedAt) {
+                        catalog = current;
+                    }
+                }
+            }
+        }
+        return current;
+    }
+
+    private void dropCatalog() {
+        catalogGeneration.incrementAndGet();
+        catalog = null;
+    }
+
+    private Catalog loadCatalog() {
+        List<Quiz> quizzes = ReplicaRoutingDataSource.onPrimary(() -> quizRepository.findByIsPublished(true));
+        int n = quizzes.size();
+        Catalog loaded = new Catalog(new UUID[n], new String[n], new String[n], new String[n], new int[n], new int[n]);
+        for (int i = 0; i < n; i++) {
+            Quiz quiz = quizzes.get(i);
+            loaded.ids[i] = quiz.getId();
+            loaded.titles[i] = quiz.getTitle();
+            loaded.categories[i] = quiz.getCategory();
+            loaded.difficulties[i] = quiz.getDifficulty();
+            loaded.categoryIndexes[i] = indexOf(quiz.getCategory());
+            int rank = quiz.getDifficulty() != null ? DIFFICULTIES.indexOf(quiz.getDifficulty().toLowerCase()) : -1;
+            loaded.difficultyRanks[i] = rank >= 0 ? rank : 1;
+        }
+        return loaded;
+    }
+
+    private int indexOf(String category) {
+        synchronized (categoryIndex) {
+            return categoryIndex.computeIfAbsent(category != null ? category : "", key -> categoryIndex.size());
+        }
+    }
+
+    /**
+     * Mastery per category index as a share of questions answered correctly, NaN where
+     * the user has no attempts yet.
+     */
+    private Vector vectorOf(Map<String, UserProgressSummary.Stats> categories, Map<String, UserProgressSummary.Stats> quizzes) {
+        for (String category : categories.keySet()) {
+            indexOf(category);
+        }
+        float[] mastery;
+        synchronized (categoryIndex) {
+            mastery = new float[categoryIndex.size()];
+        }
+        Arrays.fill(mastery, Float.NaN);
+        categories.forEach((category, stats) -> {
+            if (stats.getAttempts() > 0) {
+                mastery[indexOf(category)] = (float) (stats.getMastery() / 100.0);
+            }
+        });
+        Set<UUID> passed = new HashSet<>();
+        quizzes.forEach((quizId, stats) -> {
+            if (stats.getPassRate() > 0) {
+                passed.add(UUID.fromString(quizId));
+            }
+        });
+        return new Vector(mastery, passed);
+    }
+
+    /**
+     * Scores every published quiz the user has not passed: weak categories first, at the
+     * difficulty matching the current mastery; untried categories start at easy.
+     */
+    private List<Recommendation> rank(Catalog catalog, Vector vector) {
+        int n = catalog.ids.length;
+        double[] scores = new double[n];
+        // Min-heap of the best topK so far; ties keep the earlier catalog position
+        PriorityQueue<Integer> best = new PriorityQueue<>(
+            Comparator.<Integer>comparingDouble(i -> scores[i]).thenComparing(Comparator.reverseOrder()));
+        for (int i = 0; i < n; i++) {
+            if (vector.passed.contains(catalog.ids[i])) {
+                continue;
+            }
+            float mastery = vector.mastery(catalog.categoryIndexes[i]);
+            boolean untried = Float.isNaN(mastery);
+            int target = untried || mastery < 0.5f ? 0 : mastery < 0.8f ? 1 : 2;
+            double need = untried ? 0.5 : 1.0 - mastery;
+            scores[i] = need / (1 + Math.abs(catalog.difficultyRanks[i] - target));
+            best.add(i);
+            if (best.size() > topK) {
+                best.poll();
+            }
+        }
+        List<Recommendation> top = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            int i = best.poll();
+            float mastery = vector.mastery(catalog.categoryIndexes[i]);
+            top.add(new Recommendation(catalog.ids[i], catalog.titles[i], catalog.categories[i], catalog.difficulties[i],
+                Math.round(scores[i] * 1000) / 1000.0, reason(catalog.categories[i], mastery)));
+        }
+        Collections.reverse(top);
+        return List.copyOf(top);
+    }
+
+    private static String reason(String category, float mastery) {
+        if (Float.isNaN(mastery)) {
+            return "New topic: " + category;
+        }
+        if (mastery < 0.6f) {
+            return "Practice " + category + ": " + Math.round(mastery * 100) + "% correct so far";
+        }
+        return "Next step in " + category;
+    }
+
+    private static List<Recommendation> head(List<Recommendation> top, int limit) {
+        return limit > 0 && limit < top.size() ? top.subList(0, limit) : top;
+    }
+
+    private record Catalog(UUID[] ids, String[] titles, String[] categories, String[] difficulties,
+                           int[] categoryIndexes, int[] difficultyRanks) {
+    }
+
+    private record Vector(float[] mastery, Set<UUID> passed) {
+        float mastery(int category) {
+            return category < mastery.length ? mastery[category] : Float.NaN;
+        }
+    }
+
+    private record Entry(Catalog catalog, Vector vector, List<Recommendation> top) {
+    }
+}
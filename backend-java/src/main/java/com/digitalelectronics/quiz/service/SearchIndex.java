@@ -0,0 +1,359 @@
+package com.digitalelectronics.quiz.service;
+
+import com.digitalelectronics.quiz.dto.SearchHit;
+import com.digitalelectronics.quiz.model.Question;
+import com.digitalelectronics.quiz.model.Quiz;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Immutable inverted index over published quizzes: title, category, description and
+ * question text. Terms are kept sorted for prefix expansion and bucketed by length for
+ * typo matching (one edit from four letters, two from eight). Postings carry the
+ * term's weight in the quiz already multiplied by its idf, so a query only adds floats.
+ */
+public final class SearchIndex {
+
+    static final float TITLE = 3f;
+    static final float CATEGORY = 2f;
+    static final float DESCRIPTION = 1.5f;
+    static final float QUESTION = 1f;
+
+    private static final float PREFIX = 0.7f;
+    private static final float[] TYPO = {1f, 0.5f, 0.25f};
+    private static final int MAX_FUZZY_LENGTH = 32;
+
+    private final Document[] documents;
+    private final String[] terms;
+    private final Map<String, Integer> termIds;
+    private final int[][] postingDocuments;
+    private final float[][] postingWeights;
+    private final int[][] postingQuestions;
+    private final int[][] termsByLength;
+    private final int maxExpansions;
+
+    private SearchIndex(Document[] documents, String[] terms, int[][] postingDocuments, float[][] postingWeights,
+                        int[][] postingQuestions, int maxExpansions) {
+        this.documents = documents;
+        this.terms = terms;
+        this.postingDocuments = postingDocuments;
+        this.postingWeights = postingWeights;
+        this.postingQuestions = postingQuestions;
+        this.maxExpansions = maxExpansions;
+        this.termIds = new HashMap<>(terms.length * 2);
+        int[] lengthCounts = new int[MAX_FUZZY_LENGTH + 1];
+        for (int i = 0; i < terms.length; i++) {
+            termIds.put(terms[i], i);
+            lengthCounts[Math.min(terms[i].length(), MAX_FUZZY_LENGTH)]++;
+        }
+        this.termsByLength = new int[MAX_FUZZY_LENGTH + 1][];
+        for (int length = 0; length <= MAX_FUZZY_LENGTH; length++) {
+            termsByLength[length] = new int[lengthCounts[length]];
+        }
+        int[] filled = new int[MAX_FUZZY_LENGTH + 1];
+        for (int i = 0; i < terms.length; i++) {
+            int length = Math.min(terms[i].length(), MAX_FUZZY_LENGTH);
+            termsByLength[length][filled[length]++] = i;
+        }
+    }
+
+    public static SearchIndex build(Collection<Document> documents, int maxExpansions) {
+        Document[] docs = documents.toArray(new Document[0]);
+        Map<String, List<Integer>> postings = new HashMap<>();
+        for (int d = 0; d < docs.length; d++) {
+            for (String term : docs[d].terms().keySet()) {
+                postings.computeIfAbsent(term, key -> new ArrayList<>()).add(d);
+            }
+        }
+        String[] terms = postings.keySet().toArray(new String[0]);
+        Arrays.sort(terms);
+        int[][] postingDocuments = new int[terms.length][];
+        float[][] postingWeights = new float[terms.length][];
+        int[][] postingQuestions = new int[terms.length][];
+        for (int t = 0; t < terms.length; t++) {
+            List<Integer> list = postings.get(terms[t]);
+            float idf = (float) Math.log(1 + (double) docs.length / list.size());
+            postingDocuments[t] = new int[list.size()];
+            postingWeights[t] = new float[list.size()];
+            postingQuestions[t] = new int[list.size()];
+            for (int i = 0; i < list.size(); i++) {
+                int d = list.get(i);
+                Posting posting = docs[d].terms().get(terms[t]);
+                postingDocuments[t][i] = d;
+                postingWeights[t][i] = posting.weight() * idf;
+                postingQuestions[t][i] = posting.question();
+            }
+        }
+        return new SearchIndex(docs, terms, postingDocuments, postingWeights, postingQuestions, maxExpansions);
+    }
+
+    public int documentCount() {
+        return documents.length;
+    }
+
+    public int termCount() {
+        return terms.length;
+    }
+
+    /**
+     * Ranks quizzes by the summed best match of each query term (exact, prefix or one
+     * typo away), scaled by the share of query terms that matched at all.
+     */
+    public List<SearchHit> search(String query, int limit) {
+        List<String> queryTerms = tokens(query);
+        if (queryTerms.isEmpty() || documents.length == 0) {
+            return List.of();
+        }
+        int n = documents.length;
+        float[] total = new float[n];
+        int[] matched = new int[n];
+        float[] best = new float[n];
+        int[] touched = new int[n];
+        float[] questionScore = new float[n];
+        int[] question = new int[n];
+        Arrays.fill(question, -1);
+        int[][] rows = new int[3][MAX_FUZZY_LENGTH + 2];
+
+        for (String term : queryTerms) {
+            Scratch scratch = new Scratch(best, touched, questionScore, question);
+            Integer exact = termIds.get(term);
+            if (exact != null) {
+                apply(exact, 1f, scratch);
+            }
+            if (term.length() >= 2) {
+                int expanded = 0;
+                for (int t = lowerBound(term); t < terms.length && expanded < maxExpansions && terms[t].startsWith(term); t++) {
+                    if (exact == null || t != exact) {
+                        apply(t, PREFIX, scratch);
+                        expanded++;
+                    }
+                }
+            }
+            int maxEdits = term.length() >= 8 ? 2 : term.length() >= 4 ? 1 : 0;
+            if (exact == null && maxEdits > 0 && term.length() < MAX_FUZZY_LENGTH) {
+                for (int length = term.length() - maxEdits; length <= term.length() + maxEdits && length < MAX_FUZZY_LENGTH; length++) {
+                    for (int t : termsByLength[length]) {
+                        int edits = distance(term, terms[t], maxEdits, rows);
+                        if (edits > 0 && edits <= maxEdits) {
+                            apply(t, TYPO[edits], scratch);
+                        }
+                    }
+                }
+            }
+            for (int i = 0; i < scratch.touchedCount; i++) {
+                int d = touched[i];
+                total[d] += best[d];
+                matched[d]++;
+                best[d] = 0;
+            }
+        }
+
+        List<Integer> hits = new ArrayList<>();
+        for (int d = 0; d < n; d++) {
+            if (matched[d] > 0) {
+                float coverage = (float) matched[d] / queryTerms.size();
+                total[d] *= coverage * coverage;
+                hits.add(d);
+            }
+        }
+        hits.sort((a, b) -> Float.compare(total[b], total[a]));
+        List<SearchHit> results = new ArrayList<>(Math.min(limit, hits.size()));
+        for (int i = 0; i < hits.size() && i < limit; i++) {
+            int d = hits.get(i);
+            Document doc = documents[d];
+            results.add(new SearchHit(doc.quizId(), doc.title(), doc.category(), doc.difficulty(),
+                Math.round(total[d] * 1000) / 1000.0,
+                question[d] >= 0 ? doc.questions().get(question[d]) : null));
+        }
+        return results;
+    }
+
+    private void apply(int term, float factor, Scratch scratch) {
+        int[] docs = postingDocuments[term];
+        float[] weights = postingWeights[term];
+        int[] questions = postingQuestions[term];
+        for (int i = 0; i < docs.length; i++) {
+            int d = docs[i];
+            float contribution = factor * weights[i];
+            if (scratch.best[d] == 0) {
+                scratch.touched[scratch.touchedCount++] = d;
+            }
+            if (contribution > scratch.best[d]) {
+                scratch.best[d] = contribution;
+            }
+            if (questions[i] >= 0 && contribution > scratch.questionScore[d]) {
+                scratch.questionScore[d] = contribution;
+                scratch.question[d] = questions[i];
+            }
+        }
+    }
+
+    private int lowerBound(String term) {
+        int low = 0;
+        int high = terms.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (terms[mid].compareTo(term) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Optimal string alignment distance (edits plus adjacent transpositions), giving up
+     * with max + 1 as soon as every alignment needs more than max edits.
+     */
+    static int distance(String a, String b, int max, int[][] rows) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] previous2 = rows[0];
+        int[] previous = rows[1];
+        int[] current = rows[2];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()];
+    }
+
+    /**
+     * Lower-cased alphanumeric words of two or more characters (or single digits), with
+     * a plural "s" stripped. Hyphenated words also yield the joined form, so "flip-flop"
+     * indexes flip, flop and flipflop.
+     */
+    static List<String> tokens(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return List.of();
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        StringBuilder word = new StringBuilder();
+        StringBuilder joined = new StringBuilder();
+        int parts = 0;
+        for (int i = 0; i <= lower.length(); i++) {
+            char c = i < lower.length() ? lower.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                word.append(c);
+                continue;
+            }
+            if (word.length() > 0) {
+                addToken(tokens, word);
+                joined.append(word);
+                parts++;
+                word.setLength(0);
+            }
+            boolean hyphen = c == '-' && i + 1 < lower.length() && Character.isLetterOrDigit(lower.charAt(i + 1));
+            if (!hyphen) {
+                if (parts > 1) {
+                    addToken(tokens, joined);
+                }
+                joined.setLength(0);
+                parts = 0;
+            }
+        }
+        return new ArrayList<>(tokens);
+    }
+
+    private static void addToken(Set<String> tokens, CharSequence word) {
+        int length = word.length();
+        if (length < 2 && !(length == 1 && Character.isDigit(word.charAt(0)))) {
+            return;
+        }
+        if (length > 3 && word.charAt(length - 1) == 's' && word.charAt(length - 2) != 's') {
+            length--;
+        }
+        tokens.add(word.subSequence(0, length).toString());
+    }
+
+    /** A term's weight in one quiz and the first question containing it, or -1. */
+    record Posting(float weight, int question) {}
+
+    /** A quiz's searchable text, tokenized once when the quiz is (re)indexed. */
+    public record Document(UUID quizId, String title, String category, String difficulty,
+                           List<String> questions, Map<String, Posting> terms) {
+
+        /**
+         * Title, category and description count once each; repeats across questions
+         * saturate so a term in every question does not outweigh the title.
+         */
+        public static Document of(Quiz quiz, List<Question> questions) {
+            Map<String, float[]> fieldWeights = new HashMap<>();
+            Map<String, Integer> firstQuestion = new HashMap<>();
+            Map<String, Integer> questionCounts = new HashMap<>();
+            addField(fieldWeights, quiz.getTitle(), TITLE);
+            addField(fieldWeights, quiz.getCategory(), CATEGORY);
+            addField(fieldWeights, quiz.getDescription(), DESCRIPTION);
+            List<String> texts = new ArrayList<>(questions.size());
+            for (Question question : questions) {
+                int index = texts.size();
+                texts.add(question.getQuestionText());
+                for (String term : tokens(question.getQuestionText())) {
+                    firstQuestion.putIfAbsent(term, index);
+                    questionCounts.merge(term, 1, Integer::sum);
+                }
+            }
+            Map<String, Posting> terms = new HashMap<>();
+            fieldWeights.forEach((term, weight) -> terms.put(term, new Posting(weight[0], -1)));
+            questionCounts.forEach((term, count) -> {
+                float weight = QUESTION * count * 2.2f / (count + 1.2f);
+                Posting field = terms.get(term);
+                terms.put(term, new Posting((field != null ? field.weight() : 0) + weight, firstQuestion.get(term)));
+            });
+            return new Document(quiz.getId(), quiz.getTitle(), quiz.getCategory(), quiz.getDifficulty(),
+                List.copyOf(texts), Map.copyOf(terms));
+        }
+
+        private static void addField(Map<String, float[]> weights, String text, float weight) {
+            for (String term : tokens(text)) {
+                weights.computeIfAbsent(term, key -> new float[1])[0] += weight;
+            }
+        }
+    }
+
+    private static final class Scratch {
+        final float[] best;
+        final int[] touched;
+        final float[] questionScore;
+        final int[] question;
+        int touchedCount;
+
+        Scratch(float[] best, int[] touched, float[] questionScore, int[] question) {
+            this.best = best;
+            this.touched = touched;
+            this.questionScore = questionScore;
+            this.question = question;
+        }
+    }
+}
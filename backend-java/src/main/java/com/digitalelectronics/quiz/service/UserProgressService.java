@@ -0,0 +1,237 @@
+package com.digitalelectronics.quiz.service;
+
+import com.digitalelectronics.quiz.dto.AttemptCompleted;
+import com.digitalelectronics.quiz.dto.UserProgressSummary;
+import com.digitalelectronics.quiz.invalidation.InvalidationEvent;
+import com.digitalelectronics.quiz.invalidation.InvalidationSubscriber;
+import com.digitalelectronics.quiz.model.ProgressCounters;
+import com.digitalelectronics.quiz.model.Quiz;
+import com.digitalelectronics.quiz.model.QuizAttempt;
+import com.digitalelectronics.quiz.model.UserProgress;
+import com.digitalelectronics.quiz.outbox.OutboxConsumer;
+import com.digitalelectronics.quiz.repository.QuizAttemptRepository;
+import com.digitalelectronics.quiz.repository.QuizRepository;
+import com.digitalelectronics.quiz.repository.UserProgressRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the per-user dashboard aggregates in user_progress. Each submitted
+ * attempt updates the row when its AttemptCompleted event is delivered; summaries are served
+ * from a bounded in-memory cache. Users with history from before this table
+ * existed are backfilled from their completed attempts: reads compute the backfill
+ * without storing it, and the user's next delivered attempt writes the row.
+ */
+@Service
+@Slf4j
+public class UserProgressService implements InvalidationSubscriber, OutboxConsumer<AttemptCompleted> {
+
+    private final UserProgressRepository userProgressRepository;
+    private final QuizAttemptRepository quizAttemptRepository;
+    private final QuizRepository quizRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int cacheSize;
+
+    private final Map<UUID, UserProgressSummary> cache;
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+
+    public UserProgressService(
+            UserProgressRepository userProgressRepository,
+            QuizAttemptRepository quizAttemptRepository,
+            QuizRepository quizRepository,
+            TransactionTemplate transactionTemplate,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${progress.cache-size:5000}") int cacheSize) {
+        this.userProgressRepository = userProgressRepository;
+        this.quizAttemptRepository = quizAttemptRepository;
+        this.quizRepository = quizRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.cacheSize = cacheSize;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, UserProgressSummary> eldest) {
+                return size() > UserProgressService.this.cacheSize;
+            }
+        };
+    }
+
+    public UserProgressSummary getSummary(UUID userId) {
+        synchronized (cache) {
+            UserProgressSummary cached = cache.get(userId);
+            if (cached != null) {
+                cacheHits.increment();
+                return cached;
+            }
+        }
+        cacheMisses.increment();
+
+        // Never written here: a GET must not create rows, whatever id it is given
+        UserProgress progress = transactionTemplate.execute(status -> userProgressRepository.findById(userId)
+            .orElseGet(() -> backfill(userId, null)));
+        UserProgressSummary summary = toSummary(progress);
+        synchronized (cache) {
+            // A concurrent submit may already have cached a newer summary
+            UserProgressSummary current = cache.putIfAbsent(userId, summary);
+            return current != null ? current : summary;
+        }
+    }
+
+    @Override
+    public Class<AttemptCompleted> eventType() {
+        return AttemptCompleted.class;
+    }
+    
+    @Override
+    public void handle(AttemptCompleted event) {
+        quizAttemptRepository.findById(event.getAttemptId()).ifPresent(this::recordAttempt);
+    }
+    
+    /**
+     * Folds a just-completed attempt into the user's aggregates. Runs in the outbox
+     * delivery transaction, so the counters commit together with the event being marked delivered.
+     */
+    @Transactional
+    public void recordAttempt(QuizAttempt attempt) {
+        // Insert first so that two concurrent first attempts serialize on the row lock
+        boolean created = userProgressRepository.insertIfAbsent(attempt.getUserId(), LocalDateTime.now()) == 1;
+        UserProgress progress = userProgressRepository.findByIdForUpdate(attempt.getUserId())
+            .orElseThrow(() -> new IllegalStateException("user_progress row vanished for " + attempt.getUserId()));
+        if (created) {
+            // Counts this attempt and everything before it; later attempts are applied by their own events
+            progress = backfill(attempt.getUserId(), attempt.getCompletedAt());
+        } else {
+            Optional<Quiz> quiz = quizRepository.findById(attempt.getQuizId());
+            apply(progress, attempt, quiz.orElse(null));
+        }
+        progress.setUpdatedAt(LocalDateTime.now());
+        UserProgress saved = userProgressRepository.save(progress);
+
+        UserProgressSummary summary = toSummary(saved);
+        // Other nodes drop their copy; here the afterCompletion below replaces it
+        eventPublisher.publishEvent(InvalidationEvent.progress(saved.getUserId()));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    synchronized (cache) {
+                        if (status == STATUS_COMMITTED) {
+                            cache.put(saved.getUserId(), summary);
+                        } else {
+                            cache.remove(saved.getUserId());
+                        }
+                    }
+                }
+            });
+        } else {
+            synchronized (cache) {
+                cache.put(saved.getUserId(), summary);
+            }
+        }
+    }
+
+    public void evict(UUID userId) {
+        synchronized (cache) {
+            cache.remove(userId);
+        }
+    }
+
+    @Override
+    public void onInvalidate(InvalidationEvent event) {
+        // A local event arrives after commit but before the afterCompletion that caches the new summary
+        if (InvalidationEvent.PROGRESS.equals(event.type())) {
+            evict(UUID.fromString(event.key()));
+        }
+    }
+    
+    @Override
+    public void onInvalidateAll() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+    
+    public long getHitCount() {
+        return cacheHits.sum();
+    }
+
+    public long getMissCount() {
+        return cacheMisses.sum();
+    }
+
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    /** @param upTo counts only attempts completed at or before this time; null for all of them */
+    private UserProgress backfill(UUID userId, LocalDateTime upTo) {
+        List<QuizAttempt> attempts = quizAttemptRepository.findCompletedAttemptsByUserId(userId).stream()
+            .filter(attempt -> upTo == null || attempt.getCompletedAt() == null || !attempt.getCompletedAt().isAfter(upTo))
+            .toList();
+        Set<UUID> quizIds = attempts.stream().map(QuizAttempt::getQuizId).collect(Collectors.toSet());
+        Map<UUID, Quiz> quizzes = quizRepository.findAllById(quizIds).stream()
+            .collect(Collectors.toMap(Quiz::getId, Function.identity()));
+
+        UserProgress progress = new UserProgress();
+        progress.setUserId(userId);
+        for (QuizAttempt attempt : attempts) {
+            apply(progress, attempt, quizzes.get(attempt.getQuizId()));
+        }
+        progress.setUpdatedAt(LocalDateTime.now());
+        log.debug("Backfilled progress for user {} from {} attempts", userId, attempts.size());
+        return progress;
+    }
+
+    private static void apply(UserProgress progress, QuizAttempt attempt, Quiz quiz) {
+        int total = attempt.getTotalQuestions() != null ? attempt.getTotalQuestions() : 0;
+        int correct = attempt.getCorrectAnswers() != null ? attempt.getCorrectAnswers() : 0;
+        double percent = total > 0 ? 100.0 * correct / total : 0.0;
+        int passingScore = quiz != null && quiz.getPassingScore() != null ? quiz.getPassingScore() : 70;
+        boolean passed = percent >= passingScore;
+
+        progress.setTotalPoints(progress.getTotalPoints() + (attempt.getScore() != null ? attempt.getScore() : 0));
+        progress.getOverall().record(percent, passed, correct, total);
+        progress.getByQuiz()
+            .computeIfAbsent(attempt.getQuizId().toString(), key -> new ProgressCounters())
+            .record(percent, passed, correct, total);
+        if (quiz != null) {
+            progress.getByCategory()
+                .computeIfAbsent(quiz.getCategory(), key -> new ProgressCounters())
+                .record(percent, passed, correct, total);
+            progress.getByDifficulty()
+                .computeIfAbsent(quiz.getDifficulty(), key -> new ProgressCounters())
+                .record(percent, passed, correct, total);
+        }
+    }
+
+    private static UserProgressSummary toSummary(UserProgress progress) {
+        return new UserProgressSummary(
+            progress.getUserId(),
+            progress.getTotalPoints(),
+            UserProgressSummary.Stats.of(progress.getOverall()),
+            UserProgressSummary.of(progress.getByQuiz()),
+            UserProgressSummary.of(progress.getByCategory()),
+            UserProgressSummary.of(progress.getByDifficulty()));
+    }
+}
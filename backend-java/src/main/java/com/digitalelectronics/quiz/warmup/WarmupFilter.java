@@ -0,0 +1,123 @@
+package com.digitalelectronics.quiz.warmup;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Runs a warm-up request inside a transaction that is always rolled back, after
+ * inserting the request's {@link WarmupFixture} rows in that same transaction. The
+ * controllers, services and repositories join it, so the request goes through the whole
+ * stack and its writes (the submitted attempt, the outbox event, last_login) are never
+ * committed or published. Only loopback requests carrying this node's random token are
+ * treated this way, and only while {@link WarmupRunner} is running.
+ * Sits behind admission control and in front of the query metrics, so the fixture
+ * inserts do not count against the handler's query budget.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 7)
+public class WarmupFilter extends OncePerRequestFilter {
+
+    static final String TOKEN_HEADER = "X-Warmup-Token";
+    static final String FIXTURE_HEADER = "X-Warmup-Fixture";
+
+    private final PlatformTransactionManager transactionManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final String token = UUID.randomUUID().toString();
+    private volatile boolean open;
+    private volatile String passwordHash;
+
+    public WarmupFilter(PlatformTransactionManager transactionManager, JdbcTemplate jdbcTemplate) {
+        this.transactionManager = transactionManager;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /** Accepts warm-up requests until {@link #close()}. */
+    void open() {
+        if (passwordHash == null) {
+            passwordHash = new BCryptPasswordEncoder().encode(WarmupFixture.PASSWORD);
+        }
+        open = true;
+    }
+
+    void close() {
+        open = false;
+    }
+
+    String token() {
+        return token;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !open || request.getHeader(TOKEN_HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!token.equals(request.getHeader(TOKEN_HEADER))
+                || !InetAddress.getByName(request.getRemoteAddr()).isLoopbackAddress()) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return;
+        }
+        WarmupFixture fixture = WarmupFixture.of(UUID.fromString(request.getHeader(FIXTURE_HEADER)));
+
+        TransactionStatus status = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        try {
+            insert(fixture);
+            chain.doFilter(request, response);
+        } finally {
+            transactionManager.rollback(status);
+        }
+    }
+
+    private void insert(WarmupFixture fixture) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update("""
+            INSERT INTO users (id, email, password_hash, full_name, is_active, email_verified, created_at, updated_at)
+            VALUES (?, ?, ?, 'Warm-up', true, true, ?, ?)""",
+            fixture.userId(), fixture.email(), passwordHash, now, now);
+        jdbcTemplate.update("""
+            INSERT INTO profiles (id, email, full_name, total_points, quizzes_completed, current_streak, longest_streak,
+                                  created_at, updated_at)
+            VALUES (?, ?, 'Warm-up', 0, 0, 0, 0, ?, ?)""",
+            fixture.userId(), fixture.email(), now, now);
+        jdbcTemplate.update("""
+            INSERT INTO quizzes (id, title, description, category, difficulty, passing_score, total_questions,
+                                 is_published, created_by, created_at, updated_at)
+            VALUES (?, 'Warm-up quiz', 'Synthetic quiz, never committed', 'warm-up', 'easy', 70, ?, false, ?, ?, ?)""",
+            fixture.quizId(), WarmupFixture.QUESTIONS, fixture.userId(), now, now);
+        List<Object[]> questions = new ArrayList<>();
+        for (int i = 0; i < fixture.questionIds().size(); i++) {
+            questions.add(new Object[] {fixture.questionIds().get(i), fixture.quizId(), "Warm-up question " + i, i, now});
+        }
+        jdbcTemplate.batchUpdate("""
+            INSERT INTO questions (id, quiz_id, question_text, question_type, options, correct_answer, explanation,
+                                   points, order_number, created_at)
+            VALUES (?, ?, ?, 'multiple_choice', '["0","1","X","Z"]'::jsonb, '1', 'Synthetic question', 10, ?, ?)""",
+            questions);
+        jdbcTemplate.update("""
+            INSERT INTO quiz_attempts (id, user_id, quiz_id, score, total_questions, correct_answers, completed, created_at)
+            VALUES (?, ?, ?, 0, ?, 0, false, ?)""",
+            fixture.attemptId(), fixture.userId(), fixture.quizId(), WarmupFixture.QUESTIONS, now);
+    }
+}
@@ -0,0 +1,31 @@
+package com.digitalelectronics.quiz.warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The synthetic user, quiz, questions and open attempt one warm-up request works on.
+ * Every id follows from a per-request seed, so the runner can build the request and
+ * {@link WarmupFilter} can insert the matching rows without the two sharing state, and
+ * concurrent warm-up requests never contend on the same keys.
+ */
+record WarmupFixture(UUID seed, UUID userId, String email, UUID quizId, List<UUID> questionIds, UUID attemptId) {
+
+    static final String PASSWORD = "warmup-password";
+    static final int QUESTIONS = 5;
+
+    static WarmupFixture of(UUID seed) {
+        List<UUID> questionIds = new ArrayList<>(QUESTIONS);
+        for (int i = 0; i < QUESTIONS; i++) {
+            questionIds.add(derive(seed, "question-" + i));
+        }
+        return new WarmupFixture(seed, derive(seed, "user"), "warmup-" + seed + "@warmup.invalid",
+            derive(seed, "quiz"), List.copyOf(questionIds), derive(seed, "attempt"));
+    }
+
+    private static UUID derive(UUID seed, String role) {
+        return UUID.nameUUIDFromBytes((seed + ":" + role).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,273 @@
+package com.digitalelectronics.quiz.warmup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Replays a synthetic workload of quiz reads, attempt submits and logins against this
+ * node over loopback before it reports ready. Spring Boot only moves readiness to
+ * ACCEPTING_TRAFFIC once application runners return, so the first real requests after a
+ * rollout hit compiled code and initialized Hibernate metadata instead of paying for
+ * both. Requests go through {@link WarmupFilter}, which supplies fixtures and rolls
+ * every write back.
+ * The improvement is measured on the warm-up itself: per endpoint, the latency of the
+ * first tenth of the requests against the last tenth, logged and served at /health/warmup.
+ */
+@Component
+@Slf4j
+public class WarmupRunner implements ApplicationRunner {
+
+    enum Endpoint {
+        QUIZ, SUBMIT, LOGIN;
+
+        String key() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    public record EndpointStats(int requests, int errors,
+                                double coldP50Ms, double coldP99Ms, double warmP50Ms, double warmP99Ms) {}
+
+    private record Sample(long startedAt, long nanos, boolean ok) {}
+
+    // Stop early when more than half of the first requests fail, e.g. the database is down
+    private static final int ABORT_CHECK_AFTER = 50;
+
+    private final WarmupFilter filter;
+    private final Environment environment;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Duration duration;
+    private final int maxRequests;
+    private final int threads;
+    private final int[] weights;
+    private final int totalWeight;
+    private final String contextPath;
+
+    private volatile Map<String, Object> stats;
+
+    public WarmupRunner(
+            WarmupFilter filter,
+            Environment environment,
+            ObjectMapper objectMapper,
+            @Value("${warmup.enabled:true}") boolean enabled,
+            @Value("${warmup.duration-seconds:10}") int durationSeconds,
+            @Value("${warmup.max-requests:5000}") int maxRequests,
+            @Value("${warmup.threads:4}") int threads,
+            @Value("${warmup.mix:quiz=50,submit=30,login=20}") String mix,
+            @Value("${server.servlet.context-path:}") String contextPath) {
+        this.filter = filter;
+        this.environment = environment;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.duration = Duration.ofSeconds(durationSeconds);
+        this.maxRequests = maxRequests;
+        this.threads = Math.max(1, threads);
+        this.weights = parseMix(mix);
+        this.totalWeight = Arrays.stream(weights).sum();
+        this.contextPath = contextPath;
+        this.stats = Map.of("state", enabled ? "pending" : "disabled");
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException {
+        Integer port = environment.getProperty("local.server.port", Integer.class);
+        if (!enabled || port == null) {
+            return;
+        }
+        stats = Map.of("state", "running");
+        filter.open();
+        try {
+            replay("http://localhost:" + port + contextPath);
+        } finally {
+            filter.close();
+        }
+    }
+
+    /** State of the warm-up and, once it has run, the cold and warm latency per endpoint. */
+    public Map<String, Object> getStats() {
+        return stats;
+    }
+
+    private void replay(String baseUrl) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(2))
+            .build();
+        Map<Endpoint, ConcurrentLinkedQueue<Sample>> samples = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            samples.put(endpoint, new ConcurrentLinkedQueue<>());
+        }
+        AtomicInteger issued = new AtomicInteger();
+        AtomicInteger done = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicBoolean aborted = new AtomicBoolean();
+
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + duration.toNanos();
+        ExecutorService workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "warmup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < threads; i++) {
+            workers.execute(() -> {
+                while (!aborted.get() && System.nanoTime() < deadline && issued.getAndIncrement() < maxRequests) {
+                    Endpoint endpoint = pick(ThreadLocalRandom.current().nextInt(totalWeight));
+                    long sentAt = System.nanoTime();
+                    boolean ok;
+                    try {
+                        ok = client.send(request(baseUrl, endpoint), HttpResponse.BodyHandlers.discarding()).statusCode() < 400;
+                    } catch (IOException e) {
+                        ok = false;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    samples.get(endpoint).add(new Sample(sentAt, System.nanoTime() - sentAt, ok));
+                    int failures = ok ? failed.get() : failed.incrementAndGet();
+                    if (done.incrementAndGet() == ABORT_CHECK_AFTER && failures * 2 > ABORT_CHECK_AFTER) {
+                        aborted.set(true);
+                    }
+                }
+            });
+        }
+        workers.shutdown();
+        if (!workers.awaitTermination(duration.toSeconds() + 30, TimeUnit.SECONDS)) {
+            workers.shutdownNow();
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+        Map<String, EndpointStats> endpoints = new LinkedHashMap<>();
+        samples.forEach((endpoint, queue) -> {
+            if (!queue.isEmpty()) {
+                endpoints.put(endpoint.key(), summarize(new ArrayList<>(queue)));
+            }
+        });
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("state", aborted.get() ? "aborted" : "completed");
+        result.put("durationMs", elapsedMs);
+        result.put("requests", done.get());
+        result.put("errors", failed.get());
+        result.put("endpoints", endpoints);
+        stats = result;
+
+        if (aborted.get()) {
+            log.warn("Warm-up aborted after {} of the first {} requests failed", failed.get(), ABORT_CHECK_AFTER);
+            return;
+        }
+        log.info("Warm-up finished: {} requests ({} errors) in {} ms", done.get(), failed.get(), elapsedMs);
+        endpoints.forEach((endpoint, s) -> log.info(
+            "Warm-up {}: {} requests, p50 {} -> {} ms, p99 {} -> {} ms (first tenth -> last tenth)",
+            endpoint, s.requests(), round(s.coldP50Ms()), round(s.warmP50Ms()), round(s.coldP99Ms()), round(s.warmP99Ms())));
+    }
+
+    private HttpRequest request(String baseUrl, Endpoint endpoint) {
+        WarmupFixture fixture = WarmupFixture.of(UUID.randomUUID());
+        HttpRequest.Builder builder = switch (endpoint) {
+            case QUIZ -> HttpRequest.newBuilder(URI.create(baseUrl + "/quiz/" + fixture.quizId())).GET();
+            case SUBMIT -> {
+                Map<String, String> answers = new LinkedHashMap<>();
+                for (UUID questionId : fixture.questionIds()) {
+                    answers.put(questionId.toString(), "1");
+                }
+                yield json(HttpRequest.newBuilder(URI.create(baseUrl + "/attempts/" + fixture.attemptId() + "/submit")),
+                    "PUT", Map.of("answers", answers, "score", 100, "correctAnswers", answers.size(), "timeTaken", 60));
+            }
+            case LOGIN -> json(HttpRequest.newBuilder(URI.create(baseUrl + "/auth/login")),
+                "POST", Map.of("email", fixture.email(), "password", WarmupFixture.PASSWORD));
+        };
+        return builder
+            .header(WarmupFilter.TOKEN_HEADER, filter.token())
+            .header(WarmupFilter.FIXTURE_HEADER, fixture.seed().toString())
+            .timeout(Duration.ofSeconds(30))
+            .build();
+    }
+
+    private HttpRequest.Builder json(HttpRequest.Builder builder, String method, Object body) {
+        try {
+            return builder.header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize warm-up request body", e);
+        }
+    }
+
+    private Endpoint pick(int roll) {
+        for (Endpoint endpoint : Endpoint.values()) {
+            roll -= weights[endpoint.ordinal()];
+            if (roll < 0) {
+                return endpoint;
+            }
+        }
+        throw new IllegalStateException("Roll outside the mix");
+    }
+
+    private static EndpointStats summarize(List<Sample> samples) {
+        samples.sort(Comparator.comparingLong(Sample::startedAt));
+        int window = Math.max(1, Math.min(samples.size(), Math.max(10, samples.size() / 10)));
+        long[] cold = latencies(samples.subList(0, window));
+        long[] warm = latencies(samples.subList(samples.size() - window, samples.size()));
+        int errors = (int) samples.stream().filter(sample -> !sample.ok()).count();
+        return new EndpointStats(samples.size(), errors,
+            percentileMs(cold, 0.5), percentileMs(cold, 0.99), percentileMs(warm, 0.5), percentileMs(warm, 0.99));
+    }
+
+    private static long[] latencies(List<Sample> samples) {
+        return samples.stream().mapToLong(Sample::nanos).sorted().toArray();
+    }
+
+    private static double percentileMs(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    private static double round(double ms) {
+        return Math.round(ms * 10) / 10.0;
+    }
+
+    /** "quiz=50,submit=30,login=20" to a weight per endpoint; missing endpoints get 0. */
+    private static int[] parseMix(String mix) {
+        int[] weights = new int[Endpoint.values().length];
+        for (String part : mix.split(",")) {
+            String[] entry = part.trim().split("=");
+            if (entry.length != 2) {
+                throw new IllegalArgumentException("warmup.mix entries look like quiz=50, got '" + part + "'");
+            }
+            weights[Endpoint.valueOf(entry[0].trim().toUpperCase(Locale.ROOT)).ordinal()] = Math.max(0, Integer.parseInt(entry[1].trim()));
+        }
+        if (Arrays.stream(weights).sum() == 0) {
+            throw new IllegalArgumentException("warmup.mix needs at least one positive weight");
+        }
+        return weights;
+    }
+}
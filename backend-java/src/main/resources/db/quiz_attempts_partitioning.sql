@@ -0,0 +1,64 @@
+-- One-time migration: convert quiz_attempts into a table range-partitioned by month on created_at.
+-- Run during a maintenance window, then set attempts.partitioning.enabled=true so the
+-- application keeps future partitions created and archives expired ones.
+
+BEGIN;
+
+ALTER TABLE quiz_attempts RENAME TO quiz_attempts_unpartitioned;
+-- Added by the application on startup; present here in case it has not run this version yet
+ALTER TABLE quiz_attempts_unpartitioned ADD COLUMN IF NOT EXISTS expired_at TIMESTAMP(6);
+ALTER TABLE quiz_attempts_unpartitioned ADD COLUMN IF NOT EXISTS question_ids JSONB;
+
+CREATE TABLE quiz_attempts (
+    id              UUID         NOT NULL,
+    user_id         UUID         NOT NULL,
+    quiz_id         UUID         NOT NULL,
+    score           INTEGER      NOT NULL,
+    total_questions INTEGER      NOT NULL,
+    correct_answers INTEGER      NOT NULL,
+    time_taken      INTEGER,
+    answers         JSONB,
+    question_ids    JSONB,
+    completed       BOOLEAN      NOT NULL,
+    completed_at    TIMESTAMP(6),
+    expired_at      TIMESTAMP(6),
+    created_at      TIMESTAMP(6) NOT NULL,
+    -- The partition key has to be part of every unique constraint
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE INDEX idx_quiz_attempts_user_created ON quiz_attempts (user_id, created_at);
+CREATE INDEX idx_quiz_attempts_quiz_created ON quiz_attempts (quiz_id, created_at);
+
+-- Catches rows outside every monthly partition (e.g. clock skew) instead of failing the insert
+CREATE TABLE quiz_attempts_default PARTITION OF quiz_attempts DEFAULT;
+
+-- Monthly partitions covering the existing data up to three months ahead
+DO $$
+DECLARE
+    month_start DATE;
+    last_month  DATE;
+BEGIN
+    SELECT COALESCE(date_trunc('month', MIN(created_at))::date, date_trunc('month', now())::date)
+      INTO month_start
+      FROM quiz_attempts_unpartitioned;
+    last_month := (date_trunc('month', now()) + INTERVAL '3 months')::date;
+
+    WHILE month_start <= last_month LOOP
+        EXECUTE format(
+            'CREATE TABLE IF NOT EXISTS %I PARTITION OF quiz_attempts FOR VALUES FROM (%L) TO (%L)',
+            'quiz_attempts_p' || to_char(month_start, 'YYYY_MM'),
+            month_start,
+            (month_start + INTERVAL '1 month')::date);
+        month_start := (month_start + INTERVAL '1 month')::date;
+    END LOOP;
+END $$;
+
+INSERT INTO quiz_attempts
+SELECT id, user_id, quiz_id, score, total_questions, correct_answers, time_taken,
+       answers, question_ids, completed, completed_at, expired_at, created_at
+  FROM quiz_attempts_unpartitioned;
+
+DROP TABLE quiz_attempts_unpartitioned;
+
+COMMIT;
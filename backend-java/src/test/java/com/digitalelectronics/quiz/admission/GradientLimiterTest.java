@@ -0,0 +1,120 @@
+package com.digitalelectronics.quiz.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GradientLimiterTest {
+    
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+    
+    @Test
+    void requestsOverTheLimitAreShedOnceTheQueueIsFull() throws Exception {
+        GradientLimiter limiter = new GradientLimiter(1, 1, 10, 5000, 1);
+        assertThat(limiter.acquire()).isZero();
+        
+        CompletableFuture<Long> waiting = CompletableFuture.supplyAsync(() -> acquireUnchecked(limiter));
+        awaitQueued(limiter, 1);
+        
+        // The one queue slot is taken, so this is rejected without waiting
+        long start = System.nanoTime();
+        assertThat(limiter.acquire()).isEqualTo(-1);
+        assertThat(System.nanoTime() - start).isLessThan(TimeUnit.SECONDS.toNanos(1));
+        
+        limiter.release(10 * MILLIS);
+        assertThat(waiting.get(5, TimeUnit.SECONDS)).isPositive();
+        assertThat(limiter.getInFlight()).isEqualTo(1);
+        assertThat(limiter.getQueued()).isZero();
+    }
+    
+    @Test
+    void queuedRequestIsRejectedAfterTheQueueTimeout() throws Exception {
+        GradientLimiter limiter = new GradientLimiter(1, 1, 10, 50, 5);
+        assertThat(limiter.acquire()).isZero();
+        
+        assertThat(limiter.acquire()).isEqualTo(-1);
+        assertThat(limiter.getQueued()).isZero();
+        assertThat(limiter.getInFlight()).isEqualTo(1);
+        
+        GradientLimiter noQueue = new GradientLimiter(1, 1, 10, 0, 5);
+        assertThat(noQueue.acquire()).isZero();
+        assertThat(noQueue.acquire()).isEqualTo(-1);
+    }
+    
+    @Test
+    void limitGrowsWhileLatencyHoldsAtTheBaseline() throws Exception {
+        GradientLimiter limiter = new GradientLimiter(10, 1, 200, 0, 0);
+        int held = fill(limiter, 0);
+        
+        for (int i = 0; i < 200; i++) {
+            limiter.release(10 * MILLIS);
+            held = fill(limiter, held - 1);
+        }
+        
+        assertThat(limiter.getLimit()).isGreaterThan(20);
+    }
+    
+    @Test
+    void limitShrinksWhenLatencyRises() throws Exception {
+        GradientLimiter limiter = new GradientLimiter(40, 2, 200, 0, 0);
+        int held = fill(limiter, 0);
+        for (int i = 0; i < 300; i++) {
+            limiter.release(10 * MILLIS);
+            held = fill(limiter, held - 1);
+        }
+        int baseline = limiter.getLimit();
+        
+        // Queueing inside the server: every request now takes ten times as long
+        for (int i = 0; i < 50; i++) {
+            limiter.release(100 * MILLIS);
+            held = fill(limiter, held - 1);
+        }
+        
+        assertThat(limiter.getLimit()).isLessThan(baseline / 2).isGreaterThanOrEqualTo(2);
+    }
+    
+    @Test
+    void limitIsClampedToItsBounds() throws Exception {
+        GradientLimiter limiter = new GradientLimiter(500, 6, 12, 0, 0);
+        assertThat(limiter.getLimit()).isEqualTo(12);
+        
+        int held = fill(limiter, 0);
+        for (int i = 0; i < 100; i++) {
+            limiter.release((i < 20 ? 10 : 1000) * MILLIS);
+            held = fill(limiter, held - 1);
+        }
+        
+        // Left alone, sustained slow responses would settle the limit near 4
+        assertThat(limiter.getLimit()).isEqualTo(6);
+        assertThat(held).isEqualTo(6);
+    }
+    
+    /** Takes slots until the limiter refuses one, so releases see a busy class. */
+    private static int fill(GradientLimiter limiter, int held) throws InterruptedException {
+        while (limiter.acquire() == 0) {
+            held++;
+        }
+        return held;
+    }
+    
+    private static long acquireUnchecked(GradientLimiter limiter) {
+        try {
+            return limiter.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+    
+    private static void awaitQueued(GradientLimiter limiter, int queued) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (limiter.getQueued() < queued && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(limiter.getQueued()).isEqualTo(queued);
+    }
+}
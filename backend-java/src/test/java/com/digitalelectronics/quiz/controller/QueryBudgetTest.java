@@ -0,0 +1,166 @@
+package com.digitalelectronics.quiz.controller;
+
+import com.digitalelectronics.quiz.model.Profile;
+import com.digitalelectronics.quiz.model.Question;
+import com.digitalelectronics.quiz.model.Quiz;
+import com.digitalelectronics.quiz.repository.ProfileRepository;
+import com.digitalelectronics.quiz.repository.QuestionRepository;
+import com.digitalelectronics.quiz.repository.QuizRepository;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Calls the handlers whose statement and row counts were fixed against their
+ * {@link com.digitalelectronics.quiz.metrics.QueryBudget}. The test profile runs with
+ * query-budget.mode=fail, so going over a budget throws inside Hibernate and the
+ * request does not get its success status.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class QueryBudgetTest {
+    
+    // Stopped by its own shutdown hook, after the cached context is closed
+    private static final EmbeddedPostgres POSTGRES = startPostgres();
+    
+    @Autowired
+    private TestRestTemplate rest;
+    
+    @Autowired
+    private QuizRepository quizRepository;
+    
+    @Autowired
+    private QuestionRepository questionRepository;
+    
+    @Autowired
+    private ProfileRepository profileRepository;
+    
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+    }
+    
+    @Test
+    void getQuizByIdStaysWithinBudget() {
+        Quiz quiz = saveQuiz(3);
+        
+        ResponseEntity<Map> response = rest.getForEntity("/quiz/{id}", Map.class, quiz.getId());
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        
+        // Revalidation only reads updated_at
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(response.getHeaders().getETag());
+        ResponseEntity<Map> revalidated = rest.exchange("/quiz/{id}", HttpMethod.GET,
+            new HttpEntity<>(headers), Map.class, quiz.getId());
+        assertThat(revalidated.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+    }
+    
+    @Test
+    void deleteQuizStaysWithinBudget() {
+        Quiz quiz = saveQuiz(5);
+        
+        ResponseEntity<Void> response = rest.exchange("/quiz/{id}", HttpMethod.DELETE, null, Void.class, quiz.getId());
+        
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        assertThat(quizRepository.findById(quiz.getId())).isEmpty();
+        assertThat(questionRepository.findByQuizIdOrderByOrderNumberAsc(quiz.getId())).isEmpty();
+    }
+    
+    @Test
+    void addAndDeleteQuestionStayWithinBudget() {
+        Quiz quiz = saveQuiz(2);
+        
+        ResponseEntity<Question> added = rest.postForEntity("/quiz/{quizId}/questions",
+            question(quiz.getId(), 3), Question.class, quiz.getId());
+        assertThat(added.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(quizRepository.findById(quiz.getId()).orElseThrow().getTotalQuestions()).isEqualTo(3);
+        
+        ResponseEntity<Void> deleted = rest.exchange("/quiz/questions/{questionId}", HttpMethod.DELETE, null,
+            Void.class, added.getBody().getId());
+        assertThat(deleted.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        assertThat(quizRepository.findById(quiz.getId()).orElseThrow().getTotalQuestions()).isEqualTo(2);
+    }
+    
+    @Test
+    void leaderboardsFetchOnlyTheCappedPage() {
+        List<Profile> profiles = new ArrayList<>();
+        for (int i = 0; i < LeaderboardController.MAX_LIMIT + 20; i++) {
+            Profile profile = new Profile();
+            profile.setId(UUID.randomUUID());
+            profile.setEmail("budget-" + profile.getId() + "@example.com");
+            profile.setTotalPoints(i * 10);
+            profile.setCurrentStreak(i % 30);
+            profile.setCreatedAt(LocalDateTime.now());
+            profiles.add(profile);
+        }
+        profileRepository.saveAll(profiles);
+        
+        // limit=0 means "all", which is capped as well; more rows would exceed maxRows
+        for (String board : List.of("top", "streaks")) {
+            ResponseEntity<Map> response = rest.getForEntity("/leaderboard/{board}?limit=0", Map.class, board);
+            assertThat(response.getStatusCode()).as(board).isEqualTo(HttpStatus.OK);
+            assertThat(response.getBody().get("total")).as(board).isEqualTo(LeaderboardController.MAX_LIMIT);
+        }
+    }
+    
+    private Quiz saveQuiz(int questions) {
+        Quiz quiz = new Quiz();
+        quiz.setTitle("Budget quiz");
+        quiz.setCategory("budget");
+        quiz.setDifficulty("easy");
+        quiz.setIsPublished(true);
+        quiz.setCreatedBy(UUID.randomUUID());
+        quiz.setTotalQuestions(questions);
+        quiz.setCreatedAt(LocalDateTime.now());
+        quiz.setUpdatedAt(LocalDateTime.now());
+        quiz = quizRepository.save(quiz);
+        for (int i = 0; i < questions; i++) {
+            Question question = question(quiz.getId(), i + 1);
+            question.setCreatedAt(LocalDateTime.now());
+            questionRepository.save(question);
+        }
+        return quiz;
+    }
+    
+    private static Question question(UUID quizId, int orderNumber) {
+        Question question = new Question();
+        question.setQuizId(quizId);
+        question.setQuestionText("Output of NAND(1, " + orderNumber % 2 + ")?");
+        question.setQuestionType("multiple_choice");
+        question.setOptions(List.of("0", "1"));
+        question.setCorrectAnswer(orderNumber % 2 == 0 ? "1" : "0");
+        question.setOrderNumber(orderNumber);
+        return question;
+    }
+    
+    private static EmbeddedPostgres startPostgres() {
+        try {
+            return EmbeddedPostgres.builder().start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
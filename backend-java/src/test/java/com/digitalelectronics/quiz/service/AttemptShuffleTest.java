@@ -0,0 +1,138 @@
+package com.digitalelectronics.quiz.service;
+
+import com.digitalelectronics.quiz.model.Question;
+import com.digitalelectronics.quiz.model.Quiz;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AttemptShuffleTest {
+    
+    @Test
+    void permuteIsAPermutationOfTheIndexes() {
+        for (int size = 0; size <= 20; size++) {
+            int[] order = AttemptShuffle.permute(AttemptShuffle.seed(UUID.randomUUID()), new int[size]);
+            assertThat(order).containsExactlyInAnyOrder(IntStream.range(0, size).toArray());
+        }
+    }
+    
+    @Test
+    void sameSeedGivesTheSameOrder() {
+        UUID attemptId = UUID.randomUUID();
+        long seed = AttemptShuffle.seed(attemptId);
+        assertThat(AttemptShuffle.seed(UUID.fromString(attemptId.toString()))).isEqualTo(seed);
+        assertThat(AttemptShuffle.permute(seed, new int[12])).isEqualTo(AttemptShuffle.permute(seed, new int[12]));
+        
+        AnswerKey answerKey = answerKey(8, 4);
+        assertThat(AttemptShuffle.questions(answerKey, seed)).isEqualTo(AttemptShuffle.questions(answerKey, seed));
+    }
+    
+    @Test
+    void differentAttemptsGetDifferentOrders() {
+        Random random = new Random(7);
+        Set<String> orders = new HashSet<>();
+        for (int i = 0; i < 50; i++) {
+            orders.add(Arrays.toString(AttemptShuffle.permute(AttemptShuffle.seed(attemptId(random)), new int[10])));
+        }
+        // 10! orders; 50 random attempts all landing on a handful would mean a broken seed
+        assertThat(orders.size()).isGreaterThan(45);
+    }
+    
+    @Test
+    void everyPositionIsReachedForEveryIndex() {
+        Random random = new Random(11);
+        int size = 5;
+        int[][] seen = new int[size][size];
+        for (int i = 0; i < 5000; i++) {
+            int[] order = AttemptShuffle.permute(AttemptShuffle.seed(attemptId(random)), new int[size]);
+            for (int shown = 0; shown < size; shown++) {
+                seen[shown][order[shown]]++;
+            }
+        }
+        // Expected 1000 per cell; Fisher-Yates with a biased index would skew some far from it
+        for (int[] row : seen) {
+            for (int count : row) {
+                assertThat(count).isBetween(850, 1150);
+            }
+        }
+    }
+    
+    @Test
+    void originalOptionInvertsTheShownOrder() {
+        AnswerKey answerKey = answerKey(6, 5);
+        for (int attempt = 0; attempt < 20; attempt++) {
+            long seed = AttemptShuffle.seed(UUID.randomUUID());
+            for (AttemptShuffle.Presented presented : AttemptShuffle.questions(answerKey, seed)) {
+                AnswerKey.Item item = answerKey.item(presented.id());
+                assertThat(presented.options()).containsExactlyInAnyOrderElementsOf(item.options());
+                for (int shown = 0; shown < presented.options().size(); shown++) {
+                    assertThat(AttemptShuffle.originalOption(item, seed, shown)).isEqualTo(presented.options().get(shown));
+                }
+            }
+        }
+    }
+    
+    @Test
+    void originalOptionRejectsOutOfRangeIndexes() {
+        AnswerKey.Item item = answerKey(1, 4).items().get(0);
+        long seed = AttemptShuffle.seed(UUID.randomUUID());
+        
+        assertThat(AttemptShuffle.originalOption(item, seed, -1)).isNull();
+        assertThat(AttemptShuffle.originalOption(item, seed, 4)).isNull();
+    }
+    
+    @Test
+    void optionOrderDoesNotDependOnQuestionPosition() {
+        AnswerKey answerKey = answerKey(6, 4);
+        long seed = AttemptShuffle.seed(UUID.randomUUID());
+        for (AttemptShuffle.Presented presented : AttemptShuffle.questions(answerKey, seed)) {
+            AttemptShuffle.Presented alone = AttemptShuffle.question(answerKey.item(presented.id()), seed);
+            assertThat(alone.options()).isEqualTo(presented.options());
+        }
+    }
+    
+    @Test
+    void questionsContainEachItemOnce() {
+        AnswerKey answerKey = answerKey(9, 2);
+        
+        List<AttemptShuffle.Presented> presented = AttemptShuffle.questions(answerKey, AttemptShuffle.seed(UUID.randomUUID()));
+        
+        assertThat(presented).extracting(AttemptShuffle.Presented::id)
+            .containsExactlyInAnyOrderElementsOf(answerKey.items().stream().map(AnswerKey.Item::questionId).toList());
+    }
+    
+    private static UUID attemptId(Random random) {
+        return new UUID(random.nextLong(), random.nextLong());
+    }
+    
+    private static AnswerKey answerKey(int questions, int options) {
+        Quiz quiz = new Quiz();
+        quiz.setId(UUID.randomUUID());
+        List<Question> list = new ArrayList<>();
+        for (int i = 0; i < questions; i++) {
+            Question question = new Question();
+            question.setId(UUID.randomUUID());
+            question.setQuizId(quiz.getId());
+            question.setQuestionText("Question " + i);
+            question.setQuestionType("multiple_choice");
+            List<String> choices = new ArrayList<>();
+            for (int option = 0; option < options; option++) {
+                choices.add("Q" + i + " option " + option);
+            }
+            question.setOptions(choices);
+            question.setCorrectAnswer(choices.get(0));
+            question.setOrderNumber(i + 1);
+            list.add(question);
+        }
+        return new AnswerKey(quiz, list);
+    }
+}
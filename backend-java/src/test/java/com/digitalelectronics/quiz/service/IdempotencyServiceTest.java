@@ -0,0 +1,208 @@
+package com.digitalelectronics.quiz.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotencyServiceTest {
+    
+    private final IdempotencyService service = new IdempotencyService(new ObjectMapper(), 100, 600, 5000);
+    // Its own threads: the common pool may have a single worker, which would run the duplicate after the first call
+    private final ExecutorService callers = Executors.newFixedThreadPool(2);
+    
+    @AfterEach
+    void stopCallers() {
+        callers.shutdownNow();
+    }
+    
+    @Test
+    void duplicateGetsTheStoredResponseWithoutRunningAgain() {
+        AtomicInteger calls = new AtomicInteger();
+        Map<String, String> body = Map.of("quizId", "q1");
+        
+        ResponseEntity<String> first = service.execute("start:u1", "k1", body,
+            () -> ResponseEntity.status(HttpStatus.CREATED).body("attempt-" + calls.incrementAndGet()));
+        ResponseEntity<String> second = service.execute("start:u1", "k1", body,
+            () -> ResponseEntity.status(HttpStatus.CREATED).body("attempt-" + calls.incrementAndGet()));
+        
+        assertThat(calls).hasValue(1);
+        assertThat(second.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(second.getBody()).isEqualTo(first.getBody());
+        assertThat(second.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(first.getHeaders().containsKey(IdempotencyService.REPLAYED_HEADER)).isFalse();
+        assertThat(service.getHitCount()).isEqualTo(1);
+        assertThat(service.getMissCount()).isEqualTo(1);
+    }
+    
+    @Test
+    void keyReusedWithADifferentBodyIsRejected() {
+        AtomicInteger calls = new AtomicInteger();
+        service.execute("start:u1", "k1", Map.of("quizId", "q1"), () -> ResponseEntity.ok("attempt-" + calls.incrementAndGet()));
+        
+        ResponseEntity<String> reused = service.execute("start:u1", "k1", Map.of("quizId", "q2"),
+            () -> ResponseEntity.ok("attempt-" + calls.incrementAndGet()));
+        
+        assertThat(reused.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+        assertThat(calls).hasValue(1);
+    }
+    
+    @Test
+    void keysAreSeparatedByScope() {
+        AtomicInteger calls = new AtomicInteger();
+        Map<String, String> body = Map.of("quizId", "q1");
+        
+        service.execute("start:u1", "k1", body, () -> ResponseEntity.ok("attempt-" + calls.incrementAndGet()));
+        ResponseEntity<String> other = service.execute("start:u2", "k1", body,
+            () -> ResponseEntity.ok("attempt-" + calls.incrementAndGet()));
+        
+        assertThat(other.getBody()).isEqualTo("attempt-2");
+        assertThat(service.execute("start:u1", null, body, () -> ResponseEntity.ok("no key")).getBody()).isEqualTo("no key");
+    }
+    
+    @Test
+    void concurrentDuplicateWaitsForTheFirstCall() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Map<String, String> body = Map.of("quizId", "q1");
+        
+        CompletableFuture<ResponseEntity<String>> first = CompletableFuture.supplyAsync(() ->
+            service.execute("start:u1", "k1", body, () -> {
+                started.countDown();
+                await(release);
+                return ResponseEntity.status(HttpStatus.CREATED).body("attempt-" + calls.incrementAndGet());
+            }), callers);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<ResponseEntity<String>> duplicate = CompletableFuture.supplyAsync(() ->
+            service.execute("start:u1", "k1", body,
+                () -> ResponseEntity.status(HttpStatus.CREATED).body("attempt-" + calls.incrementAndGet())), callers);
+        
+        Thread.sleep(100);
+        assertThat(duplicate).isNotDone();
+        release.countDown();
+        
+        assertThat(first.get(5, TimeUnit.SECONDS).getBody()).isEqualTo("attempt-1");
+        ResponseEntity<String> replayed = duplicate.get(5, TimeUnit.SECONDS);
+        assertThat(replayed.getBody()).isEqualTo("attempt-1");
+        assertThat(replayed.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(calls).hasValue(1);
+    }
+    
+    @Test
+    void duplicateGivesUpWithConflictWhileTheFirstCallIsStillRunning() throws Exception {
+        IdempotencyService impatient = new IdempotencyService(new ObjectMapper(), 100, 600, 50);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Map<String, String> body = Map.of("quizId", "q1");
+        
+        CompletableFuture<ResponseEntity<String>> first = CompletableFuture.supplyAsync(() ->
+            impatient.execute("start:u1", "k1", body, () -> {
+                started.countDown();
+                await(release);
+                return ResponseEntity.ok("attempt");
+            }), callers);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        
+        ResponseEntity<String> duplicate = impatient.execute("start:u1", "k1", body, () -> ResponseEntity.ok("again"));
+        
+        assertThat(duplicate.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS).getBody()).isEqualTo("attempt");
+    }
+    
+    @Test
+    void failedCallCanBeRetriedWithTheSameKey() {
+        Map<String, String> body = Map.of("quizId", "q1");
+        
+        service.execute("start:u1", "k1", body, () -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+        ResponseEntity<String> retried = service.execute("start:u1", "k1", body, () -> ResponseEntity.ok("attempt"));
+        
+        assertThat(retried.getBody()).isEqualTo("attempt");
+        assertThat(retried.getHeaders().containsKey(IdempotencyService.REPLAYED_HEADER)).isFalse();
+    }
+    
+    @Test
+    void duplicateWaitingOnAFailedCallRunsItInsteadOfReplayingTheFailure() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Map<String, String> body = Map.of("quizId", "q1");
+        
+        CompletableFuture<ResponseEntity<String>> first = CompletableFuture.supplyAsync(() ->
+            service.execute("start:u1", "k1", body, () -> {
+                calls.incrementAndGet();
+                started.countDown();
+                await(release);
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            }), callers);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<ResponseEntity<String>> duplicate = CompletableFuture.supplyAsync(() ->
+            service.execute("start:u1", "k1", body,
+                () -> ResponseEntity.status(HttpStatus.CREATED).body("attempt-" + calls.incrementAndGet())), callers);
+        Thread.sleep(100);
+        release.countDown();
+        
+        assertThat(first.get(5, TimeUnit.SECONDS).getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+        ResponseEntity<String> retried = duplicate.get(5, TimeUnit.SECONDS);
+        assertThat(retried.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(retried.getBody()).isEqualTo("attempt-2");
+        assertThat(retried.getHeaders().containsKey(IdempotencyService.REPLAYED_HEADER)).isFalse();
+        assertThat(service.getHitCount()).isZero();
+    }
+    
+    @Test
+    void duplicateWaitingOnAThrowingCallRunsItItself() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Map<String, String> body = Map.of("quizId", "q1");
+        
+        CompletableFuture<ResponseEntity<String>> first = CompletableFuture.supplyAsync(() ->
+            service.execute("start:u1", "k1", body, () -> {
+                started.countDown();
+                await(release);
+                throw new IllegalStateException("database down");
+            }), callers);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<ResponseEntity<String>> duplicate = CompletableFuture.supplyAsync(() ->
+            service.execute("start:u1", "k1", body, () -> ResponseEntity.ok("attempt")), callers);
+        Thread.sleep(100);
+        release.countDown();
+        
+        assertThat(first).failsWithin(5, TimeUnit.SECONDS);
+        assertThat(duplicate.get(5, TimeUnit.SECONDS).getBody()).isEqualTo("attempt");
+        // The retry's success is stored like any other
+        assertThat(service.execute("start:u1", "k1", body, () -> ResponseEntity.ok("again")).getBody()).isEqualTo("attempt");
+    }
+    
+    @Test
+    void oldestEntriesAreEvictedAtCapacity() {
+        IdempotencyService small = new IdempotencyService(new ObjectMapper(), 2, 600, 5000);
+        for (String key : new String[] {"k1", "k2", "k3"}) {
+            small.execute("start:u1", key, key, () -> ResponseEntity.ok(key));
+        }
+        
+        assertThat(small.size()).isEqualTo(2);
+        assertThat(small.execute("start:u1", "k1", "k1", () -> ResponseEntity.ok("rerun")).getBody()).isEqualTo("rerun");
+        assertThat(small.execute("start:u1", "k3", "k3", () -> ResponseEntity.ok("rerun")).getBody()).isEqualTo("k3");
+    }
+    
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
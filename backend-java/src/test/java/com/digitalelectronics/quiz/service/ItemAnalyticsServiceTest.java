@@ -0,0 +1,112 @@
+package com.digitalelectronics.quiz.service;
+
+import com.digitalelectronics.quiz.dto.AttemptCompleted;
+import com.digitalelectronics.quiz.model.Question;
+import com.digitalelectronics.quiz.model.QuestionStats;
+import com.digitalelectronics.quiz.model.QuizAttempt;
+import com.digitalelectronics.quiz.repository.QuestionRepository;
+import com.digitalelectronics.quiz.repository.QuestionStatsRepository;
+import com.digitalelectronics.quiz.repository.QuizAttemptRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ItemAnalyticsServiceTest {
+    
+    private final QuestionStatsRepository questionStatsRepository = mock(QuestionStatsRepository.class);
+    private final QuestionRepository questionRepository = mock(QuestionRepository.class);
+    private final QuizAttemptRepository quizAttemptRepository = mock(QuizAttemptRepository.class);
+    private final ItemAnalyticsService service = new ItemAnalyticsService(questionStatsRepository, questionRepository,
+        quizAttemptRepository, mock(AnswerKeyCache.class), 30_000, 3_600_000, 100);
+    
+    private final UUID quizId = UUID.randomUUID();
+    private final Question first = question(1, "A");
+    private final Question second = question(2, "B");
+    
+    @BeforeEach
+    void setUp() {
+        when(questionRepository.findByQuizIdOrderByOrderNumberAsc(quizId)).thenReturn(List.of(first, second));
+        TransactionSynchronizationManager.initSynchronization();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void deltasAreWrittenInTheDeliveryTransaction() {
+        QuestionStats existing = new QuestionStats();
+        existing.setQuestionId(first.getId());
+        existing.setQuizId(quizId);
+        existing.setResponses(3L);
+        existing.setCorrectCount(1L);
+        existing.setOptionCounts(new HashMap<>(Map.of("A", 1L, "C", 2L)));
+        when(questionStatsRepository.findAllByIdForUpdate(anyCollection())).thenReturn(List.of(existing));
+        
+        QuizAttempt attempt = new QuizAttempt();
+        attempt.setId(UUID.randomUUID());
+        attempt.setQuizId(quizId);
+        attempt.setTotalQuestions(2);
+        attempt.setAnswers(Map.of(first.getId().toString(), "A", second.getId().toString(), " "));
+        when(quizAttemptRepository.findById(attempt.getId())).thenReturn(Optional.of(attempt));
+        
+        service.handle(new AttemptCompleted(attempt.getId(), UUID.randomUUID(), quizId, 10, LocalDateTime.now()));
+        
+        // Saved before the transaction commits, so it commits or rolls back with the outbox row
+        ArgumentCaptor<Iterable<QuestionStats>> saved = ArgumentCaptor.forClass(Iterable.class);
+        verify(questionStatsRepository).saveAll(saved.capture());
+        Map<UUID, QuestionStats> rows = ((List<QuestionStats>) saved.getValue()).stream()
+            .collect(Collectors.toMap(QuestionStats::getQuestionId, Function.identity()));
+        
+        QuestionStats firstRow = rows.get(first.getId());
+        assertThat(firstRow.getResponses()).isEqualTo(4L);
+        assertThat(firstRow.getCorrectCount()).isEqualTo(2L);
+        assertThat(firstRow.getOptionCounts()).containsEntry("A", 2L).containsEntry("C", 2L);
+        assertThat(firstRow.getSumTotal()).isEqualTo(0.5);
+        
+        QuestionStats secondRow = rows.get(second.getId());
+        assertThat(secondRow.getQuizId()).isEqualTo(quizId);
+        assertThat(secondRow.getResponses()).isEqualTo(1L);
+        assertThat(secondRow.getOmittedCount()).isEqualTo(1L);
+        assertThat(secondRow.getCorrectCount()).isZero();
+    }
+    
+    @Test
+    void unknownAttemptWritesNothing() {
+        when(quizAttemptRepository.findById(any())).thenReturn(Optional.empty());
+        
+        service.handle(new AttemptCompleted(UUID.randomUUID(), UUID.randomUUID(), quizId, 0, LocalDateTime.now()));
+        
+        verify(questionStatsRepository, never()).saveAll(any());
+    }
+    
+    private Question question(int orderNumber, String correctAnswer) {
+        Question question = new Question();
+        question.setId(UUID.randomUUID());
+        question.setQuizId(quizId);
+        question.setOrderNumber(orderNumber);
+        question.setCorrectAnswer(correctAnswer);
+        return question;
+    }
+}
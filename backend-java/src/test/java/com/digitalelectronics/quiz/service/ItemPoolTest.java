@@ -0,0 +1,65 @@
+package com.digitalelectronics.quiz.service;
+
+import com.digitalelectronics.quiz.model.Question;
+import com.digitalelectronics.quiz.model.Quiz;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemPoolTest {
+    
+    private final UUID quizId = UUID.randomUUID();
+    private final List<UUID> ids = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+    private final ItemPool pool = new ItemPool(quizId, ids,
+        new double[] {1.1, 1.2, 1.3}, new double[] {-0.5, 0.0, 0.5}, new boolean[] {true, true, true});
+    
+    @Test
+    void matchingKeyKeepsThePool() {
+        assertThat(pool.matching(answerKey(ids))).isSameAs(pool);
+    }
+    
+    @Test
+    void poolFollowsTheKeyAfterQuestionsChange() {
+        UUID added = UUID.randomUUID();
+        // The second question was deleted and a new one added after the pool was loaded
+        ItemPool matched = pool.matching(answerKey(List.of(ids.get(0), ids.get(2), added)));
+        
+        assertThat(matched.size()).isEqualTo(3);
+        assertThat(matched.indexOf(ids.get(1))).isEqualTo(-1);
+        assertThat(matched.questionId(0)).isEqualTo(ids.get(0));
+        assertThat(matched.questionId(1)).isEqualTo(ids.get(2));
+        assertThat(matched.discrimination()).containsExactly(1.1, 1.3, ItemResponseModel.DEFAULT_DISCRIMINATION);
+        assertThat(matched.difficulty()).containsExactly(-0.5, 0.5, ItemResponseModel.DEFAULT_DIFFICULTY);
+        assertThat(matched.calibratedCount()).isEqualTo(2);
+        
+        // Every item selection can be graded
+        boolean[] used = new boolean[matched.size()];
+        for (int i = 0; i < matched.size(); i++) {
+            int item = matched.selectNext(0.0, used);
+            used[item] = true;
+            assertThat(answerKey(List.of(ids.get(0), ids.get(2), added)).item(matched.questionId(item))).isNotNull();
+        }
+    }
+    
+    private AnswerKey answerKey(List<UUID> questionIds) {
+        Quiz quiz = new Quiz();
+        quiz.setId(quizId);
+        List<Question> questions = new ArrayList<>();
+        for (int i = 0; i < questionIds.size(); i++) {
+            Question question = new Question();
+            question.setId(questionIds.get(i));
+            question.setQuizId(quizId);
+            question.setQuestionText("Question " + i);
+            question.setQuestionType("multiple_choice");
+            question.setOptions(List.of("0", "1"));
+            question.setCorrectAnswer("1");
+            question.setOrderNumber(i + 1);
+            questions.add(question);
+        }
+        return new AnswerKey(quiz, questions);
+    }
+}
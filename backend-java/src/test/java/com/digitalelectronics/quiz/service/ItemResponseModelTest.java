@@ -0,0 +1,159 @@
+package com.digitalelectronics.quiz.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.assertj.core.api.Assertions.withinPercentage;
+
+class ItemResponseModelTest {
+    
+    @Test
+    void probabilityIsOneHalfAtTheDifficulty() {
+        assertThat(ItemResponseModel.probability(1.7, 0.4, 0.4)).isCloseTo(0.5, within(1e-12));
+        assertThat(ItemResponseModel.probability(1.7, 0.4, 2.0)).isGreaterThan(0.9);
+        assertThat(ItemResponseModel.information(1.7, 0.4, 0.4)).isCloseTo(1.7 * 1.7 / 4, within(1e-12));
+    }
+    
+    @Test
+    void estimateAbilityRecoversTheAbilityThatGeneratedTheResponses() {
+        Random random = new Random(42);
+        int count = 300;
+        double[] a = new double[count];
+        double[] b = new double[count];
+        int[] items = new int[count];
+        for (int i = 0; i < count; i++) {
+            a[i] = 0.8 + 1.2 * random.nextDouble();
+            b[i] = -2.5 + 5.0 * random.nextDouble();
+            items[i] = i;
+        }
+        for (double trueTheta : new double[] {-1.5, 0.0, 1.2}) {
+            boolean[] correct = new boolean[count];
+            for (int i = 0; i < count; i++) {
+                correct[i] = random.nextDouble() < ItemResponseModel.probability(a[i], b[i], trueTheta);
+            }
+            
+            double theta = ItemResponseModel.estimateAbility(a, b, items, correct, count);
+            double standardError = ItemResponseModel.standardError(a, b, items, count, theta);
+            
+            assertThat(theta).as("theta %s", trueTheta).isCloseTo(trueTheta, within(3 * standardError));
+            // Newton converged: the log-posterior's slope is zero at the estimate
+            assertThat(logPosteriorSlope(a, b, items, correct, count, theta)).isCloseTo(0.0, within(1e-3));
+        }
+    }
+    
+    @Test
+    void priorKeepsPerfectScoresFinite() {
+        double[] a = {1.0, 1.2, 0.9};
+        double[] b = {-0.5, 0.0, 0.5};
+        int[] items = {0, 1, 2};
+        
+        double allRight = ItemResponseModel.estimateAbility(a, b, items, new boolean[] {true, true, true}, 3);
+        double allWrong = ItemResponseModel.estimateAbility(a, b, items, new boolean[] {false, false, false}, 3);
+        
+        assertThat(allRight).isPositive().isLessThan(ItemResponseModel.MAX_THETA);
+        assertThat(allWrong).isNegative().isGreaterThan(ItemResponseModel.MIN_THETA);
+        assertThat(ItemResponseModel.estimateAbility(a, b, items, new boolean[3], 0)).isZero();
+    }
+    
+    @Test
+    void standardErrorShrinksWithEveryAnswer() {
+        double[] a = {1.0, 1.5, 0.8, 2.0};
+        double[] b = {0.0, 0.3, -0.4, 0.1};
+        int[] items = {0, 1, 2, 3};
+        
+        assertThat(ItemResponseModel.standardError(a, b, items, 0, 0.0)).isEqualTo(1.0);
+        double previous = 1.0;
+        double information = 1.0;
+        for (int count = 1; count <= items.length; count++) {
+            double standardError = ItemResponseModel.standardError(a, b, items, count, 0.0);
+            information += ItemResponseModel.information(a[count - 1], b[count - 1], 0.0);
+            assertThat(standardError).isLessThan(previous).isCloseTo(1 / Math.sqrt(information), within(1e-12));
+            previous = standardError;
+        }
+    }
+    
+    @Test
+    void fitRecoversItemParametersFromSyntheticResponses() {
+        Random random = new Random(7);
+        int persons = 3000;
+        int itemCount = 20;
+        double[] trueA = new double[itemCount];
+        double[] trueB = new double[itemCount];
+        for (int item = 0; item < itemCount; item++) {
+            trueA[item] = 0.6 + 1.4 * item / (itemCount - 1);
+            trueB[item] = -2.0 + 4.0 * ((item * 7) % itemCount) / (itemCount - 1);
+        }
+        byte[][] responses = new byte[persons][itemCount];
+        for (byte[] person : responses) {
+            double theta = random.nextGaussian();
+            for (int item = 0; item < itemCount; item++) {
+                // Adaptive attempts leave items unanswered
+                if (random.nextDouble() < 0.3) {
+                    person[item] = -1;
+                } else {
+                    person[item] = (byte) (random.nextDouble() < ItemResponseModel.probability(trueA[item], trueB[item], theta) ? 1 : 0);
+                }
+            }
+        }
+        
+        double[][] fitted = ItemResponseModel.fit(responses, itemCount, 25);
+        
+        for (int item = 0; item < itemCount; item++) {
+            assertThat(fitted[1][item]).as("difficulty of item %d", item).isCloseTo(trueB[item], within(0.4));
+            // Joint estimation with ~14 answers per person overstates discrimination somewhat
+            assertThat(fitted[0][item]).as("discrimination of item %d", item).isCloseTo(trueA[item], withinPercentage(45));
+        }
+        assertThat(correlation(fitted[0], trueA)).isGreaterThan(0.9);
+        assertThat(correlation(fitted[1], trueB)).isGreaterThan(0.98);
+        
+        // More passes change nothing material: the fit has converged
+        double[][] longer = ItemResponseModel.fit(responses, itemCount, 50);
+        for (int item = 0; item < itemCount; item++) {
+            assertThat(longer[1][item]).isCloseTo(fitted[1][item], within(0.05));
+            assertThat(longer[0][item]).isCloseTo(fitted[0][item], within(0.05));
+        }
+    }
+    
+    @Test
+    void fitLeavesUnansweredItemsAtTheDefaults() {
+        byte[][] responses = new byte[50][3];
+        Random random = new Random(3);
+        for (byte[] person : responses) {
+            person[0] = (byte) random.nextInt(2);
+            person[1] = (byte) random.nextInt(2);
+            person[2] = -1;
+        }
+        
+        double[][] fitted = ItemResponseModel.fit(responses, 3, 10);
+        
+        assertThat(fitted[0][2]).isEqualTo(ItemResponseModel.DEFAULT_DISCRIMINATION);
+        assertThat(fitted[1][2]).isEqualTo(ItemResponseModel.DEFAULT_DIFFICULTY);
+        assertThat(Arrays.stream(fitted[0]).allMatch(Double::isFinite)).isTrue();
+    }
+    
+    private static double logPosteriorSlope(double[] a, double[] b, int[] items, boolean[] correct, int count, double theta) {
+        double slope = -theta;
+        for (int i = 0; i < count; i++) {
+            slope += a[items[i]] * ((correct[i] ? 1.0 : 0.0) - ItemResponseModel.probability(a[items[i]], b[items[i]], theta));
+        }
+        return slope;
+    }
+    
+    private static double correlation(double[] x, double[] y) {
+        double meanX = Arrays.stream(x).average().orElse(0);
+        double meanY = Arrays.stream(y).average().orElse(0);
+        double covariance = 0;
+        double varianceX = 0;
+        double varianceY = 0;
+        for (int i = 0; i < x.length; i++) {
+            covariance += (x[i] - meanX) * (y[i] - meanY);
+            varianceX += (x[i] - meanX) * (x[i] - meanX);
+            varianceY += (y[i] - meanY) * (y[i] - meanY);
+        }
+        return covariance / Math.sqrt(varianceX * varianceY);
+    }
+}
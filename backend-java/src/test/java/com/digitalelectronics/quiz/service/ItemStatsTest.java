@@ -0,0 +1,114 @@
+package com.digitalelectronics.quiz.service;
+
+import com.digitalelectronics.quiz.dto.QuestionAnalytics;
+import com.digitalelectronics.quiz.model.QuestionStats;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ItemStatsTest {
+    
+    // Respondents' total scores and whether each got this question right
+    private static final double[] TOTALS = {0.9, 0.8, 0.5, 0.6, 0.3, 0.1};
+    private static final boolean[] CORRECT = {true, true, true, false, false, false};
+    
+    @Test
+    void discriminationMatchesHandComputedPointBiserial() {
+        ItemStats stats = new ItemStats();
+        for (int i = 0; i < TOTALS.length; i++) {
+            stats.record(CORRECT[i], CORRECT[i] ? "A" : "B", TOTALS[i]);
+        }
+        
+        // M = 3.2 / 6, M1 = 2.2 / 3, s^2 = 2.16 / 6 - M^2, p = q = 1/2:
+        // (0.7333 - 0.5333) / sqrt(0.075556) * sqrt(1) = 0.727607
+        assertThat(stats.discrimination()).isCloseTo(0.727607, within(1e-6));
+        assertThat(stats.discrimination()).isCloseTo(pearson(CORRECT, TOTALS), within(1e-9));
+    }
+    
+    @Test
+    void discriminationWeightsUnequalGroups() {
+        boolean[] correct = {true, false, false, false, true};
+        double[] totals = {1.0, 0.2, 0.4, 0.6, 0.8};
+        ItemStats stats = new ItemStats();
+        for (int i = 0; i < totals.length; i++) {
+            stats.record(correct[i], "A", totals[i]);
+        }
+        
+        // M = 0.6, M1 = 0.9, s = sqrt(0.08), p = 0.4: 0.3 / 0.282843 * sqrt(0.4 / 0.6) = 0.866025
+        assertThat(stats.discrimination()).isCloseTo(0.866025, within(1e-6));
+        assertThat(stats.discrimination()).isCloseTo(pearson(correct, totals), within(1e-9));
+    }
+    
+    @Test
+    void discriminationIsZeroWithoutBothGroupsOrSpread() {
+        ItemStats allCorrect = new ItemStats();
+        allCorrect.record(true, "A", 0.5);
+        allCorrect.record(true, "A", 0.9);
+        assertThat(allCorrect.discrimination()).isZero();
+        
+        ItemStats sameTotals = new ItemStats();
+        sameTotals.record(true, "A", 0.5);
+        sameTotals.record(false, "B", 0.5);
+        assertThat(sameTotals.discrimination()).isZero();
+        
+        assertThat(new ItemStats().discrimination()).isZero();
+    }
+    
+    @Test
+    void mergedAndPersistedSumsGiveTheSameAnalytics() {
+        ItemStats whole = new ItemStats();
+        ItemStats first = new ItemStats();
+        ItemStats second = new ItemStats();
+        for (int i = 0; i < TOTALS.length; i++) {
+            String option = i == 4 ? null : CORRECT[i] ? "A" : "B";
+            whole.record(CORRECT[i], option, TOTALS[i]);
+            (i % 2 == 0 ? first : second).record(CORRECT[i], option, TOTALS[i]);
+        }
+        first.merge(second);
+        
+        QuestionStats row = new QuestionStats();
+        whole.addTo(row);
+        ItemStats reloaded = ItemStats.from(row);
+        
+        UUID questionId = UUID.randomUUID();
+        QuestionAnalytics expected = whole.toAnalytics(questionId);
+        assertThat(expected.getResponses()).isEqualTo(6);
+        assertThat(expected.getOmitted()).isEqualTo(1);
+        assertThat(expected.getCorrectRate()).isCloseTo(0.5, within(1e-12));
+        assertThat(expected.getOptionCounts()).containsEntry("A", 3L).containsEntry("B", 2L).hasSize(2);
+        for (ItemStats stats : new ItemStats[] {first, reloaded}) {
+            QuestionAnalytics actual = stats.toAnalytics(questionId);
+            assertThat(actual.getResponses()).isEqualTo(expected.getResponses());
+            assertThat(actual.getOmitted()).isEqualTo(expected.getOmitted());
+            assertThat(actual.getOptionCounts()).isEqualTo(expected.getOptionCounts());
+            assertThat(actual.getDiscrimination()).isCloseTo(expected.getDiscrimination(), within(1e-12));
+        }
+    }
+    
+    // Pearson correlation of the 0/1 outcome with the total, which is what point-biserial is
+    private static double pearson(boolean[] correct, double[] totals) {
+        int n = totals.length;
+        double meanX = 0;
+        double meanY = 0;
+        for (int i = 0; i < n; i++) {
+            meanX += correct[i] ? 1 : 0;
+            meanY += totals[i];
+        }
+        meanX /= n;
+        meanY /= n;
+        double covariance = 0;
+        double varianceX = 0;
+        double varianceY = 0;
+        for (int i = 0; i < n; i++) {
+            double x = (correct[i] ? 1 : 0) - meanX;
+            double y = totals[i] - meanY;
+            covariance += x * y;
+            varianceX += x * x;
+            varianceY += y * y;
+        }
+        return covariance / Math.sqrt(varianceX * varianceY);
+    }
+}
@@ -0,0 +1,74 @@
+package com.digitalelectronics.quiz.service;
+
+import com.digitalelectronics.quiz.dto.AttemptCompleted;
+import com.digitalelectronics.quiz.model.Profile;
+import com.digitalelectronics.quiz.repository.ProfileRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProfileServiceTest {
+    
+    private static final LocalDateTime MONDAY_EVENING = LocalDateTime.of(2026, 3, 2, 23, 50);
+    
+    private final ProfileRepository profileRepository = mock(ProfileRepository.class);
+    private final ProfileService profileService = new ProfileService(profileRepository, event -> { });
+    private final Profile profile = new Profile();
+    
+    @BeforeEach
+    void setUp() {
+        profile.setId(UUID.randomUUID());
+        profile.setCurrentStreak(4);
+        profile.setLongestStreak(4);
+        profile.setLastQuizDate(MONDAY_EVENING.minusDays(1));
+        when(profileRepository.findById(profile.getId())).thenReturn(Optional.of(profile));
+    }
+    
+    @Test
+    void streakFollowsCompletionTimeNotDeliveryTime() {
+        // Finished Monday, delivered after midnight by a retry: still extends Sunday's streak
+        profileService.handle(completed(MONDAY_EVENING));
+        
+        assertThat(profile.getCurrentStreak()).isEqualTo(5);
+        assertThat(profile.getLongestStreak()).isEqualTo(5);
+        assertThat(profile.getLastQuizDate()).isEqualTo(MONDAY_EVENING);
+    }
+    
+    @Test
+    void sameDayAttemptKeepsTheStreak() {
+        profileService.handle(completed(MONDAY_EVENING));
+        profileService.handle(completed(MONDAY_EVENING.minusHours(2)));
+        
+        assertThat(profile.getCurrentStreak()).isEqualTo(5);
+        assertThat(profile.getLastQuizDate()).isEqualTo(MONDAY_EVENING);
+        assertThat(profile.getQuizzesCompleted()).isEqualTo(2);
+    }
+    
+    @Test
+    void attemptDeliveredAfterALaterOneDoesNotRewindTheStreak() {
+        profileService.handle(completed(MONDAY_EVENING.plusDays(1)));
+        profileService.handle(completed(MONDAY_EVENING));
+        
+        assertThat(profile.getCurrentStreak()).isEqualTo(1);
+        assertThat(profile.getLastQuizDate()).isEqualTo(MONDAY_EVENING.plusDays(1));
+    }
+    
+    @Test
+    void missedDayRestartsTheStreak() {
+        profileService.handle(completed(MONDAY_EVENING.plusDays(1)));
+        
+        assertThat(profile.getCurrentStreak()).isEqualTo(1);
+        assertThat(profile.getLongestStreak()).isEqualTo(4);
+    }
+    
+    private AttemptCompleted completed(LocalDateTime completedAt) {
+        return new AttemptCompleted(UUID.randomUUID(), profile.getId(), UUID.randomUUID(), 10, completedAt);
+    }
+}
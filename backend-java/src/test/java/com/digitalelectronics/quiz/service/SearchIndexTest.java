@@ -0,0 +1,148 @@
+package com.digitalelectronics.quiz.service;
+
+import com.digitalelectronics.quiz.dto.SearchHit;
+import com.digitalelectronics.quiz.model.Question;
+import com.digitalelectronics.quiz.model.Quiz;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchIndexTest {
+    
+    private final int[][] rows = new int[3][34];
+    
+    @Test
+    void hyphenatedWordsYieldPartsAndJoinedForm() {
+        assertThat(SearchIndex.tokens("flip-flop")).containsExactly("flip", "flop", "flipflop");
+        assertThat(SearchIndex.tokens("JK Flip-Flops")).containsExactly("jk", "flip", "flop", "flipflop");
+        // A trailing hyphen joins nothing
+        assertThat(SearchIndex.tokens("half- adder")).containsExactly("half", "adder");
+    }
+    
+    @Test
+    void tokensDropShortWordsAndPluralS() {
+        assertThat(SearchIndex.tokens("A 4 bit adder, 2 gates")).containsExactly("4", "bit", "adder", "2", "gate");
+        // Short words and double-s endings keep their s
+        assertThat(SearchIndex.tokens("bus class")).containsExactly("bus", "class");
+        assertThat(SearchIndex.tokens(null)).isEmpty();
+    }
+    
+    @Test
+    void distanceCountsEditsAndTranspositions() {
+        assertThat(SearchIndex.distance("gate", "gate", 2, rows)).isZero();
+        assertThat(SearchIndex.distance("gate", "gale", 2, rows)).isEqualTo(1);
+        assertThat(SearchIndex.distance("gate", "gaet", 2, rows)).isEqualTo(1);
+        assertThat(SearchIndex.distance("counter", "countr", 2, rows)).isEqualTo(1);
+        assertThat(SearchIndex.distance("latch", "clatch", 2, rows)).isEqualTo(1);
+        assertThat(SearchIndex.distance("decoder", "encoder", 2, rows)).isEqualTo(2);
+    }
+    
+    @Test
+    void distanceGivesUpPastTheCutoff() {
+        assertThat(SearchIndex.distance("decoder", "encoder", 1, rows)).isEqualTo(2);
+        // Length difference alone exceeds the cutoff
+        assertThat(SearchIndex.distance("nor", "register", 2, rows)).isEqualTo(3);
+        assertThat(SearchIndex.distance("abcdefgh", "stuvwxyz", 2, rows)).isEqualTo(3);
+    }
+    
+    @Test
+    void exactMatchOutranksPrefix() {
+        SearchIndex index = SearchIndex.build(List.of(
+            document("Gales", "weather"),
+            document("Gated clocks", "timing"),
+            document("Logic gates", "combinational")), 50);
+        
+        List<SearchHit> hits = index.search("gate", 10);
+        
+        // Typos are only tried for terms the index does not contain, so "gale" is not matched
+        assertThat(hits).extracting(SearchHit::getTitle).containsExactly("Logic gates", "Gated clocks");
+    }
+    
+    @Test
+    void prefixOutranksTypo() {
+        SearchIndex index = SearchIndex.build(List.of(
+            document("Late signals", "timing"),
+            document("Latch circuits", "memory")), 50);
+        
+        List<SearchHit> hits = index.search("latc", 10);
+        
+        assertThat(hits).extracting(SearchHit::getTitle).containsExactly("Latch circuits", "Late signals");
+        assertThat(hits.get(0).getScore()).isGreaterThan(hits.get(1).getScore());
+    }
+    
+    @Test
+    void titleOutranksQuestionTextAndReportsTheMatchedQuestion() {
+        SearchIndex index = SearchIndex.build(List.of(
+            document("Sequential logic", "memory", "What does a flip-flop store?"),
+            document("Flip-flops and latches", "memory")), 50);
+        
+        List<SearchHit> hits = index.search("flip-flop", 10);
+        
+        assertThat(hits).extracting(SearchHit::getTitle).containsExactly("Flip-flops and latches", "Sequential logic");
+        assertThat(hits.get(0).getMatchedQuestion()).isNull();
+        assertThat(hits.get(1).getMatchedQuestion()).isEqualTo("What does a flip-flop store?");
+    }
+    
+    @Test
+    void matchingMoreQueryTermsOutranksAStrongerSingleMatch() {
+        SearchIndex index = SearchIndex.build(List.of(
+            document("Nand gates", "nand"),
+            document("Nand latch", "memory"),
+            document("Counters", "sequential")), 50);
+        
+        List<SearchHit> hits = index.search("nand latch", 10);
+        
+        assertThat(hits).extracting(SearchHit::getTitle).containsExactly("Nand latch", "Nand gates");
+    }
+    
+    @Test
+    void typoMatchesNeedFourLettersAndMissesAreEmpty() {
+        SearchIndex index = SearchIndex.build(List.of(
+            document("Counter design", "sequential"),
+            document("Bus arbitration", "interfaces")), 50);
+        
+        assertThat(index.search("countr", 10)).extracting(SearchHit::getTitle).containsExactly("Counter design");
+        assertThat(index.search("cuonter", 10)).extracting(SearchHit::getTitle).containsExactly("Counter design");
+        assertThat(index.search("bux", 10)).isEmpty();
+        assertThat(index.search("xyz", 10)).isEmpty();
+        assertThat(index.search("  ", 10)).isEmpty();
+    }
+    
+    @Test
+    void prefixExpansionIsCappedAndResultsAreLimited() {
+        List<SearchIndex.Document> documents = new ArrayList<>();
+        documents.add(document("Countdown timers", "timing"));
+        documents.add(document("Counter chips", "sequential"));
+        for (int i = 0; i < 5; i++) {
+            documents.add(document("Register file " + i, "memory"));
+        }
+        
+        // Terms are sorted, so the single allowed expansion of "count" is "countdown"
+        SearchIndex capped = SearchIndex.build(documents, 1);
+        assertThat(capped.search("count", 10)).extracting(SearchHit::getTitle).containsExactly("Countdown timers");
+        
+        SearchIndex index = SearchIndex.build(documents, 50);
+        assertThat(index.search("count", 10)).hasSize(2);
+        assertThat(index.search("register", 3)).hasSize(3);
+        assertThat(index.documentCount()).isEqualTo(7);
+    }
+    
+    private static SearchIndex.Document document(String title, String category, String... questionTexts) {
+        Quiz quiz = new Quiz();
+        quiz.setId(UUID.randomUUID());
+        quiz.setTitle(title);
+        quiz.setCategory(category);
+        quiz.setDifficulty("easy");
+        List<Question> questions = new ArrayList<>();
+        for (String text : questionTexts) {
+            Question question = new Question();
+            question.setQuestionText(text);
+            questions.add(question);
+        }
+        return SearchIndex.Document.of(quiz, questions);
+    }
+}
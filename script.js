@@ -4065,23 +4065,60 @@ class QuizSystem {
       const queryParams = new URLSearchParams(filters).toString()
       const response = await fetch(`${this.baseURL}/quiz?${queryParams}`)
       const data = await response.json()
+      if (filters.category) {
+        // Keep the offline copy of this category current in the background
+        this.syncQuizPack(filters.category)
+      }
       return data.success ? data.data : { quizzes: [], pagination: {} }
     } catch (error) {
       console.error('Error fetching quizzes:', error)
-      // Fallback to demo mode if server is down
-      console.log('🎮 Falling back to demo quizzes');
+      // Fallback to the last synced pack, then demo mode, if server is down
+      const offline = this.getOfflineQuizzes(filters.category)
+      const quizzes = offline.length > 0 ? offline : DEMO_QUIZZES
+      console.log(offline.length > 0 ? '📦 Falling back to offline quiz pack' : '🎮 Falling back to demo quizzes');
       return { 
-        quizzes: DEMO_QUIZZES, 
+        quizzes: quizzes, 
         pagination: { 
           currentPage: 1, 
           totalPages: 1, 
-          totalQuizzes: DEMO_QUIZZES.length,
+          totalQuizzes: quizzes.length,
           limit: 10 
         } 
       };
     }
   }
 
+  // Offline packs: published quizzes of a category without answers, synced by version
+  async syncQuizPack(category) {
+    const key = `quizPack:${category}`
+    try {
+      const stored = JSON.parse(localStorage.getItem(key) || 'null')
+      const since = stored ? stored.version : 0
+      const response = await fetch(`${this.baseURL}/quiz/packs/${encodeURIComponent(category)}?since=${since}`)
+      if (response.status === 404) {
+        localStorage.removeItem(key)
+        return
+      }
+      if (!response.ok) return
+      const pack = await response.json()
+      const byId = new Map((pack.full || !stored ? [] : stored.quizzes).map(quiz => [quiz.id, quiz]))
+      pack.quizzes.forEach(quiz => byId.set(quiz.id, quiz))
+      const quizzes = pack.quizIds.filter(id => byId.has(id)).map(id => byId.get(id))
+      localStorage.setItem(key, JSON.stringify({ version: pack.version, quizzes }))
+    } catch (error) {
+      console.warn('Could not sync quiz pack:', category, error)
+    }
+  }
+
+  getOfflineQuizzes(category) {
+    const keys = category ? [`quizPack:${category}`]
+      : Object.keys(localStorage).filter(key => key.startsWith('quizPack:'))
+    return keys.flatMap(key => {
+      const stored = JSON.parse(localStorage.getItem(key) || 'null')
+      return stored ? stored.quizzes.map(quiz => ({ ...quiz, _id: quiz.id })) : []
+    })
+  }
+
   async getQuiz(quizId) {
     // Demo mode - find quiz in demo data
     if (isDemoMode()) {
@@ -4130,7 +4167,7 @@ class QuizSystem {
           'Content-Type': 'application/json',
           ...window.authSystem.getAuthHeaders()
         },
-        body: JSON.stringify({ questionId, answer, timeSpent })
+        body: JSON.stringify({ attemptId: this.currentAttempt?.id, questionId, answer, timeSpent })
       })
       const data = await response.json()
       return data.success ? data.data : null
@@ -4144,7 +4181,11 @@ class QuizSystem {
     try {
       const response = await fetch(`${this.baseURL}/quiz/${quizId}/submit`, {
         method: 'POST',
-        headers: window.authSystem.getAuthHeaders()
+        headers: {
+          'Content-Type': 'application/json',
+          ...window.authSystem.getAuthHeaders()
+        },
+        body: JSON.stringify({ attemptId: this.currentAttempt?.id })
       })
       const data = await response.json()
       return data.success ? data.data : null
@@ -4898,6 +4939,15 @@ class UserDashboardModule extends LearningModule {
         // Load real user data from API
         const userData = await window.authSystem?.getCurrentUser()
         if (userData) {
+          const summary = await this.loadProgressSummary(userData.userId || userData.id)
+          if (summary) {
+            userData.stats = {
+              ...userData.stats,
+              totalQuizzes: summary.overall.attempts,
+              totalScore: summary.totalPoints,
+              averageScore: summary.overall.averageScore
+            }
+          }
           this.displayUserData(userData)
         }
       } catch (error) {
@@ -4907,6 +4957,20 @@ class UserDashboardModule extends LearningModule {
     }
   }
 
+  // Server-side aggregates, so the dashboard never downloads the full attempt history
+  async loadProgressSummary(userId) {
+    if (!userId) return null
+    try {
+      const response = await fetch(`${window.quizSystem.baseURL}/user/stats/${userId}/summary`, {
+        headers: window.authSystem?.getAuthHeaders() || {}
+      })
+      return response.ok ? await response.json() : null
+    } catch (error) {
+      console.error('Error loading progress summary:', error)
+      return null
+    }
+  }
+
   displayUserData(user) {
     document.getElementById('user-name').textContent = user.name
     document.getElementById('user-email').textContent = user.email